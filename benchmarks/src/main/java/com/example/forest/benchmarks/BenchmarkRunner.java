@@ -0,0 +1,43 @@
+package com.example.forest.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkRunner.java
+ *
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line (benchmark regex,
+ * {@code -f}, {@code -prof gc}, ...) and, unless {@code -rf}/{@code -rff} are given, writes the
+ * results as JSON to {@code target/jmh-results.json} (or {@code -Dbenchmarks.results=<file>}),
+ * so runs can be compared and tracked over time.
+ */
+public final class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULTS = "target/jmh-results.json";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        OptionsBuilder options = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include("com\\.example\\.forest\\..*Benchmark");
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(System.getProperty("benchmarks.results", DEFAULT_RESULTS));
+        }
+
+        Options merged = options.parent(commandLine).build();
+        new Runner(merged).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.forest.benchmarks;
+
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.service.FeedMerge;
+import com.example.forest.service.FeedService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FeedMergeBenchmark.java
+ *
+ * Merges a user's own posts with the posts of their followed subreddits with {@link FeedMerge},
+ * as {@link FeedService#getMyFeed()} does before mapping. Half of the user's posts also appear
+ * among the subreddit posts, so deduplication has real work to do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeedMergeBenchmark {
+
+    private static final int OWN_POSTS = 20;
+
+    @Param({"100", "1000"})
+    private int interestPosts;
+
+    private List<MongoPostDocument> userPosts;
+    private List<MongoPostDocument> subredditPosts;
+
+    @Setup
+    public void setUp() {
+        MongoUserDocument user = Fixtures.user("alice");
+        userPosts = Fixtures.posts(OWN_POSTS, 0, user);
+        subredditPosts = Fixtures.posts(interestPosts, OWN_POSTS / 2, user);
+    }
+
+    @Benchmark
+    public List<MongoPostDocument> merge() {
+        return FeedMerge.merge(userPosts, subredditPosts);
+    }
+}
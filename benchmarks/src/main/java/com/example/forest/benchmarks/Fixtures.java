@@ -0,0 +1,278 @@
+package com.example.forest.benchmarks;
+
+import com.example.forest.document.MongoCommentDocument;
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoSubredditDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.document.MongoVoteDocument;
+import com.example.forest.model.Role;
+import com.example.forest.repository.mongodb.MongoCommentRepository;
+import com.example.forest.repository.mongodb.MongoPostRepository;
+import com.example.forest.repository.mongodb.MongoUserRepository;
+import com.example.forest.repository.mongodb.MongoVoteRepository;
+import com.example.forest.security.JwtService;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.mongodb.client.result.UpdateResult;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Fixtures.java
+ *
+ * Deterministic test data and in-memory stand-ins for the MongoDB repositories used by the
+ * benchmarks, so every run measures the same work without a database.
+ * <p>
+ * Repository fakes are dynamic proxies implementing only the finder methods the benchmarked
+ * code calls; any other repository method throws, so a benchmark can never silently measure
+ * an unexpected code path.
+ */
+public final class Fixtures {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates an enabled user.
+     *
+     * @param username The username; also used to derive the id and email.
+     * @return The user.
+     */
+    public static MongoUserDocument user(String username) {
+        MongoUserDocument user = new MongoUserDocument();
+        user.setId(hexId(username.hashCode()));
+        user.setUsername(username);
+        user.setPassword("{noop}password");
+        user.setEmail(username + "@forest.test");
+        user.setCreated(NOW.minus(365, ChronoUnit.DAYS));
+        user.setEnabled(true);
+        user.setRole(Role.USER);
+        user.setInterests(Set.of("java", "spring"));
+        return user;
+    }
+
+    /**
+     * Creates a subreddit owned by the given user.
+     */
+    public static MongoSubredditDocument subreddit(String name, MongoUserDocument owner) {
+        MongoSubredditDocument subreddit = new MongoSubredditDocument();
+        subreddit.setId(hexId(name.hashCode()));
+        subreddit.setName(name);
+        subreddit.setDescription("All about " + name);
+        subreddit.setCreatedDate(NOW.minus(30, ChronoUnit.DAYS));
+        subreddit.setUser(owner);
+        return subreddit;
+    }
+
+    /**
+     * Creates {@code count} text posts spread over a few subreddits, one minute apart.
+     *
+     * @param count  The number of posts.
+     * @param offset The index of the first post, so separate lists can overlap or not.
+     * @param author The author of every post.
+     * @return The posts, newest first.
+     */
+    public static List<MongoPostDocument> posts(int count, int offset, MongoUserDocument author) {
+        List<MongoSubredditDocument> subreddits = List.of(
+                subreddit("java", author), subreddit("spring", author), subreddit("mongodb", author));
+        List<MongoPostDocument> posts = new ArrayList<>(count);
+        for (int i = offset; i < offset + count; i++) {
+            posts.add(MongoPostDocument.builder()
+                    .id(hexId(i))
+                    .postName("Post " + i)
+                    .url("https://forest.test/posts/" + i)
+                    .description("Description of post " + i + " with a few words of body text.")
+                    .voteCount(i % 50)
+                    .user(author)
+                    .createdDate(NOW.minus(i, ChronoUnit.MINUTES))
+                    .subreddit(subreddits.get(i % subreddits.size()))
+                    .build());
+        }
+        return posts;
+    }
+
+    /**
+     * Creates {@code perPost} comments for each post.
+     *
+     * @return The comments, keyed by post id.
+     */
+    public static Map<String, List<MongoCommentDocument>> comments(List<MongoPostDocument> posts, int perPost) {
+        Map<String, List<MongoCommentDocument>> comments = new HashMap<>();
+        for (MongoPostDocument post : posts) {
+            List<MongoCommentDocument> postComments = new ArrayList<>(perPost);
+            for (int i = 0; i < perPost; i++) {
+                MongoCommentDocument comment = new MongoCommentDocument();
+                comment.setId(post.getId() + "-" + i);
+                comment.setText("Comment " + i);
+                comment.setPost(post);
+                comment.setUser(post.getUser());
+                comment.setCreatedDate(post.getCreatedDate().plusSeconds(i));
+                postComments.add(comment);
+            }
+            comments.put(post.getId(), postComments);
+        }
+        return comments;
+    }
+
+    /**
+     * In-memory {@link MongoUserRepository} supporting {@code findByUsername}.
+     */
+    public static MongoUserRepository userRepository(MongoUserDocument... users) {
+        Map<String, MongoUserDocument> byUsername = new HashMap<>();
+        for (MongoUserDocument user : users) {
+            byUsername.put(user.getUsername(), user);
+        }
+        return repository(MongoUserRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findByUsername" -> Optional.ofNullable(byUsername.get((String) args[0]));
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    /**
+     * In-memory {@link MongoCommentRepository} supporting {@code findByPost}.
+     */
+    public static MongoCommentRepository commentRepository(Map<String, List<MongoCommentDocument>> commentsByPost) {
+        return repository(MongoCommentRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findByPost" -> commentsByPost.getOrDefault(((MongoPostDocument) args[0]).getId(), Collections.emptyList());
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    /**
+     * In-memory {@link MongoPostRepository} supporting {@code findById}.
+     */
+    public static MongoPostRepository postRepository(List<MongoPostDocument> posts) {
+        Map<String, MongoPostDocument> byId = new HashMap<>();
+        posts.forEach(post -> byId.put(post.getId(), post));
+        return repository(MongoPostRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findById" -> Optional.ofNullable(byId.get((String) args[0]));
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    /**
+     * In-memory {@link MongoVoteRepository} supporting {@code findTopByPostAndUserOrderByIdDesc},
+     * {@code save} and {@code deleteById}, holding at most one vote per post and user. Not thread-safe.
+     */
+    public static MongoVoteRepository voteRepository() {
+        Map<String, MongoVoteDocument> byPostAndUser = new HashMap<>();
+        Map<String, String> keysById = new HashMap<>();
+        long[] nextId = {0};
+        return repository(MongoVoteRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "findTopByPostAndUserOrderByIdDesc" -> Optional.ofNullable(byPostAndUser.get(
+                    ((MongoPostDocument) args[0]).getId() + "/" + ((MongoUserDocument) args[1]).getId()));
+            case "save" -> {
+                MongoVoteDocument vote = (MongoVoteDocument) args[0];
+                if (vote.getId() == null) {
+                    vote.setId(hexId((int) ++nextId[0]));
+                }
+                String key = vote.getPost().getId() + "/" + vote.getUser().getId();
+                byPostAndUser.put(key, vote);
+                keysById.put(vote.getId(), key);
+                yield vote;
+            }
+            case "deleteById" -> {
+                String key = keysById.remove((String) args[0]);
+                if (key != null) {
+                    byPostAndUser.remove(key);
+                }
+                yield null;
+            }
+            default -> unsupported(proxy, method.getName(), args);
+        });
+    }
+
+    /**
+     * {@link MongoTemplate} whose {@code updateFirst} acknowledges one matched and modified document
+     * without writing anything, for code paths that finish with an in-place update such as a vote
+     * count change. The update is still built by the caller; only its evaluation by MongoDB is left
+     * out. Every other operation fails, as its database factory fakes nothing else.
+     */
+    public static MongoTemplate updateOnlyTemplate() {
+        MongoDatabaseFactory factory = repository(MongoDatabaseFactory.class, (proxy, method, args) ->
+                method.getName().equals("getExceptionTranslator")
+                        ? new MongoExceptionTranslator()
+                        : unsupported(proxy, method.getName(), args));
+        return new MongoTemplate(factory) {
+            @Override
+            public UpdateResult updateFirst(Query query, UpdateDefinition update, Class<?> entityClass) {
+                return UpdateResult.acknowledged(1, 1L, null);
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link JwtService} signing with a freshly generated RSA key pair, the same way
+     * {@code ApplicationConfig} wires the encoder and decoder from the configured keys.
+     *
+     * @param expirationMillis The access token lifetime.
+     * @param users            The users the service can issue tokens for.
+     * @return The service.
+     */
+    public static JwtService jwtService(long expirationMillis, MongoUserDocument... users) {
+        KeyPair keyPair = rsaKeyPair();
+        RSAKey rsaKey = new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .build();
+        NimbusJwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)));
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+
+        JwtService jwtService = new JwtService(encoder, decoder, userRepository(users));
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationInMillis", expirationMillis);
+        return jwtService;
+    }
+
+    private static KeyPair rsaKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("RSA is not available", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, InvocationHandler finders) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, finders);
+    }
+
+    private static Object unsupported(Object proxy, String method, Object[] args) {
+        return switch (method) {
+            case "toString" -> "InMemory" + proxy.getClass().getInterfaces()[0].getSimpleName();
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> throw new UnsupportedOperationException(method + " is not faked");
+        };
+    }
+
+    private static String hexId(int seed) {
+        return String.format("%024x", seed & 0xffffffffL);
+    }
+}
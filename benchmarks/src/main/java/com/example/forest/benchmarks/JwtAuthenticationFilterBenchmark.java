@@ -0,0 +1,80 @@
+package com.example.forest.benchmarks;
+
+import com.example.forest.config.JwtAuthenticationFilter;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.security.JwtService;
+import com.example.forest.service.UserDetailsServiceImplementation;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtAuthenticationFilterBenchmark.java
+ *
+ * Runs one request through {@link JwtAuthenticationFilter}, end to end: header parsing, token
+ * decoding and validation, the user lookup through {@link UserDetailsServiceImplementation}
+ * (backed by an in-memory repository) and populating the security context. Requests without a
+ * token measure the pass-through cost paid by anonymous traffic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        MongoUserDocument user = Fixtures.user("alice");
+        JwtService jwtService = Fixtures.jwtService(TimeUnit.HOURS.toMillis(1), user);
+        filter = new JwtAuthenticationFilter(jwtService,
+                new UserDetailsServiceImplementation(Fixtures.userRepository(user)));
+        authorization = "Bearer " + jwtService.generateTokenWithUserName(user.getUsername());
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/feed");
+        request.addHeader("Authorization", authorization);
+        return filter(request);
+    }
+
+    @Benchmark
+    public Authentication anonymousRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/mongo/posts/");
+        return filter(request);
+    }
+
+    /**
+     * Filters the request and clears the security context afterwards, so each request starts
+     * unauthenticated as on a fresh request thread.
+     */
+    private Authentication filter(MockHttpServletRequest request) throws ServletException, IOException {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.forest.benchmarks;
+
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtBenchmark.java
+ *
+ * Issues and decodes access tokens with {@link JwtService}, signed RS256 with a 2048-bit key as
+ * in production. Issuing a token looks the user up in an in-memory repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String USERNAME = "alice";
+
+    private JwtService jwtService;
+    private String token;
+    private UserDetails userDetails;
+
+    @Setup
+    public void setUp() {
+        MongoUserDocument user = Fixtures.user(USERNAME);
+        jwtService = Fixtures.jwtService(TimeUnit.HOURS.toMillis(1), user);
+        token = jwtService.generateTokenWithUserName(USERNAME);
+        userDetails = User.withUsername(USERNAME).password(user.getPassword()).authorities("USER").build();
+    }
+
+    @Benchmark
+    public String generateTokenWithUserName() {
+        return jwtService.generateTokenWithUserName(USERNAME);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    /**
+     * Full validation as done per request: decodes the token twice (subject, then expiry).
+     */
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, userDetails);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.forest.benchmarks;
+
+import com.example.forest.service.MailContentBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MailContentBuilderBenchmark.java
+ *
+ * Renders the registration confirmation mail with {@link MailContentBuilder}, using a template
+ * engine configured like Spring Boot's default ({@code classpath:/templates/}, cached).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MailContentBuilderBenchmark {
+
+    private MailContentBuilder mailContentBuilder;
+
+    @Setup
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        mailContentBuilder = new MailContentBuilder(templateEngine);
+    }
+
+    @Benchmark
+    public String build() {
+        return mailContentBuilder.build(
+                "http://localhost:8080/api/auth/accountVerification/3f1c2a7e-9b4d-4e8a-a2f1-6c0d9e7b5a13",
+                "alice",
+                "alice@forest.test");
+    }
+}
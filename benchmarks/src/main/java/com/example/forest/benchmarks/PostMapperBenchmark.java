@@ -0,0 +1,64 @@
+package com.example.forest.benchmarks;
+
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.dto.PostResponse;
+import com.example.forest.mapper.MongoPostMapper;
+import com.example.forest.mapper.MongoPostMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostMapperBenchmark.java
+ *
+ * Maps a listing of posts to {@link PostResponse}s with the generated {@link MongoPostMapper},
+ * as every post endpoint does. The comment count lookup goes to an in-memory repository, so
+ * the score is the mapping cost alone, without the query it issues per post.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostMapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private MongoPostMapper mapper;
+    private List<MongoPostDocument> posts;
+
+    @Setup
+    public void setUp() {
+        MongoUserDocument author = Fixtures.user("alice");
+        posts = Fixtures.posts(size, 0, author);
+
+        mapper = new MongoPostMapperImpl();
+        ReflectionTestUtils.setField(mapper, "commentRepository",
+                Fixtures.commentRepository(Fixtures.comments(posts, 3)));
+    }
+
+    @Benchmark
+    public List<PostResponse> mapToDto() {
+        List<PostResponse> responses = new ArrayList<>(posts.size());
+        for (MongoPostDocument post : posts) {
+            responses.add(mapper.mapToDto(post));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.forest.benchmarks;
+
+import com.example.forest.config.TokenBuckets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * RateLimiterBenchmark.java
+ *
+ * One rate limit decision in {@link TokenBuckets}, as made by {@code RateLimitFilter} on every
+ * limited request: for a client with a bucket, with several threads deciding at once, and for
+ * a new client arriving when the buckets are full, which now and then pays for evicting a batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private String[] keys;
+    private TokenBuckets buckets;
+    private TokenBuckets fullBuckets;
+
+    /**
+     * Per-thread position in the client list, and a counter for new clients.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+        private long fresh;
+
+        int next() {
+            next = (next + 1) % CLIENTS;
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        keys = IntStream.range(0, CLIENTS).mapToObj(i -> "user:user" + i).toArray(String[]::new);
+        buckets = new TokenBuckets(1_000, 1_000, 100_000, TimeUnit.MINUTES.toNanos(10));
+        fullBuckets = new TokenBuckets(1_000, 1_000, CLIENTS, TimeUnit.MINUTES.toNanos(10));
+        for (String key : keys) {
+            buckets.tryAcquire(key);
+            fullBuckets.tryAcquire(key);
+        }
+    }
+
+    @Benchmark
+    public long decide(Cursor cursor) {
+        return buckets.tryAcquire(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long decideContended(Cursor cursor) {
+        return buckets.tryAcquire(keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public long newClientWhenFull(Cursor cursor) {
+        return fullBuckets.tryAcquire("ip:10.0." + cursor.next() + "." + cursor.fresh++);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.forest.benchmarks;
+
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.dto.VoteDto;
+import com.example.forest.model.VoteType;
+import com.example.forest.service.AuthService;
+import com.example.forest.service.HotScore;
+import com.example.forest.service.MongoVoteService;
+import com.example.forest.service.VoteStateService;
+import com.example.forest.service.VoteVelocityTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VoteUpdateBenchmark.java
+ *
+ * {@link MongoVoteService#vote(VoteDto)} with in-memory repositories from {@link Fixtures}: the
+ * real toggle logic (new vote, switch, undo in turn on each post), the vote count update built for
+ * MongoDB, vote state cache and {@link VoteVelocityTracker}, without the database round trips.
+ * The count and hot score are moved by MongoDB itself, so {@link #hotScore} measures the score
+ * formula separately. The tracker is also
+ * measured on its own with several threads voting at once, since it is shared by all request
+ * threads. It is never seeded, so it needs no database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoteUpdateBenchmark {
+
+    private static final int POSTS = 1_000;
+
+    private List<MongoPostDocument> posts;
+    private VoteVelocityTracker velocityTracker;
+    private MongoVoteService voteService;
+
+    /**
+     * Per-thread position in the post list, so threads vote on different posts in turn.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+        private int round;
+
+        int next() {
+            next = (next + 1) % POSTS;
+            if (next == 0) {
+                round++;
+            }
+            return next;
+        }
+
+        /**
+         * Up, down, down: a new vote, a switch, then an undo of each post in turn.
+         */
+        VoteType voteType() {
+            return round % 3 == 0 ? VoteType.UPVOTE : VoteType.DOWNVOTE;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        MongoUserDocument alice = Fixtures.user("alice");
+        posts = Fixtures.posts(POSTS, 0, alice);
+        velocityTracker = new VoteVelocityTracker(null, 50_000);
+
+        // The vote path reads the current user from the security context, whichever thread JMH runs it on
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(alice.getUsername(), null, List.of()));
+        AuthService authService = new AuthService(null, Fixtures.userRepository(alice),
+                null, null, null, null, null, null, null);
+        VoteStateService voteStateService = new VoteStateService(null, true, 10_000, 1_000, Duration.ofMinutes(5));
+        voteService = new MongoVoteService(Fixtures.voteRepository(), Fixtures.postRepository(posts),
+                authService, voteStateService, velocityTracker, Fixtures.updateOnlyTemplate(), 500);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_THREADLOCAL);
+    }
+
+    @Benchmark
+    public void vote(Cursor cursor) {
+        voteService.vote(new VoteDto(cursor.voteType(), posts.get(cursor.next()).getId()));
+    }
+
+    @Benchmark
+    public double hotScore(Cursor cursor) {
+        MongoPostDocument post = posts.get(cursor.next());
+        return HotScore.of(post.getVoteCount(), post.getCreatedDate());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordVelocityContended(Cursor cursor) {
+        velocityTracker.record(posts.get(cursor.next()).getId(), 1);
+    }
+}
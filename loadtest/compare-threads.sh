@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# ============================================================
+# 🧵 Platform vs virtual threads at 1200 sessions
+# ============================================================
+# Runs the load test twice with the "threads" profile, first on
+# platform threads and then on virtual threads, and prints the TOTAL
+# throughput and latency percentiles of both runs. Full reports are
+# written to loadtest/target/threads-platform.json and
+# loadtest/target/threads-virtual.json.
+#
+# Requires a Java 21+ runtime: on Java 17 the virtual-threads switch
+# is ignored and both runs would measure platform threads.
+#
+# Usage (from the project root, after mvn install -DskipTests and
+# mvn -f loadtest/pom.xml package):
+#   loadtest/compare-threads.sh [extra --name=value overrides]
+# ============================================================
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+version=$(java -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java.specification.version = //p')
+if [ "${version%%.*}" -lt 21 ]; then
+  echo "Java ${version} cannot run virtual threads; use a Java 21+ runtime (JAVA_HOME / PATH)." >&2
+  exit 1
+fi
+
+run() {
+  local mode=$1 virtual=$2
+  shift 2
+  java -jar target/loadtest.jar \
+    --spring.profiles.active=threads \
+    --spring.threads.virtual.enabled="${virtual}" \
+    --loadtest.data.reset=true \
+    --loadtest.report="target/threads-${mode}.json" \
+    "$@" | tee "target/threads-${mode}.log"
+}
+
+run platform false "$@"
+run virtual true "$@"
+
+echo
+echo "Java ${version}, 1200 sessions (see application-threads.yml)"
+grep -m 1 '^endpoint' target/threads-platform.log | sed 's/^/          /'
+for mode in platform virtual; do
+  printf '%-9s %s\n' "${mode}" "$(grep -m 1 '^TOTAL' "target/threads-${mode}.log")"
+done
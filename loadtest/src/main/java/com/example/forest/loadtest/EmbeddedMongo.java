@@ -0,0 +1,70 @@
+package com.example.forest.loadtest;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * EmbeddedMongo.java
+ *
+ * Points the application at the MongoDB stand-in before any bean is created: the server named
+ * by {@code loadtest.mongo.uri} if set, otherwise a local {@code mongod} of version
+ * {@code loadtest.mongo.version} started for this run and stopped when the context closes.
+ * <p>
+ * The embedded server is a standalone instance, so Mongo transactions stay disabled and the
+ * subreddit directory and search indexes poll instead of following change streams; use
+ * {@code loadtest.mongo.uri} with a replica set to load-test those paths.
+ */
+@Slf4j
+public class EmbeddedMongo implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    private static final String DATABASE = "forest-loadtest";
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        ConfigurableEnvironment environment = context.getEnvironment();
+        String uri = environment.getProperty("loadtest.mongo.uri", "");
+        if (uri.isBlank()) {
+            String version = environment.getProperty("loadtest.mongo.version", "7.0");
+            TransitionWalker.ReachedState<RunningMongodProcess> mongod = Mongod.instance().start(versionOf(version));
+            ServerAddress address = mongod.current().getServerAddress();
+            // ServerAddress prints as host:port
+            uri = "mongodb://" + address + "/" + DATABASE;
+            log.info("🍃 Embedded mongod {} started at {}", version, address);
+
+            context.addApplicationListener(event -> {
+                if (event instanceof ContextClosedEvent) {
+                    mongod.close();
+                    log.info("🍃 Embedded mongod stopped");
+                }
+            });
+        } else {
+            log.info("🍃 Using MongoDB at {}", uri);
+        }
+
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("loadtestMongo", Map.of("spring.data.mongodb.uri", uri)));
+    }
+
+    /**
+     * Maps {@code "7.0"} to {@link Version.Main#V7_0}.
+     */
+    private static Version.Main versionOf(String version) {
+        try {
+            return Version.Main.valueOf("V" + version.trim().replace('.', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unsupported embedded MongoDB version: " + version, e);
+        }
+    }
+}
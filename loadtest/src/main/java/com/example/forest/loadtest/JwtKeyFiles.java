@@ -0,0 +1,56 @@
+package com.example.forest.loadtest;
+
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * JwtKeyFiles.java
+ *
+ * Generates a throwaway RSA key pair for the run and writes it as PEM files where
+ * {@code ApplicationConfig} expects the configured signing keys, so the load test needs no
+ * real keys.
+ */
+public class JwtKeyFiles implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    @Override
+    public void initialize(ConfigurableApplicationContext context) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keyPair = generator.generateKeyPair();
+
+            Path directory = Files.createTempDirectory("forest-loadtest-keys");
+            directory.toFile().deleteOnExit();
+            Path publicKey = write(directory.resolve("public.key"), "PUBLIC KEY", keyPair.getPublic().getEncoded());
+            Path privateKey = write(directory.resolve("private.key"), "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+
+            context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("loadtestKeys", Map.of(
+                    "jwt.public.key-path", publicKey.toString(),
+                    "jwt.private.key-path", privateKey.toString())));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("RSA is not available", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the load test JWT keys", e);
+        }
+    }
+
+    private static Path write(Path file, String type, byte[] der) throws IOException {
+        String pem = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        Files.writeString(file, pem);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.forest.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * LoadDriver.java
+ *
+ * Closed-loop HTTP load generator: each of {@code sessions} logged-in users sends one request
+ * at a time, picked from a weighted mix of feed reads, listings, post and comment reads,
+ * searches, votes, new posts, trending and chat. Targets follow the same {@link Zipf}
+ * popularity as the generated data, so popular posts and subreddits get most of the traffic.
+ * <p>
+ * Requests sent during the warm-up are not recorded. Each recorded request is timed from
+ * sending to reading the whole response and reported per endpoint in a {@link LoadReport}.
+ */
+@Slf4j
+public class LoadDriver {
+
+    /**
+     * A kind of request, named as in {@code loadtest.traffic.mix}.
+     */
+    enum Operation {
+        FEED("feed", "GET /api/v1/feed"),
+        LISTING("listing", "GET /api/v1/mongo/posts/subreddit-id/{subredditId}?sort=hot"),
+        POST("post", "GET /api/v1/mongo/posts/{id}"),
+        COMMENTS("comments", "GET /api/v1/comments/post-id/{postId}/threads"),
+        SEARCH("search", "GET /api/v1/search"),
+        VOTE("vote", "POST /api/v1/votes"),
+        CREATE_POST("create-post", "POST /api/v1/mongo/posts"),
+        TRENDING("trending", "GET /api/v1/trending"),
+        CHAT("chat", "POST /api/chat/ask");
+
+        private final String key;
+        private final String endpoint;
+
+        Operation(String key, String endpoint) {
+            this.key = key;
+            this.endpoint = endpoint;
+        }
+
+        static Operation of(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown request type in loadtest.traffic.mix: " + key);
+        }
+    }
+
+    private final URI baseUri;
+    private final SyntheticDataGenerator.DataSet data;
+    private final ObjectMapper objectMapper;
+    private final int sessions;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration thinkTime;
+    private final long seed;
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Zipf subredditPopularity;
+    private final Zipf postPopularity;
+    private final Zipf wordFrequency;
+    private final HttpClient httpClient;
+
+    public LoadDriver(URI baseUri, SyntheticDataGenerator.DataSet data, Map<String, Integer> mix,
+                      int sessions, Duration warmup, Duration duration, Duration thinkTime,
+                      long seed, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.data = data;
+        this.objectMapper = objectMapper;
+        this.sessions = Math.max(1, sessions);
+        this.warmup = warmup;
+        this.duration = duration;
+        this.thinkTime = thinkTime;
+        this.seed = seed;
+
+        List<Operation> weighted = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() != null && entry.getValue() > 0) {
+                total += entry.getValue();
+                weighted.add(Operation.of(entry.getKey()));
+                weights.add(total);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.traffic.mix has no request type with a positive weight");
+        }
+        this.operations = weighted.toArray(new Operation[0]);
+        this.cumulativeWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+
+        this.subredditPopularity = new Zipf(data.subredditIds().size(), data.exponent());
+        this.postPopularity = new Zipf(data.postIds().size(), data.exponent());
+        this.wordFrequency = new Zipf(data.words().size(), data.exponent());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /**
+     * Logs the sessions in, runs the warm-up and the recorded traffic, and returns the report.
+     *
+     * @throws InterruptedException if interrupted while waiting for the sessions.
+     */
+    public LoadReport run() throws InterruptedException {
+        List<String> tokens = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            tokens.add(login(data.usernames().get(i % data.usernames().size())));
+        }
+        log.info("🚦 {} sessions logged in; warming up for {}s, then recording for {}s",
+                sessions, warmup.toSeconds(), duration.toSeconds());
+
+        LoadReport report = new LoadReport(duration);
+        long recordFrom = System.nanoTime() + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(sessions);
+        try {
+            List<Future<?>> running = new ArrayList<>(sessions);
+            for (int i = 0; i < sessions; i++) {
+                String token = tokens.get(i);
+                SplittableRandom random = new SplittableRandom(seed + i);
+                running.add(workers.submit(() -> session(token, random, recordFrom, end, report)));
+            }
+            for (Future<?> session : running) {
+                session.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A load test session failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+        return report;
+    }
+
+    private void session(String token, SplittableRandom random, long recordFrom, long end, LoadReport report) {
+        while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+            Operation operation = pick(random);
+            HttpRequest request = request(operation, token, random);
+
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                success = response.statusCode() < 400;
+                if (!success) {
+                    log.debug("{} answered {}", operation.endpoint, response.statusCode());
+                }
+            } catch (IOException e) {
+                success = false;
+                log.debug("{} failed: {}", operation.endpoint, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (start >= recordFrom) {
+                report.record(operation.endpoint, System.nanoTime() - start, success);
+            }
+
+            if (!thinkTime.isZero()) {
+                try {
+                    Thread.sleep(thinkTime.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private HttpRequest request(Operation operation, String token, SplittableRandom random) {
+        return switch (operation) {
+            case FEED -> get("/api/v1/feed", token);
+            case LISTING -> get("/api/v1/mongo/posts/subreddit-id/" + subredditId(random) + "?sort=hot&limit=25", token);
+            case POST -> get("/api/v1/mongo/posts/" + postId(random), token);
+            case COMMENTS -> get("/api/v1/comments/post-id/" + postId(random) + "/threads", token);
+            case SEARCH -> get("/api/v1/search?q=" + URLEncoder.encode(words(random, 1 + random.nextInt(2)), StandardCharsets.UTF_8), token);
+            case VOTE -> post("/api/v1/votes", token, Map.of(
+                    "postId", postId(random),
+                    "voteType", random.nextInt(10) < 8 ? "UPVOTE" : "DOWNVOTE"));
+            case CREATE_POST -> post("/api/v1/mongo/posts", token, Map.of(
+                    "subredditName", data.subredditNames().get(subredditPopularity.next(random)),
+                    "postName", words(random, 4 + random.nextInt(5)),
+                    "description", words(random, 20 + random.nextInt(41))));
+            case TRENDING -> get("/api/v1/trending", token);
+            case CHAT -> post("/api/chat/ask", token, Map.of(
+                    "question", "What is new about " + words(random, 1) + "?"));
+        };
+    }
+
+    private String login(String username) throws InterruptedException {
+        HttpRequest request = post("/api/v1/auth/login", null, Map.of(
+                "username", username,
+                "password", SyntheticDataGenerator.PASSWORD));
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login of " + username + " failed with status " + response.statusCode());
+            }
+            return objectMapper.readTree(response.body()).path("authenticationToken").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Login of " + username + " failed", e);
+        }
+    }
+
+    private HttpRequest get(String path, String token) {
+        return builder(path, token).GET().build();
+    }
+
+    private HttpRequest post(String path, String token, Map<String, String> body) {
+        try {
+            return builder(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize request body", e);
+        }
+    }
+
+    private HttpRequest.Builder builder(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private String subredditId(SplittableRandom random) {
+        return data.subredditIds().get(subredditPopularity.next(random));
+    }
+
+    private String postId(SplittableRandom random) {
+        return data.postIds().get(postPopularity.next(random));
+    }
+
+    private String words(SplittableRandom random, int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            words.append(data.words().get(wordFrequency.next(random)).toLowerCase(Locale.ROOT));
+        }
+        return words.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.forest.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoadReport.java
+ *
+ * Latency histograms and error counts per endpoint for the recorded part of a load test run,
+ * summarized as throughput and latency percentiles.
+ * <p>
+ * Latencies are recorded in microseconds in HdrHistogram (3 significant digits, up to one
+ * minute), so percentiles are exact to within 0.1% whatever the request count. Failed requests
+ * (status 4xx/5xx or no response) are counted as errors and included in the latencies.
+ */
+public class LoadReport {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Duration recorded;
+
+    private static final class Endpoint {
+        final Histogram latencies = new ConcurrentHistogram(MAX_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    /**
+     * Summary of one endpoint; latencies in milliseconds.
+     */
+    public record EndpointStats(String endpoint, long requests, long errors, double throughput,
+                                double mean, double p50, double p90, double p99, double p999, double max) {
+    }
+
+    /**
+     * @param recorded How long requests were recorded for, to compute throughput.
+     */
+    public LoadReport(Duration recorded) {
+        this.recorded = recorded;
+    }
+
+    /**
+     * Records one request.
+     *
+     * @param endpoint     The endpoint, e.g. {@code GET /api/v1/feed}.
+     * @param latencyNanos Time from sending the request to reading the whole response.
+     * @param success      Whether the request succeeded.
+     */
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, key -> new Endpoint());
+        stats.latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_MICROS));
+        if (!success) {
+            stats.errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * Summarizes every endpoint, busiest first, followed by the total over all endpoints.
+     */
+    public List<EndpointStats> summary() {
+        List<EndpointStats> summary = new ArrayList<>();
+        Histogram total = new Histogram(MAX_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Histogram latencies = entry.getValue().latencies.copy();
+            long errors = entry.getValue().errors.get();
+            summary.add(stats(entry.getKey(), latencies, errors));
+            total.add(latencies);
+            totalErrors += errors;
+        }
+        summary.sort((a, b) -> Long.compare(b.requests(), a.requests()));
+        summary.add(stats("TOTAL", total, totalErrors));
+        return summary;
+    }
+
+    /**
+     * Prints the summary as a table.
+     */
+    public void print(PrintStream out) {
+        String header = String.format(Locale.ROOT, "%-58s %9s %7s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        out.println(header);
+        out.println("-".repeat(header.length()));
+        for (EndpointStats stats : summary()) {
+            out.println(String.format(Locale.ROOT, "%-58s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    stats.endpoint(), stats.requests(), stats.errors(), stats.throughput(),
+                    stats.p50(), stats.p90(), stats.p99(), stats.p999(), stats.max()));
+        }
+    }
+
+    private EndpointStats stats(String endpoint, Histogram latencies, long errors) {
+        long requests = latencies.getTotalCount();
+        double seconds = Math.max(1, recorded.toMillis()) / 1000.0;
+        return new EndpointStats(endpoint, requests, errors, requests / seconds,
+                millis(latencies.getMean()),
+                millis(latencies.getValueAtPercentile(50)),
+                millis(latencies.getValueAtPercentile(90)),
+                millis(latencies.getValueAtPercentile(99)),
+                millis(latencies.getValueAtPercentile(99.9)),
+                millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.forest.loadtest;
+
+import com.example.forest.ForestApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LoadTest.java
+ *
+ * Entry point of the load test: starts Forest in-process (profile {@code loadtest}) against the
+ * {@link EmbeddedMongo} stand-in with {@link LoadTestStubs} in place of external services,
+ * fills the database with the {@link SyntheticDataGenerator}, drives traffic with the
+ * {@link LoadDriver}, then prints the {@link LoadReport} and writes it as JSON to
+ * {@code loadtest.report}.
+ * <p>
+ * Command-line arguments are Spring Boot arguments, so any setting can be overridden with
+ * {@code --name=value}.
+ */
+@Slf4j
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ForestApplication.class)
+                .profiles("loadtest")
+                .initializers(new EmbeddedMongo(), new JwtKeyFiles())
+                .run(args);
+        try {
+            Environment environment = context.getEnvironment();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            SyntheticDataGenerator.DataSet data = context.getBean(SyntheticDataGenerator.class).generate();
+
+            Map<String, Integer> mix = Binder.get(environment)
+                    .bind("loadtest.traffic.mix", Bindable.mapOf(String.class, Integer.class))
+                    .orElseThrow(() -> new IllegalStateException("loadtest.traffic.mix is not configured"));
+            int sessions = environment.getProperty("loadtest.traffic.sessions", Integer.class, 32);
+            Duration duration = environment.getProperty("loadtest.traffic.duration", Duration.class, Duration.ofSeconds(60));
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+
+            LoadDriver driver = new LoadDriver(
+                    URI.create("http://127.0.0.1:" + port),
+                    data,
+                    mix,
+                    sessions,
+                    environment.getProperty("loadtest.traffic.warmup", Duration.class, Duration.ofSeconds(15)),
+                    duration,
+                    environment.getProperty("loadtest.traffic.think-time", Duration.class, Duration.ZERO),
+                    environment.getProperty("loadtest.data.seed", Long.class, 42L),
+                    objectMapper);
+            LoadReport report = driver.run();
+
+            System.out.println();
+            report.print(System.out);
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("finishedAt", Instant.now().toString());
+            json.put("javaVersion", Runtime.version().toString());
+            json.put("virtualThreads", environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+            json.put("sessions", sessions);
+            json.put("durationSeconds", duration.toSeconds());
+            json.put("mix", mix);
+            json.put("data", Map.of(
+                    "users", data.usernames().size(),
+                    "subreddits", data.subredditIds().size(),
+                    "posts", data.postIds().size(),
+                    "zipfExponent", data.exponent()));
+            json.put("endpoints", report.summary());
+
+            Path file = Path.of(environment.getProperty("loadtest.report", "target/loadtest-report.json"));
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), json);
+            log.info("📊 Report written to {}", file.toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.forest.loadtest;
+
+import com.example.forest.dto.rag.RAGQueryResponse;
+import com.example.forest.service.BatchingMailSender;
+import com.example.forest.service.ContentModerationService;
+import com.example.forest.service.RAGServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.bson.types.Binary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoadTestStubs.java
+ *
+ * Local stand-ins for the external services Forest calls, registered under the same bean names
+ * so they replace the real ones. Each stub waits a configurable latency and then succeeds:
+ * moderation always answers SAFE, the RAG service returns a fixed answer, and mail is counted
+ * and discarded without opening an SMTP connection.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestStubs {
+
+    @Bean
+    public ContentModerationService contentModerationService(
+            MeterRegistry meterRegistry,
+            @Value("${loadtest.stubs.moderation-latency:PT0.2S}") Duration latency) {
+        return new ContentModerationService(meterRegistry) {
+            @Override
+            public boolean isContentInappropriate(String text) {
+                pause(latency);
+                return false;
+            }
+
+            @Override
+            public boolean isContentInappropriate(Binary media, String mimeType) {
+                pause(latency);
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Named like the scanned {@link RAGServiceClient} bean ({@code RAGServiceClient}, as its name
+     * starts with two capitals) so that one is replaced rather than duplicated.
+     */
+    @Bean("RAGServiceClient")
+    public RAGServiceClient ragServiceClient(@Value("${loadtest.stubs.rag-latency:PT0.8S}") Duration latency) {
+        return new RAGServiceClient(WebClient.builder(), "http://localhost") {
+            @Override
+            public Mono<RAGQueryResponse> queryRAGService(String question) {
+                RAGQueryResponse response = new RAGQueryResponse();
+                response.setAnswer("Load test answer to: " + question);
+                response.setSourceDocuments(List.of());
+                return Mono.delay(latency).thenReturn(response);
+            }
+        };
+    }
+
+    @Bean
+    public BatchingMailSender batchingMailSender(@Value("${loadtest.stubs.mail-latency:PT0.05S}") Duration latency) {
+        return new DiscardingMailSender(latency);
+    }
+
+    /**
+     * Counts messages instead of sending them.
+     */
+    public static class DiscardingMailSender extends BatchingMailSender {
+
+        private final Duration latency;
+        private final AtomicLong sent = new AtomicLong();
+
+        DiscardingMailSender(Duration latency) {
+            super(new JavaMailSenderImpl(), 1, Duration.ofMinutes(1));
+            this.latency = latency;
+        }
+
+        @Override
+        public Map<Integer, Exception> send(List<MimeMessage> messages) {
+            pause(latency);
+            sent.addAndGet(messages.size());
+            return Map.of();
+        }
+
+        /**
+         * Returns the number of messages "sent" so far.
+         */
+        public long sent() {
+            return sent.get();
+        }
+    }
+
+    private static void pause(Duration latency) {
+        if (latency.isZero() || latency.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
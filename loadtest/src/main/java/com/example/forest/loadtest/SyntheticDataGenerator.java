@@ -0,0 +1,355 @@
+package com.example.forest.loadtest;
+
+import com.example.forest.document.MongoCommentDocument;
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoSubredditDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.document.MongoVoteDocument;
+import com.example.forest.document.Photo;
+import com.example.forest.document.SubscriptionDocument;
+import com.example.forest.model.Role;
+import com.example.forest.model.VoteType;
+import com.example.forest.search.SearchIndexMaintainer;
+import com.example.forest.service.CommentSearchService;
+import com.example.forest.service.HotScore;
+import com.example.forest.service.PostSearchService;
+import com.example.forest.service.PostTitleSuggester;
+import com.example.forest.service.SubredditDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+/**
+ * SyntheticDataGenerator.java
+ *
+ * Fills the database with a reproducible synthetic forum: users, subreddits, subscriptions,
+ * posts (some with an embedded photo), votes and threaded comments, in the counts configured
+ * under {@code loadtest.data}.
+ * <p>
+ * Popularity follows {@link Zipf}: a few users write most posts and comments, a few subreddits
+ * hold most posts and subscribers, and a few posts collect most votes and comments. Titles and
+ * descriptions are drawn from a small vocabulary with the same skew, so search terms have
+ * realistic frequencies. Documents are written in bulk, bypassing the services, and the
+ * in-memory indexes built at startup (subreddit directory, search, title suggestions) are
+ * rebuilt afterwards.
+ */
+@Component
+@Profile("loadtest")
+@Slf4j
+public class SyntheticDataGenerator {
+
+    /** Password of every generated user. */
+    public static final String PASSWORD = "loadtest-password";
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final Duration HISTORY = Duration.ofDays(30);
+    private static final List<String> COLLECTIONS =
+            List.of("posts", "comments", "votes", "subreddits", "subscriptions", "photos");
+
+    private static final String[] WORDS = {
+            "java", "spring", "mongo", "forest", "cloud", "data", "music", "games", "movies", "books",
+            "science", "space", "travel", "food", "coffee", "garden", "photography", "history", "art", "design",
+            "running", "cycling", "football", "chess", "linux", "security", "startups", "finance", "health", "pets",
+            "cats", "dogs", "cooking", "baking", "hiking", "camping", "climbing", "python", "rust", "kotlin",
+            "react", "docker", "kubernetes", "database", "performance", "latency", "cache", "index", "query", "stream",
+            "question", "guide", "review", "news", "update", "release", "help", "idea", "project", "weekend",
+            "beginner", "advanced", "tips", "tricks", "story", "photo", "video", "discussion", "opinion", "debate"
+    };
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final SubredditDirectory subredditDirectory;
+    private final List<SearchIndexMaintainer> searchIndexes;
+    private final PostTitleSuggester postTitleSuggester;
+
+    private final int users;
+    private final int subreddits;
+    private final int posts;
+    private final int comments;
+    private final int votes;
+    private final int media;
+    private final int mediaBytes;
+    private final double exponent;
+    private final long seed;
+    private final boolean reset;
+
+    /**
+     * The generated data the load driver picks its targets from, most popular first.
+     *
+     * @param usernames      Users, most active first.
+     * @param subredditIds   Subreddit IDs, most popular first.
+     * @param subredditNames Names matching {@code subredditIds}.
+     * @param postIds        Post IDs, most popular first.
+     * @param words          The vocabulary titles and descriptions are made of, most frequent first.
+     * @param exponent       The Zipf exponent used.
+     */
+    public record DataSet(List<String> usernames, List<String> subredditIds, List<String> subredditNames,
+                          List<String> postIds, List<String> words, double exponent) {
+    }
+
+    public SyntheticDataGenerator(MongoTemplate mongoTemplate,
+                                  PasswordEncoder passwordEncoder,
+                                  SubredditDirectory subredditDirectory,
+                                  PostSearchService postSearchService,
+                                  CommentSearchService commentSearchService,
+                                  PostTitleSuggester postTitleSuggester,
+                                  @Value("${loadtest.data.users:1000}") int users,
+                                  @Value("${loadtest.data.subreddits:50}") int subreddits,
+                                  @Value("${loadtest.data.posts:10000}") int posts,
+                                  @Value("${loadtest.data.comments:30000}") int comments,
+                                  @Value("${loadtest.data.votes:50000}") int votes,
+                                  @Value("${loadtest.data.media:200}") int media,
+                                  @Value("${loadtest.data.media-bytes:32768}") int mediaBytes,
+                                  @Value("${loadtest.data.zipf-exponent:1.1}") double exponent,
+                                  @Value("${loadtest.data.seed:42}") long seed,
+                                  @Value("${loadtest.data.reset:false}") boolean reset) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.subredditDirectory = subredditDirectory;
+        this.searchIndexes = List.of(postSearchService, commentSearchService);
+        this.postTitleSuggester = postTitleSuggester;
+        this.users = Math.max(1, users);
+        this.subreddits = Math.max(1, subreddits);
+        this.posts = Math.max(1, posts);
+        this.comments = Math.max(0, comments);
+        this.votes = Math.max(0, votes);
+        this.media = Math.max(0, Math.min(media, this.posts));
+        this.mediaBytes = Math.max(1, mediaBytes);
+        this.exponent = exponent;
+        this.seed = seed;
+        this.reset = reset;
+    }
+
+    /**
+     * Generates and stores the data set.
+     *
+     * @return What was generated, for the load driver.
+     * @throws IllegalStateException if the database already holds posts and {@code loadtest.data.reset} is off.
+     */
+    public DataSet generate() {
+        prepareDatabase();
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        Instant now = Instant.now();
+        Zipf userPopularity = new Zipf(users, exponent);
+        Zipf subredditPopularity = new Zipf(subreddits, exponent);
+        Zipf postPopularity = new Zipf(posts, exponent);
+        Zipf wordFrequency = new Zipf(WORDS.length, exponent);
+
+        // 👤 Users, sharing one password hash (BCrypt is deliberately slow)
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<MongoUserDocument> userDocuments = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            MongoUserDocument user = new MongoUserDocument();
+            user.setId(new ObjectId().toHexString());
+            user.setUsername(String.format("user%05d", i));
+            user.setPassword(passwordHash);
+            user.setEmail(user.getUsername() + "@loadtest.forest");
+            user.setCreated(now.minus(HISTORY.multipliedBy(2)));
+            user.setEnabled(true);
+            user.setRole(Role.USER);
+            user.setInterests(new LinkedHashSet<>());
+            userDocuments.add(user);
+        }
+
+        // 🏘️ Subreddits, owned by popular users
+        List<MongoSubredditDocument> subredditDocuments = new ArrayList<>(subreddits);
+        for (int i = 0; i < subreddits; i++) {
+            String name = WORDS[i % WORDS.length] + (i < WORDS.length ? "" : String.valueOf(i / WORDS.length));
+            MongoSubredditDocument subreddit = new MongoSubredditDocument();
+            subreddit.setId(new ObjectId().toHexString());
+            subreddit.setName(name);
+            subreddit.setDescription("Everything about " + name);
+            subreddit.setCreatedDate(now.minus(HISTORY.multipliedBy(2)));
+            subreddit.setUser(userDocuments.get(userPopularity.next(random)));
+            subredditDocuments.add(subreddit);
+        }
+
+        // 🔔 Subscriptions: 1-5 subreddits per user, also recorded as interests (as SubscriptionStore does)
+        List<SubscriptionDocument> subscriptions = new ArrayList<>();
+        for (MongoUserDocument user : userDocuments) {
+            int count = 1 + random.nextInt(Math.min(5, subreddits));
+            Set<Integer> chosen = new HashSet<>();
+            while (chosen.size() < count) {
+                chosen.add(subredditPopularity.next(random));
+            }
+            for (int index : chosen) {
+                MongoSubredditDocument subreddit = subredditDocuments.get(index);
+                subscriptions.add(new SubscriptionDocument(null, subreddit.getId(), user.getId(),
+                        subreddit.getName(), now.minus(HISTORY)));
+                subreddit.setSubscriberCount(subreddit.getSubscriberCount() + 1);
+                user.getInterests().add(subreddit.getName());
+            }
+        }
+
+        // 📝 Posts, some with an embedded photo
+        List<MongoPostDocument> postDocuments = new ArrayList<>(posts);
+        List<Photo> photos = new ArrayList<>(media);
+        Set<Integer> withMedia = new HashSet<>();
+        while (withMedia.size() < media) {
+            withMedia.add(random.nextInt(posts));
+        }
+        for (int i = 0; i < posts; i++) {
+            MongoSubredditDocument subreddit = subredditDocuments.get(subredditPopularity.next(random));
+            subreddit.setPostCount(subreddit.getPostCount() + 1);
+            MongoPostDocument post = MongoPostDocument.builder()
+                    .id(new ObjectId().toHexString())
+                    .postName(sentence(random, wordFrequency, 4 + random.nextInt(5)))
+                    .description(sentence(random, wordFrequency, 20 + random.nextInt(41)))
+                    .user(userDocuments.get(userPopularity.next(random)))
+                    .subreddit(subreddit)
+                    .createdDate(now.minusSeconds(random.nextLong(HISTORY.toSeconds())))
+                    .build();
+            if (withMedia.contains(i)) {
+                Photo photo = new Photo();
+                photo.setId(new ObjectId().toHexString());
+                photo.setTitle(post.getPostName());
+                byte[] image = new byte[mediaBytes];
+                random.nextBytes(image);
+                photo.setImage(new Binary(image));
+                post.setPhoto(photo);
+                photos.add(photo);
+            }
+            postDocuments.add(post);
+        }
+
+        // 👍 Votes on popular posts by any user; one vote per user and post, 80% upvotes
+        List<MongoVoteDocument> voteDocuments = new ArrayList<>(votes);
+        Set<Long> voted = new HashSet<>();
+        for (int i = 0; i < votes; i++) {
+            int postIndex = postPopularity.next(random);
+            int userIndex = random.nextInt(users);
+            if (!voted.add((long) userIndex * posts + postIndex)) {
+                continue;
+            }
+            MongoPostDocument post = postDocuments.get(postIndex);
+            VoteType type = random.nextInt(10) < 8 ? VoteType.UPVOTE : VoteType.DOWNVOTE;
+            post.setVoteCount(post.getVoteCount() + type.getDirection());
+            voteDocuments.add(MongoVoteDocument.builder()
+                    .id(new ObjectId().toHexString())
+                    .voteType(type)
+                    .post(reference(post))
+                    .user(userDocuments.get(userIndex))
+                    .build());
+        }
+        postDocuments.forEach(post -> post.setHotScore(HotScore.of(post.getVoteCount(), post.getCreatedDate())));
+
+        // 💬 Comments on popular posts; 30% reply to an earlier comment on the same post
+        List<MongoCommentDocument> commentDocuments = new ArrayList<>(comments);
+        Map<Integer, List<MongoCommentDocument>> commentsByPost = new HashMap<>();
+        for (int i = 0; i < comments; i++) {
+            int postIndex = postPopularity.next(random);
+            MongoPostDocument post = postDocuments.get(postIndex);
+            List<MongoCommentDocument> thread = commentsByPost.computeIfAbsent(postIndex, key -> new ArrayList<>());
+
+            String id = new ObjectId().toHexString();
+            MongoCommentDocument comment = new MongoCommentDocument();
+            comment.setId(id);
+            comment.setText(sentence(random, wordFrequency, 5 + random.nextInt(26)));
+            comment.setPost(reference(post));
+            comment.setUser(userDocuments.get(userPopularity.next(random)));
+            comment.setCreatedDate(post.getCreatedDate().plusSeconds(60L * (thread.size() + 1)));
+            if (!thread.isEmpty() && random.nextInt(10) < 3) {
+                MongoCommentDocument parent = thread.get(random.nextInt(thread.size()));
+                comment.setParentId(parent.getId());
+                comment.setPath(parent.getPath() + "/" + id);
+                comment.setDepth(parent.getDepth() + 1);
+                parent.setReplyCount(parent.getReplyCount() + 1);
+            } else {
+                comment.setPath(id);
+                comment.setDepth(0);
+            }
+            thread.add(comment);
+            commentDocuments.add(comment);
+        }
+
+        insertAll(userDocuments, MongoUserDocument.class);
+        insertAll(subredditDocuments, MongoSubredditDocument.class);
+        insertAll(subscriptions, SubscriptionDocument.class);
+        insertAll(photos, Photo.class);
+        insertAll(postDocuments, MongoPostDocument.class);
+        insertAll(voteDocuments, MongoVoteDocument.class);
+        insertAll(commentDocuments, MongoCommentDocument.class);
+        log.info("🌱 Generated {} users, {} subreddits, {} subscriptions, {} posts ({} with photos), {} votes, {} comments in {} ms",
+                userDocuments.size(), subredditDocuments.size(), subscriptions.size(), postDocuments.size(), photos.size(),
+                voteDocuments.size(), commentDocuments.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+
+        refreshIndexes();
+
+        return new DataSet(
+                userDocuments.stream().map(MongoUserDocument::getUsername).toList(),
+                subredditDocuments.stream().map(MongoSubredditDocument::getId).toList(),
+                subredditDocuments.stream().map(MongoSubredditDocument::getName).toList(),
+                postDocuments.stream().map(MongoPostDocument::getId).toList(),
+                List.of(WORDS),
+                exponent);
+    }
+
+    /**
+     * Refuses to mix generated data into an existing database, unless asked to clear it first.
+     * Administrators are kept.
+     */
+    private void prepareDatabase() {
+        if (reset) {
+            COLLECTIONS.forEach(mongoTemplate::dropCollection);
+            mongoTemplate.remove(new Query(Criteria.where("role").ne(Role.ADMIN)), MongoUserDocument.class);
+            log.info("🧹 Cleared existing forum data");
+        } else if (mongoTemplate.estimatedCount(MongoPostDocument.class) > 0) {
+            throw new IllegalStateException("The database already contains posts; "
+                    + "run with --loadtest.data.reset=true to replace them with generated data");
+        }
+    }
+
+    /**
+     * Rebuilds the in-memory indexes that would otherwise only pick up bulk-inserted data on
+     * their next scheduled poll.
+     */
+    private void refreshIndexes() {
+        subredditDirectory.refresh();
+        searchIndexes.forEach(SearchIndexMaintainer::rebuild);
+        postTitleSuggester.rebuild();
+        log.info("🔎 Rebuilt subreddit directory, search indexes and title suggestions");
+    }
+
+    private <T> void insertAll(List<T> documents, Class<T> type) {
+        for (int from = 0; from < documents.size(); from += BATCH_SIZE) {
+            mongoTemplate.insert(documents.subList(from, Math.min(from + BATCH_SIZE, documents.size())), type);
+        }
+    }
+
+    private static String sentence(SplittableRandom random, Zipf wordFrequency, int words) {
+        StringJoiner sentence = new StringJoiner(" ");
+        for (int i = 0; i < words; i++) {
+            sentence.add(WORDS[wordFrequency.next(random)]);
+        }
+        return sentence.toString();
+    }
+
+    /**
+     * A post holding only its ID, enough to be stored as a {@code DBRef}.
+     */
+    private static MongoPostDocument reference(MongoPostDocument post) {
+        MongoPostDocument reference = new MongoPostDocument();
+        reference.setId(post.getId());
+        return reference;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.forest.loadtest;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf.java
+ *
+ * Samples ranks {@code 0..n-1} with Zipf-like popularity: rank {@code k} (0-based) is drawn with
+ * probability proportional to {@code 1 / (k + 1)^exponent}. With an exponent around 1, a few
+ * items take most of the draws and the long tail is rarely touched, as with authors, subreddits
+ * and posts on a real forum.
+ * <p>
+ * The cumulative distribution is precomputed, so a draw is one binary search. Instances are
+ * immutable and can be shared between threads; callers supply the random source.
+ */
+public final class Zipf {
+
+    private final double[] cumulative;
+
+    /**
+     * @param n        Number of ranks; at least 1.
+     * @param exponent Skew; 0 is uniform, larger values concentrate draws on the first ranks.
+     */
+    public Zipf(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf needs at least one rank, got " + n);
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random The random source.
+     * @return A rank in {@code [0, n)}.
+     */
+    public int next(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    /**
+     * Returns the number of ranks.
+     */
+    public int size() {
+        return cumulative.length;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.forest.Exceptions;
+
+/**
+ * QueryBudgetExceededException.java
+ *
+ * Thrown when a request issues more MongoDB commands than its endpoint's query budget allows
+ * and the budget is enforced in {@code fail} mode (as in tests). It usually points to an N+1
+ * query pattern, such as one lookup per row of a listing.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code QueryBudgetExceededException} with a detailed error message.
+     *
+     * @param message the endpoint, the number of commands issued and the most repeated command.
+     */
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.forest.config;
+
+import com.example.forest.document.MongoCommentDocument;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * CommentPathMigration.java
+ *
+ * Runs at application startup and backfills the materialized-path fields on
+ * comments created before threaded replies existed. Such comments become
+ * top-level comments whose path is their own ID.
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class CommentPathMigration implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Sets {@code path = _id}, {@code depth = 0} and {@code replyCount = 0}
+     * on every comment that has no path yet, in a single server-side update.
+     */
+    @Override
+    public void run(String... args) {
+        Query legacy = new Query(Criteria.where("path").exists(false));
+
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("path").toValue(ConvertOperators.valueOf("_id").convertToString())
+                .set("depth").toValue(0)
+                .set("replyCount").toValue(0);
+
+        long migrated = mongoTemplate.updateMulti(legacy, update, MongoCommentDocument.class).getModifiedCount();
+        if (migrated > 0) {
+            log.info("Backfilled materialized paths on {} legacy comments", migrated);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.forest.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ExecutorConfig.java
+ *
+ * Named, bounded thread pools for background work:
+ * <ul>
+ *   <li>{@code applicationTaskExecutor} – default executor for {@code @Async} methods</li>
+ *   <li>{@code mvcAsyncExecutor} – Spring MVC asynchronous requests (streamed and NDJSON responses)</li>
+ *   <li>{@code moderationExecutor} – Gemini text moderation</li>
+ *   <li>{@code mediaExecutor} – loading and moderating attached photos and videos</li>
+ *   <li>{@code taskScheduler} – {@code @Scheduled} jobs</li>
+ * </ul>
+ * Each pool has a fixed number of threads, its own queue limit and rejection policy, configured
+ * under {@code executors.<name>}. Spring Boot publishes pool size, active threads, queued and
+ * completed tasks of every pool as {@code executor.*} meters tagged with the bean name; on top of
+ * that each pool records {@code executor.task.wait} (time spent queued),
+ * {@code executor.task.execution} and {@code executor.rejected}. Scheduled jobs are timed by
+ * Spring's own {@code tasks.scheduled.execution} observation.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} on Java 21 or later, Boot serves Tomcat
+ * requests on virtual threads and these executors start one virtual thread per task instead.
+ * They stay bounded: at most {@code threads + queue-capacity} tasks of a pool run at once and
+ * further submitters wait (so nothing is rejected), and an {@code executor.active} gauge replaces
+ * the pool gauges. Blocking calls made on them — Mongo, Gemini — then no longer hold a platform
+ * thread while they wait. On older JDKs the property is ignored and the platform pools are used.
+ * <p>
+ * The notification outbox and deletion jobs keep their dedicated pools.
+ */
+@Configuration
+@Slf4j
+public class ExecutorConfig implements AsyncConfigurer {
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public ExecutorConfig(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Default executor for {@code @Async} methods (found under the {@code taskExecutor} alias).
+     * Spring MVC would also use it for asynchronous requests; {@link WebConfig} points those at
+     * {@link #mvcAsyncExecutor()} instead so that long-lived streams cannot starve it.
+     */
+    @Bean(name = {"applicationTaskExecutor", "taskExecutor"})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return boundedPool("applicationTaskExecutor", "async", 4, 500, "abort");
+    }
+
+    /**
+     * Executor for Spring MVC asynchronous requests. Every {@code StreamingResponseBody} and NDJSON
+     * listing holds one of its threads for as long as the client keeps reading, so it is sized for
+     * many concurrent, mostly idle streams; when it is full, new streams are refused.
+     */
+    @Bean
+    public AsyncTaskExecutor mvcAsyncExecutor() {
+        return boundedPool("mvcAsyncExecutor", "mvc-async", 64, 64, "abort");
+    }
+
+    /**
+     * Executor for content moderation calls. Callers run the task themselves when it is full,
+     * which slows down the requests that cause the load instead of failing them.
+     */
+    @Bean
+    public AsyncTaskExecutor moderationExecutor() {
+        return boundedPool("moderationExecutor", "moderation", 8, 200, "caller-runs");
+    }
+
+    /**
+     * Executor for loading and moderating post media.
+     */
+    @Bean
+    public AsyncTaskExecutor mediaExecutor() {
+        return boundedPool("mediaExecutor", "media", 4, 50, "caller-runs");
+    }
+
+    /**
+     * Scheduler for {@code @Scheduled} jobs, so one slow job no longer delays all the others.
+     */
+    @Bean
+    public TaskScheduler taskScheduler() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setVirtualThreads(true);
+            scheduler.setThreadNamePrefix("scheduler-");
+            scheduler.setTaskTerminationTimeout(30_000);
+            return scheduler;
+        }
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(environment.getProperty("executors.scheduler.threads", Integer.class, 4));
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.setErrorHandler(error -> log.error("❌ Scheduled job failed", error));
+        scheduler.setRejectedExecutionHandler(countingPolicy("taskScheduler", new ThreadPoolExecutor.AbortPolicy()));
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        scheduler.setAwaitTerminationSeconds(30);
+        return scheduler;
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (error, method, params) -> log.error("❌ Async method {} failed", method.getName(), error);
+    }
+
+    /**
+     * Builds a fixed-size pool from {@code executors.<key>.threads}, {@code .queue-capacity}
+     * and {@code .rejection-policy}, or its virtual-thread equivalent.
+     */
+    private AsyncTaskExecutor boundedPool(String beanName, String key, int defaultThreads,
+                                          int defaultQueueCapacity, String defaultPolicy) {
+        String prefix = "executors." + key + ".";
+        int threads = Math.max(1, environment.getProperty(prefix + "threads", Integer.class, defaultThreads));
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, defaultQueueCapacity);
+        String policy = environment.getProperty(prefix + "rejection-policy", defaultPolicy);
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return virtualPool(beanName, key, threads + queueCapacity);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(key + "-");
+        executor.setRejectedExecutionHandler(countingPolicy(beanName, rejectionPolicy(policy)));
+        executor.setTaskDecorator(timed(beanName));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        log.info("🧵 Executor '{}' configured: {} threads, queue {}, {} when full", key, threads, queueCapacity, policy);
+        return executor;
+    }
+
+    /**
+     * Builds an executor that runs each task on a new virtual thread, with at most
+     * {@code concurrencyLimit} tasks in flight.
+     */
+    private AsyncTaskExecutor virtualPool(String beanName, String key, int concurrencyLimit) {
+        AtomicInteger active = new AtomicInteger();
+        meterRegistry.gauge("executor.active", Tags.of("name", beanName), active);
+
+        TaskDecorator timed = timed(beanName);
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(key + "-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setTaskTerminationTimeout(30_000);
+        executor.setTaskDecorator(task -> {
+            Runnable decorated = timed.decorate(task);
+            return () -> {
+                active.incrementAndGet();
+                try {
+                    decorated.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            };
+        });
+        log.info("🧵 Executor '{}' configured: virtual threads, at most {} tasks at once", key, concurrencyLimit);
+        return executor;
+    }
+
+    /**
+     * Records how long each task waited in the queue and how long it ran.
+     */
+    private TaskDecorator timed(String name) {
+        Timer wait = Timer.builder("executor.task.wait")
+                .description("Time tasks spend queued before a thread picks them up")
+                .tag("name", name)
+                .register(meterRegistry);
+        Timer execution = Timer.builder("executor.task.execution")
+                .description("Time tasks spend running")
+                .tag("name", name)
+                .register(meterRegistry);
+        return task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                wait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    execution.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
+
+    /**
+     * Counts rejections before delegating to the configured policy.
+     */
+    private RejectedExecutionHandler countingPolicy(String name, RejectedExecutionHandler policy) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks rejected because the pool and its queue were full")
+                .tag("name", name)
+                .register(meterRegistry);
+        return (task, executor) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, executor);
+        };
+    }
+
+    private static RejectedExecutionHandler rejectionPolicy(String policy) {
+        return switch (policy.toLowerCase(Locale.ROOT)) {
+            case "abort" -> new ThreadPoolExecutor.AbortPolicy();
+            case "caller-runs" -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case "discard" -> new ThreadPoolExecutor.DiscardPolicy();
+            case "discard-oldest" -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            default -> throw new IllegalArgumentException("Unknown rejection policy: " + policy
+                    + " (expected abort, caller-runs, discard or discard-oldest)");
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.forest.config;
+
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.service.HotScore;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * HotScoreMigration.java
+ *
+ * Runs at application startup and computes the stored {@code hotScore} of posts
+ * created before hot listings existed, in a single server-side update.
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class HotScoreMigration implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Backfills {@code hotScore} on every post that does not have one yet.
+     */
+    @Override
+    public void run(String... args) {
+        long migrated = mongoTemplate.updateMulti(
+                new Query(Criteria.where("hotScore").exists(false)),
+                AggregationUpdate.update().set("hotScore").toValue(HotScore.expression(0)),
+                MongoPostDocument.class).getModifiedCount();
+        if (migrated > 0) {
+            log.info("Backfilled hot scores on {} legacy posts", migrated);
+        }
+    }
+}
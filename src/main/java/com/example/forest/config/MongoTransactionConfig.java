@@ -0,0 +1,34 @@
+package com.example.forest.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * MongoTransactionConfig.java
+ *
+ * Registers a {@link MongoTransactionManager} so that {@code @Transactional} service methods
+ * run as multi-document MongoDB transactions — e.g. a user registration and its outbox
+ * email are committed together.
+ * <p>
+ * Transactions require a replica set, so this is opt-in via
+ * {@code forest.mongo.transactions.enabled=true}; on a standalone server the
+ * annotations remain no-ops.
+ */
+@Configuration
+@ConditionalOnProperty(name = "forest.mongo.transactions.enabled", havingValue = "true")
+public class MongoTransactionConfig {
+
+    /**
+     * Creates the transaction manager bound to the application's Mongo database.
+     *
+     * @param databaseFactory the configured {@link MongoDatabaseFactory}
+     * @return a transaction manager for {@code @Transactional} methods
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.forest.config;
+
+import com.example.forest.Exceptions.QueryBudgetExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * QueryBudget.java
+ *
+ * Per-endpoint limit on the number of MongoDB commands one request may issue, to catch N+1
+ * query patterns before they reach production.
+ * <p>
+ * Commands are counted by {@link QueryCounter}. The budget is checked just before the response
+ * body is written, once the handler has run all of its queries; requests without a body are
+ * checked by {@link QueryBudgetFilter} when they complete. Depending on
+ * {@code mongo.query-budget.mode}, a request over budget is logged ({@code log}), failed with
+ * {@link QueryBudgetExceededException} ({@code fail}, used by tests) or not tracked ({@code off}).
+ * Budgets default to {@code mongo.query-budget.default} and can be set per endpoint under
+ * {@code mongo.query-budget.endpoints}, keyed by method and URI template
+ * (e.g. {@code "[GET /api/v1/feed]": 10}). With {@code mongo.query-budget.headers} enabled
+ * (for development), responses carry {@code X-Mongo-Query-Count} and {@code X-Mongo-Query-Time-Ms}.
+ */
+@ControllerAdvice
+@Slf4j
+public class QueryBudget implements ResponseBodyAdvice<Object> {
+
+    public static final String COUNT_HEADER = "X-Mongo-Query-Count";
+    public static final String TIME_HEADER = "X-Mongo-Query-Time-Ms";
+
+    private enum Mode { OFF, LOG, FAIL }
+
+    private final Mode mode;
+    private final int defaultBudget;
+    private final boolean headers;
+    private final Map<String, Integer> endpointBudgets;
+
+    public QueryBudget(Environment environment) {
+        String configuredMode = environment.getProperty("mongo.query-budget.mode", "log");
+        this.mode = Mode.valueOf(configuredMode.toUpperCase(Locale.ROOT));
+        this.defaultBudget = environment.getProperty("mongo.query-budget.default", Integer.class, 25);
+        this.headers = environment.getProperty("mongo.query-budget.headers", Boolean.class, false);
+        this.endpointBudgets = Binder.get(environment)
+                .bind("mongo.query-budget.endpoints", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+    }
+
+    /**
+     * Whether commands should be counted at all.
+     */
+    boolean enabled() {
+        return mode != Mode.OFF;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return mode != Mode.OFF;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryCounter.Stats stats = QueryCounter.current();
+        if (stats != null && request instanceof ServletServerHttpRequest servletRequest) {
+            if (headers) {
+                response.getHeaders().set(COUNT_HEADER, String.valueOf(stats.count()));
+                response.getHeaders().set(TIME_HEADER, String.valueOf(stats.totalMillis()));
+            }
+            stats.markChecked();
+            enforce(servletRequest.getServletRequest(), stats, true);
+        }
+        return body;
+    }
+
+    /**
+     * Checks a finished request that wrote no body through {@link #beforeBodyWrite}.
+     *
+     * @param request  The request.
+     * @param response The response; it can only be failed if not yet committed.
+     * @param stats    The request's command statistics.
+     */
+    void afterCompletion(HttpServletRequest request, HttpServletResponse response, QueryCounter.Stats stats) {
+        if (!stats.checked()) {
+            if (headers && !response.isCommitted()) {
+                response.setHeader(COUNT_HEADER, String.valueOf(stats.count()));
+                response.setHeader(TIME_HEADER, String.valueOf(stats.totalMillis()));
+            }
+            enforce(request, stats, !response.isCommitted());
+        }
+    }
+
+    private void enforce(HttpServletRequest request, QueryCounter.Stats stats, boolean canFail) {
+        String endpoint = endpointOf(request);
+        int budget = endpointBudgets.getOrDefault(endpoint, defaultBudget);
+        if (stats.count() <= budget) {
+            log.debug("🗄️ {} issued {} Mongo commands in {} ms", endpoint, stats.count(), stats.totalMillis());
+            return;
+        }
+
+        String message = endpoint + " issued " + stats.count() + " Mongo commands (budget " + budget + ", "
+                + stats.totalMillis() + " ms); most repeated: " + stats.mostRepeated();
+        if (mode == Mode.FAIL && canFail) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn("⚠️ Query budget exceeded: {}", message);
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.forest.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * QueryBudgetFilter.java
+ *
+ * Opens the per-request Mongo command statistics of {@link QueryCounter} before anything else
+ * runs (including authentication, whose user lookups count too), and hands them to
+ * {@link QueryBudget} when the request completes.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final QueryBudget queryBudget;
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain) throws ServletException, IOException {
+        if (!queryBudget.enabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        QueryCounter.begin();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            QueryCounter.Stats stats = QueryCounter.end();
+            // A failed request is reported by its own exception, not by the budget
+            if (completed && stats != null) {
+                queryBudget.afterCompletion(request, response, stats);
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.forest.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QueryCounter.java
+ *
+ * MongoDB {@link CommandListener} that counts and times the commands issued by the current
+ * HTTP request, for {@link QueryBudget}.
+ * <p>
+ * The synchronous driver reports command events on the thread that runs the command, so the
+ * statistics live in a thread-local opened and closed by {@link QueryBudgetFilter}. Commands run
+ * outside a request, or on other threads (background jobs, executors, streamed listings), are
+ * not counted. Each command is also keyed by name and collection (e.g. {@code find comments}),
+ * so a budget violation can name the command that repeats — the signature of an N+1 query.
+ */
+@Component
+public class QueryCounter implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Commands issued so far by one request.
+     */
+    public static final class Stats {
+        private int count;
+        private long totalNanos;
+        private boolean checked;
+        private final Map<String, Integer> byCommand = new HashMap<>();
+
+        public int count() {
+            return count;
+        }
+
+        public long totalMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        }
+
+        boolean checked() {
+            return checked;
+        }
+
+        void markChecked() {
+            checked = true;
+        }
+
+        /**
+         * Returns the most frequent command, e.g. {@code "find comments" x 25}.
+         */
+        public String mostRepeated() {
+            return byCommand.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(entry -> "\"" + entry.getKey() + "\" x " + entry.getValue())
+                    .orElse("none");
+        }
+    }
+
+    @Override
+    public void customize(MongoClientSettings.Builder settings) {
+        settings.addCommandListener(this);
+    }
+
+    /**
+     * Starts counting for the request handled by this thread.
+     */
+    static void begin() {
+        CURRENT.set(new Stats());
+    }
+
+    /**
+     * Returns the statistics of the current request, or {@code null} outside a request.
+     */
+    static Stats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops counting and returns the final statistics.
+     */
+    static Stats end() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.count++;
+            stats.byCommand.merge(event.getCommandName() + " " + collectionOf(event.getCommand()), 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.totalNanos += event.getElapsedTime(TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.totalNanos += event.getElapsedTime(TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Most commands name their collection as the value of their first field ({@code {find: "posts"}}).
+     */
+    private static String collectionOf(BsonDocument command) {
+        if (command.isEmpty()) {
+            return "";
+        }
+        BsonValue target = command.get(command.getFirstKey());
+        return target != null && target.isString() ? target.asString().getValue() : "";
+    }
+}
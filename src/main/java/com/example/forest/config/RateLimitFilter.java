@@ -0,0 +1,50 @@
+package com.example.forest.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimitFilter.java
+ *
+ * Applies the {@link RateLimiter} to incoming requests. It runs inside the security filter chain,
+ * after authentication, so limits can be keyed by the authenticated user; it is therefore not a
+ * bean, which would also register it as a plain servlet filter ahead of authentication.
+ * <p>
+ * A rejected request gets {@code 429 Too Many Requests} with a {@code Retry-After} header, in
+ * whole seconds.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.Route route = rateLimiter.routeFor(request);
+        long waitNanos = route != null ? route.tryAcquire(request) : 0;
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("Too many requests to " + route.name() + "; retry in " + retryAfter + " s");
+    }
+}
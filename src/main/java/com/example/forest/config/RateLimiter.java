@@ -0,0 +1,177 @@
+package com.example.forest.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RateLimiter.java
+ *
+ * Per-route request limits for expensive endpoints (Gemini-moderated posts and edits, chat, BCrypt
+ * logins, media uploads), enforced by {@link RateLimitFilter}.
+ * <p>
+ * Each route configured under {@code rate-limit.routes} has its own {@link TokenBuckets}: a
+ * bucket of {@code capacity} tokens per client, refilled at {@code per-minute} tokens a minute.
+ * Clients are keyed by {@code key}: {@code principal} uses the authenticated username and falls
+ * back to the client IP for anonymous requests, {@code ip} always uses the IP (e.g. for login,
+ * where there is no principal yet). Behind a reverse proxy, set
+ * {@code server.forward-headers-strategy} so the IP is the client's, not the proxy's.
+ * <p>
+ * Rejections are counted in {@code rate.limit.rejected} and kept buckets in
+ * {@code rate.limit.keys}, both tagged with the route.
+ */
+@Component
+@Slf4j
+public class RateLimiter {
+
+    /**
+     * A route's configuration.
+     *
+     * @param method    HTTP method, or several methods sharing the route's buckets.
+     * @param paths     Exact request paths (a trailing slash is ignored).
+     * @param capacity  Requests a client may send in a burst.
+     * @param perMinute Sustained requests per minute.
+     * @param key       {@code principal} or {@code ip}.
+     */
+    public record Limit(List<String> method,
+                        List<String> paths,
+                        @DefaultValue("10") long capacity,
+                        @DefaultValue("60") double perMinute,
+                        @DefaultValue("principal") String key) {
+    }
+
+    /**
+     * A limited route.
+     */
+    public static final class Route {
+        private final String name;
+        private final boolean byPrincipal;
+        private final TokenBuckets buckets;
+        private final Counter rejected;
+
+        private Route(String name, boolean byPrincipal, TokenBuckets buckets, Counter rejected) {
+            this.name = name;
+            this.byPrincipal = byPrincipal;
+            this.buckets = buckets;
+            this.rejected = rejected;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Takes a token for the client sending the request.
+         *
+         * @return 0 if the request may proceed, otherwise the nanoseconds until it may be retried.
+         */
+        public long tryAcquire(HttpServletRequest request) {
+            long wait = buckets.tryAcquire(clientKey(request));
+            if (wait > 0) {
+                rejected.increment();
+            }
+            return wait;
+        }
+
+        private String clientKey(HttpServletRequest request) {
+            if (byPrincipal) {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.isAuthenticated()
+                        && !(authentication instanceof AnonymousAuthenticationToken)) {
+                    return "user:" + authentication.getName();
+                }
+            }
+            return "ip:" + request.getRemoteAddr();
+        }
+    }
+
+    private final boolean enabled;
+    /** Routes by method, then path. */
+    private final Map<String, Map<String, Route>> routes = new HashMap<>();
+    private final List<Route> allRoutes;
+
+    public RateLimiter(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("rate-limit.enabled", Boolean.class, true);
+        int maxKeys = environment.getProperty("rate-limit.max-keys", Integer.class, 100_000);
+        Duration idleTimeout = environment.getProperty("rate-limit.idle-timeout", Duration.class, Duration.ofMinutes(10));
+        Map<String, Limit> limits = Binder.get(environment)
+                .bind("rate-limit.routes", Bindable.mapOf(String.class, Limit.class))
+                .orElse(Map.of());
+
+        for (Map.Entry<String, Limit> entry : limits.entrySet()) {
+            String name = entry.getKey();
+            Limit limit = entry.getValue();
+            if (limit.method() == null || limit.method().isEmpty() || limit.paths() == null || limit.paths().isEmpty()) {
+                throw new IllegalStateException("rate-limit.routes." + name + " needs a method and at least one path");
+            }
+
+            TokenBuckets buckets = new TokenBuckets(limit.capacity(), limit.perMinute() / 60.0, maxKeys, idleTimeout.toNanos());
+            Counter rejected = Counter.builder("rate.limit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Gauge.builder("rate.limit.keys", buckets, TokenBuckets::size)
+                    .description("Clients with a token bucket")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Route route = new Route(name, !"ip".equalsIgnoreCase(limit.key()), buckets, rejected);
+
+            for (String method : limit.method()) {
+                Map<String, Route> byPath = routes.computeIfAbsent(method.toUpperCase(Locale.ROOT), key -> new HashMap<>());
+                limit.paths().forEach(path -> byPath.put(normalize(path), route));
+            }
+            log.info("🚧 Rate limit {}: {} {} — burst {}, {}/min per {}",
+                    name, limit.method(), limit.paths(), limit.capacity(), limit.perMinute(), limit.key());
+        }
+        this.allRoutes = routes.values().stream().flatMap(byPath -> byPath.values().stream()).distinct().toList();
+    }
+
+    /**
+     * Returns the limited route a request belongs to.
+     *
+     * @return The route, or {@code null} if the request is not limited.
+     */
+    public Route routeFor(HttpServletRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        Map<String, Route> byPath = routes.get(request.getMethod());
+        return byPath != null ? byPath.get(normalize(request.getRequestURI())) : null;
+    }
+
+    /**
+     * Drops the buckets of clients that have been idle for longer than {@code rate-limit.idle-timeout}.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}",
+            initialDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        int removed = 0;
+        for (Route route : allRoutes) {
+            removed += route.buckets.evictIdle();
+        }
+        if (removed > 0) {
+            log.debug("🚧 Evicted {} idle rate limit buckets", removed);
+        }
+    }
+
+    private static String normalize(String path) {
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+}
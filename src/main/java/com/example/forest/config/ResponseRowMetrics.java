@@ -0,0 +1,92 @@
+package com.example.forest.config;
+
+import com.example.forest.dto.CursorPage;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Collection;
+
+/**
+ * ResponseRowMetrics.java
+ *
+ * Counts the rows each endpoint returns, in the {@code http.server.response.rows} distribution
+ * summary tagged with the endpoint's {@code uri} template (matching {@code http.server.requests}).
+ * <p>
+ * Collections and {@link CursorPage} bodies are counted as they are written. Streamed listings
+ * bypass response body advice, so they report their row count through {@link #record} once the
+ * stream ends.
+ */
+@ControllerAdvice
+public class ResponseRowMetrics implements ResponseBodyAdvice<Object> {
+
+    private final MeterRegistry meterRegistry;
+
+    public ResponseRowMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int rows = -1;
+        if (body instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (body instanceof CursorPage<?> page && page.getItems() != null) {
+            rows = page.getItems().size();
+        }
+        if (rows >= 0 && request instanceof ServletServerHttpRequest servletRequest) {
+            record(uriOf(servletRequest.getServletRequest()), rows);
+        }
+        return body;
+    }
+
+    /**
+     * Records the number of rows returned by one request.
+     *
+     * @param uri  The endpoint's URI template.
+     * @param rows The number of rows.
+     */
+    public void record(String uri, long rows) {
+        DistributionSummary.builder("http.server.response.rows")
+                .description("Rows returned per request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    /**
+     * Returns the URI template of the request being handled on this thread.
+     *
+     * @return The template, or {@code UNKNOWN} outside a request.
+     */
+    public static String currentUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object pattern = attributes != null
+                ? attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
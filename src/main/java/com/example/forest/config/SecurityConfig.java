@@ -15,6 +15,7 @@
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -38,6 +39,9 @@ public class SecurityConfig {
     // Custom JWT authentication filter that validates tokens in requests
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // Per-user / per-IP limits on expensive endpoints
+    private final RateLimiter rateLimiter;
+
     /**
      * Defines Spring Security's filter chain configuration.
      * Controls access to endpoints, CORS, sessions, and exception handling.
@@ -69,6 +73,7 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                         .requestMatchers(HttpMethod.GET, "/api/v1/mongo/posts/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/comments/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/v1/trending").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/search").permitAll()
                         .requestMatchers("/api/v1/subscriptions/**").permitAll()
 
                         // Allow media APIs (photo/video upload & fetch) publicly
@@ -85,6 +90,13 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                                 "/swagger-resources/**"
                         ).permitAll()
 
+                        // Health probes on the public port
+                        .requestMatchers(HttpMethod.GET, "/livez", "/readyz").permitAll()
+
+                        // Health checks and Prometheus scraping; actuator endpoints are only
+                        // served on the internal management port (management.server.port)
+                        .requestMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus").permitAll()
+
                         // Public endpoint for RAG (AI chat)
                         .requestMatchers("/api/chat/**").permitAll()
 
@@ -104,6 +116,9 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
                 // Add custom JWT filter before Spring Security’s built-in authentication
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
 
+                // Rate limit once the caller is authenticated, so limits can be keyed by user
+                .addFilterBefore(new RateLimitFilter(rateLimiter), AnonymousAuthenticationFilter.class)
+
                 // Finalize and build the security chain
                 .build();
     }
@@ -0,0 +1,96 @@
+package com.example.forest.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ServiceMetricsConfig.java
+ *
+ * Times every public method of the {@code @Service} classes in
+ * {@code com.example.forest.service}, so a slow endpoint can be traced to the service call
+ * behind it.
+ * <p>
+ * Each call is recorded in the {@code service.method} timer, tagged with {@code class},
+ * {@code method} and {@code exception} ({@code none} on success); the timer's count doubles as
+ * the call and error counter. The advice is registered as an infrastructure advisor, so it is
+ * applied by the proxy creator Spring Boot already registers without AspectJ. Calls a service
+ * makes to itself are not proxied and therefore not timed, and for methods returning a
+ * {@code Flux} only assembly is timed, not the stream.
+ */
+@Configuration
+public class ServiceMetricsConfig {
+
+    private static final String SERVICE_PACKAGE = "com.example.forest.service.";
+
+    /**
+     * Creates the advisor timing service methods. The registry is looked up on first use so it
+     * is fully configured by then.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceMethodTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+
+        MethodInterceptor timing = invocation -> {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return invocation.proceed();
+            }
+            Method method = invocation.getMethod();
+            String className = invocation.getThis() != null
+                    ? invocation.getThis().getClass().getSimpleName()
+                    : method.getDeclaringClass().getSimpleName();
+            long start = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                successTimers.computeIfAbsent(className + "#" + method.getName(),
+                                key -> timer(registry, className, method.getName(), "none"))
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (Throwable e) {
+                timer(registry, className, method.getName(), e.getClass().getSimpleName())
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+        };
+
+        StaticMethodMatcherPointcut serviceMethods = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers())
+                        && !Modifier.isStatic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class;
+            }
+        };
+        serviceMethods.setClassFilter(type -> type.getName().startsWith(SERVICE_PACKAGE)
+                && AnnotatedElementUtils.hasAnnotation(type, Service.class));
+
+        return new DefaultPointcutAdvisor(serviceMethods, timing);
+    }
+
+    private static Timer timer(MeterRegistry registry, String className, String methodName, String exception) {
+        return Timer.builder("service.method")
+                .description("Time spent in public service methods")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.forest.config;
+
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoSubredditDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.mongodb.DBRef;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * SubredditCounterMigration.java
+ *
+ * Runs at application startup and converts subreddits created before the
+ * post and subscriber counters existed: counts are computed once from the
+ * posts and users collections and the legacy embedded {@code posts} array
+ * of DBRefs is removed.
+ * <p>
+ * Runs before {@link SubscriptionMigration}, which replaces {@code subscriberCount}
+ * with the number of subscription documents.
+ */
+@Component
+@Order(1)
+@AllArgsConstructor
+@Slf4j
+public class SubredditCounterMigration implements CommandLineRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Backfills {@code postCount} and {@code subscriberCount} on every subreddit
+     * that does not have them yet.
+     */
+    @Override
+    public void run(String... args) {
+        Query legacy = new Query(Criteria.where("postCount").exists(false));
+        legacy.fields().include("name");
+
+        int migrated = 0;
+        for (Document subreddit : mongoTemplate.find(legacy, Document.class, "subreddits")) {
+            ObjectId id = subreddit.getObjectId("_id");
+
+            long posts = mongoTemplate.count(
+                    new Query(Criteria.where("subreddit").is(new DBRef("subreddits", id))), MongoPostDocument.class);
+            long subscribers = mongoTemplate.count(
+                    new Query(Criteria.where("interests").is(subreddit.getString("name"))), MongoUserDocument.class);
+
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)),
+                    new Update().set("postCount", posts).set("subscriberCount", subscribers).unset("posts"),
+                    MongoSubredditDocument.class);
+            migrated++;
+        }
+        if (migrated > 0) {
+            log.info("Backfilled post/subscriber counters on {} legacy subreddits", migrated);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.forest.config;
+
+import com.example.forest.document.MongoSubredditDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.document.SubscriptionDocument;
+import com.example.forest.service.SubredditDirectory;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * SubscriptionMigration.java
+ *
+ * Runs at application startup and populates the {@code subscriptions} collection
+ * from users' {@code interests}, then rebuilds every subreddit's {@code subscriberCount}
+ * from the new documents.
+ * <p>
+ * Completion is recorded in the {@code migrations} collection only after the counters are
+ * rebuilt, so a run that stops midway is repeated in full on the next start. Both steps are
+ * idempotent: subscriptions are upserted on their (subreddit, user) key, and each counter is
+ * replaced by a count rather than incremented. Runs after {@link SubredditCounterMigration},
+ * whose interest-based {@code subscriberCount} it supersedes.
+ */
+@Component
+@Order(2)
+@AllArgsConstructor
+@Slf4j
+public class SubscriptionMigration implements CommandLineRunner {
+
+    private static final String MIGRATIONS_COLLECTION = "migrations";
+    private static final String MIGRATION_ID = "subscriptions-from-interests";
+
+    /** Number of subscription upserts sent per bulk write. */
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final SubredditDirectory subredditDirectory;
+
+    /**
+     * Creates one subscription per (user, subreddit-named interest) unless the migration has completed.
+     */
+    @Override
+    public void run(String... args) {
+        if (mongoTemplate.exists(new Query(Criteria.where("_id").is(MIGRATION_ID)), MIGRATIONS_COLLECTION)) {
+            return;
+        }
+
+        Query withInterests = new Query(Criteria.where("interests.0").exists(true));
+        withInterests.fields().include("interests");
+
+        int users = 0;
+        int pending = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SubscriptionDocument.class);
+        try (var cursor = mongoTemplate.stream(withInterests, Document.class,
+                mongoTemplate.getCollectionName(MongoUserDocument.class))) {
+            var iterator = cursor.iterator();
+            while (iterator.hasNext()) {
+                Document user = iterator.next();
+                String userId = user.getObjectId("_id").toHexString();
+                for (String interest : user.getList("interests", String.class)) {
+                    Optional<SubredditDirectory.Entry> subreddit = subredditDirectory.findByNameIgnoreCase(interest);
+                    if (subreddit.isPresent()) {
+                        bulk.upsert(
+                                new Query(Criteria.where("subredditId").is(subreddit.get().id()).and("userId").is(userId)),
+                                new Update()
+                                        .setOnInsert("subredditName", subreddit.get().name())
+                                        .setOnInsert("createdAt", Instant.now()));
+                        pending++;
+                    }
+                }
+                users++;
+                if (pending >= BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SubscriptionDocument.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+
+        rebuildSubscriberCounts();
+        mongoTemplate.save(new Document("_id", MIGRATION_ID).append("completedAt", Instant.now()), MIGRATIONS_COLLECTION);
+        log.info("Backfilled subscriptions for {} users from their interests", users);
+    }
+
+    /**
+     * Sets every subreddit's {@code subscriberCount} to its number of subscriptions, zero included,
+     * in one server-side aggregation that merges the counts back into {@code subreddits}.
+     */
+    private void rebuildSubscriberCounts() {
+        String subreddits = mongoTemplate.getCollectionName(MongoSubredditDocument.class);
+        List<Document> pipeline = List.of(
+                new Document("$project", new Document("_id", 1)),
+                new Document("$lookup", new Document("from", mongoTemplate.getCollectionName(SubscriptionDocument.class))
+                        .append("let", new Document("id", new Document("$toString", "$_id")))
+                        .append("pipeline", List.of(
+                                new Document("$match", new Document("$expr",
+                                        new Document("$eq", List.of("$subredditId", "$$id")))),
+                                new Document("$count", "n")))
+                        .append("as", "subscribers")),
+                new Document("$project", new Document("subscriberCount", new Document("$toLong",
+                        new Document("$ifNull", List.of(new Document("$arrayElemAt", List.of("$subscribers.n", 0)), 0))))),
+                new Document("$merge", new Document("into", subreddits)
+                        .append("on", "_id")
+                        .append("whenMatched", "merge")
+                        .append("whenNotMatched", "discard")));
+        mongoTemplate.getCollection(subreddits).aggregate(pipeline).toCollection();
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.forest.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * TokenBuckets.java
+ *
+ * One token bucket per key (user or IP), all with the same capacity and refill rate, held in a
+ * bounded map. Used by {@link RateLimiter}.
+ * <p>
+ * Each bucket is a single {@code long}, the time at which it will be full again (the "theoretical
+ * arrival time" of the generic cell rate algorithm), so a decision is one read and one
+ * compare-and-set, without locks or allocation. A bucket whose time has passed is full and
+ * carries no state worth keeping; such buckets are dropped by {@link #evictIdle} once idle for
+ * the configured timeout.
+ * <p>
+ * The map is split into stripes, each a {@link ConcurrentHashMap} holding at most its share of
+ * {@code maxKeys} (and at least {@value #MIN_STRIPE_SIZE} keys). When a new key arrives at a full
+ * stripe, one scan evicts an eighth of it: idle buckets first, then the buckets closest to full,
+ * so the scan is paid once per batch of new keys rather than for each one. An evicted key simply
+ * starts again with a full bucket; a drained bucket, whose client is being limited, is the last
+ * to go. Only one thread evicts from a stripe at a time, via a non-blocking
+ * {@link ReentrantLock#tryLock()}; other threads insert without waiting, so the bound is soft by
+ * at most one bucket per concurrently inserting thread.
+ */
+public class TokenBuckets {
+
+    private static final int STRIPES = 64;
+    private static final int MIN_STRIPE_SIZE = 16;
+    /** A full stripe evicts this fraction of its buckets at once. */
+    private static final int EVICTION_FRACTION = 8;
+
+    /** Nanoseconds for one token to be refilled. */
+    private final long intervalNanos;
+    /** How far ahead of now a bucket's time may run: capacity x interval. */
+    private final long burstNanos;
+    private final long idleNanos;
+    private final LongSupplier ticker;
+    private final long origin;
+    private final Stripe[] stripes;
+
+    /**
+     * A bucket: the time, relative to {@code origin}, at which it will hold {@code capacity} tokens again.
+     */
+    private static final class Bucket extends AtomicLong {
+    }
+
+    private static final class Stripe {
+        final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+        final ReentrantLock evictionLock = new ReentrantLock();
+        final int maxSize;
+
+        Stripe(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * @param capacity        Tokens a full bucket holds (the burst).
+     * @param tokensPerSecond Refill rate.
+     * @param maxKeys         Maximum number of buckets kept.
+     * @param idleNanos       How long a full bucket is kept before it may be evicted.
+     */
+    public TokenBuckets(long capacity, double tokensPerSecond, int maxKeys, long idleNanos) {
+        this(capacity, tokensPerSecond, maxKeys, idleNanos, System::nanoTime);
+    }
+
+    TokenBuckets(long capacity, double tokensPerSecond, int maxKeys, long idleNanos, LongSupplier ticker) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("A token bucket needs a capacity >= 1 and a positive rate");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.burstNanos = capacity * intervalNanos;
+        this.idleNanos = Math.max(0, idleNanos);
+        this.ticker = ticker;
+        this.origin = ticker.getAsLong();
+
+        int stripeCount = Math.min(STRIPES, Integer.highestOneBit(Math.max(1, maxKeys / MIN_STRIPE_SIZE)));
+        int perStripe = Math.max(1, (maxKeys + stripeCount - 1) / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Takes a token from the key's bucket if one is available.
+     *
+     * @param key The user or IP.
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available.
+     */
+    public long tryAcquire(String key) {
+        long now = ticker.getAsLong() - origin;
+        Bucket bucket = bucket(key, now);
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Removes buckets that have been full for longer than the idle timeout.
+     *
+     * @return The number of buckets removed.
+     */
+    public int evictIdle() {
+        long now = ticker.getAsLong() - origin;
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            removed += evictIdle(stripe, now);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of buckets currently kept.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private Bucket bucket(String key, long now) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        Bucket bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.buckets.size() >= stripe.maxSize) {
+            makeRoom(stripe, now);
+        }
+        return stripe.buckets.computeIfAbsent(key, k -> new Bucket());
+    }
+
+    /**
+     * Evicts a batch from a full stripe: idle buckets, then as many of the buckets closest to full
+     * as needed. Skipped if another thread is already evicting from the stripe.
+     */
+    private void makeRoom(Stripe stripe, long now) {
+        if (!stripe.evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            if (stripe.buckets.size() < stripe.maxSize) {
+                return;
+            }
+            int batch = Math.max(1, stripe.maxSize / EVICTION_FRACTION);
+            // The batch closest to full; the farthest from full is on top, dropped when the heap overflows
+            PriorityQueue<Candidate> fullest = new PriorityQueue<>(Comparator.comparingLong(Candidate::fullAt).reversed());
+            int removed = 0;
+            for (Iterator<Map.Entry<String, Bucket>> it = stripe.buckets.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Bucket> entry = it.next();
+                long fullAt = entry.getValue().get();
+                if (fullAt + idleNanos < now) {
+                    it.remove();
+                    removed++;
+                } else {
+                    fullest.add(new Candidate(entry.getKey(), entry.getValue(), fullAt));
+                    if (fullest.size() > batch) {
+                        fullest.poll();
+                    }
+                }
+            }
+            if (removed < batch) {
+                List<Candidate> candidates = new ArrayList<>(fullest);
+                candidates.sort(Comparator.comparingLong(Candidate::fullAt));
+                for (Candidate candidate : candidates.subList(0, Math.min(batch - removed, candidates.size()))) {
+                    stripe.buckets.remove(candidate.key(), candidate.bucket());
+                }
+            }
+        } finally {
+            stripe.evictionLock.unlock();
+        }
+    }
+
+    private record Candidate(String key, Bucket bucket, long fullAt) {
+    }
+
+    private int evictIdle(Stripe stripe, long now) {
+        int before = stripe.buckets.size();
+        stripe.buckets.values().removeIf(bucket -> bucket.get() + idleNanos < now);
+        return before - stripe.buckets.size();
+    }
+}
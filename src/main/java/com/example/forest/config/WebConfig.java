@@ -1,11 +1,17 @@
 package com.example.forest.config;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 /**
  * WebConfig.java
  *
@@ -13,11 +19,33 @@
  * This class enables the frontend (e.g., Angular on localhost:4200)
  * to communicate with the Spring Boot backend, and also ensures
  * that Swagger UI and WebJARs resources are served correctly.
+ * It also runs asynchronous requests (streamed downloads and NDJSON listings) on their own
+ * executor with the configured timeout; {@code @EnableWebMvc} turns off Boot's MVC
+ * auto-configuration, which would otherwise apply {@code spring.mvc.async.*}.
  */
 @Configuration
 @EnableWebMvc
 public class WebConfig implements WebMvcConfigurer {
 
+    private final AsyncTaskExecutor mvcAsyncExecutor;
+    private final Duration asyncRequestTimeout;
+
+    public WebConfig(@Qualifier("mvcAsyncExecutor") AsyncTaskExecutor mvcAsyncExecutor,
+                     @Value("${spring.mvc.async.request-timeout:5m}") Duration asyncRequestTimeout) {
+        this.mvcAsyncExecutor = mvcAsyncExecutor;
+        this.asyncRequestTimeout = asyncRequestTimeout;
+    }
+
+    /**
+     * Runs asynchronous requests on the dedicated {@code mvcAsyncExecutor}, keeping the
+     * {@code @Async} pool free for short background tasks.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+        configurer.setDefaultTimeout(asyncRequestTimeout.toMillis());
+    }
+
     /**
      * Defines global CORS configuration.
      * Allows requests from the frontend domain to access backend APIs.
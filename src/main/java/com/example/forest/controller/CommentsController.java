@@ -1,10 +1,14 @@
 package com.example.forest.controller;
 
+import com.example.forest.dto.CommentThreadDto;
 import com.example.forest.dto.CommentsDto;
+import com.example.forest.dto.CursorPage;
 import com.example.forest.service.MongoCommentService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -49,6 +53,33 @@ public ResponseEntity<List<CommentsDto>> getAllComments() {
                 .body(commentService.getAllComments());
     }
 
+    /**
+     * Retrieves one page of all comments, ordered by creation (ID).
+     *
+     * @param after Cursor from the previous page (omit for the first page)
+     * @param limit Maximum number of comments per page
+     * @return A cursor page of comments
+     */
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<CommentsDto>> getCommentsPage(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.status(OK)
+                .body(commentService.getCommentsPage(after, limit));
+    }
+
+    /**
+     * Streams all comments as newline-delimited JSON (one comment per line) for bulk consumers.
+     *
+     * @return A streaming NDJSON response
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllComments() {
+        return ResponseEntity.status(OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(commentService.streamAllComments());
+    }
+
     /**
      * Retrieves all comments associated with a specific post.
      *
@@ -61,6 +92,42 @@ public ResponseEntity<List<CommentsDto>> getAllCommentsForPost(@PathVariable Str
                 .body(commentService.getAllCommentsForPost(postId));
     }
 
+    /**
+     * Retrieves a page of comment threads for a post: top-level comments, each with its first replies.
+     *
+     * @param postId  The ID of the post
+     * @param after   Cursor from the previous page (omit for the first page)
+     * @param limit   Maximum number of top-level comments per page
+     * @param replies Maximum number of replies included per top-level comment
+     * @return A cursor page of comment threads
+     */
+    @GetMapping("/post-id/{postId}/threads")
+    public ResponseEntity<CursorPage<CommentThreadDto>> getCommentThreads(
+            @PathVariable String postId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "replies", defaultValue = "3") int replies) {
+        return ResponseEntity.status(OK)
+                .body(commentService.getCommentThreads(postId, after, limit, replies));
+    }
+
+    /**
+     * Expands the replies below a comment, in depth-first order.
+     *
+     * @param commentId The ID of the comment whose subtree is requested
+     * @param after     Cursor from the previous page or from a thread's {@code repliesCursor}
+     * @param limit     Maximum number of replies per page
+     * @return A cursor page of replies
+     */
+    @GetMapping("/{commentId}/replies")
+    public ResponseEntity<CursorPage<CommentsDto>> getReplies(
+            @PathVariable String commentId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.status(OK)
+                .body(commentService.getReplies(commentId, after, limit));
+    }
+
     /**
      * Retrieves all comments made by a specific user.
      *
@@ -73,6 +140,36 @@ public ResponseEntity<List<CommentsDto>> getAllCommentsForUser(@PathVariable Str
                 .body(commentService.getAllCommentsForUser(userName));
     }
 
+    /**
+     * Retrieves one page of a user's comments, ordered by creation (ID).
+     *
+     * @param userName The username whose comments are requested
+     * @param after    Cursor from the previous page (omit for the first page)
+     * @param limit    Maximum number of comments per page
+     * @return A cursor page of comments authored by the user
+     */
+    @GetMapping("/username/{userName}/page")
+    public ResponseEntity<CursorPage<CommentsDto>> getCommentsPageForUser(
+            @PathVariable String userName,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        return ResponseEntity.status(OK)
+                .body(commentService.getCommentsPageForUser(userName, after, limit));
+    }
+
+    /**
+     * Streams a user's comments as newline-delimited JSON (one comment per line).
+     *
+     * @param userName The username whose comments are requested
+     * @return A streaming NDJSON response
+     */
+    @GetMapping(value = "/username/{userName}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCommentsForUser(@PathVariable String userName) {
+        return ResponseEntity.status(OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(commentService.streamCommentsForUser(userName));
+    }
+
     /**
      * Updates an existing comment.
      *
@@ -0,0 +1,40 @@
+package com.example.forest.controller;
+
+import com.example.forest.dto.DeletionJobResponse;
+import com.example.forest.service.DeletionJobService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * DeletionJobController.java
+ *
+ * Exposes the progress of background cascade deletions started by
+ * deleting a subreddit or a post.
+ *
+ * Base endpoint: /api/v1/deletion-jobs
+ */
+@RestController
+@RequestMapping("/api/v1/deletion-jobs")
+@AllArgsConstructor
+public class DeletionJobController {
+
+    private final DeletionJobService deletionJobService;
+
+    /**
+     * Retrieves the status and progress counters of a deletion job.
+     * Only the user who requested the deletion or an admin may view it.
+     *
+     * @param id The job ID returned by the delete request.
+     * @return The job status with HTTP 200 (OK).
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<DeletionJobResponse> getJob(@PathVariable String id) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(deletionJobService.getJob(id));
+    }
+}
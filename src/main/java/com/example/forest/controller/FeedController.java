@@ -3,10 +3,12 @@
 import com.example.forest.dto.PostResponse;
 import com.example.forest.service.FeedService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -36,4 +38,15 @@ public ResponseEntity<List<PostResponse>> getMyFeed() {
         // Delegate feed generation logic to the FeedService
         return ResponseEntity.ok(feedService.getMyFeed());
     }
+
+    /**
+     * Streams the authenticated user's feed as newline-delimited JSON, newest first,
+     * for clients sending {@code Accept: application/x-ndjson}.
+     *
+     * @return A stream of {@link PostResponse} objects, read as the client consumes it
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PostResponse> streamMyFeed() {
+        return feedService.streamMyFeed();
+    }
 }
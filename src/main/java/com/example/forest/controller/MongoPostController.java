@@ -1,21 +1,27 @@
 package com.example.forest.controller;
 
 import com.example.forest.Exceptions.ValidationExceptions;
+import com.example.forest.dto.CursorPage;
+import com.example.forest.dto.DeletionJobResponse;
 import com.example.forest.dto.MongoPostRequest;
 import com.example.forest.dto.PostResponse;
+import com.example.forest.dto.PostSuggestion;
 import com.example.forest.service.MongoPostService;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
-import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.ResponseEntity.status;
 
 /**
@@ -75,6 +81,17 @@ public ResponseEntity<List<PostResponse>> getAllPosts() {
         return status(HttpStatus.OK).body(mongoPostService.getAllPosts());
     }
 
+    /**
+     * Streams all posts as newline-delimited JSON, newest first, for clients sending
+     * {@code Accept: application/x-ndjson}.
+     *
+     * @return A stream of posts, read from the database as the client consumes it.
+     */
+    @GetMapping(value = {"", "/"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PostResponse> streamAllPosts() {
+        return mongoPostService.streamAllPosts();
+    }
+
     /**
      * Retrieves a single post by its ID.
      *
@@ -97,6 +114,37 @@ public ResponseEntity<List<PostResponse>> getPostsBySubreddit(@PathVariable Stri
         return status(HttpStatus.OK).body(mongoPostService.getPostsBySubreddit(subredditId));
     }
 
+    /**
+     * Streams the posts of a subreddit as newline-delimited JSON, newest first.
+     *
+     * @param subredditId The ID of the subreddit.
+     * @return A stream of the subreddit's posts.
+     */
+    @GetMapping(value = "/subreddit-id/{subredditId}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PostResponse> streamPostsBySubreddit(@PathVariable String subredditId) {
+        return mongoPostService.streamPostsBySubreddit(subredditId);
+    }
+
+    /**
+     * Retrieves one sorted page of a subreddit's posts.
+     *
+     * @param subredditId The ID of the subreddit.
+     * @param sort        {@code hot}, {@code new} or {@code top}.
+     * @param window      Time window for {@code top}: {@code day} (default), {@code week} or {@code all}.
+     * @param after       Cursor from the previous page's {@code nextCursor}.
+     * @param limit       Page size (default 25, max 100).
+     * @return One page of posts in the requested order.
+     */
+    @GetMapping(value = "/subreddit-id/{subredditId}", params = "sort")
+    public ResponseEntity<CursorPage<PostResponse>> getSortedPostsBySubreddit(
+            @PathVariable String subredditId,
+            @RequestParam String sort,
+            @RequestParam(defaultValue = "day") String window,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "25") int limit) {
+        return ResponseEntity.ok(mongoPostService.getPostsBySubreddit(subredditId, sort, window, after, limit));
+    }
+
     /**
      * Retrieves posts created by a specific user.
      *
@@ -108,6 +156,17 @@ public ResponseEntity<List<PostResponse>> getPostsByUsername(@PathVariable Strin
         return status(HttpStatus.OK).body(mongoPostService.getPostsByUsername(username));
     }
 
+    /**
+     * Streams the posts created by a user as newline-delimited JSON, newest first.
+     *
+     * @param username The username whose posts should be streamed.
+     * @return A stream of the user's posts.
+     */
+    @GetMapping(value = "/user/{username}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PostResponse> streamPostsByUsername(@PathVariable String username) {
+        return mongoPostService.streamPostsByUsername(username);
+    }
+
     /**
      * Updates an existing post.
      * Requires the authenticated user to have either USER or ADMIN role.
@@ -132,23 +191,62 @@ public ResponseEntity<PostResponse> updatePost(@Valid @RequestBody MongoPostRequ
     /**
      * Deletes a post by its ID.
      *
+     * The post disappears immediately; comments, votes and media are removed in the background.
+     *
      * @param id The ID of the post to delete.
-     * @return HTTP 200 (OK) on successful deletion.
+     * @return The queued deletion job with HTTP 202 (Accepted).
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deletePost(@PathVariable String id) {
-        mongoPostService.delete(id);
-        return new ResponseEntity<>(OK);
+    public ResponseEntity<DeletionJobResponse> deletePost(@PathVariable String id) {
+        return status(HttpStatus.ACCEPTED).body(mongoPostService.delete(id));
     }
 
     /**
-     * Searches posts by text query (e.g., keyword, title, or content).
+     * Searches posts by text query over titles and descriptions, ranked by relevance.
+     * Returns the best matches as a plain list; see {@link #searchPostsPage} for paging and filters.
      *
      * @param query The search keyword or phrase.
-     * @return A list of posts matching the search criteria.
+     * @param limit Maximum number of posts (default 20, max 100).
+     * @return Matching posts, best match first.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<PostResponse>> searchPosts(@RequestParam("query") String query) {
-        return ResponseEntity.ok(mongoPostService.searchPosts(query));
+    public ResponseEntity<List<PostResponse>> searchPosts(@RequestParam("query") String query,
+                                                          @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(mongoPostService.searchPosts(query, null, null, null, null, limit).getItems());
+    }
+
+    /**
+     * Searches posts by text query over titles and descriptions, ranked by relevance, one page at a time.
+     *
+     * @param query     The search keyword or phrase.
+     * @param subreddit Optional subreddit name filter.
+     * @param from      Optional ISO-8601 lower bound on creation time (inclusive).
+     * @param to        Optional ISO-8601 upper bound on creation time (exclusive).
+     * @param after     Cursor from the previous page's {@code nextCursor}.
+     * @param limit     Page size (default 20, max 100).
+     * @return One page of matching posts, best match first.
+     */
+    @GetMapping("/search/page")
+    public ResponseEntity<CursorPage<PostResponse>> searchPostsPage(
+            @RequestParam("query") String query,
+            @RequestParam(required = false) String subreddit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(mongoPostService.searchPosts(query, subreddit, from, to, after, limit));
+    }
+
+    /**
+     * Suggests post titles for the search box; served from memory on every keystroke.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  Maximum number of suggestions (default and max 10).
+     * @return Matching posts, most upvoted first.
+     */
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<PostSuggestion>> suggestTitles(@RequestParam String prefix,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(mongoPostService.suggestTitles(prefix, limit));
     }
 }
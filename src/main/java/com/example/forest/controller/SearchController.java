@@ -0,0 +1,54 @@
+package com.example.forest.controller;
+
+import com.example.forest.dto.CursorPage;
+import com.example.forest.dto.SearchResult;
+import com.example.forest.service.SearchService;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+/**
+ * SearchController.java
+ *
+ * Exposes unified full-text search over posts and comments.
+ *
+ * Base endpoint: /api/v1/search
+ */
+@RestController
+@RequestMapping("/api/v1/search")
+@AllArgsConstructor
+public class SearchController {
+
+    private final SearchService searchService;
+
+    /**
+     * Searches posts and comments, best match first. Comment hits include the
+     * title and an excerpt of the post they belong to.
+     *
+     * @param query     Free-text query.
+     * @param type      {@code all} (default), {@code posts} or {@code comments}.
+     * @param subreddit Optional subreddit name to restrict results to.
+     * @param from      Optional inclusive lower bound on creation time (ISO-8601).
+     * @param to        Optional exclusive upper bound on creation time (ISO-8601).
+     * @param after     Cursor returned as {@code nextCursor} by the previous page.
+     * @param limit     Page size (default 20, max 100).
+     * @return One page of ranked results.
+     */
+    @GetMapping
+    public ResponseEntity<CursorPage<SearchResult>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "all") String type,
+            @RequestParam(required = false) String subreddit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(query, type, subreddit, from, to, after, limit));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.forest.controller;
 
+import com.example.forest.dto.DeletionJobResponse;
 import com.example.forest.dto.SubredditDto;
 import com.example.forest.service.MongoSubredditService;
 import lombok.AllArgsConstructor;
@@ -11,8 +12,6 @@
 
 import java.util.List;
 
-import static org.springframework.http.HttpStatus.OK;
-
 /**
  * SubredditController.java
  *
@@ -57,6 +56,22 @@ public ResponseEntity<List<SubredditDto>> getAllSubreddits() {
                 .body(subredditService.getAll());
     }
 
+    /**
+     * Suggests subreddits for autocomplete by name prefix.
+     * Accessible publicly — served from the in-memory subreddit directory.
+     *
+     * @param prefix The prefix typed so far.
+     * @param limit  Maximum number of suggestions (default 10).
+     * @return Matching subreddits (ID and name) with HTTP 200 (OK).
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SubredditDto>> suggest(@RequestParam String prefix,
+                                                      @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(subredditService.suggest(prefix, limit));
+    }
+
     /**
      * Retrieves a specific subreddit by its ID.
      *
@@ -88,13 +103,16 @@ public ResponseEntity<SubredditDto> updateSubreddit(@RequestBody SubredditDto su
      * Deletes a subreddit by its ID.
      * Accessible to users and admins only.
      *
+     * The subreddit is hidden immediately and its content is removed in the background.
+     *
      * @param id The unique identifier of the subreddit to be deleted.
-     * @return HTTP 200 (OK) after successful deletion.
+     * @return The queued deletion job with HTTP 202 (Accepted).
      */
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-    public ResponseEntity<Void> deleteSubreddit(@PathVariable String id) {
-        subredditService.delete(id);
-        return new ResponseEntity<>(OK);
+    public ResponseEntity<DeletionJobResponse> deleteSubreddit(@PathVariable String id) {
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(subredditService.delete(id));
     }
 }
@@ -3,10 +3,12 @@
 import com.example.forest.dto.PostResponse;
 import com.example.forest.service.TrendingService;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -35,4 +37,15 @@ public ResponseEntity<List<PostResponse>> getTrendingPosts() {
         // Delegate trending post retrieval to the service layer
         return ResponseEntity.ok(trendingService.getTrendingPosts());
     }
+
+    /**
+     * Streams the currently trending posts as newline-delimited JSON, best first,
+     * for clients sending {@code Accept: application/x-ndjson}.
+     *
+     * @return A stream of {@link PostResponse} objects
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PostResponse> streamTrendingPosts() {
+        return trendingService.streamTrendingPosts();
+    }
 }
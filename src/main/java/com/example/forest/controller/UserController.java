@@ -5,6 +5,8 @@
 import lombok.AllArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -37,4 +39,15 @@ public ResponseEntity<List<PostResponse>> getMyFeed() {
         // Delegate feed retrieval logic to the UserService
         return ResponseEntity.ok(userService.getMyFeed());
     }
+
+    /**
+     * Sets how long comment notifications are collected into one digest email.
+     *
+     * @param minutes The window length in minutes, or {@code null} to use the default.
+     * @return The stored window length.
+     */
+    @PutMapping("/notification-window")
+    public ResponseEntity<Integer> updateNotificationWindow(@RequestBody(required = false) Integer minutes) {
+        return ResponseEntity.ok(userService.updateNotificationWindow(minutes));
+    }
 }
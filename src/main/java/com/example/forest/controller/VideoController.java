@@ -1,12 +1,15 @@
 package com.example.forest.controller;
 
 import com.example.forest.dto.VideoResponse;
+import com.example.forest.model.VideoMetadata;
 import com.example.forest.service.VideoService;
-import com.mongodb.client.gridfs.model.GridFSFile;
-import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -30,11 +33,21 @@ public class VideoController {
 
     private final VideoService videoService;
 
+    /** Upper bound on the number of bytes returned for a single range request. */
+    private final long maxRangeBytes;
+
+    /** Largest video returned whole to a request without a {@code Range} header. */
+    private final long maxFullBytes;
+
     /**
      * Injects the VideoService dependency used for handling video operations.
      */
-    public VideoController(VideoService videoService) {
+    public VideoController(VideoService videoService,
+                           @Value("${video.stream.max-range-bytes:1048576}") long maxRangeBytes,
+                           @Value("${video.stream.max-full-bytes:8388608}") long maxFullBytes) {
         this.videoService = videoService;
+        this.maxRangeBytes = maxRangeBytes;
+        this.maxFullBytes = maxFullBytes;
     }
 
     /**
@@ -93,34 +106,88 @@ public ResponseEntity<VideoResponse> getVideo(@PathVariable String id) {
     }
 
     /**
-     * Streams a stored video directly to the client.
+     * Streams a stored video directly to the client, honouring HTTP byte-range requests.
      *
-     * @param id The unique ID of the video to stream.
-     * @return Video content as binary data with proper MIME type,
-     *         or 404 if the video is not found.
+     * @param id    The unique ID of the video to stream.
+     * @param range Optional {@code Range} header (e.g., {@code bytes=0-1048575}).
+     * @return The full video (200), the requested segment (206), 404 if the video is
+     *         not found, or 416 if the range cannot be satisfied.
      *
      * Notes:
-     *  - Uses GridFS for efficient large file streaming.
-     *  - Sets content type dynamically based on stored metadata.
+     *  - Metadata (length, chunk size, content type) comes from the metadata cache,
+     *    so segment fetches read only the overlapping GridFS chunks.
+     *  - Open-ended ranges are capped at {@code video.stream.max-range-bytes}.
+     *  - Videos larger than {@code video.stream.max-full-bytes} are never returned whole:
+     *    a request without a range gets the first segment as 206, like {@code bytes=0-}.
      */
     @GetMapping(value = "/stream/{id}", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<byte[]> streamVideo(@PathVariable String id) throws IOException {
-        GridFSFile file = videoService.getFile(id);
+    public ResponseEntity<byte[]> streamVideo(@PathVariable String id,
+                                              @RequestHeader(value = HttpHeaders.RANGE, required = false) String range) {
+        VideoMetadata metadata = videoService.getMetadata(id);
 
         // Return 404 if no matching video is found
-        if (file == null) {
+        if (metadata == null) {
             return ResponseEntity.notFound().build();
         }
 
-        // Convert GridFS file into a resource stream
-        GridFsResource resource = videoService.getResource(file);
+        long length = metadata.getLength();
+        MediaType contentType = MediaType.valueOf(metadata.getContentType());
 
-        // Read video bytes from the input stream
-        byte[] videoBytes = resource.getInputStream().readAllBytes();
+        // Large file without a range: serve the first segment, as for "bytes=0-"
+        if (range == null && length > maxFullBytes) {
+            range = "bytes=0-";
+        }
+
+        // No range requested: return the whole file
+        if (range == null || length == 0) {
+            byte[] videoBytes = length == 0 ? new byte[0] : videoService.readRange(metadata, 0, length - 1);
+            return withValidators(ResponseEntity.ok(), metadata)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .contentType(contentType)
+                    .body(videoBytes);
+        }
+
+        long start;
+        long end;
+        try {
+            HttpRange httpRange = HttpRange.parseRanges(range).get(0);
+            start = httpRange.getRangeStart(length);
+            end = Math.min(httpRange.getRangeEnd(length), start + maxRangeBytes - 1);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+
+        // Return the requested segment with 206 (Partial Content)
+        return withValidators(ResponseEntity.status(HttpStatus.PARTIAL_CONTENT), metadata)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length)
+                .contentType(contentType)
+                .body(videoService.readRange(metadata, start, end));
+    }
 
-        // Return binary response with appropriate content type
-        return ResponseEntity.ok()
-                .contentType(MediaType.valueOf(file.getMetadata().get("_contentType").toString()))
-                .body(videoBytes);
+    /**
+     * Deletes a stored video and evicts its cached metadata.
+     * Only admins and the user who uploaded the video may delete it.
+     *
+     * @param id The unique ID of the video to delete.
+     * @return HTTP 200 (OK) after deletion.
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or @videoService.isUploader(#id, authentication.name)")
+    public ResponseEntity<Void> deleteVideo(@PathVariable String id) {
+        videoService.deleteVideo(id);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    /**
+     * Adds an ETag derived from the stored content hash, when available.
+     */
+    private ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, VideoMetadata metadata) {
+        if (metadata.getHash() != null) {
+            builder.eTag(metadata.getHash());
+        }
+        return builder;
     }
 }
@@ -2,12 +2,15 @@
 
 import com.example.forest.Exceptions.CustomException;
 import com.example.forest.dto.VoteDto;
+import com.example.forest.dto.VoteResult;
 import com.example.forest.service.MongoVoteService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * VoteController.java
  *
@@ -45,4 +48,21 @@ public ResponseEntity<String> vote(@RequestBody VoteDto voteDto) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
         }
     }
+
+    /**
+     * Applies a batch of queued votes (e.g. replayed by an offline client) in one request.
+     * Votes are applied in order with the same toggle semantics as single votes.
+     *
+     * @param votes The votes to apply, oldest first.
+     * @return HTTP 200 (OK) with one result per vote, or 400 (Bad Request) if the batch is rejected.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> voteBatch(@RequestBody List<VoteDto> votes) {
+        try {
+            List<VoteResult> results = voteService.voteBatch(votes);
+            return ResponseEntity.ok(results);
+        } catch (CustomException ex) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package com.example.forest.document;
+
+import com.example.forest.model.DeletionJobStatus;
+import com.example.forest.model.DeletionTargetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DeletionJobDocument.java
+ *
+ * A background cascade deletion, stored in the MongoDB "deletion_jobs" collection.
+ * The target is hidden as soon as the job is created; the job then removes dependent
+ * comments, votes, media and posts in batches, checkpointing its progress after each
+ * batch so that it resumes where it left off after a restart.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "deletion_jobs")
+@CompoundIndex(name = "status_created", def = "{'status': 1, 'createdAt': 1}")
+public class DeletionJobDocument {
+
+    /** Unique identifier for the job (auto-generated by MongoDB). */
+    @Id
+    private String id;
+
+    /** The kind of entity being deleted. */
+    private DeletionTargetType targetType;
+
+    /** ID of the subreddit or post being deleted. */
+    @Indexed
+    private String targetId;
+
+    /** Display name of the target (subreddit name or post title), kept for status reporting. */
+    private String targetName;
+
+    /** Username of the user who requested the deletion. */
+    private String requestedBy;
+
+    /** Current progress state. */
+    @Builder.Default
+    private DeletionJobStatus status = DeletionJobStatus.PENDING;
+
+    /** Photo IDs captured before a post was removed; used by post jobs. */
+    private List<String> photoIds;
+
+    /** Video IDs captured before a post was removed; used by post jobs. */
+    private List<String> videoIds;
+
+    /** Checkpoint: the last post ID whose dependents have been fully removed (subreddit jobs). */
+    private String lastPostId;
+
+    /** Number of posts removed so far. */
+    private long deletedPosts;
+
+    /** Number of comments removed so far. */
+    private long deletedComments;
+
+    /** Number of votes removed so far. */
+    private long deletedVotes;
+
+    /** Number of photos and videos removed so far. */
+    private long deletedMedia;
+
+    /** Number of times the job has been started (including resumes after failures). */
+    private int attempts;
+
+    /** Lease expiry while {@link DeletionJobStatus#RUNNING}; expired leases are reclaimed. */
+    private Instant lockedUntil;
+
+    /** Timestamp representing when the job was requested. */
+    private Instant createdAt;
+
+    /** Timestamp of the most recent checkpoint. */
+    private Instant updatedAt;
+
+    /** Timestamp representing when the job finished. */
+    private Instant completedAt;
+
+    /** Error message from the most recent failed run. */
+    private String lastError;
+}
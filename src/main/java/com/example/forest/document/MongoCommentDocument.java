@@ -4,6 +4,8 @@
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -14,11 +16,20 @@
  *
  * Represents a comment stored in the MongoDB "comments" collection.
  * Each comment is linked to a post and a user using database references (DBRef).
+ * <p>
+ * Replies are stored as a tree using a materialized path: every comment's {@code path}
+ * is its parent's path followed by {@code "/"} and its own ID (top-level comments use
+ * just their ID). Sorting by path yields depth-first thread order, and any subtree is
+ * a contiguous range of the {@code (post, path)} index.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "comments")
+@CompoundIndexes({
+        @CompoundIndex(name = "post_path", def = "{'post': 1, 'path': 1}"),
+        @CompoundIndex(name = "user_id", def = "{'user': 1, '_id': 1}")
+})
 public class MongoCommentDocument {
 
     /** Unique identifier for the comment (auto-generated by MongoDB). */
@@ -38,4 +49,16 @@ public class MongoCommentDocument {
     /** Reference to the user who authored this comment. */
     @DBRef
     private MongoUserDocument user;
+
+    /** ID of the comment this one replies to, or {@code null} for top-level comments. */
+    private String parentId;
+
+    /** Materialized path of ancestor IDs ending with this comment's ID, separated by "/". */
+    private String path;
+
+    /** Nesting level of the comment (0 for top-level comments). */
+    private int depth;
+
+    /** Number of direct replies to this comment. */
+    private int replyCount;
 }
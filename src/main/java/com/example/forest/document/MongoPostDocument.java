@@ -5,6 +5,8 @@
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -17,12 +19,21 @@
  * Each post belongs to a subreddit, is created by a user, and may
  * contain attached media (photo or video). The post also maintains
  * voting, notification, and timestamp details.
+ * <p>
+ * Subreddit listings sort by {@code hotScore}, {@code createdDate} or {@code voteCount};
+ * each has a compound index led by the subreddit (with {@code _id} as tie-breaker), so every
+ * listing page is a bounded index range scan.
  */
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "posts")
+@CompoundIndexes({
+        @CompoundIndex(name = "subreddit_hot", def = "{'subreddit': 1, 'hotScore': -1, '_id': -1}"),
+        @CompoundIndex(name = "subreddit_created", def = "{'subreddit': 1, 'createdDate': -1, '_id': -1}"),
+        @CompoundIndex(name = "subreddit_votes", def = "{'subreddit': 1, 'voteCount': -1, '_id': -1}")
+})
 public class MongoPostDocument {
 
     /** Unique identifier for the post (auto-generated by MongoDB). */
@@ -42,6 +53,9 @@ public class MongoPostDocument {
     @Builder.Default
     private Integer voteCount = 0;
 
+    /** Precomputed "hot" rank derived from votes and age (see {@code HotScore}). */
+    private Double hotScore;
+
     /** Reference to the user who created this post. */
     @DBRef
     private MongoUserDocument user;
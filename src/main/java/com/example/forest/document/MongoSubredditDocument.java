@@ -8,7 +8,6 @@
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
-import java.util.List;
 
 /**
  * MongoSubredditDocument.java
@@ -16,6 +15,10 @@
  * Represents a subreddit-like community within the application.
  * Each subreddit can have multiple posts and is created by a user.
  * Stored in the MongoDB "subreddits" collection.
+ * <p>
+ * Posts reference their subreddit rather than the other way round; the number of
+ * posts and subscribers is kept in counters that are updated with atomic {@code $inc}.
+ * Update other fields with targeted {@code $set}s so the counters are not overwritten.
  */
 @Data
 @AllArgsConstructor
@@ -33,13 +36,18 @@ public class MongoSubredditDocument {
     /** A short description that explains the purpose of the subreddit. */
     private String description;
 
-    /** A list of posts associated with this subreddit. */
-    @DBRef
-    private List<MongoPostDocument> posts;
+    /** Number of posts in this subreddit, maintained by {@code MongoPostService}. */
+    private long postCount;
+
+    /** Number of users subscribed to this subreddit, maintained by {@code SubscriptionStore}. */
+    private long subscriberCount;
 
     /** The timestamp indicating when the subreddit was created. */
     private Instant createdDate;
 
+    /** Set when the subreddit is being deleted; tombstoned subreddits are hidden from all reads. */
+    private Instant deletedAt;
+
     /** Reference to the user who created or manages this subreddit. */
     @DBRef
     private MongoUserDocument user;
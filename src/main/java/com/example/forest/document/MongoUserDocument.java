@@ -47,4 +47,10 @@ public class MongoUserDocument {
 
     /** A set of topic names representing the user's selected interests. */
     private Set<String> interests;
+
+    /**
+     * How long (in minutes) comment notifications are collected into a single digest
+     * email for this user; {@code null} uses the application default.
+     */
+    private Integer notificationWindowMinutes;
 }
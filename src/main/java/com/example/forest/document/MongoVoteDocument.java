@@ -6,6 +6,8 @@
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -15,12 +17,17 @@
  * Represents a user's voting action (upvote or downvote) on a post.
  * Each document is linked to a specific user and post, storing the type of vote made.
  * Stored in the MongoDB "votes" collection.
+ * <p>
+ * The {@code (user, post)} index serves both the single-vote lookup made when voting
+ * and the batched lookup of a user's votes on a page of posts. It cannot serve a filter on
+ * {@code post} alone, so {@code post} has its own index for deleting a post's votes.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Document(collection = "votes")
+@CompoundIndex(name = "user_post", def = "{'user': 1, 'post': 1}")
 public class MongoVoteDocument {
 
     /** Unique identifier for the vote (auto-generated by MongoDB). */
@@ -32,6 +39,7 @@ public class MongoVoteDocument {
 
     /** Reference to the post that this vote belongs to. */
     @DBRef
+    @Indexed
     private MongoPostDocument post;
 
     /** Reference to the user who cast this vote. */
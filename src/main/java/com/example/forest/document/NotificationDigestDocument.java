@@ -0,0 +1,75 @@
+package com.example.forest.document;
+
+import com.example.forest.model.DigestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * NotificationDigestDocument.java
+ *
+ * A pending comment-notification digest stored in the MongoDB "notification_digests" collection.
+ * There is at most one open digest per (recipient, post); new comment events increment its
+ * counter until {@code flushAt} is reached and a single summary email is sent.
+ * Because pending digests live in MongoDB, they survive application restarts.
+ * <p>
+ * Once claimed for sending, a digest leaves the unique (recipient, post) index, so comments
+ * arriving while it is being handed to the outbox open a new digest instead of being merged
+ * into one that is about to be deleted.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "notification_digests")
+@CompoundIndex(name = "recipient_post_open", def = "{'recipientId': 1, 'postId': 1, 'status': 1}",
+        unique = true, partialFilter = "{'status': 'OPEN'}")
+public class NotificationDigestDocument {
+
+    /** Unique identifier for the digest (auto-generated by MongoDB). */
+    @Id
+    private String id;
+
+    /** ID of the user who will receive the digest. */
+    private String recipientId;
+
+    /** Email address of the recipient. */
+    private String recipientEmail;
+
+    /** Username of the recipient (used for personalization). */
+    private String recipientUsername;
+
+    /** ID of the post the buffered events belong to. */
+    private String postId;
+
+    /** Title of the post, used in the digest subject. */
+    private String postName;
+
+    /** Link to the post included in the digest body. */
+    private String postUrl;
+
+    /** Number of comment events collected in this digest. */
+    private int eventCount;
+
+    /** Usernames of the most recent commenters (bounded). */
+    private List<String> recentCommenters;
+
+    /** When the first event of this digest was recorded. */
+    private Instant firstEventAt;
+
+    /** When the digest becomes due for sending. */
+    @Indexed
+    private Instant flushAt;
+
+    /** Whether the digest is still collecting events or is being sent. */
+    private DigestStatus status;
+
+    /** When the flush job's claim expires; an unsent claimed digest is reclaimed after that. */
+    private Instant claimedUntil;
+}
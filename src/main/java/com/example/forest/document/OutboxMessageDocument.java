@@ -0,0 +1,75 @@
+package com.example.forest.document;
+
+import com.example.forest.model.NotificationType;
+import com.example.forest.model.OutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * OutboxMessageDocument.java
+ *
+ * A notification email waiting for delivery, stored in the MongoDB "notification_outbox" collection.
+ * Messages are written alongside the event that triggers them and drained by the outbox workers,
+ * so an email is never lost when the application crashes before or during sending.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "notification_outbox")
+@CompoundIndex(name = "status_next_attempt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class OutboxMessageDocument {
+
+    /** Unique identifier for the message (auto-generated by MongoDB). */
+    @Id
+    private String id;
+
+    /** The event that produced this message. */
+    private NotificationType type;
+
+    /** The subject line of the email. */
+    private String subject;
+
+    /** The recipient’s email address. */
+    private String recipient;
+
+    /** The username of the recipient (used for personalization). */
+    private String username;
+
+    /** The main content of the email. */
+    private String body;
+
+    /** Current delivery state. */
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    /** Number of delivery attempts made so far. */
+    private int attempts;
+
+    /** Earliest time the next attempt may be made. */
+    private Instant nextAttemptAt;
+
+    /** Lease expiry while {@link OutboxStatus#IN_FLIGHT}; expired leases are reclaimed. */
+    private Instant lockedUntil;
+
+    /** Timestamp representing when the message was enqueued. */
+    private Instant createdAt;
+
+    /** Timestamp representing when the message was delivered. */
+    private Instant sentAt;
+
+    /** Error message from the most recent failed attempt. */
+    private String lastError;
+
+    /** When set, MongoDB removes the document after this time (used for delivered messages). */
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+}
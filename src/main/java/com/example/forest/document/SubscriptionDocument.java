@@ -0,0 +1,46 @@
+package com.example.forest.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * SubscriptionDocument.java
+ *
+ * A user's subscription to a subreddit, stored in the MongoDB "subscriptions" collection.
+ * One document per (subreddit, user) pair. It is indexed in both directions, so
+ * "who subscribes to X" (notification fan-out) and "what does user Y follow" (timelines)
+ * are both indexed range scans. The user's {@code interests} set is kept in sync for compatibility.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "subscriptions")
+@CompoundIndexes({
+        @CompoundIndex(name = "subreddit_user", def = "{'subredditId': 1, 'userId': 1}", unique = true),
+        @CompoundIndex(name = "user_subreddit", def = "{'userId': 1, 'subredditId': 1}")
+})
+public class SubscriptionDocument {
+
+    /** Unique identifier for the subscription (auto-generated by MongoDB). */
+    @Id
+    private String id;
+
+    /** ID of the subscribed subreddit. */
+    private String subredditId;
+
+    /** ID of the subscribing user. */
+    private String userId;
+
+    /** Name of the subreddit at subscription time (denormalized for listing). */
+    private String subredditName;
+
+    /** Timestamp representing when the user subscribed. */
+    private Instant createdAt;
+}
@@ -0,0 +1,33 @@
+package com.example.forest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CommentThreadDto.java
+ *
+ * Data Transfer Object (DTO) representing a top-level comment together with
+ * the first few replies of its thread, in depth-first order. Each reply
+ * carries its {@code depth} and {@code parentId} so the client can nest it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommentThreadDto {
+
+    /** The top-level comment. */
+    private CommentsDto comment;
+
+    /** The first replies in the thread (depth-first order). */
+    private List<CommentsDto> replies = new ArrayList<>();
+
+    /** Indicates whether the thread has replies beyond those included. */
+    private boolean moreReplies;
+
+    /** Cursor to pass to the replies endpoint to continue the thread, or {@code null}. */
+    private String repliesCursor;
+}
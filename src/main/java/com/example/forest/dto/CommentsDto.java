@@ -39,4 +39,13 @@ public class CommentsDto {
 
     /** The username of the user who wrote the comment. */
     private String userName;
+
+    /** ID of the parent comment when this is a reply; {@code null} for top-level comments. */
+    private String parentId;
+
+    /** Nesting level of the comment within its thread (0 for top-level comments). */
+    private int depth;
+
+    /** Number of direct replies to this comment. */
+    private int replyCount;
 }
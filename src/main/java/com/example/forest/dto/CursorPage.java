@@ -0,0 +1,31 @@
+package com.example.forest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * CursorPage.java
+ *
+ * Generic Data Transfer Object (DTO) for cursor-paginated listings.
+ * Clients pass {@code nextCursor} back as the {@code after} parameter
+ * to fetch the following page; the cursor is opaque to the client.
+ *
+ * @param <T> the type of items in the page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    /** The items on this page, in listing order. */
+    private List<T> items;
+
+    /** Cursor to request the next page, or {@code null} when there are no more items. */
+    private String nextCursor;
+
+    /** Indicates whether more items are available after this page. */
+    private boolean hasMore;
+}
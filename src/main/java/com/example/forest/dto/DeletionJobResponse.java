@@ -0,0 +1,63 @@
+package com.example.forest.dto;
+
+import com.example.forest.model.DeletionJobStatus;
+import com.example.forest.model.DeletionTargetType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DeletionJobResponse.java
+ *
+ * Data Transfer Object (DTO) describing a cascade deletion job.
+ * Returned when a subreddit or post deletion is accepted and when
+ * clients poll for the job's progress.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeletionJobResponse {
+
+    /** Unique identifier of the job; use it to poll {@code /api/v1/deletion-jobs/{id}}. */
+    private String id;
+
+    /** The kind of entity being deleted. */
+    private DeletionTargetType targetType;
+
+    /** ID of the subreddit or post being deleted. */
+    private String targetId;
+
+    /** Display name of the target. */
+    private String targetName;
+
+    /** Current progress state. */
+    private DeletionJobStatus status;
+
+    /** Number of posts removed so far. */
+    private long deletedPosts;
+
+    /** Number of comments removed so far. */
+    private long deletedComments;
+
+    /** Number of votes removed so far. */
+    private long deletedVotes;
+
+    /** Number of photos and videos removed so far. */
+    private long deletedMedia;
+
+    /** Timestamp representing when the job was requested. */
+    private Instant createdAt;
+
+    /** Timestamp of the most recent checkpoint. */
+    private Instant updatedAt;
+
+    /** Timestamp representing when the job finished. */
+    private Instant completedAt;
+
+    /** Error message from the most recent failed run, if any. */
+    private String lastError;
+}
@@ -0,0 +1,25 @@
+package com.example.forest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * PostSuggestion.java
+ *
+ * Data Transfer Object (DTO) for one search-box autocomplete suggestion.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSuggestion {
+
+    /** ID of the suggested post. */
+    private String id;
+
+    /** Title of the suggested post. */
+    private String postName;
+
+    /** Net vote count used to rank the suggestion. */
+    private long voteCount;
+}
@@ -0,0 +1,53 @@
+package com.example.forest.dto;
+
+import com.example.forest.model.SearchResultType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * SearchResult.java
+ *
+ * Data Transfer Object (DTO) for one ranked hit of the unified search, which
+ * returns posts and comments together. Comment hits carry the title and an
+ * excerpt of the post they belong to, so a result can be shown in context.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchResult {
+
+    /** Whether this hit is a post or a comment. */
+    private SearchResultType type;
+
+    /** ID of the matched post or comment. */
+    private String id;
+
+    /** Relevance score (higher is better); only meaningful within one result set. */
+    private double score;
+
+    /** ID of the post (the post itself, or the post the comment belongs to). */
+    private String postId;
+
+    /** Title of the post. */
+    private String postName;
+
+    /** Name of the subreddit the post belongs to. */
+    private String subredditName;
+
+    /** Username of the author of the matched post or comment. */
+    private String userName;
+
+    /** Plain-text excerpt of the matched text around the first query term. */
+    private String snippet;
+
+    /** For comment hits, a plain-text excerpt of the post's description; otherwise {@code null}. */
+    private String postSnippet;
+
+    /** Timestamp when the matched post or comment was created. */
+    private Instant createdDate;
+}
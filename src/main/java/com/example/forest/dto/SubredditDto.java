@@ -33,6 +33,9 @@ public class SubredditDto {
     /** Total number of posts currently associated with this subreddit. */
     private Integer numberOfPosts;
 
+    /** Total number of users subscribed to this subreddit. */
+    private Long subscriberCount;
+
     /** Human-readable representation of the time since creation (e.g., "2 days ago"). */
     private String duration;
 
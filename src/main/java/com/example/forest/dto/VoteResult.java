@@ -0,0 +1,38 @@
+package com.example.forest.dto;
+
+import com.example.forest.model.VoteType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * VoteResult.java
+ *
+ * Data Transfer Object (DTO) describing the outcome of one item of a batch vote request.
+ * Items are reported in request order.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VoteResult {
+
+    /** Position of the item in the request. */
+    private int index;
+
+    /** The post the item voted on. */
+    private String postId;
+
+    /** Whether the item was applied; {@code false} items leave the post untouched. */
+    private boolean applied;
+
+    /** The user's vote on the post after this item, or {@code null} if none. */
+    private VoteType vote;
+
+    /** Net vote count of the post once the whole batch was applied. */
+    private Integer voteCount;
+
+    /** Reason the item was rejected, if it was. */
+    private String error;
+}
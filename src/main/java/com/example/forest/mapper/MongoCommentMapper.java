@@ -35,6 +35,10 @@ public interface MongoCommentMapper {
     @Mapping(target = "createdDate", expression = "java(java.time.Instant.now())")
     @Mapping(target = "post", source = "post")
     @Mapping(target = "user", source = "user")
+    @Mapping(target = "parentId", source = "commentsDto.parentId")
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "depth", ignore = true)
+    @Mapping(target = "replyCount", ignore = true)
     MongoCommentDocument map(CommentsDto commentsDto, MongoPostDocument post, MongoUserDocument user);
 
     /**
@@ -50,4 +54,21 @@ public interface MongoCommentMapper {
     @Mapping(target = "userName", expression = "java(comment.getUser().getUsername())")
     @Mapping(target = "duration", ignore = true)
     CommentsDto mapToDto(MongoCommentDocument comment);
+
+    /**
+     * Maps a {@link MongoCommentDocument} read without its DBRefs to a {@link CommentsDto}.
+     * <p>
+     * Used by bulk listings, which resolve post IDs and author names for a whole batch
+     * instead of loading each referenced post and user.
+     *
+     * @param comment  the comment, with {@code post} and {@code user} left unresolved.
+     * @param postId   the ID of the post the comment belongs to.
+     * @param userName the author's username.
+     * @return a {@link CommentsDto} object ready to be sent to the client.
+     */
+    @Mapping(target = "id", source = "comment.id")
+    @Mapping(target = "postId", source = "postId")
+    @Mapping(target = "userName", source = "userName")
+    @Mapping(target = "duration", ignore = true)
+    CommentsDto mapToDto(MongoCommentDocument comment, String postId, String userName);
 }
@@ -4,9 +4,22 @@
 import com.example.forest.dto.MongoPostRequest;
 import com.example.forest.dto.PostResponse;
 import com.example.forest.repository.mongodb.MongoCommentRepository;
+import com.example.forest.service.SubredditDirectory;
+import com.example.forest.service.UsernameLookup;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * MongoPostMapper.java
@@ -24,6 +37,18 @@ public abstract class MongoPostMapper {
     @Autowired
     private MongoCommentRepository commentRepository;
 
+    /** Used to count the comments of a whole listing in one aggregation. */
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /** Resolves the authors of raw post documents in one batched query. */
+    @Autowired
+    private UsernameLookup usernameLookup;
+
+    /** Resolves subreddit names of raw post documents from memory. */
+    @Autowired
+    private SubredditDirectory subredditDirectory;
+
     /**
      * Maps a {@link MongoPostRequest} to a {@link MongoPostDocument}.
      * <p>
@@ -45,6 +70,7 @@ public abstract class MongoPostMapper {
     @Mapping(target = "photo", source = "photo")
     @Mapping(target = "video", source = "video")
     @Mapping(target = "voteCount", constant = "0")
+    @Mapping(target = "hotScore", ignore = true)
     @Mapping(target = "notificationStatus", constant = "false")
     public abstract MongoPostDocument map(
             MongoPostRequest postRequest,
@@ -59,6 +85,8 @@ public abstract MongoPostDocument map(
      * <p>
      * This method prepares the data to be returned to the client, including
      * derived fields like comment count and related user/subreddit information.
+     * The per-user vote flags are filled in afterwards, for a whole listing at once,
+     * by {@code VoteStateService}.
      *
      * @param post the {@link MongoPostDocument} fetched from MongoDB.
      * @return a fully populated {@link PostResponse} object for API output.
@@ -75,13 +103,115 @@ public abstract MongoPostDocument map(
     @Mapping(target = "downVote", ignore = true)
     public abstract PostResponse mapToDto(MongoPostDocument post);
 
+    /**
+     * Maps a list of posts, counting the comments of all of them with a single
+     * aggregation over the {@code (post, path)} index instead of one query per post.
+     *
+     * @param posts the posts of one listing or chunk, in display order.
+     * @return the DTOs, in the same order.
+     */
+    public List<PostResponse> mapToDtos(List<MongoPostDocument> posts) {
+        Map<String, Integer> counts = commentCounts(posts);
+        List<PostResponse> responses = new ArrayList<>(posts.size());
+        for (MongoPostDocument post : posts) {
+            PostResponse response = mapWithoutCount(post);
+            response.setCommentCount(counts.getOrDefault(post.getId(), 0));
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    /**
+     * Converts raw documents from the {@code posts} collection without resolving their DBRefs.
+     * <p>
+     * Reading {@link MongoPostDocument} directly resolves the {@code user} and {@code subreddit}
+     * DBRefs with one query each per post. Here the authors' usernames come from one batched
+     * lookup and subreddit names from the {@link SubredditDirectory}, so a page of any size costs
+     * a single extra query. The references hold only what {@link #mapToDtos(List)} reads: the
+     * author's ID and username, and the subreddit's ID and name (the ID alone for a subreddit
+     * awaiting deletion).
+     *
+     * @param docs raw post documents, in display order.
+     * @return the posts, in the same order.
+     */
+    public List<MongoPostDocument> fromRaw(List<Document> docs) {
+        Map<Object, String> authors = usernameLookup.forAuthors(docs);
+        List<MongoPostDocument> posts = new ArrayList<>(docs.size());
+        for (Document doc : docs) {
+            Object authorId = UsernameLookup.authorId(doc);
+            DBRef subredditRef = doc.get("subreddit", DBRef.class);
+
+            Document fields = new Document(doc);
+            fields.remove("user");
+            fields.remove("subreddit");
+            MongoPostDocument post = mongoTemplate.getConverter().read(MongoPostDocument.class, fields);
+
+            if (authorId != null) {
+                MongoUserDocument user = new MongoUserDocument();
+                user.setId(authorId.toString());
+                user.setUsername(authors.get(authorId));
+                post.setUser(user);
+            }
+            if (subredditRef != null) {
+                String subredditId = subredditRef.getId().toString();
+                post.setSubreddit(subredditDirectory.findById(subredditId)
+                        .orElseGet(() -> new SubredditDirectory.Entry(subredditId, null))
+                        .toReference());
+            }
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    /**
+     * Same as {@link #mapToDto(MongoPostDocument)}, leaving the comment count to the caller.
+     */
+    @Mapping(target = "subredditName", source = "subreddit.name")
+    @Mapping(target = "userName", source = "user.username")
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "duration", ignore = true)
+    @Mapping(target = "upVote", ignore = true)
+    @Mapping(target = "downVote", ignore = true)
+    protected abstract PostResponse mapWithoutCount(MongoPostDocument post);
+
     /**
      * Utility method to calculate the total number of comments associated with a post.
+     * Lists of posts should use {@link #mapToDtos(List)}, which counts them all at once.
      *
      * @param post the {@link MongoPostDocument} whose comments are being counted.
      * @return the total number of comments for the given post.
      */
     Integer commentCount(MongoPostDocument post) {
-        return commentRepository.findByPost(post).size();
+        return (int) commentRepository.countByPost(post);
+    }
+
+    /**
+     * Counts the comments of several posts in one {@code $group} by post reference.
+     *
+     * @param posts the posts whose comments are counted.
+     * @return comment count by post ID; posts without comments are absent.
+     */
+    private Map<String, Integer> commentCounts(List<MongoPostDocument> posts) {
+        List<DBRef> postRefs = new ArrayList<>(posts.size());
+        for (MongoPostDocument post : posts) {
+            if (post.getId() != null && ObjectId.isValid(post.getId())) {
+                postRefs.add(new DBRef("posts", new ObjectId(post.getId())));
+            }
+        }
+        if (postRefs.isEmpty()) {
+            return Map.of();
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("post").in(postRefs)),
+                Aggregation.group("post").count().as("count"));
+        Map<String, Integer> counts = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, "comments", Document.class)) {
+            DBRef post = group.get("_id", DBRef.class);
+            if (post != null) {
+                counts.put(post.getId().toString(), group.get("count", Number.class).intValue());
+            }
+        }
+        return counts;
     }
 }
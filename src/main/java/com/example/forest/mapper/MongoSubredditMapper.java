@@ -22,13 +22,13 @@ public interface MongoSubredditMapper {
      * Converts a {@link MongoSubredditDocument} entity into a {@link SubredditDto}.
      * <p>
      * This mapping is used when preparing subreddit data for API responses.
-     * It includes computed fields such as the number of posts and the username
+     * It includes the stored post and subscriber counters and the username
      * of the subreddit’s creator.
      *
      * @param subreddit the {@link MongoSubredditDocument} retrieved from the database.
      * @return a {@link SubredditDto} object ready to be returned via the API.
      */
-    @Mapping(target = "numberOfPosts", expression = "java(subreddit.getPosts() != null ? subreddit.getPosts().size() : 0)")
+    @Mapping(target = "numberOfPosts", expression = "java((int) subreddit.getPostCount())")
     @Mapping(target = "userName", source = "user.username")
     @Mapping(target = "duration", ignore = true)
     SubredditDto mapSubredditToDto(MongoSubredditDocument subreddit);
@@ -44,7 +44,9 @@ public interface MongoSubredditMapper {
      * @return a {@link MongoSubredditDocument} ready for persistence.
      */
     @InheritInverseConfiguration
-    @Mapping(target = "posts", ignore = true)
+    @Mapping(target = "postCount", ignore = true)
+    @Mapping(target = "subscriberCount", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "user", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
     MongoSubredditDocument mapDtoToSubreddit(SubredditDto subredditDto);
@@ -0,0 +1,21 @@
+package com.example.forest.model;
+
+/**
+ * DeletionJobStatus.java
+ *
+ * Enum representing the progress of a cascade deletion job.
+ */
+public enum DeletionJobStatus {
+
+    /** Accepted; the target is already hidden but nothing has been removed yet. */
+    PENDING,
+
+    /** Claimed by a worker; reclaimed and resumed from its checkpoint if its lease expires. */
+    RUNNING,
+
+    /** All dependent data and the target itself have been removed. */
+    COMPLETED,
+
+    /** Gave up after exhausting all retry attempts. */
+    FAILED
+}
@@ -0,0 +1,15 @@
+package com.example.forest.model;
+
+/**
+ * DeletionTargetType.java
+ *
+ * Enum representing the kind of entity removed by a cascade deletion job.
+ */
+public enum DeletionTargetType {
+
+    /** A subreddit together with all of its posts, comments, votes and media. */
+    SUBREDDIT,
+
+    /** A single post together with its comments, votes and media. */
+    POST
+}
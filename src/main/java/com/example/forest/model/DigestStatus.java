@@ -0,0 +1,15 @@
+package com.example.forest.model;
+
+/**
+ * DigestStatus.java
+ *
+ * Enum representing the state of a pending comment-notification digest.
+ */
+public enum DigestStatus {
+
+    /** Collecting comment events until its window closes. */
+    OPEN,
+
+    /** Claimed by the flush job; reclaimed if its lease expires before it is handed to the outbox. */
+    CLAIMED
+}
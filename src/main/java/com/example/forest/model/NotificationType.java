@@ -0,0 +1,19 @@
+package com.example.forest.model;
+
+/**
+ * NotificationType.java
+ *
+ * Enum describing the event that triggered an outgoing notification email.
+ * Stored with each outbox message for diagnostics and metrics.
+ */
+public enum NotificationType {
+
+    /** Account activation link sent after registration. */
+    ACCOUNT_ACTIVATION,
+
+    /** Password reset link requested by the user. */
+    PASSWORD_RESET,
+
+    /** Digest of new comments on one of the user's posts. */
+    COMMENT_DIGEST
+}
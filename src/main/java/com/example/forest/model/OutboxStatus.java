@@ -0,0 +1,21 @@
+package com.example.forest.model;
+
+/**
+ * OutboxStatus.java
+ *
+ * Enum representing the delivery state of a message in the notification outbox.
+ */
+public enum OutboxStatus {
+
+    /** Waiting to be sent (first attempt or scheduled retry). */
+    PENDING,
+
+    /** Claimed by a worker; reclaimed if its lease expires. */
+    IN_FLIGHT,
+
+    /** Delivered to the mail relay. */
+    SENT,
+
+    /** Gave up after exhausting all retry attempts. */
+    FAILED
+}
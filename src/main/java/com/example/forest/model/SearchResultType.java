@@ -0,0 +1,15 @@
+package com.example.forest.model;
+
+/**
+ * SearchResultType.java
+ *
+ * Enum representing the kind of item returned by the unified search endpoint.
+ */
+public enum SearchResultType {
+
+    /** A post matched by its title or description. */
+    POST,
+
+    /** A comment matched by its text. */
+    COMMENT
+}
@@ -0,0 +1,39 @@
+package com.example.forest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * VideoMetadata.java
+ *
+ * Lightweight snapshot of a GridFS video's {@code fs.files} entry.
+ * Holds everything needed to serve metadata and byte-range requests
+ * without going back to the files collection on every call.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VideoMetadata {
+
+    /** The GridFS file ID (hex ObjectId string). */
+    private String id;
+
+    /** Total length of the stored file in bytes. */
+    private long length;
+
+    /** MIME type recorded at upload time (e.g., video/mp4). */
+    private String contentType;
+
+    /** The title stored in the file's metadata. */
+    private String title;
+
+    /** Size of each GridFS chunk in bytes, used to locate byte offsets. */
+    private int chunkSize;
+
+    /** SHA-256 digest of the content recorded at upload time (may be null for legacy uploads). */
+    private String hash;
+
+    /** Username of the uploader, or null for anonymous and legacy uploads (deletable by admins only). */
+    private String uploadedBy;
+}
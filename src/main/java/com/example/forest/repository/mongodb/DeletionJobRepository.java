@@ -0,0 +1,32 @@
+package com.example.forest.repository.mongodb;
+
+import com.example.forest.document.DeletionJobDocument;
+import com.example.forest.model.DeletionJobStatus;
+import com.example.forest.model.DeletionTargetType;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * DeletionJobRepository.java
+ *
+ * Repository interface for managing {@link DeletionJobDocument} entities in MongoDB.
+ * <p>
+ * Used to create deletion jobs and report their status. Claiming and checkpointing
+ * jobs is done atomically through {@code MongoTemplate}.
+ */
+public interface DeletionJobRepository extends MongoRepository<DeletionJobDocument, String> {
+
+    /**
+     * Finds an unfinished job for the given target, so repeated delete requests reuse it.
+     *
+     * @param targetType the kind of entity.
+     * @param targetId   the entity ID.
+     * @param statuses   the statuses considered unfinished.
+     * @return an {@link Optional} containing the job, or empty if none exists.
+     */
+    Optional<DeletionJobDocument> findFirstByTargetTypeAndTargetIdAndStatusIn(DeletionTargetType targetType,
+                                                                              String targetId,
+                                                                              Collection<DeletionJobStatus> statuses);
+}
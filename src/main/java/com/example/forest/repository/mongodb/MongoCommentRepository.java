@@ -26,6 +26,14 @@ public interface MongoCommentRepository extends MongoRepository<MongoCommentDocu
      */
     List<MongoCommentDocument> findByPost(MongoPostDocument post);
 
+    /**
+     * Counts the comments associated with a specific post, without loading them.
+     *
+     * @param post the {@link MongoPostDocument} whose comments are counted.
+     * @return the number of comments on the given post.
+     */
+    long countByPost(MongoPostDocument post);
+
     /**
      * Deletes all comments associated with a specific post.
      *
@@ -0,0 +1,34 @@
+package com.example.forest.repository.mongodb;
+
+import com.example.forest.document.OutboxMessageDocument;
+import com.example.forest.model.OutboxStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+/**
+ * OutboxMessageRepository.java
+ *
+ * Repository interface for managing {@link OutboxMessageDocument} entities in MongoDB.
+ * <p>
+ * Used by the notification outbox to enqueue messages and to report queue depth and age.
+ * Claiming messages for delivery is done atomically through {@code MongoTemplate}.
+ */
+public interface OutboxMessageRepository extends MongoRepository<OutboxMessageDocument, String> {
+
+    /**
+     * Counts messages in a given delivery state.
+     *
+     * @param status the {@link OutboxStatus} to count.
+     * @return the number of messages in that state.
+     */
+    long countByStatus(OutboxStatus status);
+
+    /**
+     * Finds the oldest message in a given delivery state.
+     *
+     * @param status the {@link OutboxStatus} to search.
+     * @return an {@link Optional} containing the oldest message, or empty if none exist.
+     */
+    Optional<OutboxMessageDocument> findFirstByStatusOrderByCreatedAtAsc(OutboxStatus status);
+}
@@ -0,0 +1,379 @@
+package com.example.forest.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * InvertedIndex.java
+ *
+ * In-memory inverted index with BM25 ranking.
+ * <p>
+ * Each document is identified by an external key (e.g. a post ID) and carries a group
+ * (e.g. its subreddit ID) and a timestamp used for filtering. Documents are assigned
+ * increasing internal numbers, so postings lists stay sorted by construction and an update
+ * is simply "tombstone the old number, append a new one". Tombstones are skipped while
+ * scoring and dropped when the index is rebuilt; {@link #tombstoneRatio()} tells the owner
+ * when that is worthwhile. Document frequencies include tombstoned entries until then,
+ * which only slightly perturbs IDF.
+ * <p>
+ * Reads (searches) run concurrently; writes take an exclusive lock.
+ */
+public class InvertedIndex {
+
+    /** BM25 term-frequency saturation. */
+    private static final double K1 = 1.2;
+
+    /** BM25 length normalization. */
+    private static final double B = 0.75;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> docsByKey = new HashMap<>();
+    private final Map<String, Integer> groupIds = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private String[] keys = new String[1024];
+    private int[] lengths = new int[1024];
+    private int[] groups = new int[1024];
+    private long[] timestamps = new long[1024];
+
+    private int nextDoc;
+    private int liveDocs;
+    private long liveLength;
+
+    /**
+     * A ranked search result.
+     *
+     * @param key   the external document key.
+     * @param score the BM25 score.
+     */
+    public record Hit(String key, double score) {
+    }
+
+    /**
+     * One page of ranked results.
+     *
+     * @param hits      the hits on this page, best first.
+     * @param totalHits the number of matching documents (after filters).
+     */
+    public record Result(List<Hit> hits, int totalHits) {
+    }
+
+    /**
+     * Adds or replaces a document. A replacement with identical term frequencies, group
+     * and timestamp is a no-op, so repeated change events are cheap.
+     *
+     * @param key         the external key.
+     * @param group       the filter group (may be {@code null}).
+     * @param timestamp   the filter timestamp in epoch milliseconds.
+     * @param frequencies term frequencies of the document.
+     */
+    public void upsert(String key, String group, long timestamp, Map<String, Integer> frequencies) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docsByKey.get(key);
+            if (existing != null) {
+                if (isUnchanged(existing, group, timestamp, frequencies)) {
+                    return;
+                }
+                tombstone(existing);
+            }
+
+            int doc = nextDoc++;
+            ensureCapacity(doc + 1);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+                length += entry.getValue();
+            }
+
+            keys[doc] = key;
+            lengths[doc] = length;
+            groups[doc] = groupId(group);
+            timestamps[doc] = timestamp;
+            docsByKey.put(key, doc);
+            liveDocs++;
+            liveLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a document if present.
+     *
+     * @param key the external key.
+     */
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = docsByKey.remove(key);
+            if (existing != null) {
+                tombstone(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks documents containing any of the query terms with BM25.
+     *
+     * @param terms  analyzed query terms.
+     * @param group  restrict to this group, or {@code null} for all.
+     * @param from   inclusive lower timestamp bound (epoch millis), or {@link Long#MIN_VALUE}.
+     * @param to     exclusive upper timestamp bound (epoch millis), or {@link Long#MAX_VALUE}.
+     * @param offset number of top hits to skip.
+     * @param limit  maximum number of hits to return.
+     * @return the requested page of hits and the total number of matches.
+     */
+    public Result search(Collection<String> terms, String group, long from, long to, int offset, int limit) {
+        return search(terms, group, Set.of(), from, to, offset, limit);
+    }
+
+    /**
+     * Ranks documents like {@link #search(Collection, String, long, long, int, int)}, leaving out
+     * documents whose group is excluded (e.g. subreddits awaiting deletion).
+     *
+     * @param terms          analyzed query terms.
+     * @param group          restrict to this group, or {@code null} for all.
+     * @param excludedGroups groups whose documents never match.
+     * @param from           inclusive lower timestamp bound (epoch millis), or {@link Long#MIN_VALUE}.
+     * @param to             exclusive upper timestamp bound (epoch millis), or {@link Long#MAX_VALUE}.
+     * @param offset         number of top hits to skip.
+     * @param limit          maximum number of hits to return.
+     * @return the requested page of hits and the total number of matches.
+     */
+    public Result search(Collection<String> terms, String group, Set<String> excludedGroups,
+                         long from, long to, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0 || terms.isEmpty()) {
+                return new Result(List.of(), 0);
+            }
+            int groupFilter = -1;
+            if (group != null) {
+                Integer id = groupIds.get(group);
+                if (id == null) {
+                    return new Result(List.of(), 0);
+                }
+                groupFilter = id;
+            }
+            BitSet excluded = new BitSet();
+            for (String excludedGroup : excludedGroups) {
+                Integer id = groupIds.get(excludedGroup);
+                if (id != null) {
+                    excluded.set(id);
+                }
+            }
+
+            double avgLength = (double) liveLength / liveDocs;
+            Set<String> uniqueTerms = new LinkedHashSet<>(terms);
+            int candidates = 0;
+            for (String term : uniqueTerms) {
+                Postings list = postings.get(term);
+                candidates += list != null ? list.size : 0;
+            }
+            Scores scores = new Scores(candidates);
+
+            for (String term : uniqueTerms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (deleted.get(doc)
+                            || (groupFilter >= 0 && groups[doc] != groupFilter)
+                            || (groups[doc] >= 0 && excluded.get(groups[doc]))
+                            || timestamps[doc] < from || timestamps[doc] >= to) {
+                        continue;
+                    }
+                    int tf = list.freqs[i];
+                    double norm = tf + K1 * (1 - B + B * lengths[doc] / avgLength);
+                    scores.add(doc, (float) (idf * tf * (K1 + 1) / norm));
+                }
+            }
+
+            // Keep the best (offset + limit) matches in a min-heap, by their position in the score table
+            int wanted = offset + limit;
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Math.max(1, wanted),
+                    (a, b) -> scores.values[a] != scores.values[b]
+                            ? Float.compare(scores.values[a], scores.values[b])
+                            : Integer.compare(scores.docs[b], scores.docs[a]));
+            for (int i = 0; i < scores.size; i++) {
+                if (heap.size() < wanted) {
+                    heap.add(i);
+                } else if (wanted > 0 && heap.comparator().compare(i, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(i);
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                int match = heap.poll();
+                ranked.add(new Hit(keys[scores.docs[match]], scores.values[match]));
+            }
+            Collections.reverse(ranked);
+            List<Hit> page = offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+            return new Result(page, scores.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of live (searchable) documents.
+     *
+     * @return the document count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the share of internal document slots that are tombstoned.
+     *
+     * @return a value between 0 and 1.
+     */
+    public double tombstoneRatio() {
+        lock.readLock().lock();
+        try {
+            return nextDoc == 0 ? 0 : (double) (nextDoc - liveDocs) / nextDoc;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether a stored document already has the given group, timestamp and term frequencies.
+     * Every given term must be stored with the same frequency; since frequencies are positive, equal
+     * lengths then rule out any further stored term.
+     */
+    private boolean isUnchanged(int doc, String group, long timestamp, Map<String, Integer> frequencies) {
+        Integer groupId = group != null ? groupIds.get(group) : Integer.valueOf(-1);
+        if (groupId == null || groups[doc] != groupId || timestamps[doc] != timestamp) {
+            return false;
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            Postings list = postings.get(entry.getKey());
+            if (list == null || list.frequency(doc) != entry.getValue()) {
+                return false;
+            }
+            length += entry.getValue();
+        }
+        return length == lengths[doc];
+    }
+
+    private void tombstone(int doc) {
+        if (!deleted.get(doc)) {
+            deleted.set(doc);
+            liveDocs--;
+            liveLength -= lengths[doc];
+        }
+    }
+
+    private int groupId(String group) {
+        if (group == null) {
+            return -1;
+        }
+        return groupIds.computeIfAbsent(group, g -> groupIds.size());
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int size = Math.max(capacity, keys.length * 2);
+            keys = Arrays.copyOf(keys, size);
+            lengths = Arrays.copyOf(lengths, size);
+            groups = Arrays.copyOf(groups, size);
+            timestamps = Arrays.copyOf(timestamps, size);
+        }
+    }
+
+    /**
+     * Growable postings list of (document, term frequency) pairs in document order.
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        /**
+         * Returns the frequency recorded for a document, or 0 if it is not in the list.
+         */
+        int frequency(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            return i >= 0 ? freqs[i] : 0;
+        }
+    }
+
+    /**
+     * Per-query accumulator of BM25 scores, sized to the postings of the query terms rather than
+     * to the whole index. An open-addressing table maps each document to its position in the
+     * dense {@code docs}/{@code values} arrays, which list matches in first-seen order.
+     */
+    private static final class Scores {
+        final int[] docs;
+        final float[] values;
+        int size;
+
+        private final int[] slots;
+        private final int mask;
+        private final int shift;
+
+        Scores(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(1, expected) * 2 - 1) << 1;
+            slots = new int[capacity];
+            Arrays.fill(slots, -1);
+            mask = capacity - 1;
+            shift = Integer.numberOfLeadingZeros(mask);
+            docs = new int[expected];
+            values = new float[expected];
+        }
+
+        void add(int doc, float score) {
+            // Fibonacci hashing: the top bits of the product pick the slot
+            int slot = (doc * 0x9E3779B9) >>> shift;
+            while (slots[slot] >= 0) {
+                int match = slots[slot];
+                if (docs[match] == doc) {
+                    values[match] += score;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = size;
+            docs[size] = doc;
+            values[size] = score;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.forest.search;
+
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * SearchIndexMaintainer.java
+ *
+ * Keeps an {@link InvertedIndex} in step with one MongoDB collection.
+ * <p>
+ * The index is built in the background at startup and then updated incrementally: directly by
+ * the owning service when it writes, and from a change stream on the collection so that writes
+ * made by other nodes or by background jobs are picked up. Without change streams (standalone
+ * server), or once too many tombstones have accumulated, the index is rebuilt periodically.
+ * Rebuilds and the replay of updates that arrive meanwhile are handled by {@link SwappableIndex}.
+ * <p>
+ * Subclasses decide which documents are indexed and how; they call {@link #maintain()} from a
+ * scheduled method with their own interval.
+ */
+@Slf4j
+public abstract class SearchIndexMaintainer {
+
+    protected final MongoTemplate mongoTemplate;
+
+    private final String name;
+    private final String collection;
+    private final boolean changeStreamsEnabled;
+    private final double compactionThreshold;
+
+    private final SwappableIndex<InvertedIndex> index = new SwappableIndex<>(InvertedIndex::new);
+    private volatile boolean ready;
+    private volatile boolean changeStreamActive;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> changeStream;
+    private Thread worker;
+
+    /**
+     * @param mongoTemplate        template used for rebuilds and the change stream.
+     * @param name                 short name used in thread names and logs (e.g. "post").
+     * @param collection           the collection being indexed.
+     * @param changeStreamsEnabled whether to follow the collection's change stream.
+     * @param compactionThreshold  tombstone ratio above which a scheduled rebuild runs anyway.
+     */
+    protected SearchIndexMaintainer(MongoTemplate mongoTemplate, String name, String collection,
+                                    boolean changeStreamsEnabled, double compactionThreshold) {
+        this.mongoTemplate = mongoTemplate;
+        this.name = name;
+        this.collection = collection;
+        this.changeStreamsEnabled = changeStreamsEnabled;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Streams every indexable document of the collection into the given (fresh) index.
+     *
+     * @param target the index being built.
+     */
+    protected abstract void indexAll(InvertedIndex target);
+
+    /**
+     * Returns the change stream pipeline; it should project only the indexed fields.
+     *
+     * @return aggregation stages applied to the change stream.
+     */
+    protected abstract List<Bson> changeStreamPipeline();
+
+    /**
+     * Indexes a document reported by the change stream, typically via {@link #apply}.
+     *
+     * @param fullDocument the (projected) current version of the document.
+     */
+    protected abstract void onChange(Document fullDocument);
+
+    /**
+     * Builds the index in the background, then follows the change stream.
+     */
+    @PostConstruct
+    void start() {
+        worker = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Initial {} search index build failed; will retry on schedule: {}", name, e.getMessage());
+            }
+            if (changeStreamsEnabled) {
+                watch();
+            }
+        }, name + "-search-indexer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Tells whether the first build has completed.
+     *
+     * @return {@code true} once the index covers the whole collection.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ranks indexed documents against analyzed query terms.
+     *
+     * @see InvertedIndex#search
+     */
+    public InvertedIndex.Result rank(Collection<String> terms, String group, Set<String> excludedGroups,
+                                     long from, long to, int offset, int limit) {
+        return index.current().search(terms, group, excludedGroups, from, to, offset, limit);
+    }
+
+    /**
+     * Removes a document from the index.
+     *
+     * @param key the document ID.
+     */
+    public void remove(String key) {
+        apply(target -> target.remove(key));
+    }
+
+    /**
+     * Rebuilds the index when no change stream keeps it current, or when too many
+     * tombstones have accumulated. Called by subclasses on their schedule.
+     */
+    protected void maintain() {
+        if (!ready || !changeStreamActive || index.current().tombstoneRatio() > compactionThreshold) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Fills a fresh index from MongoDB and swaps it in.
+     */
+    public void rebuild() {
+        long started = System.nanoTime();
+        InvertedIndex fresh = index.rebuild(this::indexAll);
+        ready = true;
+        log.info("🔎 {} search index built: {} documents in {} ms", name, fresh.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Applies an update to the live index, and records it for replay if a rebuild is running.
+     *
+     * @param update the change to apply.
+     */
+    protected void apply(Consumer<InvertedIndex> update) {
+        index.apply(update);
+    }
+
+    /**
+     * Follows the collection's change stream until it fails or the application stops.
+     */
+    private void watch() {
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mongoTemplate.getCollection(collection)
+                .watch(changeStreamPipeline())
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .cursor()) {
+            changeStream = cursor;
+            changeStreamActive = true;
+            log.info("📡 {} search index following change stream", name);
+            while (cursor.hasNext()) {
+                ChangeStreamDocument<Document> event = cursor.next();
+                if (event.getDocumentKey() == null || !event.getDocumentKey().isObjectId("_id")) {
+                    continue;
+                }
+                Document full = event.getFullDocument();
+                if (full == null) {
+                    remove(event.getDocumentKey().getObjectId("_id").getValue().toHexString());
+                } else {
+                    onChange(full);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (!Thread.currentThread().isInterrupted()) {
+                log.info("{} change stream unavailable ({}); index will be rebuilt periodically", name, e.getMessage());
+            }
+        } finally {
+            changeStreamActive = false;
+            changeStream = null;
+        }
+    }
+
+    /**
+     * Stops following the change stream.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream;
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.forest.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * SuggestionIndex.java
+ *
+ * In-memory edge-n-gram index for autocomplete.
+ * <p>
+ * Every word of an entry's text (stop words excluded) contributes its prefixes of 1 to
+ * {@code maxPrefixLength} characters. Each prefix keeps only its {@code perPrefix} heaviest
+ * entries, sorted by weight, so a lookup is one hash probe plus a short scan, and memory is
+ * bounded by the number of distinct prefixes times {@code perPrefix}: an entry that is pushed
+ * out of every list it appeared in is forgotten entirely. Longer typed words are looked up by
+ * their first {@code maxPrefixLength} characters and then checked against the entry's words.
+ * <p>
+ * Removing an entry can leave a prefix list shorter than {@code perPrefix} (the evicted
+ * runners-up are not remembered); owners rebuild periodically to refill them.
+ */
+public class SuggestionIndex {
+
+    private static final Comparator<Suggestion> BY_WEIGHT =
+            Comparator.comparingLong(Suggestion::weight).reversed().thenComparing(Suggestion::key);
+
+    private final int maxPrefixLength;
+    private final int perPrefix;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, List<Suggestion>> byPrefix = new HashMap<>();
+    private final Map<String, Suggestion> byKey = new HashMap<>();
+    private final Map<String, Integer> listCounts = new HashMap<>();
+
+    /**
+     * An indexed entry.
+     *
+     * @param key    the external key (e.g. a post ID).
+     * @param text   the text shown to the user.
+     * @param weight the ranking weight (higher first).
+     * @param words  the entry's folded words, used to check multi-word input.
+     */
+    public record Suggestion(String key, String text, long weight, List<String> words) {
+    }
+
+    /**
+     * @param maxPrefixLength longest prefix kept per word.
+     * @param perPrefix       number of entries kept per prefix.
+     */
+    public SuggestionIndex(int maxPrefixLength, int perPrefix) {
+        this.maxPrefixLength = Math.max(1, maxPrefixLength);
+        this.perPrefix = Math.max(1, perPrefix);
+    }
+
+    /**
+     * Adds or replaces an entry.
+     *
+     * @param key    the external key.
+     * @param text   the text to complete.
+     * @param weight the ranking weight.
+     */
+    public void add(String key, String text, long weight) {
+        List<String> words = TextAnalyzer.words(text);
+        Suggestion suggestion = new Suggestion(key, text, weight, words);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            int lists = 0;
+            for (String prefix : prefixes(words)) {
+                List<Suggestion> list = byPrefix.computeIfAbsent(prefix, p -> new ArrayList<>(2));
+                int at = Collections.binarySearch(list, suggestion, BY_WEIGHT);
+                int position = at >= 0 ? at : -at - 1;
+                if (position >= perPrefix) {
+                    continue;
+                }
+                list.add(position, suggestion);
+                lists++;
+                if (list.size() > perPrefix) {
+                    release(list.remove(list.size() - 1));
+                }
+            }
+            if (lists > 0) {
+                byKey.put(key, suggestion);
+                listCounts.put(key, lists);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an entry if present.
+     *
+     * @param key the external key.
+     */
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the heaviest entries having a word that starts with {@code prefix} and,
+     * for each of the {@code required} words, a word starting with it.
+     *
+     * @param prefix   the word being typed (folded).
+     * @param required other words already typed (folded), possibly empty.
+     * @param limit    maximum number of suggestions.
+     * @return matching entries, heaviest first.
+     */
+    public List<Suggestion> suggest(String prefix, Collection<String> required, int limit) {
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        boolean truncated = prefix.length() > maxPrefixLength;
+        String lookup = truncated ? prefix.substring(0, maxPrefixLength) : prefix;
+
+        lock.readLock().lock();
+        try {
+            List<Suggestion> candidates = byPrefix.get(lookup);
+            if (candidates == null) {
+                return List.of();
+            }
+            List<Suggestion> matches = new ArrayList<>(Math.min(limit, candidates.size()));
+            for (Suggestion candidate : candidates) {
+                if ((!truncated || hasWordStartingWith(candidate, prefix))
+                        && required.stream().allMatch(word -> hasWordStartingWith(candidate, word))) {
+                    matches.add(candidate);
+                    if (matches.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries currently held.
+     *
+     * @return the entry count.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(String key) {
+        Suggestion existing = byKey.remove(key);
+        if (existing == null) {
+            return;
+        }
+        listCounts.remove(key);
+        for (String prefix : prefixes(existing.words())) {
+            List<Suggestion> list = byPrefix.get(prefix);
+            if (list != null && list.removeIf(entry -> entry.key().equals(key)) && list.isEmpty()) {
+                byPrefix.remove(prefix);
+            }
+        }
+    }
+
+    /**
+     * Forgets an entry once it has been pushed out of every prefix list it was in.
+     */
+    private void release(Suggestion evicted) {
+        Integer remaining = listCounts.computeIfPresent(evicted.key(), (key, count) -> count - 1);
+        if (remaining != null && remaining == 0) {
+            listCounts.remove(evicted.key());
+            byKey.remove(evicted.key());
+        }
+    }
+
+    private Set<String> prefixes(List<String> words) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (String word : words) {
+            if (TextAnalyzer.isStopWord(word)) {
+                continue;
+            }
+            for (int length = 1; length <= Math.min(word.length(), maxPrefixLength); length++) {
+                prefixes.add(word.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    private static boolean hasWordStartingWith(Suggestion suggestion, String prefix) {
+        for (String word : suggestion.words()) {
+            if (word.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.forest.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * SwappableIndex.java
+ *
+ * Holds an in-memory index that is updated incrementally and rebuilt from scratch now and then.
+ * <p>
+ * A rebuild fills a fresh index while the live one keeps serving reads and taking updates.
+ * Updates that arrive during the rebuild are applied to the live index and recorded; they are
+ * replayed onto the fresh index just before it is swapped in, so none are lost. Only one rebuild
+ * runs at a time. Used by {@link SearchIndexMaintainer} and the title suggester.
+ *
+ * @param <T> the index type; it must be safe for concurrent reads and updates.
+ */
+public final class SwappableIndex<T> {
+
+    private final Supplier<T> factory;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final List<Consumer<T>> pendingDuringRebuild = new ArrayList<>();
+    private volatile T index;
+    private volatile boolean rebuilding;
+
+    /**
+     * @param factory creates an empty index; called once now and once per rebuild.
+     */
+    public SwappableIndex(Supplier<T> factory) {
+        this.factory = factory;
+        this.index = factory.get();
+    }
+
+    /**
+     * Returns the live index, for reads.
+     *
+     * @return the current index.
+     */
+    public T current() {
+        return index;
+    }
+
+    /**
+     * Applies an update to the live index, and records it for replay if a rebuild is running.
+     *
+     * @param update the change to apply.
+     */
+    public void apply(Consumer<T> update) {
+        updateLock.lock();
+        try {
+            update.accept(index);
+            if (rebuilding) {
+                pendingDuringRebuild.add(update);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * Fills a fresh index, replays the updates made meanwhile and swaps it in.
+     * If filling fails, the live index is kept.
+     *
+     * @param fill loads every document into the fresh index.
+     * @return the index now live.
+     */
+    public T rebuild(Consumer<T> fill) {
+        rebuildLock.lock();
+        try {
+            updateLock.lock();
+            try {
+                rebuilding = true;
+            } finally {
+                updateLock.unlock();
+            }
+            T fresh = factory.get();
+            fill.accept(fresh);
+
+            updateLock.lock();
+            try {
+                pendingDuringRebuild.forEach(update -> update.accept(fresh));
+                index = fresh;
+            } finally {
+                updateLock.unlock();
+            }
+            return fresh;
+        } finally {
+            updateLock.lock();
+            try {
+                rebuilding = false;
+                pendingDuringRebuild.clear();
+            } finally {
+                updateLock.unlock();
+            }
+            rebuildLock.unlock();
+        }
+    }
+}
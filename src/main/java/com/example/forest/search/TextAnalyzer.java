@@ -0,0 +1,163 @@
+package com.example.forest.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * TextAnalyzer.java
+ *
+ * Turns user-generated text into index terms: strips HTML markup and entities,
+ * folds accents and case, splits on anything that is not a letter or digit,
+ * and drops stop words and single characters. The same analysis is applied to
+ * documents and queries so that their terms line up.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern HTML_TAG = Pattern.compile("<[^>]*>");
+    private static final Pattern HTML_ENTITY = Pattern.compile("&[#a-zA-Z0-9]+;");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** Maximum term length kept in the index; longer tokens are usually junk (URLs, hashes). */
+    private static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into",
+            "is", "it", "no", "not", "of", "on", "or", "such", "that", "the", "their", "then",
+            "there", "these", "they", "this", "to", "was", "will", "with"
+    );
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Removes HTML tags and entities from rich-text content.
+     *
+     * @param html text that may contain markup.
+     * @return plain text.
+     */
+    public static String stripHtml(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String noTags = HTML_TAG.matcher(html).replaceAll(" ");
+        return HTML_ENTITY.matcher(noTags).replaceAll(" ");
+    }
+
+    /**
+     * Splits text into normalized terms, in order, including duplicates.
+     *
+     * @param text the text to analyze (HTML is stripped first).
+     * @return the terms.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String word : words(text)) {
+            if (word.length() > 1 && word.length() <= MAX_TERM_LENGTH && !isStopWord(word)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Splits text into accent- and case-folded words without dropping any, so that
+     * partially typed input (single letters, stop words) can be matched as prefixes.
+     *
+     * @param text the text to split (HTML is stripped first).
+     * @return the words, in order.
+     */
+    public static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(stripHtml(text), Normalizer.Form.NFD)).replaceAll("");
+        for (String token : NON_WORD.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                words.add(token);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Tells whether a folded word is a stop word.
+     *
+     * @param word a word as returned by {@link #words}.
+     * @return {@code true} for stop words.
+     */
+    public static boolean isStopWord(String word) {
+        return STOP_WORDS.contains(word);
+    }
+
+    /**
+     * Computes weighted term frequencies for a document with a title and a body.
+     * Title occurrences count {@code titleWeight} times, a simple field boost.
+     *
+     * @param title       the title.
+     * @param body        the body (may contain HTML).
+     * @param titleWeight how many body occurrences one title occurrence is worth.
+     * @return term frequencies.
+     */
+    public static Map<String, Integer> termFrequencies(String title, String body, int titleWeight) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, titleWeight, Integer::sum);
+        }
+        for (String term : tokenize(body)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    /**
+     * Cuts a plain-text excerpt of at most {@code maxLength} characters, centred loosely on the
+     * first occurrence of any query term and trimmed to word boundaries. Ellipses mark cuts.
+     *
+     * @param text      the text to excerpt (HTML is stripped first).
+     * @param terms     analyzed query terms.
+     * @param maxLength maximum length of the excerpt, ellipses excluded.
+     * @return the excerpt, or an empty string.
+     */
+    public static String snippet(String text, Collection<String> terms, int maxLength) {
+        String plain = WHITESPACE.matcher(stripHtml(text)).replaceAll(" ").trim();
+        if (plain.length() <= maxLength) {
+            return plain;
+        }
+
+        String lower = plain.toLowerCase(Locale.ROOT);
+        int hit = -1;
+        for (String term : terms) {
+            int at = lower.indexOf(term);
+            if (at >= 0 && (hit < 0 || at < hit)) {
+                hit = at;
+            }
+        }
+
+        int start = hit < 0 ? 0 : Math.max(0, hit - maxLength / 3);
+        int end = Math.min(plain.length(), start + maxLength);
+        start = Math.max(0, end - maxLength);
+        if (start > 0) {
+            int space = plain.indexOf(' ', start);
+            if (space >= 0 && space < end && (hit < 0 || space < hit)) {
+                start = space + 1;
+            }
+        }
+        if (end < plain.length()) {
+            int space = plain.lastIndexOf(' ', end);
+            if (space > start && space > hit) {
+                end = space;
+            }
+        }
+        return (start > 0 ? "…" : "") + plain.substring(start, end) + (end < plain.length() ? "…" : "");
+    }
+}
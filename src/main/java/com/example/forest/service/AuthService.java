@@ -5,6 +5,7 @@
 import com.example.forest.document.MongoVerificationTokenDocument;
 import com.example.forest.dto.*;
 import com.example.forest.model.NotificationEmail;
+import com.example.forest.model.NotificationType;
 import com.example.forest.model.Role;
 import com.example.forest.repository.mongodb.MongoRefreshTokenRepository;
 import com.example.forest.repository.mongodb.MongoUserRepository;
@@ -41,7 +42,7 @@
  * <ul>
  *   <li>{@link JwtService} — for generating and validating JWT tokens.</li>
  *   <li>{@link RefreshTokenService} — for managing refresh tokens.</li>
- *   <li>{@link MailService} — for sending account-related emails.</li>
+ *   <li>{@link NotificationOutboxService} — for queueing account-related emails.</li>
  *   <li>Repositories — for persistence of user and verification data.</li>
  * </ul>
  */
@@ -53,10 +54,11 @@ public class AuthService {
     private final MongoUserRepository userRepository;
     private final MongoVerificationTokenRepository verificationTokenRepository;
     private final MongoRefreshTokenRepository refreshTokenRepository;
-    private final MailService mailService;
+    private final NotificationOutboxService notificationOutbox;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
+    private final SubscriptionStore subscriptionStore;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
 
@@ -91,9 +93,10 @@ public void register(RegisterRequest registerRequest) {
         user.setInterests(registerRequest.getInterests());
 
         userRepository.save(user);
+        subscriptionStore.syncWithInterests(user.getId(), user.getInterests());
 
         String token = generateVerificationToken(user);
-        mailService.sendMail(new NotificationEmail(
+        notificationOutbox.enqueue(NotificationType.ACCOUNT_ACTIVATION, new NotificationEmail(
                 "Please activate your account",
                 user.getEmail(),
                 user.getUsername(),
@@ -244,7 +247,7 @@ public void forgotPassword(String email) {
                 .orElseThrow(() -> new CustomException("User with email " + email + " not found"));
 
         String token = generateVerificationToken(user);
-        mailService.sendMail(new NotificationEmail(
+        notificationOutbox.enqueue(NotificationType.PASSWORD_RESET, new NotificationEmail(
                 "Password Reset Request",
                 user.getEmail(),
                 user.getUsername(),
@@ -274,6 +277,7 @@ public void resetPassword(String token, String newPassword) {
 
     /**
      * Updates the current user’s interest topics.
+     * Interests that name a subreddit become subscriptions; removed ones are unsubscribed.
      *
      * @param interests a set of interest strings selected by the user.
      */
@@ -282,5 +286,6 @@ public void saveInterests(Set<String> interests) {
         MongoUserDocument currentUser = getCurrentUser();
         currentUser.setInterests(interests);
         userRepository.save(currentUser);
+        subscriptionStore.syncWithInterests(currentUser.getId(), interests);
     }
 }
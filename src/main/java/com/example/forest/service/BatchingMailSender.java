@@ -0,0 +1,208 @@
+package com.example.forest.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * BatchingMailSender.java
+ *
+ * Sends groups of {@link MimeMessage}s over pooled, long-lived SMTP connections.
+ * <p>
+ * {@link JavaMailSender#send(MimeMessage)} opens a new connection (and STARTTLS handshake)
+ * for every call. This sender keeps a fixed pool of {@link Transport}s, one per concurrent
+ * sender, and reuses each connection across batches. A connection is re-established when it
+ * has been idle longer than {@code notifications.smtp.max-idle} (relays drop idle sessions)
+ * or after a send error.
+ */
+@Component
+@Slf4j
+public class BatchingMailSender {
+
+    private final JavaMailSenderImpl mailSender;
+    private final Duration maxIdle;
+    private final BlockingQueue<PooledTransport> pool;
+
+    public BatchingMailSender(JavaMailSender mailSender,
+                              @Value("${notifications.smtp.pool-size:4}") int poolSize,
+                              @Value("${notifications.smtp.max-idle:PT60S}") Duration maxIdle) {
+        if (!(mailSender instanceof JavaMailSenderImpl impl)) {
+            throw new IllegalStateException("BatchingMailSender requires a JavaMailSenderImpl, got "
+                    + mailSender.getClass().getName());
+        }
+        this.mailSender = impl;
+        this.maxIdle = maxIdle;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            pool.add(new PooledTransport());
+        }
+        log.info("📮 SMTP transport pool initialized ({} connections, max idle {}s)", poolSize, maxIdle.toSeconds());
+    }
+
+    /**
+     * Creates an empty message bound to the configured mail session.
+     *
+     * @return a new {@link MimeMessage}.
+     */
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Sends all messages over a single pooled connection.
+     * <p>
+     * A message that fails is retried once on a fresh connection before being reported,
+     * so one dropped session does not fail the rest of the batch. A message the relay
+     * rejected for some recipients ({@link SendFailedException}) may already have reached
+     * the others, so only its valid unsent recipients are retried; if that fails too, the
+     * {@code SendFailedException} is reported and must not be resent to every recipient.
+     *
+     * @param messages the messages to send, in order.
+     * @return failures keyed by the index of the message in {@code messages}; empty if all were sent.
+     * @throws InterruptedException if interrupted while waiting for a free connection.
+     */
+    public Map<Integer, Exception> send(List<MimeMessage> messages) throws InterruptedException {
+        Map<Integer, Exception> failures = new LinkedHashMap<>();
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        PooledTransport transport = pool.take();
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                MimeMessage message = messages.get(i);
+                try {
+                    stamp(message);
+                    transport.send(message, message.getAllRecipients());
+                } catch (SendFailedException partial) {
+                    MessagingException failure = retryUnsent(transport, message, partial);
+                    if (failure != null) {
+                        failures.put(i, failure);
+                    }
+                } catch (MessagingException first) {
+                    log.warn("SMTP send failed ({}); reconnecting and retrying once", first.getMessage());
+                    transport.close();
+                    try {
+                        transport.send(message, message.getAllRecipients());
+                    } catch (MessagingException second) {
+                        transport.close();
+                        failures.put(i, second);
+                    }
+                }
+            }
+        } finally {
+            pool.add(transport);
+        }
+        return failures;
+    }
+
+    /**
+     * Retries a partially rejected message for its valid recipients that did not get it.
+     *
+     * @return the failure to report, or null if the message reached every valid recipient.
+     */
+    private MessagingException retryUnsent(PooledTransport transport, MimeMessage message,
+                                           SendFailedException partial) {
+        Address[] unsent = partial.getValidUnsentAddresses();
+        if (unsent == null || unsent.length == 0) {
+            // Nothing deliverable is left; invalid recipients will not succeed on a retry
+            return partial;
+        }
+        log.warn("SMTP send partially failed ({}); retrying {} unsent recipients", partial.getMessage(), unsent.length);
+        try {
+            transport.send(message, unsent);
+            return null;
+        } catch (MessagingException second) {
+            transport.close();
+            return new SendFailedException(second.getMessage(), second,
+                    partial.getValidSentAddresses(), unsent, partial.getInvalidAddresses());
+        }
+    }
+
+    /**
+     * Sets the sent date and finalizes headers once, so retries keep the same Message-ID.
+     */
+    private static void stamp(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        message.saveChanges();
+    }
+
+    /**
+     * Closes all pooled connections on shutdown.
+     */
+    @PreDestroy
+    public void shutdown() {
+        pool.forEach(PooledTransport::close);
+    }
+
+    /**
+     * A single SMTP connection that is opened lazily and refreshed when idle or broken.
+     * Only used by one thread at a time (it is borrowed from the pool).
+     */
+    private final class PooledTransport {
+
+        private Transport transport;
+        private long lastUsedNanos;
+
+        /**
+         * Sends one message to the given recipients, (re)connecting first if necessary.
+         */
+        void send(MimeMessage message, Address[] recipients) throws MessagingException {
+            ensureConnected();
+            transport.sendMessage(message, recipients);
+            lastUsedNanos = System.nanoTime();
+        }
+
+        /**
+         * Opens a connection if there is none or it has been idle too long.
+         * <p>
+         * The connection is not probed: {@link Transport#isConnected()} costs an SMTP NOOP round
+         * trip per message. A session the server dropped early fails the send instead, and
+         * {@link BatchingMailSender#send(List)} then closes it and retries on a fresh one.
+         */
+        private void ensureConnected() throws MessagingException {
+            boolean stale = transport != null && System.nanoTime() - lastUsedNanos > maxIdle.toNanos();
+            if (transport == null || stale) {
+                close();
+                String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+                Transport fresh = mailSender.getSession().getTransport(protocol);
+                fresh.connect(mailSender.getHost(), mailSender.getPort(),
+                        mailSender.getUsername(), mailSender.getPassword());
+                transport = fresh;
+                lastUsedNanos = System.nanoTime();
+            }
+        }
+
+        /**
+         * Closes the underlying connection, ignoring errors from an already broken session.
+         */
+        void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    log.debug("Ignoring error while closing SMTP transport: {}", e.getMessage());
+                }
+                transport = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.forest.service;
+
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.document.NotificationDigestDocument;
+import com.example.forest.model.DigestStatus;
+import com.example.forest.model.NotificationEmail;
+import com.example.forest.model.NotificationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * CommentNotificationAggregator.java
+ *
+ * Coalesces comment notifications into periodic digest emails.
+ * <p>
+ * Each comment event is upserted into a pending {@link NotificationDigestDocument}
+ * keyed by (recipient, post). The first event opens a window whose length is taken
+ * from the recipient's {@code notificationWindowMinutes} (or the application default);
+ * when the window closes, a scheduled job hands one email such as
+ * "12 new replies on X" to the notification outbox and removes the digest.
+ * <p>
+ * Handing over is two writes, which are not atomic unless Mongo transactions are enabled, so
+ * the job claims the digest with a lease, enqueues the email under the digest's ID, and only
+ * then deletes the digest. A crash in between leaves the digest claimed; once the lease
+ * expires it is claimed again, and the outbox recognises the repeated ID, so the email is
+ * neither lost nor sent twice.
+ */
+@Service
+@Slf4j
+public class CommentNotificationAggregator {
+
+    /** Maximum number of commenter names kept per digest. */
+    private static final int MAX_RECENT_COMMENTERS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationOutboxService notificationOutbox;
+    private final Duration defaultWindow;
+    private final int flushBatchSize;
+    private final Duration lease;
+
+    public CommentNotificationAggregator(MongoTemplate mongoTemplate,
+                                         NotificationOutboxService notificationOutbox,
+                                         @Value("${notifications.digest.default-window-minutes:15}") long defaultWindowMinutes,
+                                         @Value("${notifications.digest.flush-batch-size:200}") int flushBatchSize,
+                                         @Value("${notifications.digest.lease:PT5M}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.notificationOutbox = notificationOutbox;
+        this.defaultWindow = Duration.ofMinutes(defaultWindowMinutes);
+        this.flushBatchSize = flushBatchSize;
+        this.lease = lease;
+    }
+
+    /**
+     * Records a new comment on a post for its author's next digest.
+     *
+     * @param recipient The post author who receives the notification.
+     * @param post      The post that was commented on.
+     * @param commenter The user who wrote the comment.
+     * @param postUrl   Link to the post, included in the email.
+     */
+    public void recordComment(MongoUserDocument recipient, MongoPostDocument post,
+                              MongoUserDocument commenter, String postUrl) {
+        if (recipient == null || recipient.getEmail() == null) {
+            log.warn("Skipping comment notification for post {}: recipient has no email.", post.getId());
+            return;
+        }
+
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("recipientId").is(recipient.getId())
+                .and("postId").is(post.getId())
+                .and("status").is(DigestStatus.OPEN));
+
+        Update update = new Update()
+                .inc("eventCount", 1)
+                .set("recipientEmail", recipient.getEmail())
+                .set("recipientUsername", recipient.getUsername())
+                .set("postName", post.getPostName())
+                .set("postUrl", postUrl)
+                .setOnInsert("firstEventAt", now)
+                .setOnInsert("flushAt", now.plus(windowFor(recipient)));
+        update.push("recentCommenters").slice(-MAX_RECENT_COMMENTERS).each(commenter.getUsername());
+
+        try {
+            mongoTemplate.upsert(query, update, NotificationDigestDocument.class);
+        } catch (DuplicateKeyException e) {
+            // A concurrent event created the digest first; apply as a plain update
+            mongoTemplate.upsert(query, update, NotificationDigestDocument.class);
+        }
+    }
+
+    /**
+     * Sends every digest whose window has closed.
+     * <p>
+     * Each digest is claimed with {@code findAndModify}, so only one application instance
+     * sends it; it is deleted only after its email is in the outbox. Events arriving after
+     * the claim open a new digest.
+     */
+    @Scheduled(fixedDelayString = "${notifications.digest.flush-interval-ms:60000}")
+    public void flushDueDigests() {
+        int sent = 0;
+        NotificationDigestDocument digest;
+        while (sent < flushBatchSize && (digest = claimNext(Instant.now())) != null) {
+            try {
+                notificationOutbox.enqueueOnce(digest.getId(), NotificationType.COMMENT_DIGEST, toEmail(digest));
+                mongoTemplate.remove(new Query(Criteria.where("_id").is(digest.getId())
+                        .and("status").is(DigestStatus.CLAIMED)), NotificationDigestDocument.class);
+                sent++;
+            } catch (RuntimeException e) {
+                // The digest stays claimed and is retried once its lease expires
+                log.warn("Failed to hand digest {} to the outbox; retrying after {}", digest.getId(), lease, e);
+                break;
+            }
+        }
+
+        if (sent > 0) {
+            log.info("📨 Queued {} comment notification digests", sent);
+        }
+    }
+
+    /**
+     * Atomically claims the next due digest (or one whose claim expired after a crash).
+     */
+    private NotificationDigestDocument claimNext(Instant now) {
+        Query due = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(DigestStatus.OPEN).and("flushAt").lte(now),
+                Criteria.where("status").is(DigestStatus.CLAIMED).and("claimedUntil").lte(now)
+        )).with(Sort.by(Sort.Direction.ASC, "flushAt"));
+
+        Update claim = new Update()
+                .set("status", DigestStatus.CLAIMED)
+                .set("claimedUntil", now.plus(lease));
+
+        return mongoTemplate.findAndModify(due, claim,
+                FindAndModifyOptions.options().returnNew(true), NotificationDigestDocument.class);
+    }
+
+    /**
+     * Builds the digest email for a set of buffered events.
+     */
+    NotificationEmail toEmail(NotificationDigestDocument digest) {
+        List<String> commenters = digest.getRecentCommenters() != null ? digest.getRecentCommenters() : List.of();
+        String latest = commenters.isEmpty() ? "Someone" : commenters.get(commenters.size() - 1);
+
+        String subject;
+        String body;
+        if (digest.getEventCount() <= 1) {
+            subject = latest + " replied to your post";
+            body = latest + " posted a response to your post. Click here to go to the post: " + digest.getPostUrl();
+        } else {
+            subject = digest.getEventCount() + " new replies on " + digest.getPostName();
+            body = digest.getEventCount() + " new replies were posted on \"" + digest.getPostName() + "\""
+                    + " (latest from " + String.join(", ", commenters.stream().distinct().toList()) + ")."
+                    + " Click here to go to the post: " + digest.getPostUrl();
+        }
+
+        return new NotificationEmail(subject, digest.getRecipientEmail(), digest.getRecipientUsername(), body);
+    }
+
+    /**
+     * Resolves the digest window for a recipient.
+     */
+    private Duration windowFor(MongoUserDocument recipient) {
+        Integer minutes = recipient.getNotificationWindowMinutes();
+        return minutes != null ? Duration.ofMinutes(minutes) : defaultWindow;
+    }
+}
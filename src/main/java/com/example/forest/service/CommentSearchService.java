@@ -0,0 +1,155 @@
+package com.example.forest.service;
+
+import com.example.forest.document.MongoCommentDocument;
+import com.example.forest.search.InvertedIndex;
+import com.example.forest.search.SearchIndexMaintainer;
+import com.example.forest.search.TextAnalyzer;
+import com.mongodb.DBRef;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * CommentSearchService.java
+ *
+ * Full-text index over comment text, maintained alongside the post index
+ * (see {@link SearchIndexMaintainer}) and queried through {@link SearchService}.
+ * <p>
+ * Comments are grouped by the subreddit of the post they belong to, so the same subreddit
+ * filter applies to posts and comments. That subreddit is resolved once per write: from the
+ * already loaded post in {@link MongoCommentService}, from a single {@code posts} projection
+ * during a rebuild, and by ID for change events. The change stream ignores updates that do not
+ * touch {@code text} (reply counters change far more often than comment bodies).
+ */
+@Service
+@Slf4j
+public class CommentSearchService extends SearchIndexMaintainer {
+
+    private static final String COMMENTS_COLLECTION = "comments";
+    private static final String POSTS_COLLECTION = "posts";
+
+    public CommentSearchService(MongoTemplate mongoTemplate,
+                                @Value("${search.comments.change-streams:true}") boolean changeStreamsEnabled,
+                                @Value("${search.comments.compaction-threshold:0.3}") double compactionThreshold) {
+        super(mongoTemplate, "comment", COMMENTS_COLLECTION, changeStreamsEnabled, compactionThreshold);
+    }
+
+    /**
+     * Indexes (or re-indexes) a comment after it is created or edited.
+     *
+     * @param comment The saved comment, with its post loaded.
+     */
+    public void index(MongoCommentDocument comment) {
+        String subredditId = comment.getPost() != null && comment.getPost().getSubreddit() != null
+                ? comment.getPost().getSubreddit().getId() : null;
+        long created = comment.getCreatedDate() != null ? comment.getCreatedDate().toEpochMilli() : 0L;
+        Map<String, Integer> terms = TextAnalyzer.termFrequencies(null, comment.getText(), 1);
+        apply(target -> target.upsert(comment.getId(), subredditId, created, terms));
+    }
+
+    /**
+     * Removes several comments from the index, e.g. a deleted reply subtree.
+     *
+     * @param commentIds The comment IDs.
+     */
+    public void removeAll(List<String> commentIds) {
+        apply(target -> commentIds.forEach(target::remove));
+    }
+
+    /**
+     * Rebuilds the index on schedule when needed (see {@link SearchIndexMaintainer#maintain()}).
+     */
+    @Scheduled(fixedDelayString = "${search.comments.rebuild-interval-ms:600000}",
+            initialDelayString = "${search.comments.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        maintain();
+    }
+
+    /**
+     * Resolves every post's subreddit once, then streams all comments (text fields only) into the index.
+     */
+    @Override
+    protected void indexAll(InvertedIndex target) {
+        Map<Object, String> subredditByPost = new HashMap<>();
+        Query posts = new Query();
+        posts.fields().include("subreddit");
+        try (Stream<Document> stream = mongoTemplate.stream(posts, Document.class, POSTS_COLLECTION)) {
+            stream.forEach(post -> {
+                DBRef subreddit = post.get("subreddit", DBRef.class);
+                if (subreddit != null) {
+                    subredditByPost.put(post.get("_id"), subreddit.getId().toString());
+                }
+            });
+        }
+
+        Query comments = new Query();
+        comments.fields().include("text").include("post").include("createdDate");
+        try (Stream<Document> stream = mongoTemplate.stream(comments, Document.class, COMMENTS_COLLECTION)) {
+            stream.forEach(doc -> {
+                DBRef post = doc.get("post", DBRef.class);
+                indexRaw(target, doc, post != null ? subredditByPost.get(post.getId()) : null);
+            });
+        }
+    }
+
+    /**
+     * Only inserts, replacements, deletions and updates that change {@code text},
+     * projected to the indexed fields.
+     */
+    @Override
+    protected List<Bson> changeStreamPipeline() {
+        return List.of(
+                Aggregates.match(Filters.or(
+                        Filters.in("operationType", List.of("insert", "replace", "delete")),
+                        Filters.and(Filters.eq("operationType", "update"),
+                                Filters.exists("updateDescription.updatedFields.text")))),
+                Aggregates.project(Projections.include("operationType", "documentKey",
+                        "fullDocument._id", "fullDocument.text", "fullDocument.post", "fullDocument.createdDate"))
+        );
+    }
+
+    @Override
+    protected void onChange(Document fullDocument) {
+        String subredditId = subredditOf(fullDocument.get("post", DBRef.class));
+        apply(target -> indexRaw(target, fullDocument, subredditId));
+    }
+
+    /**
+     * Indexes a raw {@code comments} document under the given subreddit.
+     */
+    private void indexRaw(InvertedIndex target, Document doc, String subredditId) {
+        Date created = doc.getDate("createdDate");
+        target.upsert(doc.getObjectId("_id").toHexString(), subredditId,
+                created != null ? created.getTime() : 0L,
+                TextAnalyzer.termFrequencies(null, doc.getString("text"), 1));
+    }
+
+    /**
+     * Looks up the subreddit of a single post by ID.
+     */
+    private String subredditOf(DBRef post) {
+        if (post == null) {
+            return null;
+        }
+        Query query = new Query(Criteria.where("_id").is(post.getId()));
+        query.fields().include("subreddit");
+        Document doc = mongoTemplate.findOne(query, Document.class, POSTS_COLLECTION);
+        DBRef subreddit = doc != null ? doc.get("subreddit", DBRef.class) : null;
+        return subreddit != null ? subreddit.getId().toString() : null;
+    }
+}
@@ -7,11 +7,14 @@
 import com.google.cloud.vertexai.generativeai.GenerativeModel;
 import com.google.cloud.vertexai.generativeai.PartMaker;
 import com.google.cloud.vertexai.generativeai.ResponseHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.bson.types.Binary;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ContentModerationService.java
@@ -33,6 +36,13 @@ public class ContentModerationService {
     /** The AI model used for content moderation. */
     private static final String MODEL_NAME = "gemini-2.5-flash";
 
+    /** Registry for the {@code gemini.requests} timer (tags: kind, outcome). */
+    private final MeterRegistry meterRegistry;
+
+    public ContentModerationService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     /**
      * A comprehensive set of moderation rules defining acceptable and prohibited
      * behaviors and content types across the Forest platform.
@@ -83,7 +93,7 @@ public boolean isContentInappropriate(String text) {
         return isContentInappropriate(ContentMaker.fromMultiModalData(
                 GUIDELINES_PROMPT,
                 "User Post Content:\n" + text
-        ));
+        ), "text");
     }
 
     /**
@@ -100,17 +110,21 @@ public boolean isContentInappropriate(Binary media, String mimeType) {
         return isContentInappropriate(ContentMaker.fromMultiModalData(
                 GUIDELINES_PROMPT,
                 PartMaker.fromMimeTypeAndData(mimeType, media.getData())
-        ));
+        ), "media");
     }
 
     /**
      * Calls the Gemini API through Vertex AI to classify content as SAFE or UNSAFE.
+     * Every call is recorded in the {@code gemini.requests} timer.
      *
      * @param content the {@link Content} object representing text or media to analyze.
+     * @param kind    {@code text} or {@code media}, used as a metric tag.
      * @return {@code true} if the model classifies the content as UNSAFE.
      */
-    private boolean isContentInappropriate(Content content) {
+    private boolean isContentInappropriate(Content content, String kind) {
         String location = "us-central1";
+        String outcome = "error";
+        long start = System.nanoTime();
 
         try (VertexAI vertexAi = new VertexAI(projectId, location)) {
             GenerativeModel model = new GenerativeModel(MODEL_NAME, vertexAi);
@@ -120,12 +134,22 @@ private boolean isContentInappropriate(Content content) {
             String modelResponse = ResponseHandler.getText(response).trim();
 
             // Return true only if model marks it unsafe
-            return "UNSAFE".equalsIgnoreCase(modelResponse);
+            boolean unsafe = "UNSAFE".equalsIgnoreCase(modelResponse);
+            outcome = unsafe ? "unsafe" : "safe";
+            return unsafe;
 
         } catch (IOException e) {
             System.err.println("Error calling Gemini API: " + e.getMessage());
             // Failsafe: block content if moderation service fails
             return true;
+        } finally {
+            Timer.builder("gemini.requests")
+                    .description("Content moderation calls to the Gemini API")
+                    .tag("model", MODEL_NAME)
+                    .tag("kind", kind)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 }
@@ -0,0 +1,454 @@
+package com.example.forest.service;
+
+import com.example.forest.Exceptions.CustomException;
+import com.example.forest.document.DeletionJobDocument;
+import com.example.forest.document.MongoCommentDocument;
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoSubredditDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.document.MongoVoteDocument;
+import com.example.forest.document.NotificationDigestDocument;
+import com.example.forest.document.Photo;
+import com.example.forest.document.SubscriptionDocument;
+import com.example.forest.document.Video;
+import com.example.forest.dto.DeletionJobResponse;
+import com.example.forest.model.DeletionJobStatus;
+import com.example.forest.model.DeletionTargetType;
+import com.example.forest.model.Role;
+import com.example.forest.repository.mongodb.DeletionJobRepository;
+import com.mongodb.DBRef;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DeletionJobService.java
+ *
+ * Background engine for cascade deletions of subreddits and posts.
+ * <p>
+ * A delete request only hides the target — a subreddit is tombstoned with {@code deletedAt},
+ * a post document is removed — and records a {@link DeletionJobDocument}. A scheduled poller
+ * claims jobs with a lease and runs them on a small bounded pool. Jobs remove dependent
+ * comments, votes, media, posts and subscriptions with {@code $in}-batched {@code deleteMany} calls and
+ * checkpoint after every batch, so a job interrupted by a restart resumes from its checkpoint
+ * once its lease expires. Deleting a very large subreddit therefore never blocks the HTTP request.
+ */
+@Service
+@Slf4j
+public class DeletionJobService {
+
+    private static final Collection<DeletionJobStatus> UNFINISHED =
+            EnumSet.of(DeletionJobStatus.PENDING, DeletionJobStatus.RUNNING);
+
+    private final MongoTemplate mongoTemplate;
+    private final DeletionJobRepository jobRepository;
+    private final SubredditDirectory subredditDirectory;
+    private final AuthService authService;
+    private final PostSearchService postSearchService;
+    private final CommentSearchService commentSearchService;
+    private final PostTitleSuggester titleSuggester;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final ThreadPoolExecutor workers;
+
+    public DeletionJobService(MongoTemplate mongoTemplate,
+                              DeletionJobRepository jobRepository,
+                              SubredditDirectory subredditDirectory,
+                              AuthService authService,
+                              PostSearchService postSearchService,
+                              CommentSearchService commentSearchService,
+                              PostTitleSuggester titleSuggester,
+                              @Value("${deletion.jobs.workers:2}") int workerCount,
+                              @Value("${deletion.jobs.batch-size:500}") int batchSize,
+                              @Value("${deletion.jobs.max-attempts:5}") int maxAttempts,
+                              @Value("${deletion.jobs.lease:PT2M}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobRepository = jobRepository;
+        this.subredditDirectory = subredditDirectory;
+        this.authService = authService;
+        this.postSearchService = postSearchService;
+        this.commentSearchService = commentSearchService;
+        this.titleSuggester = titleSuggester;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workerCount),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "deletion-job-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Hides a subreddit immediately and schedules removal of everything under it.
+     * Repeated requests for the same subreddit return the existing unfinished job.
+     *
+     * @param subreddit   The subreddit to delete.
+     * @param requestedBy Username of the requesting user.
+     * @return The deletion job.
+     */
+    public DeletionJobResponse submitSubredditDeletion(MongoSubredditDocument subreddit, String requestedBy) {
+        DeletionJobDocument job = jobRepository
+                .findFirstByTargetTypeAndTargetIdAndStatusIn(DeletionTargetType.SUBREDDIT, subreddit.getId(), UNFINISHED)
+                .orElseGet(() -> jobRepository.save(newJob(DeletionTargetType.SUBREDDIT, subreddit.getId(),
+                        subreddit.getName(), requestedBy).build()));
+
+        // Tombstone after the job exists, so a crash in between never leaves a hidden subreddit without a job
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(subreddit.getId())),
+                new Update().set("deletedAt", Instant.now()), MongoSubredditDocument.class);
+        subredditDirectory.refresh();
+
+        log.info("🗑️ Subreddit '{}' hidden; cascade deletion job {} queued", subreddit.getName(), job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * Removes a post document immediately and schedules removal of its comments, votes and media.
+     *
+     * @param post        The post to delete.
+     * @param requestedBy Username of the requesting user.
+     * @return The deletion job.
+     */
+    public DeletionJobResponse submitPostDeletion(MongoPostDocument post, String requestedBy) {
+        DeletionJobDocument job = jobRepository
+                .findFirstByTargetTypeAndTargetIdAndStatusIn(DeletionTargetType.POST, post.getId(), UNFINISHED)
+                .orElseGet(() -> jobRepository.save(newJob(DeletionTargetType.POST, post.getId(), post.getPostName(), requestedBy)
+                        .photoIds(post.getPhoto() != null && post.getPhoto().getId() != null
+                                ? List.of(post.getPhoto().getId()) : List.of())
+                        .videoIds(post.getVideo() != null && post.getVideo().getId() != null
+                                ? List.of(post.getVideo().getId()) : List.of())
+                        .build()));
+
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(post.getId())), MongoPostDocument.class);
+
+        log.info("🗑️ Post {} removed; cascade deletion job {} queued", post.getId(), job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * Returns the progress of a deletion job. Only the requester or an admin may view it.
+     *
+     * @param id The job ID.
+     * @return The job status.
+     */
+    public DeletionJobResponse getJob(String id) {
+        DeletionJobDocument job = jobRepository.findById(id)
+                .orElseThrow(() -> new CustomException("No deletion job found with ID: " + id));
+
+        MongoUserDocument currentUser = authService.getCurrentUser();
+        if (!currentUser.getRole().equals(Role.ADMIN) && !currentUser.getUsername().equals(job.getRequestedBy())) {
+            throw new CustomException("Insufficient privileges to view this deletion job.");
+        }
+        return toResponse(job);
+    }
+
+    /**
+     * Claims pending jobs (and running jobs whose lease expired after a crash)
+     * up to the number of idle workers, and starts them.
+     */
+    @Scheduled(fixedDelayString = "${deletion.jobs.poll-interval-ms:2000}")
+    public void poll() {
+        // Only claim what can start now; a job waiting in the queue would not renew its lease
+        int capacity = workers.getMaximumPoolSize() - workers.getActiveCount() - workers.getQueue().size();
+        for (int i = 0; i < capacity; i++) {
+            DeletionJobDocument job = claimNext(Instant.now());
+            if (job == null) {
+                return;
+            }
+            try {
+                workers.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                // The lease expires and the job is picked up again
+                log.warn("Deletion workers busy; job {} will resume after lease expiry", job.getId());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Atomically claims the oldest runnable job and renews its lease.
+     */
+    private DeletionJobDocument claimNext(Instant now) {
+        Query runnable = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(DeletionJobStatus.PENDING),
+                Criteria.where("status").is(DeletionJobStatus.RUNNING).and("lockedUntil").lte(now)
+        )).with(Sort.by(Sort.Direction.ASC, "createdAt"));
+
+        Update claim = new Update()
+                .set("status", DeletionJobStatus.RUNNING)
+                .set("lockedUntil", now.plus(lease))
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(runnable, claim,
+                FindAndModifyOptions.options().returnNew(true), DeletionJobDocument.class);
+    }
+
+    /**
+     * Runs a claimed job to completion, or records the failure for a later retry.
+     */
+    void run(DeletionJobDocument job) {
+        try {
+            if (job.getTargetType() == DeletionTargetType.SUBREDDIT) {
+                runSubredditJob(job);
+            } else {
+                runPostJob(job);
+            }
+            mongoTemplate.updateFirst(byId(job.getId()), new Update()
+                            .set("status", DeletionJobStatus.COMPLETED)
+                            .set("completedAt", Instant.now())
+                            .unset("lockedUntil"),
+                    DeletionJobDocument.class);
+            log.info("✅ Deletion job {} for {} '{}' completed", job.getId(), job.getTargetType(), job.getTargetName());
+        } catch (RuntimeException e) {
+            boolean exhausted = job.getAttempts() >= maxAttempts;
+            mongoTemplate.updateFirst(byId(job.getId()), new Update()
+                            .set("status", exhausted ? DeletionJobStatus.FAILED : DeletionJobStatus.PENDING)
+                            .set("lastError", e.getMessage())
+                            .unset("lockedUntil"),
+                    DeletionJobDocument.class);
+            log.error("❌ Deletion job {} failed (attempt {}){}", job.getId(), job.getAttempts(),
+                    exhausted ? "; giving up" : "; will resume from checkpoint", e);
+        }
+    }
+
+    /**
+     * Removes a subreddit's posts in ID order, batch by batch: first each batch's comments
+     * (dropping them from the comment search index as well), votes and media, then the posts themselves, then a checkpoint. Finally removes the subreddit.
+     */
+    private void runSubredditJob(DeletionJobDocument job) {
+        DBRef subredditRef = new DBRef("subreddits", new ObjectId(job.getTargetId()));
+        String lastPostId = job.getLastPostId();
+
+        while (true) {
+            Criteria criteria = Criteria.where("subreddit").is(subredditRef);
+            if (lastPostId != null) {
+                criteria = criteria.and("_id").gt(new ObjectId(lastPostId));
+            }
+            Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+            query.fields().include("_id").include("photo._id").include("video._id");
+
+            List<Document> posts = mongoTemplate.find(query, Document.class, "posts");
+            if (posts.isEmpty()) {
+                break;
+            }
+
+            List<ObjectId> postIds = new ArrayList<>(posts.size());
+            List<DBRef> postRefs = new ArrayList<>(posts.size());
+            List<Object> photoIds = new ArrayList<>();
+            List<Object> videoIds = new ArrayList<>();
+            for (Document post : posts) {
+                ObjectId postId = post.getObjectId("_id");
+                postIds.add(postId);
+                postRefs.add(new DBRef("posts", postId));
+                addMediaId(post.get("photo", Document.class), photoIds);
+                addMediaId(post.get("video", Document.class), videoIds);
+            }
+
+            long comments = 0;
+            List<Object> commentIds;
+            while (!(commentIds = nextIds(Criteria.where("post").in(postRefs), "comments")).isEmpty()) {
+                comments += mongoTemplate.remove(new Query(Criteria.where("_id").in(commentIds)),
+                        MongoCommentDocument.class).getDeletedCount();
+                commentSearchService.removeAll(commentIds.stream().map(Object::toString).toList());
+            }
+            long votes = mongoTemplate.remove(new Query(Criteria.where("post").in(postRefs)),
+                    MongoVoteDocument.class).getDeletedCount();
+            long media = deleteMedia(photoIds, videoIds);
+            removeDigests(postIds);
+            long removedPosts = mongoTemplate.remove(new Query(Criteria.where("_id").in(postIds)),
+                    MongoPostDocument.class).getDeletedCount();
+            postIds.forEach(postId -> {
+                postSearchService.remove(postId.toHexString());
+                titleSuggester.remove(postId.toHexString());
+            });
+
+            lastPostId = postIds.get(postIds.size() - 1).toHexString();
+            checkpoint(job.getId(), lastPostId, removedPosts, comments, votes, media);
+        }
+
+        // Drop subscriptions (and the matching compatibility interests) before the subreddit itself
+        mongoTemplate.remove(new Query(Criteria.where("subredditId").is(job.getTargetId())), SubscriptionDocument.class);
+        if (job.getTargetName() != null) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("interests").is(job.getTargetName())),
+                    new Update().pull("interests", job.getTargetName()), MongoUserDocument.class);
+        }
+        mongoTemplate.remove(byId(job.getTargetId()), MongoSubredditDocument.class);
+    }
+
+    /**
+     * Removes a single post's comments, votes and media (the post document itself
+     * was removed when the job was submitted; it is removed again here in case of a crash).
+     */
+    private void runPostJob(DeletionJobDocument job) {
+        DBRef postRef = new DBRef("posts", new ObjectId(job.getTargetId()));
+
+        long comments = 0;
+        List<Object> batch;
+        // Large threads are removed in ID batches so the job checkpoints between them
+        while (!(batch = nextIds(Criteria.where("post").is(postRef), "comments")).isEmpty()) {
+            long removed = mongoTemplate.remove(new Query(Criteria.where("_id").in(batch)),
+                    MongoCommentDocument.class).getDeletedCount();
+            comments += removed;
+            commentSearchService.removeAll(batch.stream().map(Object::toString).toList());
+            checkpoint(job.getId(), null, 0, removed, 0, 0);
+        }
+
+        long votes = mongoTemplate.remove(new Query(Criteria.where("post").is(postRef)),
+                MongoVoteDocument.class).getDeletedCount();
+        long media = deleteMedia(new ArrayList<>(nullToEmpty(job.getPhotoIds())), new ArrayList<>(nullToEmpty(job.getVideoIds())));
+        removeDigests(List.of(new ObjectId(job.getTargetId())));
+        long posts = mongoTemplate.remove(byId(job.getTargetId()), MongoPostDocument.class).getDeletedCount();
+
+        // The post document itself normally went away at submission time; count it once here
+        checkpoint(job.getId(), null, 1, 0, votes, media);
+        log.debug("Post job {} removed {} comments, {} votes and {} leftover post documents",
+                job.getId(), comments, votes, posts);
+    }
+
+    /**
+     * Returns the next batch of document IDs matching the criteria.
+     */
+    private List<Object> nextIds(Criteria criteria, String collection) {
+        Query query = new Query(criteria).limit(batchSize);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Document.class, collection).stream()
+                .map(doc -> doc.get("_id"))
+                .toList();
+    }
+
+    /**
+     * Deletes stored photos and videos by ID, accepting both string and ObjectId forms.
+     */
+    private long deleteMedia(List<Object> photoIds, List<Object> videoIds) {
+        long removed = 0;
+        if (!photoIds.isEmpty()) {
+            removed += mongoTemplate.remove(new Query(Criteria.where("_id").in(withObjectIds(photoIds))),
+                    Photo.class).getDeletedCount();
+        }
+        if (!videoIds.isEmpty()) {
+            removed += mongoTemplate.remove(new Query(Criteria.where("_id").in(withObjectIds(videoIds))),
+                    Video.class).getDeletedCount();
+        }
+        return removed;
+    }
+
+    /**
+     * Drops pending comment digests for removed posts so no email refers to them.
+     */
+    private void removeDigests(List<ObjectId> postIds) {
+        List<String> ids = postIds.stream().map(ObjectId::toHexString).toList();
+        mongoTemplate.remove(new Query(Criteria.where("postId").in(ids)), NotificationDigestDocument.class);
+    }
+
+    /**
+     * Records progress and renews the lease in a single update.
+     */
+    private void checkpoint(String jobId, String lastPostId, long posts, long comments, long votes, long media) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .inc("deletedPosts", posts)
+                .inc("deletedComments", comments)
+                .inc("deletedVotes", votes)
+                .inc("deletedMedia", media)
+                .set("updatedAt", now)
+                .set("lockedUntil", now.plus(lease));
+        if (lastPostId != null) {
+            update.set("lastPostId", lastPostId);
+        }
+        mongoTemplate.updateFirst(byId(jobId), update, DeletionJobDocument.class);
+    }
+
+    private static void addMediaId(Document media, List<Object> ids) {
+        if (media != null && media.get("_id") != null) {
+            ids.add(media.get("_id"));
+        }
+    }
+
+    private static List<Object> withObjectIds(List<Object> ids) {
+        List<Object> all = new ArrayList<>(ids);
+        for (Object id : ids) {
+            if (id instanceof String value && ObjectId.isValid(value)) {
+                all.add(new ObjectId(value));
+            } else if (id instanceof ObjectId value) {
+                all.add(value.toHexString());
+            }
+        }
+        return all;
+    }
+
+    private static List<String> nullToEmpty(List<String> values) {
+        return values != null ? values : List.of();
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+
+    private static DeletionJobDocument.DeletionJobDocumentBuilder newJob(DeletionTargetType type, String targetId,
+                                                                        String targetName, String requestedBy) {
+        return DeletionJobDocument.builder()
+                .targetType(type)
+                .targetId(targetId)
+                .targetName(targetName)
+                .requestedBy(requestedBy)
+                .status(DeletionJobStatus.PENDING)
+                .createdAt(Instant.now());
+    }
+
+    private static DeletionJobResponse toResponse(DeletionJobDocument job) {
+        return DeletionJobResponse.builder()
+                .id(job.getId())
+                .targetType(job.getTargetType())
+                .targetId(job.getTargetId())
+                .targetName(job.getTargetName())
+                .status(job.getStatus())
+                .deletedPosts(job.getDeletedPosts())
+                .deletedComments(job.getDeletedComments())
+                .deletedVotes(job.getDeletedVotes())
+                .deletedMedia(job.getDeletedMedia())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .completedAt(job.getCompletedAt())
+                .lastError(job.getLastError())
+                .build();
+    }
+
+    /**
+     * Stops accepting work; running jobs resume from their checkpoint after restart.
+     */
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
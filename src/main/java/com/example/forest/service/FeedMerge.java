@@ -0,0 +1,33 @@
+package com.example.forest.service;
+
+import com.example.forest.document.MongoPostDocument;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * FeedMerge.java
+ *
+ * Combines the two halves of a personal feed, as {@link FeedService#getMyFeed()} reads them:
+ * the user's own posts followed by the posts of the subreddits they follow.
+ */
+public final class FeedMerge {
+
+    private FeedMerge() {
+    }
+
+    /**
+     * Concatenates the user's own posts with posts from followed subreddits, keeping the first
+     * occurrence of each post.
+     *
+     * @param userPosts     The user's own posts.
+     * @param interestPosts Posts of the subreddits the user follows.
+     * @return The merged posts, own posts first.
+     */
+    public static List<MongoPostDocument> merge(List<MongoPostDocument> userPosts, List<MongoPostDocument> interestPosts) {
+        return Stream.concat(userPosts.stream(), interestPosts.stream())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
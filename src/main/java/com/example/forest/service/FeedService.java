@@ -1,23 +1,23 @@
 package com.example.forest.service;
 
 import com.example.forest.document.MongoPostDocument;
-import com.example.forest.document.MongoSubredditDocument;
 import com.example.forest.document.MongoUserDocument;
 import com.example.forest.dto.PostResponse;
 import com.example.forest.mapper.MongoPostMapper;
 import com.example.forest.repository.mongodb.MongoPostRepository;
-import com.example.forest.repository.mongodb.MongoSubredditRepository;
+import com.mongodb.DBRef;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.*;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * FeedService.java
@@ -39,9 +39,12 @@ public class FeedService {
 
     private final AuthService authService;
     private final MongoPostRepository postRepository;
-    private final MongoSubredditRepository subredditRepository;
+    private final SubredditDirectory subredditDirectory;
+    private final SubscriptionStore subscriptionStore;
     private final MongoPostMapper postMapper;
+    private final VoteStateService voteStateService;
     private final MongoTemplate mongoTemplate;
+    private final PostStreamer postStreamer;
 
     /**
      * Builds and retrieves the personalized feed for the currently authenticated user.
@@ -57,41 +60,66 @@ public List<PostResponse> getMyFeed() {
         List<MongoPostDocument> userPosts = postRepository.findAllByUser(currentUser);
         log.info("Found {} posts created by user", userPosts.size());
 
-        // Fetch posts based on user interests
-        Set<String> interests = currentUser.getInterests();
-        List<MongoPostDocument> interestPosts = new ArrayList<>();
+        // Subscribed subreddits plus subreddits matching the user's interests
+        Set<DBRef> subredditRefs = followedSubreddits(currentUser);
 
-        if (interests != null && !interests.isEmpty()) {
-            log.info("User interests: {}", interests);
+        // Fetch posts from all matching subreddits in a single query
+        List<MongoPostDocument> interestPosts = new ArrayList<>();
+        if (!subredditRefs.isEmpty()) {
+            Query query = new Query(Criteria.where("subreddit").in(subredditRefs));
+            interestPosts.addAll(mongoTemplate.find(query, MongoPostDocument.class));
+            log.info("Found {} posts across {} followed subreddits", interestPosts.size(), subredditRefs.size());
+        } else {
+            log.info("User follows no subreddits. Showing personal posts only.");
+        }
 
-            // Convert interests into case-insensitive regex patterns for flexible matching
-            List<Pattern> patterns = interests.stream()
-                    .map(interest -> Pattern.compile(interest, Pattern.CASE_INSENSITIVE))
-                    .collect(Collectors.toList());
+        // Combine user posts and interest-based posts, remove duplicates and posts of deleted subreddits, and map to DTOs
+        List<PostResponse> feed = postMapper.mapToDtos(FeedMerge.merge(userPosts, interestPosts).stream()
+                .filter(post -> !subredditDirectory.hides(post))
+                .collect(Collectors.toList()));
 
-            // Query all subreddits that match any of the user’s interests
-            Query query = new Query();
-            query.addCriteria(Criteria.where("name").in(patterns));
+        log.info("Total posts in feed: {}", feed.size());
+        return voteStateService.applyTo(feed);
+    }
 
-            mongoTemplate.find(query, MongoSubredditDocument.class)
-                    .forEach(subreddit -> {
-                        log.info("Fetching posts for subreddit: {}", subreddit.getName());
-                        List<MongoPostDocument> posts = postRepository.findAllBySubreddit(subreddit);
-                        log.info("Found {} posts for subreddit {}", posts.size(), subreddit.getName());
-                        interestPosts.addAll(posts);
-                    });
+    /**
+     * Streams the personalized feed of the currently authenticated user, newest first.
+     * <p>
+     * Own posts and followed-subreddit posts are read with a single {@code $or} query, which
+     * also removes duplicates, and sent to the client as the cursor advances.
+     *
+     * @return the user's feed.
+     */
+    public Flux<PostResponse> streamMyFeed() {
+        MongoUserDocument currentUser = authService.getCurrentUser();
+        Set<DBRef> subredditRefs = followedSubreddits(currentUser);
+        log.info("Streaming feed for user {} across {} followed subreddits", currentUser.getUsername(), subredditRefs.size());
 
-        } else {
-            log.info("User has no interests. Showing personal posts only.");
-        }
+        Criteria ownPosts = Criteria.where("user").is(new DBRef("users", new ObjectId(currentUser.getId())));
+        Criteria criteria = subredditRefs.isEmpty()
+                ? ownPosts
+                : new Criteria().orOperator(ownPosts, Criteria.where("subreddit").in(subredditRefs));
+        return postStreamer.stream(new Query(criteria).with(Sort.by(Sort.Direction.DESC, "_id")));
+    }
 
-        // Combine user posts and interest-based posts, remove duplicates, and map to DTOs
-        List<PostResponse> feed = Stream.concat(userPosts.stream(), interestPosts.stream())
-                .distinct()
-                .map(postMapper::mapToDto)
-                .collect(Collectors.toList());
+    /**
+     * Collects the subreddits a user follows: explicit subscriptions (from the user_subreddit
+     * index) and subreddits whose name contains one of the user's interests.
+     */
+    private Set<DBRef> followedSubreddits(MongoUserDocument currentUser) {
+        Set<DBRef> subredditRefs = new LinkedHashSet<>();
+        subscriptionStore.subredditIdsFor(currentUser.getId())
+                .forEach(id -> subredditRefs.add(new DBRef("subreddits", new ObjectId(id))));
 
-        log.info("Total posts in feed: {}", feed.size());
-        return feed;
+        // Resolve free-form interests to subreddits in memory (case-insensitive "contains" match)
+        Set<String> interests = currentUser.getInterests();
+        if (interests != null && !interests.isEmpty()) {
+            log.info("User interests: {}", interests);
+            for (String interest : interests) {
+                subredditDirectory.findByNameContainingIgnoreCase(interest)
+                        .forEach(subreddit -> subredditRefs.add(new DBRef("subreddits", new ObjectId(subreddit.id()))));
+            }
+        }
+        return subredditRefs;
     }
 }
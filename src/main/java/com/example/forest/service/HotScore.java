@@ -0,0 +1,69 @@
+package com.example.forest.service;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * HotScore.java
+ *
+ * The "hot" ranking used by subreddit listings: the order of magnitude of a post's net votes
+ * plus its age, so that each tenfold increase in votes is worth {@value #SECONDS_PER_ORDER}
+ * seconds of freshness.
+ * <p>
+ * Newer posts always gain on older ones by construction, so a stored score never needs to decay;
+ * it only has to be recomputed when the vote count changes. The same formula is available as a
+ * MongoDB aggregation expression for pipeline updates that change the vote count and the score
+ * atomically.
+ */
+public final class HotScore {
+
+    /** Reference point for post age; any fixed instant works. */
+    private static final long EPOCH_SECONDS = 1_134_028_003L;
+
+    /** Freshness, in seconds, equivalent to a tenfold increase in votes. */
+    private static final long SECONDS_PER_ORDER = 45_000L;
+
+    private HotScore() {
+    }
+
+    /**
+     * Computes the hot score of a post.
+     *
+     * @param voteCount   The post's net votes.
+     * @param createdDate When the post was created.
+     * @return The score; higher is hotter.
+     */
+    public static double of(Integer voteCount, Instant createdDate) {
+        int votes = voteCount != null ? voteCount : 0;
+        double order = Math.log10(Math.max(Math.abs(votes), 1));
+        long seconds = (createdDate != null ? createdDate.getEpochSecond() : 0L) - EPOCH_SECONDS;
+        return Integer.signum(votes) * order + (double) seconds / SECONDS_PER_ORDER;
+    }
+
+    /**
+     * Builds the score as an aggregation expression over a post document whose vote count
+     * is about to change by {@code voteDelta}.
+     *
+     * @param voteDelta Change applied to {@code voteCount} in the same update (0 to use it as is).
+     * @return An expression evaluating to the post's new hot score.
+     */
+    public static AggregationExpression expression(int voteDelta) {
+        return context -> {
+            Document votes = new Document("$add", List.of(new Document("$ifNull", List.of("$voteCount", 0)), voteDelta));
+            Document order = new Document("$log10", new Document("$max", List.of(new Document("$abs", votes), 1)));
+            Document sign = new Document("$cmp", List.of(votes, 0));
+            Document seconds = new Document("$divide", List.of(
+                    new Document("$subtract", List.of(
+                            new Document("$ifNull", List.of("$createdDate", new Date(0))),
+                            new Date(EPOCH_SECONDS * 1000))),
+                    1000));
+            return new Document("$add", List.of(
+                    new Document("$multiply", List.of(sign, order)),
+                    new Document("$divide", List.of(seconds, SECONDS_PER_ORDER))));
+        };
+    }
+}
@@ -28,7 +28,7 @@ public class MailContentBuilder {
      * @param recipient the recipient’s email address (used within the template if needed).
      * @return a fully rendered HTML email as a {@link String}.
      */
-    String build(String message, String username, String recipient) {
+    public String build(String message, String username, String recipient) {
         Context context = new Context();
         context.setVariable("message", message);
         context.setVariable("username", username);
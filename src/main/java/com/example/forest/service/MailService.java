@@ -2,30 +2,49 @@
 
 import com.example.forest.Exceptions.CustomException;
 import com.example.forest.model.NotificationEmail;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.mail.javamail.MimeMessagePreparator;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MailService.java
+ *
+ * Renders and sends notification emails over SMTP.
+ * <p>
+ * Rendering ({@link #prepare}) and sending ({@link #sendBatch}) are separate steps so that
+ * CPU-bound Thymeleaf rendering can run on a different stage than SMTP I/O. Sending goes
+ * through {@link BatchingMailSender}, which reuses pooled SMTP connections.
+ * Callers should not invoke this directly but enqueue messages through
+ * {@link NotificationOutboxService}, whose workers send and retry on failure.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MailService {
 
-    private final JavaMailSender mailSender;
+    private final BatchingMailSender batchingMailSender;
     private final MailContentBuilder mailContentBuilder;
 
     @Value("${spring.mail.username:no-reply@forest.com}")
     private String senderEmail;
 
-    @Async
-    public void sendMail(NotificationEmail notificationEmail) {
-        MimeMessagePreparator messagePreparator = mimeMessage -> {
+    /**
+     * Renders an email into a ready-to-send {@link MimeMessage}.
+     *
+     * @param notificationEmail the email to render.
+     * @return the rendered message.
+     * @throws CustomException if the message cannot be built.
+     */
+    public MimeMessage prepare(NotificationEmail notificationEmail) {
+        MimeMessage mimeMessage = batchingMailSender.createMimeMessage();
+        try {
             MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
             helper.setFrom(senderEmail);
             helper.setTo(notificationEmail.getRecipient());
@@ -37,14 +56,22 @@ public void sendMail(NotificationEmail notificationEmail) {
                     notificationEmail.getRecipient()
             );
             helper.setText(html, true);
-        };
-
-        try {
-            mailSender.send(messagePreparator);
-            log.info("✅ Email sent to {}", notificationEmail.getRecipient());
-        } catch (MailException e) {
-            log.error("❌ Failed to send email to {}", notificationEmail.getRecipient(), e);
-            throw new CustomException("Failed to send email to " + notificationEmail.getRecipient(), e);
+        } catch (MessagingException e) {
+            throw new CustomException("Failed to build email to " + notificationEmail.getRecipient(), e);
         }
+        return mimeMessage;
+    }
+
+    /**
+     * Sends already rendered messages over a single pooled SMTP connection.
+     *
+     * @param messages the rendered messages.
+     * @return failures keyed by the index of the message in {@code messages}; empty if all were sent.
+     * @throws InterruptedException if interrupted while waiting for a free connection.
+     */
+    public Map<Integer, Exception> sendBatch(List<MimeMessage> messages) throws InterruptedException {
+        Map<Integer, Exception> failures = batchingMailSender.send(messages);
+        log.info("✅ Sent {} of {} emails", messages.size() - failures.size(), messages.size());
+        return failures;
     }
 }
@@ -4,25 +4,50 @@
 import com.example.forest.document.MongoCommentDocument;
 import com.example.forest.document.MongoPostDocument;
 import com.example.forest.document.MongoUserDocument;
+import com.example.forest.dto.CommentThreadDto;
 import com.example.forest.dto.CommentsDto;
+import com.example.forest.dto.CursorPage;
 import com.example.forest.mapper.MongoCommentMapper;
-import com.example.forest.model.NotificationEmail;
 import com.example.forest.model.Role;
 import com.example.forest.repository.mongodb.MongoCommentRepository;
 import com.example.forest.repository.mongodb.MongoPostRepository;
 import com.example.forest.repository.mongodb.MongoUserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Service layer for managing comments on posts.
  * Handles creation, retrieval, updating, and deletion of comments,
  * including notification handling when a user comments on a post.
+ *
+ * <p>Comments form threads via materialized paths (see {@link MongoCommentDocument}).
+ * Thread pages and subtree expansion are served by range scans over the
+ * {@code (post, path)} index over raw documents, so a page costs that scan plus one
+ * batched author lookup, whatever the page size.</p>
+ *
+ * <p>Bulk listings (all comments, a user's history) are served either as
+ * {@code _id}-cursor pages or as an NDJSON stream. Both read raw documents and
+ * resolve author names in one batched lookup per batch instead of one DBRef
+ * resolution per comment, so memory stays bounded regardless of result size.</p>
  */
 @Service
 @AllArgsConstructor
@@ -34,10 +59,37 @@ public class MongoCommentService {
     private final MongoUserRepository userRepository;
     private final MongoPostRepository postRepository;
     private final MongoCommentMapper commentMapper;
-    private final MailService mailService;
+    private final CommentNotificationAggregator notificationAggregator;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final CommentSearchService commentSearchService;
+    private final UsernameLookup usernameLookup;
+
+    /** Collection names used for raw (unmapped) reads. */
+    private static final String COMMENTS_COLLECTION = "comments";
+    private static final String USERS_COLLECTION = "users";
+
+    /** Separator between path segments; sorts before every hex digit. */
+    private static final String PATH_SEPARATOR = "/";
+
+    /** Upper bound appended to a path prefix; sorts after every hex digit and the separator. */
+    private static final String PATH_UPPER_BOUND = "/~";
+
+    /** Deepest nesting level accepted for replies. */
+    private static final int MAX_DEPTH = 32;
+
+    /** Upper limits on page sizes accepted from clients. */
+    private static final int MAX_THREADS_PER_PAGE = 100;
+    private static final int MAX_REPLIES_PER_THREAD = 20;
+    private static final int MAX_REPLIES_PER_PAGE = 200;
+    private static final int MAX_COMMENTS_PER_PAGE = 500;
+
+    /** Number of comments mapped per author lookup while streaming. */
+    private static final int STREAM_BATCH_SIZE = 500;
 
     /**
      * Saves a new comment to the database and notifies the post owner (if notifications are enabled).
+     * Notifications are coalesced into digests by {@link CommentNotificationAggregator}.
      *
      * @param commentsDto DTO containing comment details.
      */
@@ -53,17 +105,43 @@ public void save(CommentsDto commentsDto) {
         // Map DTO to MongoDB document
         MongoCommentDocument comment = commentMapper.map(commentsDto, post, user);
 
+        // Assign the ID up front so it can be embedded in the materialized path
+        String id = new ObjectId().toHexString();
+        comment.setId(id);
+
+        if (commentsDto.getParentId() != null) {
+            MongoCommentDocument parent = commentRepository.findById(commentsDto.getParentId())
+                    .orElseThrow(() -> new CustomException("No parent comment found with id: " + commentsDto.getParentId()));
+
+            if (!post.getId().equals(parent.getPost().getId())) {
+                throw new CustomException("Parent comment does not belong to post: " + post.getId());
+            }
+            if (parent.getDepth() + 1 > MAX_DEPTH) {
+                throw new CustomException("Replies cannot be nested deeper than " + MAX_DEPTH + " levels.");
+            }
+
+            comment.setPath(parent.getPath() + PATH_SEPARATOR + id);
+            comment.setDepth(parent.getDepth() + 1);
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(parent.getId())),
+                    new Update().inc("replyCount", 1),
+                    MongoCommentDocument.class
+            );
+        } else {
+            comment.setPath(id);
+            comment.setDepth(0);
+        }
+
         // Save the new comment
         commentRepository.save(comment);
+        commentSearchService.index(comment);
 
         // Construct post URL (used in email notification)
         String POST_URL = "https://zealous-wave-027e5c910.3.azurestaticapps.net/#/view-post/" + commentsDto.getPostId();
 
-        // Send notification email if the post owner has enabled comment notifications
+        // Queue a digest notification if the post owner has enabled comment notifications
         if (post.isNotificationStatus()) {
-            String message = user.getUsername() +
-                    " posted a response to your post. Click here to go to the post: " + POST_URL;
-            sendCommentNotification(message, post.getUser(), user);
+            notificationAggregator.recordComment(post.getUser(), post, user, POST_URL);
         }
     }
 
@@ -81,21 +159,59 @@ public List<CommentsDto> getAllComments() {
     }
 
     /**
-     * Sends an email notification to the post owner when someone comments.
+     * Retrieves one page of all comments, ordered by ID.
+     *
+     * @param after Cursor (comment ID) returned by the previous page, or {@code null}.
+     * @param limit Maximum number of comments per page.
+     * @return A cursor page of comments.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CommentsDto> getCommentsPage(String after, int limit) {
+        return readPage(new Criteria(), after, limit, null);
+    }
+
+    /**
+     * Retrieves one page of a user's comments, ordered by ID.
+     *
+     * @param userName Username whose comments should be retrieved.
+     * @param after    Cursor (comment ID) returned by the previous page, or {@code null}.
+     * @param limit    Maximum number of comments per page.
+     * @return A cursor page of comments authored by the user.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CommentsDto> getCommentsPageForUser(String userName, String after, int limit) {
+        MongoUserDocument user = userRepository.findByUsername(userName)
+                .orElseThrow(() -> new CustomException("No user found with username: " + userName));
+
+        return readPage(Criteria.where("user").is(userRef(user.getId())), after, limit, user.getUsername());
+    }
+
+    /**
+     * Streams every comment as newline-delimited JSON while reading the Mongo cursor.
+     *
+     * @return The response body, writing to the response stream.
+     */
+    public StreamingResponseBody streamAllComments() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        return out -> streamComments(query, null, out);
+    }
+
+    /**
+     * Streams a user's comments as newline-delimited JSON while reading the Mongo cursor.
+     * <p>
+     * The user is resolved before the body is returned, so an unknown user fails the request
+     * with an error status instead of truncating an already committed 200 response.
      *
-     * @param message      Notification message content.
-     * @param threadstarter The post creator (recipient).
-     * @param commenter     The user who commented.
+     * @param userName Username whose comments should be streamed.
+     * @return The response body, writing to the response stream.
      */
-    private void sendCommentNotification(String message, MongoUserDocument threadstarter, MongoUserDocument commenter) {
-        mailService.sendMail(
-                new NotificationEmail(
-                        commenter.getUsername() + " replied to your post",
-                        threadstarter.getEmail(),
-                        threadstarter.getUsername(),
-                        message
-                )
-        );
+    public StreamingResponseBody streamCommentsForUser(String userName) {
+        MongoUserDocument user = userRepository.findByUsername(userName)
+                .orElseThrow(() -> new CustomException("No user found with username: " + userName));
+
+        Query query = new Query(Criteria.where("user").is(userRef(user.getId())))
+                .with(Sort.by(Sort.Direction.ASC, "_id"));
+        return out -> streamComments(query, user.getUsername(), out);
     }
 
     /**
@@ -115,6 +231,124 @@ public List<CommentsDto> getAllCommentsForPost(String postId) {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a page of top-level comments for a post, each with its first replies.
+     * <p>
+     * The page is read with a single range scan over the {@code (post, path)} index,
+     * bounded to {@code limit * (replies + 1)} comments. Large subtrees are truncated
+     * (flagged via {@code moreReplies}), which may leave the page with fewer than
+     * {@code limit} threads; {@code nextCursor} always resumes after the last thread shown.
+     *
+     * @param postId  ID of the post.
+     * @param after   Cursor returned by the previous page, or {@code null} for the first page.
+     * @param limit   Maximum number of top-level comments to return.
+     * @param replies Maximum number of replies to include per top-level comment.
+     * @return A cursor page of comment threads.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CommentThreadDto> getCommentThreads(String postId, String after, int limit, int replies) {
+        int threadLimit = clamp(limit, 1, MAX_THREADS_PER_PAGE);
+        int replyLimit = clamp(replies, 0, MAX_REPLIES_PER_THREAD);
+        int scanBudget = threadLimit * (replyLimit + 1);
+
+        Criteria criteria = Criteria.where("post").is(postRef(postId));
+        if (after != null && !after.isBlank()) {
+            // Skip the whole subtree of the last thread on the previous page
+            criteria = criteria.and("path").gt(after + PATH_UPPER_BOUND);
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "path"))
+                .limit(scanBudget + 1);
+        includeListingFields(query);
+        List<Document> scanned = mongoTemplate.find(query, Document.class, COMMENTS_COLLECTION);
+
+        List<CommentThreadDto> threads = new ArrayList<>();
+        CommentThreadDto current = null;
+        String currentRootPath = null;
+        boolean hasMore = scanned.size() > scanBudget;
+
+        List<Document> window = scanned.subList(0, Math.min(scanned.size(), scanBudget));
+        List<CommentsDto> mapped = mapRaw(window, null);
+        for (int i = 0; i < window.size(); i++) {
+            Document comment = window.get(i);
+            String path = comment.getString("path");
+            if (comment.getInteger("depth", 0) == 0) {
+                if (threads.size() == threadLimit) {
+                    hasMore = true;
+                    break;
+                }
+                current = new CommentThreadDto(mapped.get(i), new ArrayList<>(), false, null);
+                currentRootPath = path;
+                threads.add(current);
+            } else if (current != null && path.startsWith(currentRootPath + PATH_SEPARATOR)) {
+                if (current.getReplies().size() < replyLimit) {
+                    current.getReplies().add(mapped.get(i));
+                    current.setRepliesCursor(path);
+                } else {
+                    current.setMoreReplies(true);
+                }
+            }
+        }
+
+        // The scan budget may have run out inside the last thread's subtree
+        if (current != null && scanned.size() > scanBudget
+                && scanned.get(scanBudget).getString("path").startsWith(currentRootPath + PATH_SEPARATOR)) {
+            current.setMoreReplies(true);
+        }
+        for (CommentThreadDto thread : threads) {
+            if (!thread.isMoreReplies()) {
+                thread.setRepliesCursor(null);
+            }
+        }
+
+        String nextCursor = hasMore && currentRootPath != null ? currentRootPath : null;
+        return new CursorPage<>(threads, nextCursor, nextCursor != null);
+    }
+
+    /**
+     * Expands the subtree below a comment, returning replies in depth-first order.
+     * <p>
+     * Served by a single range scan over {@code (post, path)} bounded to the comment's subtree.
+     *
+     * @param commentId ID of the comment whose replies are requested.
+     * @param after     Cursor returned by the previous page (or a thread's {@code repliesCursor}).
+     * @param limit     Maximum number of replies to return.
+     * @return A cursor page of replies.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CommentsDto> getReplies(String commentId, String after, int limit) {
+        int pageLimit = clamp(limit, 1, MAX_REPLIES_PER_PAGE);
+
+        // Only the parent's path and post are needed; loading the document would resolve its DBRefs
+        Query parentQuery = new Query(Criteria.where("_id").is(commentId));
+        parentQuery.fields().include("path", "post");
+        Document parent = mongoTemplate.findOne(parentQuery, Document.class, COMMENTS_COLLECTION);
+        if (parent == null) {
+            throw new CustomException("Comment doesn't exist!");
+        }
+
+        String lower = parent.getString("path") + PATH_SEPARATOR;
+        String upper = parent.getString("path") + PATH_UPPER_BOUND;
+
+        Criteria pathRange = after != null && after.compareTo(lower) >= 0
+                ? Criteria.where("path").gt(after).lt(upper)
+                : Criteria.where("path").gte(lower).lt(upper);
+
+        Query query = new Query(Criteria.where("post").is(parent.get("post", DBRef.class)).andOperator(pathRange))
+                .with(Sort.by(Sort.Direction.ASC, "path"))
+                .limit(pageLimit + 1);
+        includeListingFields(query);
+        List<Document> scanned = mongoTemplate.find(query, Document.class, COMMENTS_COLLECTION);
+
+        boolean hasMore = scanned.size() > pageLimit;
+        List<Document> page = hasMore ? scanned.subList(0, pageLimit) : scanned;
+
+        List<CommentsDto> items = mapRaw(page, null);
+        String nextCursor = hasMore ? page.get(page.size() - 1).getString("path") : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
     /**
      * Retrieves all comments made by a specific user.
      *
@@ -152,6 +386,7 @@ public void update(CommentsDto commentsDto) {
 
             comment.setText(commentsDto.getText());
             commentRepository.save(comment);
+            commentSearchService.index(comment);
 
         } else {
             throw new CustomException("Insufficient privileges to edit this comment!");
@@ -176,10 +411,167 @@ public void delete(CommentsDto commentsDto) {
                 || user.getRole().equals(Role.MODERATOR)
                 || comment.getUser().equals(user)) {
 
-            commentRepository.delete(comment);
+            deleteSubtree(comment);
 
         } else {
             throw new CustomException("Insufficient privileges to delete this comment!");
         }
     }
+
+    /**
+     * Deletes a comment together with all of its replies and updates the parent's reply count.
+     *
+     * @param comment The root of the subtree to delete.
+     */
+    private void deleteSubtree(MongoCommentDocument comment) {
+        if (comment.getPath() == null) {
+            commentRepository.delete(comment);
+            commentSearchService.remove(comment.getId());
+            return;
+        }
+
+        Query subtree = new Query(Criteria.where("post").is(postRef(comment.getPost().getId()))
+                .orOperator(
+                        Criteria.where("path").is(comment.getPath()),
+                        Criteria.where("path").gte(comment.getPath() + PATH_SEPARATOR).lt(comment.getPath() + PATH_UPPER_BOUND)
+                ));
+        subtree.fields().include("_id");
+        List<String> subtreeIds = mongoTemplate.find(subtree, Document.class, COMMENTS_COLLECTION).stream()
+                .map(doc -> doc.getObjectId("_id").toHexString())
+                .toList();
+        long removed = mongoTemplate.remove(subtree, MongoCommentDocument.class).getDeletedCount();
+        commentSearchService.removeAll(subtreeIds);
+
+        if (comment.getParentId() != null) {
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(comment.getParentId())),
+                    new Update().inc("replyCount", -1),
+                    MongoCommentDocument.class
+            );
+        }
+        log.info("Deleted comment {} and {} replies", comment.getId(), removed - 1);
+    }
+
+    /**
+     * Builds the DBRef stored in {@code comments.post}, so post-scoped queries
+     * can use the index without loading the post document.
+     */
+    private static DBRef postRef(String postId) {
+        if (postId == null || !ObjectId.isValid(postId)) {
+            throw new CustomException("Invalid post id: " + postId);
+        }
+        return new DBRef("posts", new ObjectId(postId));
+    }
+
+    /**
+     * Limits a thread or reply scan to the fields a {@link CommentsDto} is built from.
+     * The {@code post} and {@code user} DBRefs stay unresolved and are mapped by {@link #mapRaw}.
+     */
+    private static void includeListingFields(Query query) {
+        query.fields().include("text", "createdDate", "post", "user", "parentId", "path", "depth", "replyCount");
+    }
+
+    /**
+     * Restricts a client-supplied page size to the given bounds.
+     */
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Reads one {@code _id}-ordered page of raw comment documents matching the given criteria.
+     *
+     * @param criteria     Filter for the listing.
+     * @param after        Comment ID to resume after, or {@code null}.
+     * @param limit        Requested page size.
+     * @param knownAuthor  Author name shared by all comments, or {@code null} to look names up.
+     */
+    private CursorPage<CommentsDto> readPage(Criteria criteria, String after, int limit, String knownAuthor) {
+        int pageLimit = clamp(limit, 1, MAX_COMMENTS_PER_PAGE);
+
+        if (after != null && !after.isBlank()) {
+            if (!ObjectId.isValid(after)) {
+                throw new CustomException("Invalid cursor: " + after);
+            }
+            criteria = new Criteria().andOperator(criteria, Criteria.where("_id").gt(new ObjectId(after)));
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(pageLimit + 1);
+        List<Document> scanned = mongoTemplate.find(query, Document.class, COMMENTS_COLLECTION);
+
+        boolean hasMore = scanned.size() > pageLimit;
+        List<Document> page = hasMore ? scanned.subList(0, pageLimit) : scanned;
+
+        String nextCursor = hasMore ? page.get(page.size() - 1).getObjectId("_id").toHexString() : null;
+        return new CursorPage<>(mapRaw(page, knownAuthor), nextCursor, hasMore);
+    }
+
+    /**
+     * Streams raw comment documents in fixed-size batches, writing one JSON object per line.
+     */
+    private void streamComments(Query query, String knownAuthor, OutputStream out) throws IOException {
+        List<Document> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+
+        try (var cursor = mongoTemplate.stream(query, Document.class, COMMENTS_COLLECTION)) {
+            var iterator = cursor.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == STREAM_BATCH_SIZE) {
+                    writeNdjson(mapRaw(batch, knownAuthor), out);
+                    batch.clear();
+                }
+            }
+        }
+        writeNdjson(mapRaw(batch, knownAuthor), out);
+        out.flush();
+    }
+
+    /**
+     * Writes DTOs as newline-delimited JSON and flushes the batch to the client.
+     */
+    private void writeNdjson(List<CommentsDto> comments, OutputStream out) throws IOException {
+        for (CommentsDto dto : comments) {
+            out.write(objectMapper.writeValueAsBytes(dto));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Maps raw comment documents to DTOs, resolving author names in a single batched query.
+     * <p>
+     * The post and user DBRefs are stripped before conversion so they are not resolved one
+     * document at a time; their IDs are passed to the mapper alongside the comment.
+     *
+     * @param docs        Raw documents from the comments collection.
+     * @param knownAuthor Author name shared by all documents, or {@code null} to look names up.
+     */
+    private List<CommentsDto> mapRaw(List<Document> docs, String knownAuthor) {
+        Map<Object, String> authors = knownAuthor == null ? usernameLookup.forAuthors(docs) : Map.of();
+
+        List<CommentsDto> dtos = new ArrayList<>(docs.size());
+        for (Document doc : docs) {
+            DBRef post = doc.get("post", DBRef.class);
+            Object authorId = UsernameLookup.authorId(doc);
+
+            Document fields = new Document(doc);
+            fields.remove("post");
+            fields.remove("user");
+            MongoCommentDocument comment = mongoTemplate.getConverter().read(MongoCommentDocument.class, fields);
+
+            dtos.add(commentMapper.mapToDto(comment,
+                    post != null ? post.getId().toString() : null,
+                    knownAuthor != null ? knownAuthor : authorId != null ? authors.get(authorId) : null));
+        }
+        return dtos;
+    }
+
+    /**
+     * Builds the DBRef stored in {@code comments.user}.
+     */
+    private static DBRef userRef(String userId) {
+        return new DBRef(USERS_COLLECTION, new ObjectId(userId));
+    }
 }
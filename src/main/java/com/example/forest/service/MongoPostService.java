@@ -2,17 +2,30 @@
 
 import com.example.forest.Exceptions.CustomException;
 import com.example.forest.document.*;
+import com.example.forest.dto.CursorPage;
+import com.example.forest.dto.DeletionJobResponse;
 import com.example.forest.dto.MongoPostRequest;
 import com.example.forest.dto.PostResponse;
+import com.example.forest.dto.PostSuggestion;
 import com.example.forest.mapper.MongoPostMapper;
 import com.example.forest.model.Role;
 import com.example.forest.repository.mongodb.*;
+import com.mongodb.DBRef;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -36,9 +49,16 @@ public class MongoPostService {
     private final MongoPostRepository postRepository;
     private final MongoUserRepository userRepository;
     private final MongoCommentRepository commentRepository;
-    private final PhotoRepository photoRepository;
-    private final VideoRepository videoRepository;
-    private final ContentModerationService contentModerationService;
+    private final PostModerator postModerator;
+    private final MongoSubredditService subredditService;
+    private final SubredditDirectory subredditDirectory;
+    private final DeletionJobService deletionJobService;
+    private final PostSearchService postSearchService;
+    private final PostTitleSuggester titleSuggester;
+    private final VoteStateService voteStateService;
+    private final PostListingService postListingService;
+    private final PostStreamer postStreamer;
+    private final MongoTemplate mongoTemplate;
 
     /**
      * Creates and saves a new post after performing content moderation on text, images, and videos.
@@ -48,37 +68,21 @@ public class MongoPostService {
      */
     @Transactional
     public PostResponse save(MongoPostRequest postRequest) {
-        // Combine text content for moderation
-        String combinedText = postRequest.getPostName() + " " + postRequest.getDescription();
-
-        // Moderate text content
-        if (contentModerationService.isContentInappropriate(combinedText)) {
-            throw new CustomException("Your post contains inappropriate content and cannot be saved.");
-        }
-
-        // Moderate image content if attached
-        Photo photo = postRequest.getPhotoId() != null
-                ? photoRepository.findById(postRequest.getPhotoId()).orElse(null)
-                : null;
-        if (photo != null && contentModerationService.isContentInappropriate(photo.getImage(), "image/jpeg")) {
-            throw new CustomException("The uploaded image is inappropriate and cannot be saved.");
-        }
-
-        // Moderate video content if attached
-        Video video = postRequest.getVideoId() != null
-                ? videoRepository.findById(postRequest.getVideoId()).orElse(null)
-                : null;
-        if (video != null && contentModerationService.isContentInappropriate(video.getVideo(), "video/mp4")) {
-            throw new CustomException("The uploaded video is inappropriate and cannot be saved.");
-        }
-
-        // Retrieve subreddit and current user
-        MongoSubredditDocument subreddit = subredditRepository.findByName(postRequest.getSubredditName())
+        // Moderate text, image and video content concurrently
+        PostModerator.ModeratedMedia media = postModerator.moderate(postRequest);
+        Photo photo = media.photo();
+        Video video = media.video();
+
+        // Resolve subreddit from the in-memory directory and retrieve current user
+        MongoSubredditDocument subreddit = subredditDirectory.findByName(postRequest.getSubredditName())
+                .map(SubredditDirectory.Entry::toReference)
                 .orElseThrow(() -> new CustomException("Subreddit not found: " + postRequest.getSubredditName()));
         MongoUserDocument currentUser = authService.getCurrentUser();
 
         // Map post request to a MongoPostDocument and save it
-        MongoPostDocument savedPost = postRepository.save(postMapper.map(postRequest, subreddit, currentUser, photo, video));
+        MongoPostDocument post = postMapper.map(postRequest, subreddit, currentUser, photo, video);
+        post.setHotScore(HotScore.of(post.getVoteCount(), post.getCreatedDate()));
+        MongoPostDocument savedPost = postRepository.save(post);
 
         // Build and assign a URL to the post
         String POST_URL = ServletUriComponentsBuilder.fromCurrentContextPath()
@@ -86,21 +90,24 @@ public PostResponse save(MongoPostRequest postRequest) {
                 .toUriString();
         savedPost.setUrl(POST_URL);
         postRepository.save(savedPost);
+        subredditService.incrementPostCount(subreddit.getId(), 1);
+        postSearchService.index(savedPost);
+        titleSuggester.index(savedPost);
 
         return postMapper.mapToDto(savedPost);
     }
 
     /**
-     * Retrieves all posts.
+     * Retrieves all posts, except those of subreddits awaiting deletion.
      *
      * @return List of all posts mapped to DTOs.
      */
     @Transactional(readOnly = true)
     public List<PostResponse> getAllPosts() {
-        return postRepository.findAll()
+        return voteStateService.applyTo(postMapper.mapToDtos(postRepository.findAll()
                 .stream()
-                .map(postMapper::mapToDto)
-                .collect(Collectors.toList());
+                .filter(post -> !subredditDirectory.hides(post))
+                .collect(Collectors.toList())));
     }
 
     /**
@@ -112,8 +119,9 @@ public List<PostResponse> getAllPosts() {
     @Transactional(readOnly = true)
     public PostResponse getPost(String id) {
         MongoPostDocument post = postRepository.findById(id)
+                .filter(found -> !subredditDirectory.hides(found))
                 .orElseThrow(() -> new CustomException("Post with ID not found: " + id));
-        return postMapper.mapToDto(post);
+        return voteStateService.applyTo(postMapper.mapToDto(post));
     }
 
     /**
@@ -125,12 +133,25 @@ public PostResponse getPost(String id) {
     @Transactional(readOnly = true)
     public List<PostResponse> getPostsBySubreddit(String subredditId) {
         MongoSubredditDocument subreddit = subredditRepository.findById(subredditId)
+                .filter(found -> found.getDeletedAt() == null)
                 .orElseThrow(() -> new CustomException("Subreddit not found: " + subredditId));
 
-        return postRepository.findAllBySubreddit(subreddit)
-                .stream()
-                .map(postMapper::mapToDto)
-                .collect(Collectors.toList());
+        return voteStateService.applyTo(postMapper.mapToDtos(postRepository.findAllBySubreddit(subreddit)));
+    }
+
+    /**
+     * Retrieves one page of a subreddit's posts sorted by {@code hot}, {@code new} or {@code top}.
+     *
+     * @param subredditId The subreddit ID.
+     * @param sort        The sort mode.
+     * @param window      Time window for {@code top} ({@code day}, {@code week} or {@code all}).
+     * @param after       Cursor returned by the previous page, or {@code null}.
+     * @param limit       Page size.
+     * @return One page of posts in the requested order.
+     */
+    public CursorPage<PostResponse> getPostsBySubreddit(String subredditId, String sort, String window,
+                                                        String after, int limit) {
+        return postListingService.listSubreddit(subredditId, sort, window, after, limit);
     }
 
     /**
@@ -144,10 +165,50 @@ public List<PostResponse> getPostsByUsername(String username) {
         MongoUserDocument user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new CustomException("User not found: " + username));
 
-        return postRepository.findAllByUser(user)
+        return voteStateService.applyTo(postMapper.mapToDtos(postRepository.findAllByUser(user)
                 .stream()
-                .map(postMapper::mapToDto)
-                .collect(Collectors.toList());
+                .filter(post -> !subredditDirectory.hides(post))
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Streams all posts, newest first, without loading them all into memory.
+     *
+     * @return All posts.
+     */
+    public Flux<PostResponse> streamAllPosts() {
+        return postStreamer.stream(new Query().with(Sort.by(Sort.Direction.DESC, "_id")));
+    }
+
+    /**
+     * Streams the posts of a subreddit, newest first.
+     *
+     * @param subredditId The subreddit ID.
+     * @return The subreddit's posts.
+     */
+    public Flux<PostResponse> streamPostsBySubreddit(String subredditId) {
+        MongoSubredditDocument subreddit = subredditRepository.findById(subredditId)
+                .filter(found -> found.getDeletedAt() == null)
+                .orElseThrow(() -> new CustomException("Subreddit not found: " + subredditId));
+
+        Query query = new Query(Criteria.where("subreddit").is(new DBRef("subreddits", new ObjectId(subreddit.getId()))))
+                .with(Sort.by(Sort.Direction.DESC, "_id"));
+        return postStreamer.stream(query);
+    }
+
+    /**
+     * Streams the posts created by a user, newest first.
+     *
+     * @param username The author's username.
+     * @return The user's posts.
+     */
+    public Flux<PostResponse> streamPostsByUsername(String username) {
+        MongoUserDocument user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new CustomException("User not found: " + username));
+
+        Query query = new Query(Criteria.where("user").is(new DBRef("users", new ObjectId(user.getId()))))
+                .with(Sort.by(Sort.Direction.DESC, "_id"));
+        return postStreamer.stream(query);
     }
 
     /**
@@ -175,42 +236,44 @@ public boolean toggleNotificationStatus(String id, boolean newStatus) {
      */
     @Transactional
     public PostResponse update(MongoPostRequest postRequest) {
-        String combinedText = postRequest.getPostName() + " " + postRequest.getDescription();
-
-        // Moderate post text
-        if (contentModerationService.isContentInappropriate(combinedText)) {
-            throw new CustomException("Your post contains inappropriate content and cannot be saved.");
-        }
-
-        // Moderate attached media
-        Photo photo = postRequest.getPhotoId() != null
-                ? photoRepository.findById(postRequest.getPhotoId()).orElse(null)
-                : null;
-        if (photo != null && contentModerationService.isContentInappropriate(photo.getImage(), "image/jpeg")) {
-            throw new CustomException("The uploaded image is inappropriate and cannot be saved.");
-        }
-
-        Video video = postRequest.getVideoId() != null
-                ? videoRepository.findById(postRequest.getVideoId()).orElse(null)
-                : null;
-        if (video != null && contentModerationService.isContentInappropriate(video.getVideo(), "video/mp4")) {
-            throw new CustomException("The uploaded video is inappropriate and cannot be saved.");
-        }
+        // Moderate post text and attached media
+        PostModerator.ModeratedMedia media = postModerator.moderate(postRequest);
+        Photo photo = media.photo();
+        Video video = media.video();
 
         MongoUserDocument currentUser = authService.getCurrentUser();
         MongoPostDocument post = postRepository.findById(postRequest.getPostId())
                 .orElseThrow(() -> new CustomException("Post not found with ID: " + postRequest.getPostId()));
 
-        MongoSubredditDocument subreddit = subredditRepository.findByName(postRequest.getSubredditName())
+        MongoSubredditDocument subreddit = subredditDirectory.findByName(postRequest.getSubredditName())
+                .map(SubredditDirectory.Entry::toReference)
                 .orElseThrow(() -> new CustomException("Subreddit not found: " + postRequest.getSubredditName()));
 
         // Allow only admins or the post creator to edit
         if (currentUser.getRole().equals(Role.ADMIN) || post.getUser().equals(currentUser)) {
-            post.setPostName(postRequest.getPostName());
-            post.setDescription(postRequest.getDescription());
-            post.setUrl(postRequest.getUrl());
-            post.setSubreddit(subreddit);
-            return postMapper.mapToDto(postRepository.save(post));
+            MongoSubredditDocument previous = post.getSubreddit();
+            // Set only the edited fields, so votes cast meanwhile keep their voteCount and hotScore
+            MongoPostDocument saved = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(post.getId())),
+                    new Update()
+                            .set("postName", postRequest.getPostName())
+                            .set("description", postRequest.getDescription())
+                            .set("url", postRequest.getUrl())
+                            .set("subreddit", new DBRef("subreddits", new ObjectId(subreddit.getId()))),
+                    FindAndModifyOptions.options().returnNew(true),
+                    MongoPostDocument.class);
+            if (saved == null) {
+                throw new CustomException("Post not found with ID: " + postRequest.getPostId());
+            }
+            postSearchService.index(saved);
+            titleSuggester.index(saved);
+
+            // Move the post between subreddit counters when it changes community
+            if (previous != null && !previous.getId().equals(subreddit.getId())) {
+                subredditService.incrementPostCount(previous.getId(), -1);
+                subredditService.incrementPostCount(subreddit.getId(), 1);
+            }
+            return postMapper.mapToDto(saved);
         } else {
             throw new CustomException("Insufficient privileges to edit this post!");
         }
@@ -218,11 +281,14 @@ public PostResponse update(MongoPostRequest postRequest) {
 
     /**
      * Deletes a post after validating ownership or admin privileges.
+     * <p>
+     * The post disappears immediately; its comments, votes and media are removed
+     * by a background {@link DeletionJobService} job.
      *
      * @param id The post ID to delete.
+     * @return The queued deletion job.
      */
-    @Transactional
-    public void delete(String id) {
+    public DeletionJobResponse delete(String id) {
         log.info("Attempting to delete post with ID: {}", id);
 
         MongoUserDocument currentUser = authService.getCurrentUser();
@@ -235,8 +301,14 @@ public void delete(String id) {
         if (currentUser != null && (currentUser.getRole().equals(Role.ADMIN)
                 || (post.getUser() != null && currentUser.equals(post.getUser())))) {
             log.info("User {} authorized to delete post {}", currentUser.getUsername(), id);
-            postRepository.deleteById(id);
-            log.info("Post {} deleted successfully.", id);
+            DeletionJobResponse job = deletionJobService.submitPostDeletion(post, currentUser.getUsername());
+            postSearchService.remove(id);
+            titleSuggester.remove(id);
+            if (post.getSubreddit() != null) {
+                subredditService.incrementPostCount(post.getSubreddit().getId(), -1);
+            }
+            log.info("Post {} deleted; cleanup job {} queued.", id, job.getId());
+            return job;
         } else {
             log.warn("Unauthorized delete attempt by {} on post {}",
                     currentUser != null ? currentUser.getUsername() : "Anonymous", id);
@@ -245,16 +317,29 @@ public void delete(String id) {
     }
 
     /**
-     * Searches for posts by title using a case-insensitive query.
+     * Searches posts by title and description, ranked by relevance (BM25).
      *
-     * @param query The search string.
-     * @return A list of posts matching the query.
+     * @param query     The search string.
+     * @param subreddit Optional subreddit name to restrict results to.
+     * @param from      Optional lower bound on creation time (inclusive).
+     * @param to        Optional upper bound on creation time (exclusive).
+     * @param after     Cursor returned by the previous page, or {@code null}.
+     * @param limit     Page size.
+     * @return One page of matching posts, best match first.
      */
-    @Transactional(readOnly = true)
-    public List<PostResponse> searchPosts(String query) {
-        return postRepository.findByPostNameContainingIgnoreCase(query)
-                .stream()
-                .map(postMapper::mapToDto)
-                .collect(Collectors.toList());
+    public CursorPage<PostResponse> searchPosts(String query, String subreddit, Instant from, Instant to,
+                                                String after, int limit) {
+        return postSearchService.search(query, subreddit, from, to, after, limit);
+    }
+
+    /**
+     * Suggests post titles for the search box as the user types.
+     *
+     * @param prefix The text typed so far.
+     * @param limit  Maximum number of suggestions.
+     * @return Matching posts, most upvoted first.
+     */
+    public List<PostSuggestion> suggestTitles(String prefix, int limit) {
+        return titleSuggester.suggest(prefix, limit);
     }
 }
@@ -1,31 +1,35 @@
 package com.example.forest.service;
 
 import com.example.forest.Exceptions.CustomException;
-import com.example.forest.document.MongoPostDocument;
 import com.example.forest.document.MongoSubredditDocument;
 import com.example.forest.document.MongoUserDocument;
+import com.example.forest.dto.DeletionJobResponse;
 import com.example.forest.dto.SubredditDto;
 import com.example.forest.mapper.MongoSubredditMapper;
 import com.example.forest.model.Role;
-import com.example.forest.repository.mongodb.MongoCommentRepository;
-import com.example.forest.repository.mongodb.MongoPostRepository;
 import com.example.forest.repository.mongodb.MongoSubredditRepository;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
-
-import static java.util.stream.Collectors.toList;
+import java.util.Map;
 
 /**
  * Service layer responsible for managing subreddits in the Forest application.
  *
  * Handles CRUD operations for subreddits, ensuring:
  *  - Role-based authorization for updates and deletions
- *  - Cascade deletion of posts and comments when a subreddit is removed
+ *  - Cascade deletion of posts and comments when a subreddit is removed (in the background)
  *  - Mapping between MongoDB entities and DTOs
+ *  - Atomic maintenance of the per-subreddit post counter
  */
 @Service
 @AllArgsConstructor
@@ -35,8 +39,12 @@ public class MongoSubredditService {
     private final MongoSubredditRepository subredditRepository;
     private final MongoSubredditMapper subredditMapper;
     private final AuthService authService;
-    private final MongoPostRepository postRepository;
-    private final MongoCommentRepository commentRepository;
+    private final MongoTemplate mongoTemplate;
+    private final SubredditDirectory subredditDirectory;
+    private final DeletionJobService deletionJobService;
+    private final UsernameLookup usernameLookup;
+
+    private static final String SUBREDDITS_COLLECTION = "subreddits";
 
     /**
      * Creates a new subreddit and assigns the current authenticated user as its owner.
@@ -52,6 +60,7 @@ public SubredditDto save(SubredditDto subredditDto) {
         MongoSubredditDocument subreddit = subredditMapper.mapDtoToSubreddit(subredditDto);
         subreddit.setUser(currentUser);
         subredditRepository.save(subreddit);
+        subredditDirectory.refresh();
 
         subredditDto.setId(subreddit.getId());
         log.info("Subreddit '{}' created by user '{}'", subreddit.getName(), currentUser.getUsername());
@@ -60,20 +69,50 @@ public SubredditDto save(SubredditDto subredditDto) {
 
     /**
      * Retrieves all subreddits from the database.
+     * <p>
+     * Reads raw documents so the creator DBRef is not resolved one subreddit at a time;
+     * creator usernames are fetched with a single {@code $in} lookup instead.
      *
      * @return A list of SubredditDto objects representing all subreddits.
      */
     @Transactional(readOnly = true)
     public List<SubredditDto> getAll() {
-        List<SubredditDto> subreddits = subredditRepository.findAll()
-                .stream()
-                .map(subredditMapper::mapSubredditToDto)
-                .collect(toList());
+        List<Document> docs = mongoTemplate.find(new Query(Criteria.where("deletedAt").exists(false)),
+                Document.class, SUBREDDITS_COLLECTION);
+        Map<Object, String> creators = usernameLookup.forAuthors(docs);
+
+        List<SubredditDto> subreddits = new ArrayList<>(docs.size());
+        for (Document doc : docs) {
+            Object creatorId = UsernameLookup.authorId(doc);
+            subreddits.add(SubredditDto.builder()
+                    .id(doc.getObjectId("_id").toHexString())
+                    .name(doc.getString("name"))
+                    .description(doc.getString("description"))
+                    .numberOfPosts(toInt(doc.get("postCount")))
+                    .subscriberCount(toLong(doc.get("subscriberCount")))
+                    .userName(creatorId != null ? creators.get(creatorId) : null)
+                    .build());
+        }
 
         log.info("Fetched {} subreddits from database", subreddits.size());
         return subreddits;
     }
 
+    /**
+     * Suggests subreddits whose name starts with the given prefix (case-insensitive).
+     * Served from the in-memory {@link SubredditDirectory} without touching MongoDB.
+     *
+     * @param prefix The prefix typed by the user.
+     * @param limit  Maximum number of suggestions (capped at 50).
+     * @return Matching subreddits with ID and name only.
+     */
+    public List<SubredditDto> suggest(String prefix, int limit) {
+        return subredditDirectory.suggest(prefix, Math.max(1, Math.min(limit, 50)))
+                .stream()
+                .map(entry -> SubredditDto.builder().id(entry.id()).name(entry.name()).build())
+                .toList();
+    }
+
     /**
      * Retrieves a subreddit by its ID.
      *
@@ -82,8 +121,7 @@ public List<SubredditDto> getAll() {
      */
     @Transactional(readOnly = true)
     public SubredditDto getSubreddit(String id) {
-        MongoSubredditDocument subreddit = subredditRepository.findById(id)
-                .orElseThrow(() -> new CustomException("No subreddit found with the given ID."));
+        MongoSubredditDocument subreddit = findLive(id);
         log.info("Fetched subreddit '{}' with ID: {}", subreddit.getName(), id);
         return subredditMapper.mapSubredditToDto(subreddit);
     }
@@ -100,14 +138,19 @@ public SubredditDto getSubreddit(String id) {
     public SubredditDto update(SubredditDto subredditDto) {
         MongoUserDocument currentUser = authService.getCurrentUser();
 
-        MongoSubredditDocument subreddit = subredditRepository.findById(subredditDto.getId())
-                .orElseThrow(() -> new CustomException("Subreddit doesn't exist!"));
+        MongoSubredditDocument subreddit = findLive(subredditDto.getId());
 
         // Authorization check: admin or subreddit owner
         if (currentUser.getRole().equals(Role.ADMIN) || subreddit.getUser().equals(currentUser)) {
             subreddit.setName(subredditDto.getName());
             subreddit.setDescription(subredditDto.getDescription());
-            subredditRepository.save(subreddit);
+
+            // Targeted $set so concurrent counter increments are not overwritten
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(subreddit.getId())),
+                    new Update().set("name", subreddit.getName()).set("description", subreddit.getDescription()),
+                    MongoSubredditDocument.class);
+            subredditDirectory.refresh();
 
             log.info("Subreddit '{}' updated by user '{}'", subreddit.getName(), currentUser.getUsername());
             return subredditMapper.mapSubredditToDto(subreddit);
@@ -119,41 +162,65 @@ public SubredditDto update(SubredditDto subredditDto) {
     }
 
     /**
-     * Deletes a subreddit and all its related posts and comments.
+     * Deletes a subreddit and all its related posts, comments, votes and media.
      *
      * Only the subreddit creator or an admin can perform this operation.
-     * Ensures cascade cleanup of related data.
+     * The subreddit is hidden immediately; the cascade cleanup runs as a
+     * background {@link DeletionJobService} job whose progress can be polled.
      *
      * @param id The ID of the subreddit to delete.
+     * @return The queued deletion job.
      */
-    @Transactional
-    public void delete(String id) {
+    public DeletionJobResponse delete(String id) {
         MongoUserDocument currentUser = authService.getCurrentUser();
-        MongoSubredditDocument subreddit = subredditRepository.findById(id)
-                .orElseThrow(() -> new CustomException("Subreddit doesn't exist!"));
+        MongoSubredditDocument subreddit = findLive(id);
 
         // Authorization check: admin or subreddit owner
         if (currentUser.getRole().equals(Role.ADMIN) || subreddit.getUser().equals(currentUser)) {
             log.info("Deleting subreddit '{}' by user '{}'", subreddit.getName(), currentUser.getUsername());
-
-            // Fetch all posts under this subreddit
-            List<MongoPostDocument> posts = postRepository.findAllBySubreddit(subreddit);
-
-            // Delete all associated comments first
-            for (MongoPostDocument post : posts) {
-                commentRepository.deleteAllByPost(post);
-            }
-
-            // Then delete the posts themselves
-            postRepository.deleteAll(posts);
-
-            // Finally, delete the subreddit
-            subredditRepository.delete(subreddit);
-            log.info("Subreddit '{}' and all related posts/comments deleted successfully.", subreddit.getName());
+            return deletionJobService.submitSubredditDeletion(subreddit, currentUser.getUsername());
         } else {
             log.warn("User '{}' attempted to delete subreddit '{}' without permission.",
                     currentUser.getUsername(), subreddit.getName());
             throw new CustomException("Cannot delete subreddit: insufficient privileges.");
         }
     }
+
+    /**
+     * Atomically adjusts a subreddit's post counter.
+     *
+     * @param subredditId The subreddit ID.
+     * @param delta       The amount to add (negative to decrement).
+     */
+    public void incrementPostCount(String subredditId, long delta) {
+        incrementCounter(subredditId, "postCount", delta);
+    }
+
+    /**
+     * Applies {@code $inc} to a counter; decrements never take it below zero.
+     */
+    private void incrementCounter(String subredditId, String field, long delta) {
+        Criteria criteria = Criteria.where("_id").is(subredditId);
+        if (delta < 0) {
+            criteria = criteria.and(field).gte(-delta);
+        }
+        mongoTemplate.updateFirst(new Query(criteria), new Update().inc(field, delta), MongoSubredditDocument.class);
+    }
+
+    /**
+     * Loads a subreddit, treating subreddits that are being deleted as missing.
+     */
+    private MongoSubredditDocument findLive(String id) {
+        return subredditRepository.findById(id)
+                .filter(subreddit -> subreddit.getDeletedAt() == null)
+                .orElseThrow(() -> new CustomException("No subreddit found with the given ID."));
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
 }
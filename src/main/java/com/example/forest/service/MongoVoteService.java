@@ -5,14 +5,33 @@
 import com.example.forest.document.MongoUserDocument;
 import com.example.forest.document.MongoVoteDocument;
 import com.example.forest.dto.VoteDto;
+import com.example.forest.dto.VoteResult;
 import com.example.forest.model.VoteType;
 import com.example.forest.repository.mongodb.MongoPostRepository;
 import com.example.forest.repository.mongodb.MongoVoteRepository;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.transaction.annotation.Transactional;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -22,19 +41,42 @@
  *  - Manage upvotes/downvotes on posts.
  *  - Handle undoing and switching votes.
  *  - Maintain accurate post vote counts.
+ *  - Feed vote velocity to {@link VoteVelocityTracker} for momentum-based trending.
  *
  * The system ensures that:
  *  - Users can toggle their votes.
  *  - Vote counts remain consistent during updates.
+ *
+ * Batches of queued votes (e.g. replayed by an offline client) are applied with a fixed
+ * number of round trips regardless of their size; see {@link #voteBatch(List)}.
  */
 @Service
-@AllArgsConstructor
 @Slf4j
 public class MongoVoteService {
 
     private final MongoVoteRepository voteRepository;
     private final MongoPostRepository postRepository;
     private final AuthService authService;
+    private final VoteStateService voteStateService;
+    private final VoteVelocityTracker velocityTracker;
+    private final MongoTemplate mongoTemplate;
+    private final int maxBatchSize;
+
+    public MongoVoteService(MongoVoteRepository voteRepository,
+                            MongoPostRepository postRepository,
+                            AuthService authService,
+                            VoteStateService voteStateService,
+                            VoteVelocityTracker velocityTracker,
+                            MongoTemplate mongoTemplate,
+                            @Value("${votes.batch.max-size:500}") int maxBatchSize) {
+        this.voteRepository = voteRepository;
+        this.postRepository = postRepository;
+        this.authService = authService;
+        this.voteStateService = voteStateService;
+        this.velocityTracker = velocityTracker;
+        this.mongoTemplate = mongoTemplate;
+        this.maxBatchSize = maxBatchSize;
+    }
 
     /**
      * Handles voting on a post — supports upvote, downvote, undo, and switch.
@@ -54,22 +96,194 @@ public void vote(VoteDto voteDto) {
         Optional<MongoVoteDocument> existingVote =
                 voteRepository.findTopByPostAndUserOrderByIdDesc(post, currentUser);
 
+        VoteType previousVote = existingVote.map(MongoVoteDocument::getVoteType).orElse(null);
+        VoteType resultingVote;
         if (existingVote.isPresent()) {
-            handleExistingVote(voteDto, post, currentUser, existingVote.get());
+            resultingVote = handleExistingVote(voteDto, post, currentUser, existingVote.get());
         } else {
             // User is voting for the first time on this post
-            applyNewVote(voteDto, post, currentUser);
+            resultingVote = applyNewVote(voteDto, post, currentUser);
+        }
+
+        // Move the stored count and hot score in place, as voteBatch does, so concurrent votes
+        // and post edits are not overwritten by a stale copy of the post
+        int delta = direction(resultingVote) - direction(previousVote);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(post.getId())),
+                voteCountUpdate(delta), MongoPostDocument.class);
+        voteStateService.recordVote(currentUser.getUsername(), post.getId(), resultingVote);
+        velocityTracker.record(post.getId(), delta);
+    }
+
+    /**
+     * Applies a batch of votes by the current user, in request order, with the same toggle
+     * semantics as {@link #vote(VoteDto)} (repeating a vote undoes it).
+     * <p>
+     * Items are first folded per post into a final state, starting from the user's existing
+     * votes; only the net change is written. Cost is fixed regardless of batch size: one query
+     * for the target posts, one for the user's existing votes, then one {@code bulkWrite} on
+     * {@code votes} and one on {@code posts}, whose pipeline updates move the vote count and
+     * recompute the hot score together. Invalid items are reported individually and do not
+     * affect the others. The post counts are written only after the vote writes succeed, and the
+     * vote state and velocity caches are updated only after both.
+     *
+     * @param votes The queued votes, oldest first.
+     * @return One result per item, in request order.
+     */
+    @Transactional
+    public List<VoteResult> voteBatch(List<VoteDto> votes) {
+        if (votes == null || votes.isEmpty()) {
+            return List.of();
+        }
+        if (votes.size() > maxBatchSize) {
+            throw new CustomException("A vote batch may contain at most " + maxBatchSize + " votes.");
+        }
+        MongoUserDocument currentUser = authService.getCurrentUser();
+        if (currentUser == null) {
+            throw new CustomException("You must be logged in to vote.");
+        }
+
+        Map<String, ObjectId> postIds = new LinkedHashMap<>();
+        for (VoteDto vote : votes) {
+            if (vote != null && vote.getPostId() != null && ObjectId.isValid(vote.getPostId())) {
+                postIds.putIfAbsent(vote.getPostId(), new ObjectId(vote.getPostId()));
+            }
+        }
+
+        // Query 1: which posts exist, and their current counts
+        Map<String, Integer> voteCounts = new HashMap<>();
+        if (!postIds.isEmpty()) {
+            Query posts = new Query(Criteria.where("_id").in(postIds.values()));
+            posts.fields().include("voteCount");
+            for (Document post : mongoTemplate.find(posts, Document.class, "posts")) {
+                Number count = post.get("voteCount", Number.class);
+                voteCounts.put(post.getObjectId("_id").toHexString(), count != null ? count.intValue() : 0);
+            }
+        }
+
+        // Query 2: the user's existing votes on those posts (latest wins, as for single votes)
+        DBRef userRef = new DBRef("users", new ObjectId(currentUser.getId()));
+        Map<String, VoteType> initial = new HashMap<>();
+        if (!voteCounts.isEmpty()) {
+            List<DBRef> postRefs = voteCounts.keySet().stream()
+                    .map(id -> new DBRef("posts", postIds.get(id)))
+                    .toList();
+            Query existing = new Query(Criteria.where("user").is(userRef).and("post").in(postRefs))
+                    .with(Sort.by(Sort.Direction.ASC, "_id"));
+            existing.fields().include("post").include("voteType");
+            for (Document vote : mongoTemplate.find(existing, Document.class, "votes")) {
+                DBRef post = vote.get("post", DBRef.class);
+                if (post != null && vote.getString("voteType") != null) {
+                    initial.put(post.getId().toString(), VoteType.valueOf(vote.getString("voteType")));
+                }
+            }
+        }
+
+        // Fold the items per post
+        Map<String, VoteType> state = new HashMap<>(initial);
+        List<VoteResult> results = new ArrayList<>(votes.size());
+        for (int i = 0; i < votes.size(); i++) {
+            VoteDto vote = votes.get(i);
+            String postId = vote != null ? vote.getPostId() : null;
+            VoteResult.VoteResultBuilder result = VoteResult.builder().index(i).postId(postId);
+
+            if (vote == null || vote.getVoteType() == null) {
+                results.add(result.error("Vote type is required.").build());
+            } else if (postId == null || !voteCounts.containsKey(postId)) {
+                results.add(result.error("No posts found with id: " + postId).build());
+            } else {
+                VoteType next = state.get(postId) == vote.getVoteType() ? null : vote.getVoteType();
+                state.put(postId, next);
+                results.add(result.applied(true).vote(next).build());
+            }
         }
 
-        // Persist post's new vote count
-        postRepository.save(post);
+        // Write only the net change per post
+        Map<String, Integer> deltas = new LinkedHashMap<>();
+        BulkOperations voteOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MongoVoteDocument.class);
+        BulkOperations postOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MongoPostDocument.class);
+        int voteWrites = 0;
+        int postWrites = 0;
+        for (Map.Entry<String, VoteType> change : state.entrySet()) {
+            String postId = change.getKey();
+            VoteType before = initial.get(postId);
+            VoteType after = change.getValue();
+            if (before == after) {
+                continue;
+            }
+
+            DBRef postRef = new DBRef("posts", postIds.get(postId));
+            Query userVotes = new Query(Criteria.where("user").is(userRef).and("post").is(postRef));
+            if (after == null) {
+                voteOps.remove(userVotes);
+            } else if (before == null) {
+                MongoPostDocument post = new MongoPostDocument();
+                post.setId(postId);
+                voteOps.insert(MongoVoteDocument.builder().voteType(after).post(post).user(currentUser).build());
+            } else {
+                voteOps.updateMulti(userVotes, new Update().set("voteType", after));
+            }
+            voteWrites++;
+
+            int delta = direction(after) - direction(before);
+            postOps.updateOne(new Query(Criteria.where("_id").is(postIds.get(postId))), voteCountUpdate(delta));
+            deltas.put(postId, delta);
+            postWrites++;
+        }
+
+        // Counts move only once the votes are stored; a failed vote write fails the batch and,
+        // inside the transaction, rolls back the votes that were written
+        try {
+            if (voteWrites > 0) {
+                voteOps.execute();
+            }
+        } catch (BulkOperationException e) {
+            log.error("❌ Vote batch by '{}' failed on {} of {} vote writes; post counts left unchanged",
+                    currentUser.getUsername(), e.getErrors().size(), voteWrites);
+            throw new CustomException("Your votes could not be saved. Please try again.");
+        }
+        if (postWrites > 0) {
+            postOps.execute();
+        }
+
+        // Caches follow the confirmed net changes only
+        deltas.forEach((postId, delta) -> {
+            voteCounts.merge(postId, delta, Integer::sum);
+            voteStateService.recordVote(currentUser.getUsername(), postId, state.get(postId));
+            velocityTracker.record(postId, delta);
+        });
+
+        for (VoteResult result : results) {
+            if (result.isApplied()) {
+                result.setVoteCount(voteCounts.get(result.getPostId()));
+            }
+        }
+        log.info("User '{}' replayed {} votes: {} posts changed", currentUser.getUsername(), votes.size(), postWrites);
+        return results;
+    }
+
+    private static int direction(VoteType vote) {
+        return vote == null ? 0 : vote.getDirection();
+    }
+
+    /**
+     * Builds the pipeline update that adds {@code delta} to a post's vote count and recomputes
+     * its hot score from the new count, in one atomic write.
+     */
+    private static AggregationUpdate voteCountUpdate(int delta) {
+        return AggregationUpdate.update()
+                .set(SetOperation.builder()
+                        .set("voteCount").toValue(ArithmeticOperators.valueOf("voteCount").add(delta))
+                        .and()
+                        .set("hotScore").toValue(HotScore.expression(delta)));
     }
 
     /**
      * Handles vote changes for users who have already voted before.
      * Supports toggling or switching between UPVOTE and DOWNVOTE.
+     *
+     * @return The user's vote after the change, or {@code null} if it was undone.
      */
-    private void handleExistingVote(VoteDto voteDto, MongoPostDocument post,
+    private VoteType handleExistingVote(VoteDto voteDto, MongoPostDocument post,
                                     MongoUserDocument currentUser, MongoVoteDocument existingVote) {
 
         VoteType previousVote = existingVote.getVoteType();
@@ -77,46 +291,33 @@ private void handleExistingVote(VoteDto voteDto, MongoPostDocument post,
 
         // Case 1: Undo same vote
         if (previousVote == newVote) {
-            adjustVoteCount(post, newVote, -1);
             voteRepository.deleteById(existingVote.getId());
             log.info("User '{}' undid their {} on post '{}'",
                     currentUser.getUsername(), newVote, post.getPostName());
-            return;
+            return null;
         }
 
         // Case 2: Switch from upvote to downvote or vice versa
-        int adjustment = (newVote == VoteType.UPVOTE) ? +2 : -2;
-        post.setVoteCount(post.getVoteCount() + adjustment);
-
         // Replace previous vote record
         voteRepository.deleteById(existingVote.getId());
         voteRepository.save(mapVote(voteDto, post, currentUser));
 
         log.info("User '{}' switched vote from {} to {} on post '{}'",
                 currentUser.getUsername(), previousVote, newVote, post.getPostName());
+        return newVote;
     }
 
     /**
      * Applies a brand new vote (no previous record found).
+     *
+     * @return The vote cast.
      */
-    private void applyNewVote(VoteDto voteDto, MongoPostDocument post, MongoUserDocument currentUser) {
-        adjustVoteCount(post, voteDto.getVoteType(), 1);
+    private VoteType applyNewVote(VoteDto voteDto, MongoPostDocument post, MongoUserDocument currentUser) {
         voteRepository.save(mapVote(voteDto, post, currentUser));
 
         log.info("User '{}' casted a new {} on post '{}'",
                 currentUser.getUsername(), voteDto.getVoteType(), post.getPostName());
-    }
-
-    /**
-     * Adjusts the post's vote count based on the vote type and multiplier.
-     *
-     * @param post     The post being voted on.
-     * @param voteType The type of vote (UPVOTE or DOWNVOTE).
-     * @param factor   +1 for new vote, -1 for undo.
-     */
-    private void adjustVoteCount(MongoPostDocument post, VoteType voteType, int factor) {
-        int adjustment = (voteType == VoteType.UPVOTE) ? +1 : -1;
-        post.setVoteCount(post.getVoteCount() + (adjustment * factor));
+        return voteDto.getVoteType();
     }
 
     /**
@@ -0,0 +1,425 @@
+package com.example.forest.service;
+
+import com.example.forest.document.OutboxMessageDocument;
+import com.example.forest.model.NotificationEmail;
+import com.example.forest.model.NotificationType;
+import com.example.forest.model.OutboxStatus;
+import com.example.forest.repository.mongodb.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * NotificationOutboxService.java
+ *
+ * Durable outbox for notification emails.
+ * <p>
+ * Producers call {@link #enqueue(NotificationType, NotificationEmail)} from the same service
+ * method that handles the triggering event (registration, password reset, comment digest),
+ * so the message is persisted before the request completes — and atomically with it when
+ * Mongo transactions are enabled. A scheduled poller claims due messages with a lease and
+ * hands them in batches to a two-stage pipeline: a render pool turns each batch into
+ * {@link MimeMessage}s (Thymeleaf, CPU-bound), then a bounded, rate-limited SMTP pool sends
+ * the whole batch over one pooled connection. Failed sends are retried with exponential
+ * backoff until {@code max-attempts} is reached.
+ * <p>
+ * Exposes queue depth, oldest pending age, and sent/retried/failed counters through Micrometer.
+ */
+@Service
+@Slf4j
+public class NotificationOutboxService {
+
+    private final MongoTemplate mongoTemplate;
+    private final OutboxMessageRepository outboxRepository;
+    private final MailService mailService;
+
+    private final int claimBatchSize;
+    private final int sendBatchSize;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+    private final long sendIntervalNanos;
+
+    private final ThreadPoolExecutor renderers;
+    private final ThreadPoolExecutor workers;
+    private final AtomicLong nextSendSlot = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer sendTimer;
+
+    public NotificationOutboxService(MongoTemplate mongoTemplate,
+                                     OutboxMessageRepository outboxRepository,
+                                     MailService mailService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notifications.outbox.renderers:2}") int rendererCount,
+                                     @Value("${notifications.outbox.workers:4}") int workerCount,
+                                     @Value("${notifications.outbox.queue-capacity:100}") int queueCapacity,
+                                     @Value("${notifications.outbox.claim-batch-size:200}") int claimBatchSize,
+                                     @Value("${notifications.outbox.send-batch-size:20}") int sendBatchSize,
+                                     @Value("${notifications.outbox.rate-per-second:10}") double ratePerSecond,
+                                     @Value("${notifications.outbox.max-attempts:8}") int maxAttempts,
+                                     @Value("${notifications.outbox.base-backoff:PT30S}") Duration baseBackoff,
+                                     @Value("${notifications.outbox.max-backoff:PT1H}") Duration maxBackoff,
+                                     @Value("${notifications.outbox.lease:PT5M}") Duration lease,
+                                     @Value("${notifications.outbox.retention:P7D}") Duration retention) {
+        this.mongoTemplate = mongoTemplate;
+        this.outboxRepository = outboxRepository;
+        this.mailService = mailService;
+        this.claimBatchSize = claimBatchSize;
+        this.sendBatchSize = Math.max(1, sendBatchSize);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = baseBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.retention = retention;
+        this.sendIntervalNanos = ratePerSecond > 0 ? (long) (1_000_000_000L / ratePerSecond) : 0;
+
+        this.renderers = boundedPool(rendererCount, queueCapacity, "outbox-render-");
+        this.workers = boundedPool(workerCount, queueCapacity, "outbox-mail-");
+        ExecutorServiceMetrics.monitor(meterRegistry, renderers, "notification.outbox.renderers");
+        ExecutorServiceMetrics.monitor(meterRegistry, workers, "notification.outbox.workers");
+
+        Gauge.builder("notification.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Messages waiting in the notification outbox")
+                .register(meterRegistry);
+        Gauge.builder("notification.outbox.oldest.age", oldestPendingAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest pending outbox message")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("notification.outbox.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("notification.outbox.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("notification.outbox.failed").register(meterRegistry);
+        this.sendTimer = Timer.builder("notification.outbox.send")
+                .description("Time spent sending one batch of outbox messages over SMTP")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates a fixed-size pool with a bounded queue that rejects work when full.
+     */
+    private static ThreadPoolExecutor boundedPool(int threads, int queueCapacity, String namePrefix) {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, namePrefix + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Persists a notification email for asynchronous delivery.
+     *
+     * @param type  The event that triggered the email.
+     * @param email The email to send.
+     * @return The stored outbox message.
+     */
+    public OutboxMessageDocument enqueue(NotificationType type, NotificationEmail email) {
+        OutboxMessageDocument saved = outboxRepository.save(newMessage(null, type, email));
+        log.debug("📥 Enqueued {} email for {} (outbox id: {})", type, email.getRecipient(), saved.getId());
+        return saved;
+    }
+
+    /**
+     * Persists a notification email under a caller-chosen ID, at most once.
+     * <p>
+     * Lets producers that cannot write atomically with the outbox retry after a crash:
+     * a repeated call with the same ID finds the message already stored and adds nothing.
+     *
+     * @param messageId The outbox message ID (a hex ObjectId owned by the producer).
+     * @param type      The event that triggered the email.
+     * @param email     The email to send.
+     * @return true if the message was stored, false if a message with this ID already existed.
+     */
+    public boolean enqueueOnce(String messageId, NotificationType type, NotificationEmail email) {
+        try {
+            mongoTemplate.insert(newMessage(messageId, type, email));
+        } catch (DuplicateKeyException e) {
+            log.debug("📥 {} email {} was already enqueued", type, messageId);
+            return false;
+        }
+        log.debug("📥 Enqueued {} email for {} (outbox id: {})", type, email.getRecipient(), messageId);
+        return true;
+    }
+
+    private static OutboxMessageDocument newMessage(String id, NotificationType type, NotificationEmail email) {
+        Instant now = Instant.now();
+        return OutboxMessageDocument.builder()
+                .id(id)
+                .type(type)
+                .subject(email.getSubject())
+                .recipient(email.getRecipient())
+                .username(email.getUsername())
+                .body(email.getBody())
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+
+    /**
+     * Claims due messages and dispatches them to the worker pool in batches.
+     * <p>
+     * Only as many messages are claimed as both stage queues can accept, so
+     * back-pressure from a slow mail relay leaves messages safely in MongoDB.
+     */
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval-ms:5000}")
+    public void drain() {
+        int freeSlots = Math.min(renderers.getQueue().remainingCapacity(), workers.getQueue().remainingCapacity());
+        int capacity = Math.min(claimBatchSize, freeSlots * sendBatchSize);
+
+        List<OutboxMessageDocument> batch = new ArrayList<>(sendBatchSize);
+        Instant now = Instant.now();
+        for (int claimed = 0; claimed < capacity; claimed++) {
+            OutboxMessageDocument message = claimNext(now);
+            if (message == null) {
+                break;
+            }
+            batch.add(message);
+            if (batch.size() == sendBatchSize) {
+                dispatch(batch);
+                batch = new ArrayList<>(sendBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+
+        refreshQueueMetrics();
+    }
+
+    /**
+     * Atomically claims the next due message (or one whose lease expired after a crash).
+     */
+    private OutboxMessageDocument claimNext(Instant now) {
+        Query due = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(OutboxStatus.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(OutboxStatus.IN_FLIGHT).and("lockedUntil").lte(now)
+        )).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"));
+
+        Update claim = new Update()
+                .set("status", OutboxStatus.IN_FLIGHT)
+                .set("lockedUntil", now.plus(lease));
+
+        return mongoTemplate.findAndModify(due, claim,
+                FindAndModifyOptions.options().returnNew(true), OutboxMessageDocument.class);
+    }
+
+    /**
+     * Submits a batch of claimed messages to the render stage.
+     */
+    private void dispatch(List<OutboxMessageDocument> batch) {
+        try {
+            renderers.execute(() -> renderBatch(batch));
+        } catch (RejectedExecutionException e) {
+            // Leave the messages claimed; their lease expires and they are picked up again
+            log.warn("Outbox render queue full; {} messages will be retried after lease expiry", batch.size());
+        }
+    }
+
+    /**
+     * Render stage: builds a {@link MimeMessage} for each message and forwards the
+     * successfully rendered ones to the SMTP stage as one batch.
+     */
+    void renderBatch(List<OutboxMessageDocument> batch) {
+        List<OutboxMessageDocument> ready = new ArrayList<>(batch.size());
+        List<MimeMessage> rendered = new ArrayList<>(batch.size());
+        for (OutboxMessageDocument message : batch) {
+            try {
+                rendered.add(mailService.prepare(toEmail(message)));
+                ready.add(message);
+            } catch (RuntimeException e) {
+                markFailed(message, e);
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        try {
+            workers.execute(() -> deliverBatch(ready, rendered));
+        } catch (RejectedExecutionException e) {
+            log.warn("Outbox worker queue full; {} messages will be retried after lease expiry", ready.size());
+        }
+    }
+
+    /**
+     * SMTP stage: sends a rendered batch over one pooled connection, honouring the
+     * configured send rate, and records the outcome of each message.
+     */
+    void deliverBatch(List<OutboxMessageDocument> batch, List<MimeMessage> rendered) {
+        Map<Integer, Exception> failures;
+        try {
+            awaitSendPermits(batch.size());
+            Timer.Sample sample = Timer.start();
+            failures = mailService.sendBatch(rendered);
+            sample.stop(sendTimer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            batch.forEach(message -> markFailed(message, e));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Exception failure = failures.get(i);
+            if (failure == null) {
+                markSent(batch.get(i));
+            } else {
+                markFailed(batch.get(i), failure);
+            }
+        }
+    }
+
+    /**
+     * Marks a message as delivered; delivered messages expire after the retention period.
+     */
+    private void markSent(OutboxMessageDocument message) {
+        Instant now = Instant.now();
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(message.getId())),
+                new Update()
+                        .set("status", OutboxStatus.SENT)
+                        .set("sentAt", now)
+                        .set("expireAt", now.plus(retention))
+                        .inc("attempts", 1)
+                        .unset("lockedUntil"),
+                OutboxMessageDocument.class
+        );
+        sentCounter.increment();
+    }
+
+    /**
+     * Schedules a retry with exponential backoff, or marks the message failed
+     * once all attempts are exhausted.
+     * <p>
+     * A {@link SendFailedException} is never retried: the relay rejected some recipients and
+     * may have delivered to the others, and the sender has already retried those left unsent.
+     */
+    private void markFailed(OutboxMessageDocument message, Exception error) {
+        int attempts = message.getAttempts() + 1;
+        Update update = new Update()
+                .set("attempts", attempts)
+                .set("lastError", error.getMessage())
+                .unset("lockedUntil");
+
+        if (attempts >= maxAttempts || error instanceof SendFailedException) {
+            update.set("status", OutboxStatus.FAILED);
+            failedCounter.increment();
+            log.error("❌ Giving up on outbox message {} to {} after {} attempts",
+                    message.getId(), message.getRecipient(), attempts, error);
+        } else {
+            Duration delay = backoff(attempts);
+            update.set("status", OutboxStatus.PENDING).set("nextAttemptAt", Instant.now().plus(delay));
+            retriedCounter.increment();
+            log.warn("⚠️ Outbox message {} to {} failed (attempt {}), retrying in {}s",
+                    message.getId(), message.getRecipient(), attempts, delay.toSeconds());
+        }
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(message.getId())), update,
+                OutboxMessageDocument.class);
+    }
+
+    /**
+     * Computes {@code base * 2^(attempts-1)}, capped at the maximum, with up to 20% jitter.
+     */
+    private Duration backoff(int attempts) {
+        long baseMillis = baseBackoff.toMillis();
+        long exponential = baseMillis << Math.min(attempts - 1, 20);
+        long capped = Math.min(exponential, maxBackoff.toMillis());
+        long jitter = (long) (capped * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(capped + jitter);
+    }
+
+    /**
+     * Blocks until the next send slot, reserving one slot per message so the average
+     * send rate matches the configured rate even though a batch goes out back to back.
+     * Slots are reserved with a CAS loop, so concurrent workers never share a slot.
+     */
+    private void awaitSendPermits(int permits) throws InterruptedException {
+        if (sendIntervalNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot;
+        while (true) {
+            long next = nextSendSlot.get();
+            slot = Math.max(now, next);
+            if (nextSendSlot.compareAndSet(next, slot + sendIntervalNanos * permits)) {
+                break;
+            }
+        }
+        long wait = slot - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * Updates the queue-depth and age gauges.
+     */
+    private void refreshQueueMetrics() {
+        pendingCount.set(outboxRepository.countByStatus(OutboxStatus.PENDING));
+        oldestPendingAgeSeconds.set(outboxRepository.findFirstByStatusOrderByCreatedAtAsc(OutboxStatus.PENDING)
+                .map(message -> Duration.between(message.getCreatedAt(), Instant.now()).toSeconds())
+                .orElse(0L));
+    }
+
+    /**
+     * Converts an outbox message back into the email model used by {@link MailService}.
+     */
+    private NotificationEmail toEmail(OutboxMessageDocument message) {
+        return new NotificationEmail(message.getSubject(), message.getRecipient(), message.getUsername(), message.getBody());
+    }
+
+    /**
+     * Stops accepting work and lets in-flight batches finish; unfinished messages
+     * remain claimed in MongoDB and are retried after their lease expires.
+     */
+    @PreDestroy
+    public void shutdown() {
+        renderers.shutdown();
+        workers.shutdown();
+    }
+}
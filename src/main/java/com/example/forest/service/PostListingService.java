@@ -0,0 +1,269 @@
+package com.example.forest.service;
+
+import com.example.forest.Exceptions.CustomException;
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.dto.CursorPage;
+import com.example.forest.dto.PostResponse;
+import com.example.forest.mapper.MongoPostMapper;
+import com.mongodb.DBRef;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+
+/**
+ * PostListingService.java
+ *
+ * Sorted, cursor-paginated subreddit listings: {@code hot}, {@code new} and {@code top}
+ * (optionally within a day or week).
+ * <p>
+ * Each sort mode reads one page from its {@code (subreddit, key, _id)} index using keyset
+ * pagination: the cursor carries the sort key and ID of the last post served, and the next page
+ * starts strictly after it. {@code hot} uses the stored {@code hotScore}, which is written with
+ * every post and every vote change; a periodic job recomputes it for recent posts from their
+ * stored vote counts, repairing any score left behind by concurrent whole-document saves.
+ * <p>
+ * {@code top} within a day or week is the exception: a {@code (subreddit, voteCount)} index cannot
+ * bound the creation date, so it would walk the subreddit's whole history. Instead the window is
+ * read from the {@code (subreddit, createdDate)} index, projecting only IDs and vote counts, ranked
+ * in memory, and only the page being served is loaded in full.
+ * <p>
+ * Posts are read as raw documents and mapped with {@link MongoPostMapper#fromRaw(List)}, and the
+ * subreddit comes from the {@link SubredditDirectory}, so a page costs the post query, one author
+ * lookup, one comment-count aggregation and (for a logged-in user) one vote query, whatever its size.
+ */
+@Service
+@Slf4j
+public class PostListingService {
+
+    private static final int MAX_LIMIT = 100;
+    private static final String POSTS_COLLECTION = "posts";
+
+    private final MongoTemplate mongoTemplate;
+    private final SubredditDirectory subredditDirectory;
+    private final MongoPostMapper postMapper;
+    private final VoteStateService voteStateService;
+    private final Duration refreshWindow;
+
+    /**
+     * Sort modes and the field each one orders by (descending, then by {@code _id}).
+     */
+    enum SortMode {
+        HOT("hotScore"), NEW("createdDate"), TOP("voteCount");
+
+        final String field;
+
+        SortMode(String field) {
+            this.field = field;
+        }
+    }
+
+    public PostListingService(MongoTemplate mongoTemplate,
+                              SubredditDirectory subredditDirectory,
+                              MongoPostMapper postMapper,
+                              VoteStateService voteStateService,
+                              @Value("${listing.hot.refresh-window:P7D}") Duration refreshWindow) {
+        this.mongoTemplate = mongoTemplate;
+        this.subredditDirectory = subredditDirectory;
+        this.postMapper = postMapper;
+        this.voteStateService = voteStateService;
+        this.refreshWindow = refreshWindow;
+    }
+
+    /**
+     * Returns one page of a subreddit's posts in the requested order.
+     *
+     * @param subredditId The subreddit ID.
+     * @param sort        {@code hot}, {@code new} or {@code top}.
+     * @param window      For {@code top}: {@code day}, {@code week} or {@code all}; ignored otherwise.
+     * @param after       Cursor from a previous page ({@code nextCursor}), or {@code null}.
+     * @param limit       Page size (capped at 100).
+     * @return One page of posts.
+     */
+    public CursorPage<PostResponse> listSubreddit(String subredditId, String sort, String window, String after, int limit) {
+        SortMode mode = parseSort(sort);
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        // Subreddits awaiting deletion are not in the directory
+        SubredditDirectory.Entry subreddit = subredditDirectory.findById(subredditId)
+                .orElseThrow(() -> new CustomException("Subreddit not found: " + subredditId));
+
+        Criteria criteria = Criteria.where("subreddit").is(new DBRef("subreddits", new ObjectId(subreddit.id())));
+        Cursor cursor = after != null && !after.isBlank() ? Cursor.parse(mode, after) : null;
+        Instant since = mode == SortMode.TOP ? windowStart(window) : null;
+
+        List<MongoPostDocument> posts;
+        if (since != null) {
+            posts = topSince(criteria.and("createdDate").gte(since), cursor, pageSize + 1);
+        } else {
+            if (cursor != null) {
+                criteria = new Criteria().andOperator(criteria, cursor.after(mode));
+            }
+            Query query = new Query(criteria)
+                    .with(Sort.by(Sort.Direction.DESC, mode.field).and(Sort.by(Sort.Direction.DESC, "_id")))
+                    .limit(pageSize + 1);
+            posts = postMapper.fromRaw(mongoTemplate.find(query, Document.class, POSTS_COLLECTION));
+        }
+
+        boolean hasMore = posts.size() > pageSize;
+        List<MongoPostDocument> page = hasMore ? posts.subList(0, pageSize) : posts;
+        String nextCursor = hasMore ? Cursor.of(mode, page.get(page.size() - 1)).toString() : null;
+
+        List<PostResponse> items = postMapper.mapToDtos(page);
+        return new CursorPage<>(voteStateService.applyTo(items), nextCursor, hasMore);
+    }
+
+    /**
+     * Recomputes the hot score of recent posts from their stored vote counts, server-side.
+     */
+    @Scheduled(fixedDelayString = "${listing.hot.refresh-interval-ms:900000}",
+            initialDelayString = "${listing.hot.refresh-interval-ms:900000}")
+    public void refreshHotScores() {
+        Query recent = new Query(Criteria.where("createdDate").gte(Instant.now().minus(refreshWindow)));
+        long updated = mongoTemplate.updateMulti(recent,
+                AggregationUpdate.update().set("hotScore").toValue(HotScore.expression(0)),
+                MongoPostDocument.class).getModifiedCount();
+        log.debug("🔥 Refreshed hot scores of {} recent posts", updated);
+    }
+
+    /**
+     * Ranks a time window of a subreddit by votes in memory. The window is scanned on the
+     * {@code (subreddit, createdDate)} index reading only IDs and vote counts; then only the
+     * posts of the requested page are loaded.
+     */
+    private List<MongoPostDocument> topSince(Criteria window, Cursor cursor, int limit) {
+        Query candidates = new Query(window).withHint("subreddit_created");
+        candidates.fields().include("_id").include("voteCount");
+
+        List<ObjectId> ids = mongoTemplate.find(candidates, Document.class, POSTS_COLLECTION).stream()
+                .map(doc -> new Cursor(votesOf(doc), doc.getObjectId("_id")))
+                .filter(candidate -> cursor == null || candidate.isAfter(cursor))
+                .sorted(Comparator.comparing((Cursor candidate) -> (Integer) candidate.key())
+                        .thenComparing(Cursor::id).reversed())
+                .limit(limit)
+                .map(Cursor::id)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, MongoPostDocument> byId = new HashMap<>();
+        postMapper.fromRaw(mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), Document.class, POSTS_COLLECTION))
+                .forEach(post -> byId.put(post.getId(), post));
+        List<MongoPostDocument> ordered = new ArrayList<>(ids.size());
+        for (ObjectId id : ids) {
+            MongoPostDocument post = byId.get(id.toHexString());
+            if (post != null) {
+                ordered.add(post);
+            }
+        }
+        return ordered;
+    }
+
+    private static Integer votesOf(Document post) {
+        Number votes = post.get("voteCount", Number.class);
+        return votes != null ? votes.intValue() : 0;
+    }
+
+    /**
+     * A keyset position: the sort key and ID of the last post served, written as {@code key_id}.
+     *
+     * @param key The sort key ({@link Double}, {@link Instant} or {@link Integer}, by sort mode).
+     * @param id  The post ID, breaking ties.
+     */
+    record Cursor(Object key, ObjectId id) {
+
+        /**
+         * Parses a cursor produced by {@link #toString()} for the given sort mode.
+         *
+         * @throws CustomException if the cursor is malformed.
+         */
+        static Cursor parse(SortMode mode, String cursor) {
+            int separator = cursor.lastIndexOf('_');
+            String id = separator > 0 ? cursor.substring(separator + 1) : null;
+            if (id == null || !ObjectId.isValid(id)) {
+                throw new CustomException("Invalid cursor: " + cursor);
+            }
+            try {
+                String key = cursor.substring(0, separator);
+                return new Cursor(switch (mode) {
+                    case HOT -> Double.parseDouble(key);
+                    case NEW -> Instant.ofEpochMilli(Long.parseLong(key));
+                    case TOP -> Integer.parseInt(key);
+                }, new ObjectId(id));
+            } catch (NumberFormatException e) {
+                throw new CustomException("Invalid cursor: " + cursor);
+            }
+        }
+
+        /**
+         * Returns the position of a post in the given sort order.
+         */
+        static Cursor of(SortMode mode, MongoPostDocument post) {
+            Object key = switch (mode) {
+                case HOT -> post.getHotScore() != null ? post.getHotScore() : 0d;
+                case NEW -> post.getCreatedDate() != null ? post.getCreatedDate() : Instant.EPOCH;
+                case TOP -> post.getVoteCount() != null ? post.getVoteCount() : 0;
+            };
+            return new Cursor(key, new ObjectId(post.getId()));
+        }
+
+        /**
+         * Builds the keyset condition "strictly after this position" in descending order.
+         */
+        Criteria after(SortMode mode) {
+            return new Criteria().orOperator(
+                    Criteria.where(mode.field).lt(key),
+                    Criteria.where(mode.field).is(key).and("_id").lt(id));
+        }
+
+        /**
+         * Tells whether this position comes strictly after {@code other} in descending
+         * {@code top} order.
+         */
+        boolean isAfter(Cursor other) {
+            int byVotes = Integer.compare((Integer) key, (Integer) other.key);
+            return byVotes < 0 || (byVotes == 0 && id.compareTo(other.id) < 0);
+        }
+
+        @Override
+        public String toString() {
+            String value = key instanceof Instant instant ? String.valueOf(instant.toEpochMilli()) : String.valueOf(key);
+            return value + "_" + id.toHexString();
+        }
+    }
+
+    private static SortMode parseSort(String sort) {
+        try {
+            return SortMode.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new CustomException("Invalid sort: " + sort + " (expected hot, new or top)");
+        }
+    }
+
+    private static Instant windowStart(String window) {
+        String value = window == null ? "all" : window.toLowerCase(Locale.ROOT);
+        return switch (value) {
+            case "day" -> Instant.now().minus(Duration.ofDays(1));
+            case "week" -> Instant.now().minus(Duration.ofDays(7));
+            case "all" -> null;
+            default -> throw new CustomException("Invalid window: " + window + " (expected day, week or all)");
+        };
+    }
+}
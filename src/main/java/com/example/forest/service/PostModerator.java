@@ -0,0 +1,112 @@
+package com.example.forest.service;
+
+import com.example.forest.Exceptions.CustomException;
+import com.example.forest.document.Photo;
+import com.example.forest.document.Video;
+import com.example.forest.dto.MongoPostRequest;
+import com.example.forest.repository.mongodb.PhotoRepository;
+import com.example.forest.repository.mongodb.VideoRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * PostModerator.java
+ *
+ * Moderates the text and attached media of a post request before it is saved.
+ * <p>
+ * The text check runs on the {@code moderationExecutor}; each attachment is loaded and checked on
+ * the {@code mediaExecutor}. All checks run concurrently, so a post with a photo and a video
+ * waits for the slowest Gemini call instead of all three in turn. Verdicts are still reported in
+ * the original order (text, then image, then video), and once one check fails the checks that
+ * have not started yet are cancelled.
+ */
+@Component
+public class PostModerator {
+
+    private final ContentModerationService contentModerationService;
+    private final PhotoRepository photoRepository;
+    private final VideoRepository videoRepository;
+    private final AsyncTaskExecutor moderationExecutor;
+    private final AsyncTaskExecutor mediaExecutor;
+
+    /**
+     * Media attached to a post that passed moderation ({@code null} when absent).
+     */
+    public record ModeratedMedia(Photo photo, Video video) {
+    }
+
+    public PostModerator(ContentModerationService contentModerationService,
+                         PhotoRepository photoRepository,
+                         VideoRepository videoRepository,
+                         @Qualifier("moderationExecutor") AsyncTaskExecutor moderationExecutor,
+                         @Qualifier("mediaExecutor") AsyncTaskExecutor mediaExecutor) {
+        this.contentModerationService = contentModerationService;
+        this.photoRepository = photoRepository;
+        this.videoRepository = videoRepository;
+        this.moderationExecutor = moderationExecutor;
+        this.mediaExecutor = mediaExecutor;
+    }
+
+    /**
+     * Checks a post's title, description and attachments.
+     *
+     * @param postRequest The post being created or updated.
+     * @return The attached photo and video, loaded.
+     * @throws CustomException if any part is inappropriate.
+     */
+    public ModeratedMedia moderate(MongoPostRequest postRequest) {
+        String combinedText = postRequest.getPostName() + " " + postRequest.getDescription();
+        CompletableFuture<Boolean> textUnsafe = CompletableFuture.supplyAsync(
+                () -> contentModerationService.isContentInappropriate(combinedText), moderationExecutor);
+
+        CompletableFuture<Photo> photo = postRequest.getPhotoId() != null
+                ? CompletableFuture.supplyAsync(() -> photoRepository.findById(postRequest.getPhotoId()).orElse(null), mediaExecutor)
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<Boolean> photoUnsafe = photo.thenApplyAsync(
+                found -> found != null && contentModerationService.isContentInappropriate(found.getImage(), "image/jpeg"),
+                mediaExecutor);
+
+        CompletableFuture<Video> video = postRequest.getVideoId() != null
+                ? CompletableFuture.supplyAsync(() -> videoRepository.findById(postRequest.getVideoId()).orElse(null), mediaExecutor)
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<Boolean> videoUnsafe = video.thenApplyAsync(
+                found -> found != null && contentModerationService.isContentInappropriate(found.getVideo(), "video/mp4"),
+                mediaExecutor);
+
+        List<CompletableFuture<?>> checks = List.of(textUnsafe, photo, photoUnsafe, video, videoUnsafe);
+        try {
+            if (await(textUnsafe)) {
+                throw new CustomException("Your post contains inappropriate content and cannot be saved.");
+            }
+            if (await(photoUnsafe)) {
+                throw new CustomException("The uploaded image is inappropriate and cannot be saved.");
+            }
+            if (await(videoUnsafe)) {
+                throw new CustomException("The uploaded video is inappropriate and cannot be saved.");
+            }
+        } catch (RuntimeException e) {
+            checks.forEach(check -> check.cancel(false));
+            throw e;
+        }
+        return new ModeratedMedia(photo.join(), video.join());
+    }
+
+    /**
+     * Waits for a check and rethrows its failure unwrapped.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
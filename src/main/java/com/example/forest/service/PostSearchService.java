@@ -0,0 +1,214 @@
+package com.example.forest.service;
+
+import com.example.forest.Exceptions.CustomException;
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.dto.CursorPage;
+import com.example.forest.dto.PostResponse;
+import com.example.forest.mapper.MongoPostMapper;
+import com.example.forest.repository.mongodb.MongoPostRepository;
+import com.example.forest.search.InvertedIndex;
+import com.example.forest.search.SearchIndexMaintainer;
+import com.example.forest.search.TextAnalyzer;
+import com.mongodb.DBRef;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * PostSearchService.java
+ *
+ * Full-text search over post titles and descriptions.
+ * <p>
+ * Posts are held in an in-memory {@link InvertedIndex} (HTML stripped, title terms boosted)
+ * and ranked with BM25, with optional subreddit and creation-time filters and offset-based
+ * pagination. The index is maintained by {@link SearchIndexMaintainer}: built at startup,
+ * updated by {@link MongoPostService} on create, edit and delete and from a change stream on
+ * {@code posts}, and rebuilt periodically when no change stream is available.
+ * Until the first build finishes, searches fall back to a bounded title match in MongoDB.
+ */
+@Service
+@Slf4j
+public class PostSearchService extends SearchIndexMaintainer {
+
+    private static final String POSTS_COLLECTION = "posts";
+
+    /** Deepest result offset served; ranking deeper than this is rarely useful. */
+    private static final int MAX_OFFSET = 1000;
+    private static final int MAX_LIMIT = 100;
+
+    private final MongoPostRepository postRepository;
+    private final MongoPostMapper postMapper;
+    private final SubredditDirectory subredditDirectory;
+    private final VoteStateService voteStateService;
+    private final int titleWeight;
+
+    public PostSearchService(MongoTemplate mongoTemplate,
+                             MongoPostRepository postRepository,
+                             MongoPostMapper postMapper,
+                             SubredditDirectory subredditDirectory,
+                             VoteStateService voteStateService,
+                             @Value("${search.posts.title-weight:3}") int titleWeight,
+                             @Value("${search.posts.change-streams:true}") boolean changeStreamsEnabled,
+                             @Value("${search.posts.compaction-threshold:0.3}") double compactionThreshold) {
+        super(mongoTemplate, "post", POSTS_COLLECTION, changeStreamsEnabled, compactionThreshold);
+        this.postRepository = postRepository;
+        this.postMapper = postMapper;
+        this.subredditDirectory = subredditDirectory;
+        this.voteStateService = voteStateService;
+        this.titleWeight = titleWeight;
+    }
+
+    /**
+     * Searches posts by relevance.
+     *
+     * @param query     Free-text query.
+     * @param subreddit Restrict to this subreddit name (case-insensitive), or {@code null}.
+     * @param from      Only posts created at or after this instant, or {@code null}.
+     * @param to        Only posts created before this instant, or {@code null}.
+     * @param after     Cursor from a previous page ({@code nextCursor}), or {@code null}.
+     * @param limit     Page size (capped at 100).
+     * @return One page of posts in relevance order.
+     */
+    public CursorPage<PostResponse> search(String query, String subreddit, Instant from, Instant to,
+                                           String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int offset = parseCursor(after);
+
+        String subredditId = null;
+        if (subreddit != null && !subreddit.isBlank()) {
+            subredditId = subredditDirectory.findByNameIgnoreCase(subreddit)
+                    .map(SubredditDirectory.Entry::id)
+                    .orElseThrow(() -> new CustomException("Subreddit not found: " + subreddit));
+        }
+
+        if (!isReady()) {
+            return fallbackSearch(query, pageSize);
+        }
+
+        InvertedIndex.Result result = rank(TextAnalyzer.tokenize(query), subredditId, subredditDirectory.tombstonedIds(),
+                from != null ? from.toEpochMilli() : Long.MIN_VALUE,
+                to != null ? to.toEpochMilli() : Long.MAX_VALUE,
+                offset, pageSize);
+
+        List<String> ids = result.hits().stream().map(InvertedIndex.Hit::key).toList();
+        Map<String, MongoPostDocument> posts = new HashMap<>();
+        postRepository.findAllById(ids).forEach(post -> posts.put(post.getId(), post));
+
+        // Preserve ranking order; skip posts deleted since they were indexed
+        List<MongoPostDocument> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            MongoPostDocument post = posts.get(id);
+            if (post != null) {
+                found.add(post);
+            }
+        }
+        List<PostResponse> items = postMapper.mapToDtos(found);
+
+        int next = offset + pageSize;
+        boolean hasMore = next < result.totalHits() && next <= MAX_OFFSET;
+        return new CursorPage<>(voteStateService.applyTo(items), hasMore ? String.valueOf(next) : null, hasMore);
+    }
+
+    /**
+     * Indexes (or re-indexes) a post after it is created or edited.
+     *
+     * @param post The saved post.
+     */
+    public void index(MongoPostDocument post) {
+        String subredditId = post.getSubreddit() != null ? post.getSubreddit().getId() : null;
+        long created = post.getCreatedDate() != null ? post.getCreatedDate().toEpochMilli() : 0L;
+        Map<String, Integer> terms = TextAnalyzer.termFrequencies(post.getPostName(), post.getDescription(), titleWeight);
+        apply(target -> target.upsert(post.getId(), subredditId, created, terms));
+    }
+
+    /**
+     * Rebuilds the index on schedule when needed (see {@link SearchIndexMaintainer#maintain()}).
+     */
+    @Scheduled(fixedDelayString = "${search.posts.rebuild-interval-ms:600000}",
+            initialDelayString = "${search.posts.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        maintain();
+    }
+
+    /**
+     * Streams all posts (text fields only, never media) into the index.
+     */
+    @Override
+    protected void indexAll(InvertedIndex target) {
+        Query query = new Query();
+        query.fields().include("postName").include("description").include("subreddit").include("createdDate");
+        try (Stream<Document> posts = mongoTemplate.stream(query, Document.class, POSTS_COLLECTION)) {
+            posts.forEach(doc -> indexRaw(target, doc));
+        }
+    }
+
+    /**
+     * Projects only the indexed fields, so embedded media never travels over the stream.
+     */
+    @Override
+    protected List<Bson> changeStreamPipeline() {
+        return List.of(
+                Aggregates.match(Filters.in("operationType", List.of("insert", "replace", "update", "delete"))),
+                Aggregates.project(Projections.include("operationType", "documentKey",
+                        "fullDocument._id", "fullDocument.postName", "fullDocument.description",
+                        "fullDocument.subreddit", "fullDocument.createdDate"))
+        );
+    }
+
+    @Override
+    protected void onChange(Document fullDocument) {
+        apply(target -> indexRaw(target, fullDocument));
+    }
+
+    /**
+     * Indexes a raw {@code posts} document (as read by a rebuild or a change event).
+     */
+    private void indexRaw(InvertedIndex target, Document doc) {
+        DBRef subreddit = doc.get("subreddit", DBRef.class);
+        Date created = doc.getDate("createdDate");
+        target.upsert(doc.getObjectId("_id").toHexString(),
+                subreddit != null ? subreddit.getId().toString() : null,
+                created != null ? created.getTime() : 0L,
+                TextAnalyzer.termFrequencies(doc.getString("postName"), doc.getString("description"), titleWeight));
+    }
+
+    /**
+     * Bounded title match used only until the index has been built.
+     */
+    private CursorPage<PostResponse> fallbackSearch(String query, int limit) {
+        Query titleMatch = new Query(Criteria.where("postName").regex(Pattern.quote(query), "i")).limit(limit);
+        List<PostResponse> items = postMapper.mapToDtos(mongoTemplate.find(titleMatch, MongoPostDocument.class).stream()
+                .filter(post -> !subredditDirectory.hides(post))
+                .toList());
+        return new CursorPage<>(voteStateService.applyTo(items), null, false);
+    }
+
+    private static int parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Math.min(Integer.parseInt(after), MAX_OFFSET));
+        } catch (NumberFormatException e) {
+            throw new CustomException("Invalid cursor: " + after);
+        }
+    }
+}
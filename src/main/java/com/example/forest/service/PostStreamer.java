@@ -0,0 +1,137 @@
+package com.example.forest.service;
+
+import com.example.forest.config.ResponseRowMetrics;
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.dto.PostResponse;
+import com.example.forest.mapper.MongoPostMapper;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PostStreamer.java
+ *
+ * Streams post listings to the client as a {@link Flux} instead of building the whole
+ * {@code List<PostResponse>} in memory.
+ * <p>
+ * Posts are read from an open MongoDB cursor one chunk ({@code listing.stream.chunk-size}) at a
+ * time, and only when the subscriber asks for more: a slow client stops the cursor rather than
+ * letting results pile up, so memory stays bounded by one chunk however long the listing is. Posts
+ * are read as raw documents and mapped with {@link MongoPostMapper#fromRaw(List)}, so each chunk
+ * costs one author lookup, one comment-count aggregation and one vote-flag query, whatever its
+ * size, exactly like a page of a regular listing. Posts of subreddits awaiting deletion are skipped. The cursor is
+ * closed when the stream completes, fails or is cancelled.
+ * <p>
+ * The caller's identity is captured when the stream is assembled, on the request thread; the
+ * blocking reads then run on Reactor's bounded elastic scheduler.
+ */
+@Component
+public class PostStreamer {
+
+    private static final String POSTS_COLLECTION = "posts";
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoPostMapper postMapper;
+    private final VoteStateService voteStateService;
+    private final ResponseRowMetrics rowMetrics;
+    private final SubredditDirectory subredditDirectory;
+    private final int chunkSize;
+
+    public PostStreamer(MongoTemplate mongoTemplate,
+                        MongoPostMapper postMapper,
+                        VoteStateService voteStateService,
+                        ResponseRowMetrics rowMetrics,
+                        SubredditDirectory subredditDirectory,
+                        @Value("${listing.stream.chunk-size:100}") int chunkSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.postMapper = postMapper;
+        this.voteStateService = voteStateService;
+        this.rowMetrics = rowMetrics;
+        this.subredditDirectory = subredditDirectory;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Streams the posts matching a query, in the query's order.
+     *
+     * @param query The query; its sort is kept.
+     * @return The matching posts.
+     */
+    public Flux<PostResponse> stream(Query query) {
+        String username = VoteStateService.currentUsername();
+        query.cursorBatchSize(chunkSize);
+        return counted(Flux.fromStream(() -> mongoTemplate.stream(query, Document.class, POSTS_COLLECTION))
+                .buffer(chunkSize)
+                .concatMapIterable(chunk -> toResponses(postMapper.fromRaw(chunk), username), 1)
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Streams posts by ID, in the given order. Missing posts are skipped.
+     *
+     * @param postIds The post IDs, already ranked.
+     * @return The posts.
+     */
+    public Flux<PostResponse> streamByIds(List<String> postIds) {
+        String username = VoteStateService.currentUsername();
+        return counted(Flux.fromIterable(postIds)
+                .buffer(chunkSize)
+                .concatMapIterable(ids -> toResponses(findInOrder(ids), username), 1)
+                .subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    /**
+     * Loads posts by ID as one list, in the given order; the non-streaming counterpart of
+     * {@link #streamByIds(List)}, for callers that return a whole listing at once.
+     *
+     * @param postIds The post IDs, already ranked.
+     * @return The posts. Missing posts are skipped.
+     */
+    public List<PostResponse> listByIds(List<String> postIds) {
+        return toResponses(findInOrder(postIds), VoteStateService.currentUsername());
+    }
+
+    /**
+     * Reports the number of posts streamed once the stream ends, against the current endpoint.
+     */
+    private Flux<PostResponse> counted(Flux<PostResponse> posts) {
+        String uri = ResponseRowMetrics.currentUri();
+        AtomicLong rows = new AtomicLong();
+        return posts.doOnNext(post -> rows.incrementAndGet())
+                .doFinally(signal -> rowMetrics.record(uri, rows.get()));
+    }
+
+    private List<MongoPostDocument> findInOrder(List<String> ids) {
+        List<ObjectId> objectIds = ids.stream().filter(ObjectId::isValid).map(ObjectId::new).toList();
+        Map<String, MongoPostDocument> byId = new HashMap<>();
+        postMapper.fromRaw(mongoTemplate.find(new Query(Criteria.where("_id").in(objectIds)), Document.class, POSTS_COLLECTION))
+                .forEach(post -> byId.put(post.getId(), post));
+        List<MongoPostDocument> ordered = new ArrayList<>(byId.size());
+        for (String id : ids) {
+            MongoPostDocument post = byId.get(id);
+            if (post != null) {
+                ordered.add(post);
+            }
+        }
+        return ordered;
+    }
+
+    private List<PostResponse> toResponses(List<MongoPostDocument> posts, String username) {
+        List<MongoPostDocument> visible = posts.stream()
+                .filter(post -> !subredditDirectory.hides(post))
+                .toList();
+        return voteStateService.applyTo(postMapper.mapToDtos(visible), username);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.forest.service;
+
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.dto.PostSuggestion;
+import com.example.forest.search.SuggestionIndex;
+import com.example.forest.search.SwappableIndex;
+import com.example.forest.search.TextAnalyzer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * PostTitleSuggester.java
+ *
+ * Search-box autocomplete over post titles, weighted by vote count.
+ * <p>
+ * Suggestions come from an in-memory {@link SuggestionIndex}, so a keystroke never reaches
+ * MongoDB. The last word of the input is completed as a prefix; earlier words must also prefix
+ * a word of the title. The index is built in the background at startup, updated by
+ * {@link MongoPostService} on create, edit and delete, and rebuilt periodically to pick up vote
+ * changes, writes from other nodes and prefix lists shortened by deletions. Rebuilds go through
+ * {@link SwappableIndex}, like the search indexes, so updates made meanwhile are not lost. Until
+ * the first build finishes, no suggestions are returned.
+ */
+@Service
+@Slf4j
+public class PostTitleSuggester {
+
+    private static final String POSTS_COLLECTION = "posts";
+
+    /** Maximum number of suggestions returned per request. */
+    private static final int MAX_SUGGESTIONS = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final SwappableIndex<SuggestionIndex> index;
+
+    public PostTitleSuggester(MongoTemplate mongoTemplate,
+                              @Value("${search.suggest.max-prefix-length:12}") int maxPrefixLength,
+                              @Value("${search.suggest.per-prefix:32}") int perPrefix) {
+        this.mongoTemplate = mongoTemplate;
+        this.index = new SwappableIndex<>(() -> new SuggestionIndex(maxPrefixLength, perPrefix));
+    }
+
+    /**
+     * Builds the index in the background.
+     */
+    @PostConstruct
+    void start() {
+        Thread builder = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Initial title suggestion build failed; will retry on schedule: {}", e.getMessage());
+            }
+        }, "post-title-suggester");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Suggests post titles for partially typed input.
+     *
+     * @param input The text typed so far.
+     * @param limit Maximum number of suggestions (capped at 10).
+     * @return Matching posts, most upvoted first.
+     */
+    public List<PostSuggestion> suggest(String input, int limit) {
+        List<String> words = TextAnalyzer.words(input);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Complete the last word; a trailing stop word ("lord of the") completes the word before it
+        int last = words.size() - 1;
+        while (last > 0 && TextAnalyzer.isStopWord(words.get(last))) {
+            last--;
+        }
+        List<String> required = new ArrayList<>();
+        for (int i = 0; i < last; i++) {
+            if (!TextAnalyzer.isStopWord(words.get(i))) {
+                required.add(words.get(i));
+            }
+        }
+
+        return index.current().suggest(words.get(last), required, Math.min(limit, MAX_SUGGESTIONS)).stream()
+                .map(suggestion -> new PostSuggestion(suggestion.key(), suggestion.text(), suggestion.weight()))
+                .toList();
+    }
+
+    /**
+     * Indexes (or re-indexes) a post after it is created or edited.
+     *
+     * @param post The saved post.
+     */
+    public void index(MongoPostDocument post) {
+        long votes = post.getVoteCount() != null ? post.getVoteCount() : 0;
+        index.apply(target -> target.add(post.getId(), post.getPostName(), votes));
+    }
+
+    /**
+     * Removes a post after it is deleted.
+     *
+     * @param postId The post ID.
+     */
+    public void remove(String postId) {
+        index.apply(target -> target.remove(postId));
+    }
+
+    /**
+     * Rebuilds the index from MongoDB, reading only titles and vote counts.
+     */
+    @Scheduled(fixedDelayString = "${search.suggest.rebuild-interval-ms:300000}",
+            initialDelayString = "${search.suggest.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        SuggestionIndex fresh = index.rebuild(target -> {
+            Query query = new Query();
+            query.fields().include("postName").include("voteCount");
+            try (Stream<Document> posts = mongoTemplate.stream(query, Document.class, POSTS_COLLECTION)) {
+                posts.forEach(doc -> {
+                    Number votes = doc.get("voteCount", Number.class);
+                    target.add(doc.getObjectId("_id").toHexString(), doc.getString("postName"),
+                            votes != null ? votes.longValue() : 0L);
+                });
+            }
+        });
+        log.debug("💡 Title suggestions rebuilt: {} posts kept in {} ms", fresh.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.forest.service;
+
+import com.example.forest.Exceptions.CustomException;
+import com.example.forest.dto.CursorPage;
+import com.example.forest.dto.SearchResult;
+import com.example.forest.model.SearchResultType;
+import com.example.forest.search.InvertedIndex;
+import com.example.forest.search.TextAnalyzer;
+import com.mongodb.DBRef;
+import lombok.AllArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SearchService.java
+ *
+ * Unified search over posts and comments.
+ * <p>
+ * Both in-memory indexes ({@link PostSearchService}, {@link CommentSearchService}) are ranked
+ * with the same BM25 parameters and query terms; their top hits are merged by score into one
+ * list and paginated with an offset cursor. Only the hits on the requested page are then loaded,
+ * with one {@code _id $in} query per collection (comments, posts, users) and subreddit names from
+ * {@link SubredditDirectory}, so no query ever scans a collection. Embedded media is never read.
+ * Hits whose document was deleted since it was indexed are dropped from the page.
+ */
+@Service
+@AllArgsConstructor
+public class SearchService {
+
+    private static final String POSTS_COLLECTION = "posts";
+    private static final String COMMENTS_COLLECTION = "comments";
+
+    /** Deepest result offset served; ranking deeper than this is rarely useful. */
+    private static final int MAX_OFFSET = 1000;
+    private static final int MAX_LIMIT = 100;
+
+    /** Lengths of the excerpts of the matched text and of the surrounding post. */
+    private static final int SNIPPET_LENGTH = 200;
+    private static final int POST_SNIPPET_LENGTH = 120;
+
+    private final PostSearchService postSearchService;
+    private final CommentSearchService commentSearchService;
+    private final SubredditDirectory subredditDirectory;
+    private final MongoTemplate mongoTemplate;
+    private final UsernameLookup usernameLookup;
+
+    /** A ranked hit from one of the indexes. */
+    private record RankedHit(SearchResultType type, String id, double score) {
+    }
+
+    /**
+     * Searches posts and/or comments by relevance.
+     *
+     * @param query     Free-text query.
+     * @param type      {@code all}, {@code posts} or {@code comments}.
+     * @param subreddit Restrict to this subreddit name (case-insensitive), or {@code null}.
+     * @param from      Only items created at or after this instant, or {@code null}.
+     * @param to        Only items created before this instant, or {@code null}.
+     * @param after     Cursor from a previous page ({@code nextCursor}), or {@code null}.
+     * @param limit     Page size (capped at 100).
+     * @return One page of posts and comments in relevance order.
+     */
+    public CursorPage<SearchResult> search(String query, String type, String subreddit, Instant from, Instant to,
+                                           String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        int offset = parseCursor(after);
+        String scope = normalizeType(type);
+        boolean includePosts = !scope.equals("comments");
+        boolean includeComments = !scope.equals("posts");
+
+        String subredditId = null;
+        if (subreddit != null && !subreddit.isBlank()) {
+            subredditId = subredditDirectory.findByNameIgnoreCase(subreddit)
+                    .map(SubredditDirectory.Entry::id)
+                    .orElseThrow(() -> new CustomException("Subreddit not found: " + subreddit));
+        }
+
+        List<String> terms = TextAnalyzer.tokenize(query);
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        Set<String> hidden = subredditDirectory.tombstonedIds();
+
+        // Each index contributes its best (offset + pageSize) hits; the merged page is cut from those
+        List<RankedHit> merged = new ArrayList<>();
+        int totalHits = 0;
+        if (includePosts) {
+            InvertedIndex.Result posts = postSearchService.rank(terms, subredditId, hidden, fromMillis, toMillis, 0, offset + pageSize);
+            posts.hits().forEach(hit -> merged.add(new RankedHit(SearchResultType.POST, hit.key(), hit.score())));
+            totalHits += posts.totalHits();
+        }
+        if (includeComments) {
+            InvertedIndex.Result comments = commentSearchService.rank(terms, subredditId, hidden, fromMillis, toMillis, 0, offset + pageSize);
+            comments.hits().forEach(hit -> merged.add(new RankedHit(SearchResultType.COMMENT, hit.key(), hit.score())));
+            totalHits += comments.totalHits();
+        }
+        merged.sort(Comparator.comparingDouble(RankedHit::score).reversed());
+
+        List<RankedHit> page = offset >= merged.size()
+                ? List.of()
+                : merged.subList(offset, Math.min(merged.size(), offset + pageSize));
+
+        int next = offset + pageSize;
+        boolean hasMore = next < totalHits && next <= MAX_OFFSET;
+        return new CursorPage<>(hydrate(page, terms), hasMore ? String.valueOf(next) : null, hasMore);
+    }
+
+    /**
+     * Loads the documents behind one page of hits and maps them to results, preserving rank order.
+     */
+    private List<SearchResult> hydrate(List<RankedHit> page, List<String> terms) {
+        Set<ObjectId> postIds = new HashSet<>();
+        Set<ObjectId> commentIds = new HashSet<>();
+        for (RankedHit hit : page) {
+            (hit.type() == SearchResultType.POST ? postIds : commentIds).add(new ObjectId(hit.id()));
+        }
+
+        Map<String, Document> comments = findByIds(COMMENTS_COLLECTION, commentIds, "text", "post", "user", "createdDate");
+        for (Document comment : comments.values()) {
+            DBRef post = comment.get("post", DBRef.class);
+            if (post != null && post.getId() instanceof ObjectId id) {
+                postIds.add(id);
+            }
+        }
+        Map<String, Document> posts = findByIds(POSTS_COLLECTION, postIds,
+                "postName", "description", "subreddit", "user", "createdDate");
+
+        List<Document> hitDocs = new ArrayList<>(page.size());
+        for (RankedHit hit : page) {
+            Document doc = (hit.type() == SearchResultType.POST ? posts : comments).get(hit.id());
+            if (doc != null) {
+                hitDocs.add(doc);
+            }
+        }
+        Map<Object, String> usernames = usernameLookup.forAuthors(hitDocs);
+
+        List<SearchResult> results = new ArrayList<>(page.size());
+        for (RankedHit hit : page) {
+            SearchResult result = hit.type() == SearchResultType.POST
+                    ? postResult(hit, posts.get(hit.id()), usernames, terms)
+                    : commentResult(hit, comments.get(hit.id()), posts, usernames, terms);
+            if (result != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private SearchResult postResult(RankedHit hit, Document post, Map<Object, String> usernames, List<String> terms) {
+        if (post == null) {
+            return null;
+        }
+        return SearchResult.builder()
+                .type(SearchResultType.POST)
+                .id(hit.id())
+                .score(hit.score())
+                .postId(hit.id())
+                .postName(post.getString("postName"))
+                .subredditName(subredditName(post))
+                .userName(username(post, usernames))
+                .snippet(TextAnalyzer.snippet(post.getString("description"), terms, SNIPPET_LENGTH))
+                .createdDate(toInstant(post.getDate("createdDate")))
+                .build();
+    }
+
+    private SearchResult commentResult(RankedHit hit, Document comment, Map<String, Document> posts,
+                                       Map<Object, String> usernames, List<String> terms) {
+        if (comment == null) {
+            return null;
+        }
+        DBRef postRef = comment.get("post", DBRef.class);
+        Document post = postRef != null ? posts.get(postRef.getId().toString()) : null;
+        if (post == null) {
+            return null;
+        }
+        return SearchResult.builder()
+                .type(SearchResultType.COMMENT)
+                .id(hit.id())
+                .score(hit.score())
+                .postId(postRef.getId().toString())
+                .postName(post.getString("postName"))
+                .subredditName(subredditName(post))
+                .userName(username(comment, usernames))
+                .snippet(TextAnalyzer.snippet(comment.getString("text"), terms, SNIPPET_LENGTH))
+                .postSnippet(TextAnalyzer.snippet(post.getString("description"), terms, POST_SNIPPET_LENGTH))
+                .createdDate(toInstant(comment.getDate("createdDate")))
+                .build();
+    }
+
+    /**
+     * Reads raw documents by ID with the given projection, keyed by hex ID.
+     */
+    private Map<String, Document> findByIds(String collection, Collection<ObjectId> ids, String... fields) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Query query = new Query(Criteria.where("_id").in(ids));
+        for (String field : fields) {
+            query.fields().include(field);
+        }
+        Map<String, Document> docs = new HashMap<>();
+        for (Document doc : mongoTemplate.find(query, Document.class, collection)) {
+            docs.put(doc.getObjectId("_id").toHexString(), doc);
+        }
+        return docs;
+    }
+
+    private String subredditName(Document post) {
+        DBRef subreddit = post.get("subreddit", DBRef.class);
+        return subreddit == null ? null : subredditDirectory.findById(subreddit.getId().toString())
+                .map(SubredditDirectory.Entry::name)
+                .orElse(null);
+    }
+
+    private static String username(Document doc, Map<Object, String> usernames) {
+        Object userId = UsernameLookup.authorId(doc);
+        return userId != null ? usernames.get(userId) : null;
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
+    private static String normalizeType(String type) {
+        String normalized = type == null || type.isBlank() ? "all" : type.toLowerCase(Locale.ROOT);
+        if (!normalized.equals("all") && !normalized.equals("posts") && !normalized.equals("comments")) {
+            throw new CustomException("Invalid search type: " + type + " (expected all, posts or comments)");
+        }
+        return normalized;
+    }
+
+    private static int parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Math.min(Integer.parseInt(after), MAX_OFFSET));
+        } catch (NumberFormatException e) {
+            throw new CustomException("Invalid cursor: " + after);
+        }
+    }
+}
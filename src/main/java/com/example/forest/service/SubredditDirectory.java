@@ -0,0 +1,499 @@
+package com.example.forest.service;
+
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.document.MongoSubredditDocument;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SubredditDirectory.java
+ *
+ * Replicated, in-memory directory of all subreddits (ID and name).
+ * <p>
+ * The subreddit set is small and changes rarely, but its names are resolved on every post,
+ * subscription and feed request. Each node keeps an immutable snapshot holding ID, exact-name and
+ * lowercase-name maps plus a compressed prefix trie for autocomplete, and swaps in a new snapshot
+ * whenever the {@code subreddits} collection changes. Changes are observed through a MongoDB
+ * change stream filtered to the events that affect the directory (the per-subreddit counters are
+ * updated on every post and subscription and are ignored), and each event is applied as a single
+ * entry; on a standalone server (no change streams) the directory polls instead.
+ * Writes made through {@link MongoSubredditService} refresh the local snapshot immediately.
+ * Subreddits tombstoned for deletion are excluded from lookups; their IDs are kept separately so
+ * read paths can hide the posts of a subreddit whose deletion job has not finished yet.
+ */
+@Component
+@Slf4j
+public class SubredditDirectory {
+
+    private static final String SUBREDDITS_COLLECTION = "subreddits";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean changeStreamsEnabled;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean changeStreamActive;
+    private volatile MongoChangeStreamCursor<ChangeStreamDocument<Document>> changeStream;
+    private Thread watcher;
+
+    public SubredditDirectory(MongoTemplate mongoTemplate,
+                              @Value("${subreddit.directory.change-streams:true}") boolean changeStreamsEnabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.changeStreamsEnabled = changeStreamsEnabled;
+    }
+
+    /**
+     * Loads the initial snapshot and starts watching for changes.
+     */
+    @PostConstruct
+    void start() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not load subreddit directory at startup; will retry on next poll: {}", e.getMessage());
+        }
+        if (changeStreamsEnabled) {
+            watcher = new Thread(this::watch, "subreddit-directory-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    /**
+     * A subreddit's identity as held by the directory.
+     *
+     * @param id   The subreddit ID.
+     * @param name The subreddit name with its original casing.
+     */
+    public record Entry(String id, String name) {
+
+        /**
+         * Builds a reference-only document suitable for a {@code @DBRef} field
+         * (only the ID is written) and for mapping the subreddit name.
+         */
+        public MongoSubredditDocument toReference() {
+            MongoSubredditDocument reference = new MongoSubredditDocument();
+            reference.setId(id);
+            reference.setName(name);
+            return reference;
+        }
+    }
+
+    /**
+     * Finds a subreddit by exact name. Served entirely from memory.
+     * <p>
+     * A miss is not checked against MongoDB: names that are not subreddits (such as free-form
+     * interests) miss on every request. A subreddit created on another node becomes visible
+     * when its change event arrives, or on the next poll without change streams.
+     *
+     * @param name The subreddit name.
+     * @return The matching entry, if any.
+     */
+    public Optional<Entry> findByName(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(snapshot.byName.get(name));
+    }
+
+    /**
+     * Finds a subreddit by name, ignoring case. Served entirely from memory, like {@link #findByName}.
+     *
+     * @param name The subreddit name in any casing.
+     * @return The matching entry, if any.
+     */
+    public Optional<Entry> findByNameIgnoreCase(String name) {
+        return name == null
+                ? Optional.empty()
+                : Optional.ofNullable(snapshot.byLowerName.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Finds a subreddit by ID. Served entirely from memory.
+     *
+     * @param id The subreddit ID.
+     * @return The matching entry, if any.
+     */
+    public Optional<Entry> findById(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    /**
+     * Tells whether a subreddit has been tombstoned for deletion. Its posts stay in MongoDB until
+     * the deletion job reaches them and must not be served in the meantime.
+     * Served entirely from memory.
+     *
+     * @param id The subreddit ID.
+     * @return {@code true} if the subreddit is awaiting deletion.
+     */
+    public boolean isTombstoned(String id) {
+        return id != null && snapshot.tombstoned.contains(id);
+    }
+
+    /**
+     * Tells whether a post belongs to a tombstoned subreddit and must be hidden.
+     *
+     * @param post The post, with its subreddit reference.
+     * @return {@code true} if the post must not be served.
+     */
+    public boolean hides(MongoPostDocument post) {
+        return post.getSubreddit() != null && isTombstoned(post.getSubreddit().getId());
+    }
+
+    /**
+     * Returns the IDs of all tombstoned subreddits, for filtering searches.
+     *
+     * @return An immutable set of subreddit IDs.
+     */
+    public Set<String> tombstonedIds() {
+        return snapshot.tombstoned;
+    }
+
+    /**
+     * Returns all subreddits whose name contains the given text, ignoring case.
+     * Served entirely from memory.
+     *
+     * @param text The text to look for.
+     * @return Matching entries.
+     */
+    public List<Entry> findByNameContainingIgnoreCase(String text) {
+        String needle = text.toLowerCase(Locale.ROOT);
+        List<Entry> matches = new ArrayList<>();
+        for (Map.Entry<String, Entry> candidate : snapshot.byLowerName.entrySet()) {
+            if (candidate.getKey().contains(needle)) {
+                matches.add(candidate.getValue());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Suggests subreddits whose name starts with the given prefix, ignoring case.
+     *
+     * @param prefix The typed prefix.
+     * @param limit  Maximum number of suggestions.
+     * @return Matching entries in lexicographic order of their lowercase names.
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return List.of();
+        }
+        return snapshot.trie.withPrefix(prefix.toLowerCase(Locale.ROOT), limit);
+    }
+
+    /**
+     * Returns the number of subreddits in the current snapshot.
+     *
+     * @return The directory size.
+     */
+    public int size() {
+        return snapshot.byName.size();
+    }
+
+    /**
+     * Reloads the directory from MongoDB and atomically publishes the new snapshot.
+     */
+    public void refresh() {
+        reloadLock.lock();
+        try {
+            Query query = new Query();
+            query.fields().include("name").include("deletedAt");
+
+            List<Entry> entries = new ArrayList<>();
+            Set<String> tombstoned = new HashSet<>();
+            for (Document doc : mongoTemplate.find(query, Document.class, SUBREDDITS_COLLECTION)) {
+                String id = doc.getObjectId("_id").toHexString();
+                String name = doc.getString("name");
+                if (doc.get("deletedAt") != null) {
+                    tombstoned.add(id);
+                } else if (name != null) {
+                    entries.add(new Entry(id, name));
+                }
+            }
+            snapshot = Snapshot.of(entries, tombstoned);
+            log.debug("📚 Subreddit directory refreshed ({} subreddits)", entries.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Polls for changes when no change stream is active.
+     */
+    @Scheduled(fixedDelayString = "${subreddit.directory.poll-interval-ms:30000}",
+            initialDelayString = "${subreddit.directory.poll-interval-ms:30000}")
+    public void poll() {
+        if (!changeStreamActive) {
+            refresh();
+        }
+    }
+
+    /**
+     * Follows the change stream on {@code subreddits}, applying each relevant event to the snapshot.
+     * Falls back to polling if change streams are unavailable (e.g., standalone server).
+     */
+    private void watch() {
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = mongoTemplate
+                .getCollection(SUBREDDITS_COLLECTION)
+                .watch(changeStreamPipeline())
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .cursor()) {
+            changeStream = cursor;
+            changeStreamActive = true;
+            log.info("📡 Subreddit directory following change stream");
+            // Catch up on anything that changed between the initial load and opening the stream
+            refresh();
+            while (cursor.hasNext()) {
+                apply(cursor.next());
+            }
+        } catch (RuntimeException e) {
+            if (watcher != null && !watcher.isInterrupted()) {
+                log.info("Subreddit change stream unavailable ({}); falling back to polling", e.getMessage());
+            }
+        } finally {
+            changeStreamActive = false;
+            changeStream = null;
+        }
+    }
+
+    /**
+     * Restricts the change stream to events that can change a subreddit's directory entry:
+     * inserts, replacements, deletions, and updates that set or remove {@code name} or
+     * {@code deletedAt}. Counter updates ({@code postCount}, {@code subscriberCount}) are dropped
+     * on the server.
+     */
+    private static List<Bson> changeStreamPipeline() {
+        List<String> fields = List.of("name", "deletedAt");
+        return List.of(
+                Aggregates.match(Filters.or(
+                        Filters.in("operationType", List.of("insert", "replace", "delete")),
+                        Filters.and(
+                                Filters.eq("operationType", "update"),
+                                Filters.or(
+                                        Filters.exists("updateDescription.updatedFields.name"),
+                                        Filters.exists("updateDescription.updatedFields.deletedAt"),
+                                        Filters.in("updateDescription.removedFields", fields))))),
+                Aggregates.project(Projections.include("operationType", "documentKey",
+                        "fullDocument.name", "fullDocument.deletedAt"))
+        );
+    }
+
+    /**
+     * Applies one change event: the subreddit's entry is replaced, or removed if the subreddit
+     * was deleted or tombstoned. A tombstoned subreddit is remembered until its document is gone.
+     */
+    private void apply(ChangeStreamDocument<Document> event) {
+        if (event.getDocumentKey() == null || !event.getDocumentKey().isObjectId("_id")) {
+            return;
+        }
+        String id = event.getDocumentKey().getObjectId("_id").getValue().toHexString();
+        Document doc = event.getFullDocument();
+        boolean tombstoned = doc != null && doc.get("deletedAt") != null;
+        Entry entry = doc != null && doc.get("deletedAt") == null && doc.getString("name") != null
+                ? new Entry(id, doc.getString("name"))
+                : null;
+
+        reloadLock.lock();
+        try {
+            snapshot = snapshot.with(id, entry, tombstoned);
+        } finally {
+            reloadLock.unlock();
+        }
+        log.debug("📚 Subreddit directory {} {}", entry != null ? "updated" : "removed", id);
+    }
+
+    /**
+     * Stops following the change stream.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = changeStream;
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Immutable view of the directory published as a single volatile reference.
+     */
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), new RadixTrie(), Set.of());
+
+        final Map<String, Entry> byId;
+        final Map<String, Entry> byName;
+        final Map<String, Entry> byLowerName;
+        final RadixTrie trie;
+        final Set<String> tombstoned;
+
+        private Snapshot(Map<String, Entry> byId, Map<String, Entry> byName,
+                         Map<String, Entry> byLowerName, RadixTrie trie, Set<String> tombstoned) {
+            this.byId = byId;
+            this.byName = byName;
+            this.byLowerName = byLowerName;
+            this.trie = trie;
+            this.tombstoned = tombstoned;
+        }
+
+        static Snapshot of(List<Entry> entries, Set<String> tombstoned) {
+            Map<String, Entry> byId = new HashMap<>();
+            Map<String, Entry> byName = new HashMap<>();
+            Map<String, Entry> byLowerName = new HashMap<>();
+            RadixTrie trie = new RadixTrie();
+            for (Entry entry : entries) {
+                String lower = entry.name().toLowerCase(Locale.ROOT);
+                byId.put(entry.id(), entry);
+                byName.put(entry.name(), entry);
+                byLowerName.putIfAbsent(lower, entry);
+                trie.insert(lower, entry);
+            }
+            return new Snapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName),
+                    Collections.unmodifiableMap(byLowerName), trie, Set.copyOf(tombstoned));
+        }
+
+        /**
+         * Returns a snapshot with one entry replaced, or removed when {@code entry} is null,
+         * and the subreddit's tombstone set or cleared.
+         */
+        Snapshot with(String id, Entry entry, boolean isTombstoned) {
+            Map<String, Entry> entries = new HashMap<>(byId);
+            if (entry == null) {
+                entries.remove(id);
+            } else {
+                entries.put(id, entry);
+            }
+            Set<String> tombstones = new HashSet<>(tombstoned);
+            if (isTombstoned) {
+                tombstones.add(id);
+            } else {
+                tombstones.remove(id);
+            }
+            return of(new ArrayList<>(entries.values()), tombstones);
+        }
+    }
+
+    /**
+     * Compressed (radix) prefix trie over lowercase subreddit names.
+     * Each edge carries a string label; chains of single-child nodes are merged into one edge.
+     * Built once per snapshot and read-only afterwards.
+     */
+    static final class RadixTrie {
+
+        private final Node root = new Node("");
+
+        private static final class Node {
+            String label;
+            final TreeMap<Character, Node> children = new TreeMap<>();
+            final List<Entry> entries = new ArrayList<>(1);
+
+            Node(String label) {
+                this.label = label;
+            }
+        }
+
+        void insert(String key, Entry entry) {
+            Node node = root;
+            int i = 0;
+            while (true) {
+                if (i == key.length()) {
+                    node.entries.add(entry);
+                    return;
+                }
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    Node leaf = new Node(key.substring(i));
+                    leaf.entries.add(entry);
+                    node.children.put(key.charAt(i), leaf);
+                    return;
+                }
+
+                int common = 0;
+                int max = Math.min(child.label.length(), key.length() - i);
+                while (common < max && child.label.charAt(common) == key.charAt(i + common)) {
+                    common++;
+                }
+
+                if (common < child.label.length()) {
+                    // Split the edge at the divergence point
+                    Node split = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    split.children.put(child.label.charAt(0), child);
+                    node.children.put(split.label.charAt(0), split);
+                    child = split;
+                }
+                node = child;
+                i += common;
+            }
+        }
+
+        List<Entry> withPrefix(String prefix, int limit) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.children.get(prefix.charAt(i));
+                if (child == null) {
+                    return List.of();
+                }
+                int remaining = prefix.length() - i;
+                if (child.label.length() >= remaining) {
+                    // The prefix ends inside (or at the end of) this edge
+                    if (!child.label.startsWith(prefix.substring(i))) {
+                        return List.of();
+                    }
+                    node = child;
+                    break;
+                }
+                if (!prefix.startsWith(child.label, i)) {
+                    return List.of();
+                }
+                node = child;
+                i += child.label.length();
+            }
+
+            List<Entry> results = new ArrayList<>(limit);
+            collect(node, results, limit);
+            return results;
+        }
+
+        private void collect(Node node, List<Entry> results, int limit) {
+            for (Entry entry : node.entries) {
+                if (results.size() >= limit) {
+                    return;
+                }
+                results.add(entry);
+            }
+            for (Node child : node.children.values()) {
+                if (results.size() >= limit) {
+                    return;
+                }
+                collect(child, results, limit);
+            }
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package com.example.forest.service;
 
 import com.example.forest.Exceptions.CustomException;
-import com.example.forest.document.MongoSubredditDocument;
 import com.example.forest.document.MongoUserDocument;
-import com.example.forest.repository.mongodb.MongoSubredditRepository;
-import com.example.forest.repository.mongodb.MongoUserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -17,8 +16,10 @@
  * Service responsible for handling subreddit subscriptions (follow/unfollow actions)
  * for authenticated users in the Forest application.
  *
- * <p>Subscriptions are managed via the user’s {@code interests} field,
- * which stores subreddit names representing joined communities.</p>
+ * <p>Subscriptions are stored in the {@code subscriptions} collection, one document per
+ * (subreddit, user), through {@link SubscriptionStore}. The user’s {@code interests} field,
+ * which stores subreddit names representing joined communities, is kept in sync for
+ * compatibility. Each change also adjusts the subreddit's {@code subscriberCount}.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -26,9 +27,9 @@
 @Slf4j
 public class SubscriptionService {
 
-    private final MongoSubredditRepository subredditRepository;
-    private final MongoUserRepository userRepository;
     private final AuthService authService;
+    private final SubredditDirectory subredditDirectory;
+    private final SubscriptionStore subscriptionStore;
 
     /**
      * Subscribes the current authenticated user to a given subreddit.
@@ -46,26 +47,15 @@ public void subscribe(String subredditName) {
         }
 
         // Find subreddit (case-insensitive)
-        MongoSubredditDocument subreddit = subredditRepository.findByNameIgnoreCase(subredditName)
+        SubredditDirectory.Entry subreddit = subredditDirectory.findByNameIgnoreCase(subredditName)
                 .orElseThrow(() -> new CustomException("Subreddit with name '" + subredditName + "' not found."));
 
-        Set<String> interests = user.getInterests();
-        if (interests == null) {
-            throw new CustomException("User interests not initialized. Please try again later.");
-        }
-
-        boolean alreadySubscribed = interests.stream()
-                .anyMatch(interest -> interest.equalsIgnoreCase(subreddit.getName()));
-
-        if (alreadySubscribed) {
-            log.info("⚠️ User '{}' already subscribed to '{}'.", user.getUsername(), subreddit.getName());
+        if (!subscriptionStore.add(user.getId(), subreddit, true)) {
+            log.info("⚠️ User '{}' already subscribed to '{}'.", user.getUsername(), subreddit.name());
             return;
         }
 
-        interests.add(subreddit.getName());
-        userRepository.save(user);
-
-        log.info("✅ User '{}' subscribed to subreddit '{}'.", user.getUsername(), subreddit.getName());
+        log.info("✅ User '{}' subscribed to subreddit '{}'.", user.getUsername(), subreddit.name());
     }
 
     /**
@@ -83,19 +73,22 @@ public void unsubscribe(String subredditName) {
             throw new CustomException("User not authenticated. Please log in to unsubscribe.");
         }
 
-        Set<String> interests = user.getInterests();
-        if (interests == null || interests.isEmpty()) {
-            log.info("⚠️ User '{}' has no subscriptions to remove.", user.getUsername());
+        Optional<SubredditDirectory.Entry> subreddit = subredditDirectory.findByNameIgnoreCase(subredditName);
+        if (subreddit.isEmpty()) {
+            log.warn("⚠️ User '{}' attempted to unsubscribe from unknown subreddit '{}'.", user.getUsername(), subredditName);
             return;
         }
 
-        Optional<String> interestToRemove = interests.stream()
-                .filter(interest -> interest.equalsIgnoreCase(subredditName))
-                .findFirst();
+        // Remove every casing of the name the user may have stored as an interest
+        Set<String> interestsToRemove = new LinkedHashSet<>();
+        interestsToRemove.add(subreddit.get().name());
+        if (user.getInterests() != null) {
+            user.getInterests().stream()
+                    .filter(interest -> interest.equalsIgnoreCase(subredditName))
+                    .forEach(interestsToRemove::add);
+        }
 
-        if (interestToRemove.isPresent()) {
-            interests.remove(interestToRemove.get());
-            userRepository.save(user);
+        if (subscriptionStore.remove(user.getId(), subreddit.get(), interestsToRemove)) {
             log.info("🗑️ User '{}' unsubscribed from '{}'.", user.getUsername(), subredditName);
         } else {
             log.warn("⚠️ User '{}' attempted to unsubscribe from '{}' but was not subscribed.", user.getUsername(), subredditName);
@@ -103,7 +96,7 @@ public void unsubscribe(String subredditName) {
     }
 
     /**
-     * Retrieves all subreddit subscriptions (user interests) for the current user.
+     * Retrieves all subreddit subscriptions for the current user.
      *
      * @return A {@link Set} of subreddit names.
      */
@@ -114,13 +107,13 @@ public Set<String> getSubscriptions() {
             throw new CustomException("User not authenticated. Please log in to view subscriptions.");
         }
 
-        Set<String> interests = user.getInterests();
-        if (interests == null || interests.isEmpty()) {
+        List<String> names = subscriptionStore.subredditNamesFor(user.getId());
+        if (names.isEmpty()) {
             log.info("ℹ️ User '{}' has no active subreddit subscriptions.", user.getUsername());
             return Set.of();
         }
 
-        log.info("📬 Retrieved {} subscriptions for user '{}'.", interests.size(), user.getUsername());
-        return interests;
+        log.info("📬 Retrieved {} subscriptions for user '{}'.", names.size(), user.getUsername());
+        return new LinkedHashSet<>(names);
     }
 }
@@ -0,0 +1,161 @@
+package com.example.forest.service;
+
+import com.example.forest.document.MongoSubredditDocument;
+import com.example.forest.document.MongoUserDocument;
+import com.example.forest.document.SubscriptionDocument;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SubscriptionStore.java
+ *
+ * Low-level access to the {@code subscriptions} collection.
+ * <p>
+ * Every change is a small atomic write: an upsert or delete on the (subreddit, user) key,
+ * followed by {@code $addToSet}/{@code $pull} on the user's {@code interests} and {@code $inc}
+ * on the subreddit's {@code subscriberCount}, applied only when the subscription actually changed.
+ * Depends on nothing but MongoDB and the {@link SubredditDirectory}, so both
+ * {@link SubscriptionService} and {@link AuthService} can use it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SubscriptionStore {
+
+    private final MongoTemplate mongoTemplate;
+    private final SubredditDirectory subredditDirectory;
+
+    /**
+     * Subscribes a user to a subreddit.
+     *
+     * @param userId      The subscribing user's ID.
+     * @param subreddit   The subreddit to subscribe to.
+     * @param addInterest Whether to add the subreddit name to the user's {@code interests}.
+     * @return {@code true} if a new subscription was created, {@code false} if it already existed.
+     */
+    public boolean add(String userId, SubredditDirectory.Entry subreddit, boolean addInterest) {
+        UpdateResult result = mongoTemplate.upsert(key(subreddit.id(), userId),
+                new Update()
+                        .setOnInsert("subredditName", subreddit.name())
+                        .setOnInsert("createdAt", Instant.now()),
+                SubscriptionDocument.class);
+        if (result.getUpsertedId() == null) {
+            return false;
+        }
+
+        if (addInterest) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                    new Update().addToSet("interests", subreddit.name()), MongoUserDocument.class);
+        }
+        adjustSubscriberCount(subreddit.id(), 1);
+        return true;
+    }
+
+    /**
+     * Unsubscribes a user from a subreddit.
+     *
+     * @param userId          The user's ID.
+     * @param subreddit       The subreddit to unsubscribe from.
+     * @param removeInterests Interest values to {@code $pull} from the user (e.g. the name as the user typed it).
+     * @return {@code true} if a subscription was removed.
+     */
+    public boolean remove(String userId, SubredditDirectory.Entry subreddit, Collection<String> removeInterests) {
+        long removed = mongoTemplate.remove(key(subreddit.id(), userId), SubscriptionDocument.class).getDeletedCount();
+        if (!removeInterests.isEmpty()) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)),
+                    new Update().pullAll("interests", removeInterests.toArray()), MongoUserDocument.class);
+        }
+        if (removed == 0) {
+            return false;
+        }
+        adjustSubscriberCount(subreddit.id(), -1);
+        return true;
+    }
+
+    /**
+     * Returns the names of all subreddits a user is subscribed to (indexed by {@code user_subreddit}).
+     *
+     * @param userId The user's ID.
+     * @return Subreddit names.
+     */
+    public List<String> subredditNamesFor(String userId) {
+        return subscriptionsFor(userId).stream().map(SubscriptionDocument::getSubredditName).toList();
+    }
+
+    /**
+     * Returns the IDs of all subreddits a user is subscribed to (indexed by {@code user_subreddit}).
+     *
+     * @param userId The user's ID.
+     * @return Subreddit IDs.
+     */
+    public List<String> subredditIdsFor(String userId) {
+        return subscriptionsFor(userId).stream().map(SubscriptionDocument::getSubredditId).toList();
+    }
+
+    /**
+     * Makes the user's subscriptions match the subreddits named in an interest set
+     * (case-insensitive). Interests that are not subreddit names are ignored, and the
+     * interests themselves are left untouched.
+     *
+     * @param userId    The user's ID.
+     * @param interests The user's interest set.
+     */
+    public void syncWithInterests(String userId, Set<String> interests) {
+        Map<String, SubredditDirectory.Entry> wanted = new HashMap<>();
+        if (interests != null) {
+            for (String interest : interests) {
+                subredditDirectory.findByNameIgnoreCase(interest)
+                        .ifPresent(entry -> wanted.put(entry.id(), entry));
+            }
+        }
+
+        Set<String> current = new HashSet<>(subredditIdsFor(userId));
+        for (SubredditDirectory.Entry entry : wanted.values()) {
+            if (!current.contains(entry.id())) {
+                add(userId, entry, false);
+            }
+        }
+        for (String subredditId : current) {
+            if (!wanted.containsKey(subredditId)) {
+                remove(userId, new SubredditDirectory.Entry(subredditId, null), List.of());
+            }
+        }
+    }
+
+    private List<SubscriptionDocument> subscriptionsFor(String userId) {
+        Query query = new Query(Criteria.where("userId").is(userId)).with(Sort.by(Sort.Direction.ASC, "subredditId"));
+        query.fields().include("subredditId").include("subredditName");
+        return mongoTemplate.find(query, SubscriptionDocument.class);
+    }
+
+    /**
+     * Applies {@code $inc} to a subreddit's subscriber counter; decrements never take it below zero.
+     */
+    private void adjustSubscriberCount(String subredditId, long delta) {
+        Criteria criteria = Criteria.where("_id").is(subredditId);
+        if (delta < 0) {
+            criteria = criteria.and("subscriberCount").gte(-delta);
+        }
+        mongoTemplate.updateFirst(new Query(criteria), new Update().inc("subscriberCount", delta),
+                MongoSubredditDocument.class);
+    }
+
+    private static Query key(String subredditId, String userId) {
+        return new Query(Criteria.where("subredditId").is(subredditId).and("userId").is(userId));
+    }
+}
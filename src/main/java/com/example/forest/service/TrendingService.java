@@ -1,57 +1,100 @@
 package com.example.forest.service;
 
-import com.example.forest.document.MongoPostDocument;
 import com.example.forest.dto.PostResponse;
-import com.example.forest.mapper.MongoPostMapper;
 import com.example.forest.repository.mongodb.MongoPostRepository;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * Service for retrieving trending posts within a recent time window.
  * <p>
  * Current strategy:
- * - Consider posts created in the last 24 hours
- * - Sort by voteCount in descending order
+ * - Consider posts created in the last 24 hours, plus older posts that are collecting votes right now
+ * - Sort by vote momentum (see {@link VoteVelocityTracker#momentum(String)}), then by voteCount, descending
  * - Map to DTOs for API consumption
+ * <p>
+ * Momentum comes from in-memory counters, so ranking never queries the votes collection. Candidates
+ * are ranked from their IDs and vote counts only; both the list and the streamed endpoint then load
+ * the ranked posts through {@link PostStreamer}.
  */
 @Service
 @AllArgsConstructor
 public class TrendingService {
 
     private final MongoPostRepository postRepository; // kept for potential future use
-    private final MongoPostMapper postMapper;
+    private final VoteVelocityTracker velocityTracker;
     private final MongoTemplate mongoTemplate;
+    private final PostStreamer postStreamer;
+
+    /** Number of highest-momentum posts considered regardless of age. */
+    private static final int MOMENTUM_CANDIDATES = 50;
 
     /**
-     * Returns posts created within the last 24 hours, ordered by vote count (highest first).
+     * Returns recent and currently spiking posts, ordered by vote momentum and then vote count.
      *
      * @return list of trending posts as {@link PostResponse}
      */
     public List<PostResponse> getTrendingPosts() {
-        // Calculate the cutoff timestamp (now - 24 hours)
-        Instant twentyFourHoursAgo = Instant.now().minus(24, ChronoUnit.HOURS);
+        return postStreamer.listByIds(rankTrendingIds());
+    }
+
+    /**
+     * Streams the same ranking as {@link #getTrendingPosts()} in chunks.
+     *
+     * @return trending posts, best first
+     */
+    public Flux<PostResponse> streamTrendingPosts() {
+        return postStreamer.streamByIds(rankTrendingIds());
+    }
 
-        // Find posts with createdDate >= cutoff
-        Query query = new Query()
-                .addCriteria(Criteria.where("createdDate").gte(twentyFourHoursAgo))
-                // Sort by voteCount descending to surface the most upvoted content first
-                .with(Sort.by(Sort.Direction.DESC, "voteCount"));
+    /**
+     * Ranks the trending candidates by momentum, then by total votes, reading only their IDs
+     * and vote counts.
+     *
+     * @return post IDs, best first
+     */
+    private List<String> rankTrendingIds() {
+        // Posts created in the last 24 hours
+        Query recent = new Query(Criteria.where("createdDate").gte(Instant.now().minus(24, ChronoUnit.HOURS)));
+        recent.fields().include("_id").include("voteCount");
 
-        // Execute query and map domain objects to DTOs
-        List<MongoPostDocument> trendingPosts = mongoTemplate.find(query, MongoPostDocument.class);
+        Map<String, Integer> voteCounts = new HashMap<>();
+        mongoTemplate.find(recent, Document.class, "posts").forEach(post -> putVoteCount(voteCounts, post));
+
+        // Plus older posts with the most momentum right now
+        List<String> spiking = velocityTracker.topByMomentum(MOMENTUM_CANDIDATES).stream()
+                .filter(id -> !voteCounts.containsKey(id) && ObjectId.isValid(id))
+                .toList();
+        if (!spiking.isEmpty()) {
+            Query older = new Query(Criteria.where("_id").in(spiking.stream().map(ObjectId::new).toList()));
+            older.fields().include("_id").include("voteCount");
+            mongoTemplate.find(older, Document.class, "posts").forEach(post -> putVoteCount(voteCounts, post));
+        }
+
+        // Rank by momentum, then by total votes
+        Map<String, Integer> momentum = new HashMap<>();
+        voteCounts.keySet().forEach(id -> momentum.put(id, velocityTracker.momentum(id)));
+        return voteCounts.keySet().stream()
+                .sorted(Comparator.comparing((String id) -> momentum.get(id)).reversed()
+                        .thenComparing(voteCounts::get, Comparator.reverseOrder()))
+                .toList();
+    }
 
-        return trendingPosts.stream()
-                .map(postMapper::mapToDto)
-                .collect(Collectors.toList());
+    private static void putVoteCount(Map<String, Integer> voteCounts, Document post) {
+        Number votes = post.get("voteCount", Number.class);
+        voteCounts.put(post.getObjectId("_id").toHexString(), votes != null ? votes.intValue() : 0);
     }
 }
@@ -9,6 +9,10 @@
 import com.example.forest.repository.mongodb.MongoSubredditRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -31,6 +35,11 @@ public class UserService {
     private final MongoPostRepository postRepository;
     private final MongoSubredditRepository subredditRepository;
     private final MongoPostMapper postMapper;
+    private final VoteStateService voteStateService;
+    private final MongoTemplate mongoTemplate;
+
+    /** Longest accepted comment-notification digest window (one day). */
+    private static final int MAX_NOTIFICATION_WINDOW_MINUTES = 24 * 60;
 
     /**
      * Retrieves a personalized feed for the currently authenticated user.
@@ -60,6 +69,7 @@ public List<PostResponse> getMyFeed() {
             log.debug("User '{}' has {} interests: {}", currentUser.getUsername(), interests.size(), interests);
             interestPosts = subredditRepository.findAllByNameIn(new ArrayList<>(interests))
                     .stream()
+                    .filter(subreddit -> subreddit.getDeletedAt() == null)
                     .peek(subreddit -> log.debug("Fetching posts for subreddit '{}'.", subreddit.getName()))
                     .flatMap(subreddit -> postRepository.findAllBySubreddit(subreddit).stream())
                     .collect(Collectors.toList());
@@ -69,12 +79,40 @@ public List<PostResponse> getMyFeed() {
         }
 
         // ✅ Merge, deduplicate, and map to DTOs
-        List<PostResponse> feed = Stream.concat(userPosts.stream(), interestPosts.stream())
+        List<PostResponse> feed = postMapper.mapToDtos(Stream.concat(userPosts.stream(), interestPosts.stream())
                 .distinct()
-                .map(postMapper::mapToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
 
         log.info("✅ Final feed size for user '{}': {}", currentUser.getUsername(), feed.size());
-        return feed;
+        return voteStateService.applyTo(feed);
+    }
+
+    /**
+     * Updates how long comment notifications are collected into one digest email
+     * for the currently authenticated user.
+     *
+     * @param minutes window length in minutes (0 sends on the next flush), or {@code null} to use the default
+     * @return the stored window length
+     */
+    public Integer updateNotificationWindow(Integer minutes) {
+        MongoUserDocument currentUser = authService.getCurrentUser();
+
+        if (currentUser == null) {
+            throw new CustomException("User not authenticated. Please log in to update notification settings.");
+        }
+        if (minutes != null && (minutes < 0 || minutes > MAX_NOTIFICATION_WINDOW_MINUTES)) {
+            throw new CustomException("Notification window must be between 0 and "
+                    + MAX_NOTIFICATION_WINDOW_MINUTES + " minutes.");
+        }
+
+        // Set only this field, so a concurrent profile or interest change is not overwritten
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(currentUser.getId())),
+                new Update().set("notificationWindowMinutes", minutes),
+                MongoUserDocument.class
+        );
+
+        log.info("🔔 User '{}' set notification digest window to {} minutes.", currentUser.getUsername(), minutes);
+        return minutes;
     }
 }
@@ -0,0 +1,75 @@
+package com.example.forest.service;
+
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * UsernameLookup.java
+ *
+ * Resolves the usernames behind the {@code user} DBRefs of raw documents (comments, posts,
+ * subreddits) with a single {@code $in} query, instead of one DBRef resolution per document.
+ */
+@Component
+@RequiredArgsConstructor
+public class UsernameLookup {
+
+    private static final String USERS_COLLECTION = "users";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Looks up the usernames of the authors referenced by the documents' {@code user} field.
+     *
+     * @param docs Raw documents holding a {@code user} DBRef.
+     * @return Usernames keyed by user {@code _id}.
+     */
+    public Map<Object, String> forAuthors(Collection<Document> docs) {
+        Set<Object> userIds = new HashSet<>();
+        for (Document doc : docs) {
+            Object id = authorId(doc);
+            if (id != null) {
+                userIds.add(id);
+            }
+        }
+        return byIds(userIds);
+    }
+
+    /**
+     * Looks up the usernames of the given user IDs.
+     *
+     * @param userIds User {@code _id} values.
+     * @return Usernames keyed by user {@code _id}.
+     */
+    public Map<Object, String> byIds(Collection<Object> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Query query = new Query(Criteria.where("_id").in(userIds));
+        query.fields().include("username");
+
+        Map<Object, String> names = new HashMap<>();
+        for (Document user : mongoTemplate.find(query, Document.class, USERS_COLLECTION)) {
+            names.put(user.get("_id"), user.getString("username"));
+        }
+        return names;
+    }
+
+    /**
+     * Returns the user {@code _id} referenced by a raw document, or {@code null}.
+     */
+    public static Object authorId(Document doc) {
+        DBRef user = doc != null ? doc.get("user", DBRef.class) : null;
+        return user != null ? user.getId() : null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.forest.service;
+
+import com.example.forest.model.VideoMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * VideoMetadataCache.java
+ *
+ * Bounded, least-recently-used cache of {@link VideoMetadata} keyed by GridFS file ID.
+ * <p>
+ * Video playback issues many small range requests for the same file; caching the
+ * {@code fs.files} metadata lets each segment fetch go straight to {@code fs.chunks}.
+ * Entries are evicted when the cache exceeds its capacity or when a video is deleted.
+ */
+@Component
+@Slf4j
+public class VideoMetadataCache {
+
+    private final int maxEntries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, VideoMetadata> entries;
+
+    /**
+     * Creates the cache with a configurable upper bound on entries.
+     *
+     * @param maxEntries maximum number of video metadata entries to retain.
+     */
+    public VideoMetadataCache(@Value("${video.metadata-cache.max-entries:1000}") int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VideoMetadata> eldest) {
+                return size() > VideoMetadataCache.this.maxEntries;
+            }
+        };
+        log.info("🎞️ Video metadata cache initialized (max entries: {})", this.maxEntries);
+    }
+
+    /**
+     * Returns the cached metadata for a video, or {@code null} if not cached.
+     *
+     * @param id the GridFS file ID.
+     * @return the cached {@link VideoMetadata}, or {@code null}.
+     */
+    public VideoMetadata get(String id) {
+        lock.lock();
+        try {
+            return entries.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores metadata for a video, evicting the least recently used entry if full.
+     *
+     * @param metadata the metadata to cache.
+     */
+    public void put(VideoMetadata metadata) {
+        lock.lock();
+        try {
+            entries.put(metadata.getId(), metadata);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a video's metadata from the cache (e.g., after deletion).
+     *
+     * @param id the GridFS file ID.
+     */
+    public void evict(String id) {
+        lock.lock();
+        try {
+            entries.remove(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current number of cached entries.
+     *
+     * @return the cache size.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,37 +1,62 @@
 package com.example.forest.service;
 
 import com.example.forest.dto.VideoResponse;
+import com.example.forest.model.VideoMetadata;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
 import com.mongodb.client.gridfs.model.GridFSFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Binary;
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.mongodb.gridfs.GridFsOperations;
 import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
 
 /**
  * Service responsible for managing video uploads, retrieval, and streaming
  * using MongoDB GridFS.
+ *
+ * <p>File metadata is kept in a bounded {@link VideoMetadataCache} so that
+ * metadata lookups and byte-range reads only touch {@code fs.files} once per video.</p>
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class VideoService {
 
+    /** Default GridFS bucket collections. */
+    private static final String FILES_COLLECTION = "fs.files";
+    private static final String CHUNKS_COLLECTION = "fs.chunks";
+
     private final GridFsTemplate gridFsTemplate;
     private final GridFsOperations gridFsOperations;
+    private final MongoTemplate mongoTemplate;
+    private final VideoMetadataCache metadataCache;
 
     /**
      * Uploads a new video file to MongoDB GridFS and returns its generated ID.
+     * A SHA-256 digest of the content is computed while streaming and stored in the file metadata.
      *
      * @param title The video title
      * @param file  The video file as a MultipartFile
@@ -49,11 +74,29 @@ public String addVideo(String title, MultipartFile file) throws IOException {
         metaData.put("type", "video");
         metaData.put("title", title != null ? title : "Untitled");
 
-        ObjectId id = gridFsTemplate.store(
-                file.getInputStream(),
-                file.getOriginalFilename(), // preserve original name
-                file.getContentType(),
-                metaData
+        // Uploads are public; remember the uploader when the request carried a token
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            metaData.put("uploadedBy", authentication.getName());
+        }
+
+        MessageDigest digest = sha256();
+        ObjectId id;
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            id = gridFsTemplate.store(
+                    in,
+                    file.getOriginalFilename(), // preserve original name
+                    file.getContentType(),
+                    metaData
+            );
+        }
+
+        // Record the content hash once the stream has been fully consumed
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(id)),
+                Update.update("metadata.sha256", HexFormat.of().formatHex(digest.digest())),
+                FILES_COLLECTION
         );
 
         log.info("✅ Video uploaded successfully. ID: {}", id.toString());
@@ -67,29 +110,117 @@ public String addVideo(String title, MultipartFile file) throws IOException {
      * @return {@link VideoResponse} containing metadata and URL, or null if not found
      */
     public VideoResponse getVideo(String id) {
-        if (id == null || id.isBlank()) {
-            log.warn("Attempted to fetch video with null/empty ID.");
+        VideoMetadata metadata = getMetadata(id);
+
+        if (metadata == null) {
+            return null;
+        }
+
+        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/videos/stream/")
+                .path(id)
+                .toUriString();
+
+        log.info("🎬 Video fetched: '{}' (ID: {})", metadata.getTitle(), id);
+        return new VideoResponse(id, metadata.getTitle(), url);
+    }
+
+    /**
+     * Retrieves cached metadata for a video, loading it from {@code fs.files} on a cache miss.
+     *
+     * @param id The video file’s MongoDB ObjectId
+     * @return The {@link VideoMetadata}, or null if the ID is invalid or no such file exists
+     */
+    public VideoMetadata getMetadata(String id) {
+        if (id == null || id.isBlank() || !ObjectId.isValid(id)) {
+            log.warn("Attempted to fetch video with invalid ID: {}", id);
             return null;
         }
 
-        GridFSFile file = gridFsTemplate.findOne(new Query(Criteria.where("_id").is(id)));
+        VideoMetadata cached = metadataCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
 
+        GridFSFile file = getFile(id);
         if (file == null) {
             log.warn("No video found for ID: {}", id);
             return null;
         }
 
-        String title = file.getMetadata() != null && file.getMetadata().get("title") != null
-                ? file.getMetadata().get("title").toString()
-                : "Untitled";
+        VideoMetadata metadata = toMetadata(id, file);
+        metadataCache.put(metadata);
+        return metadata;
+    }
 
-        String url = ServletUriComponentsBuilder.fromCurrentContextPath()
-                .path("/api/v1/videos/stream/")
-                .path(id)
-                .toUriString();
+    /**
+     * Reads an inclusive byte range of a video directly from {@code fs.chunks}.
+     * <p>
+     * Chunk indices are derived from the cached chunk size, so only the chunks
+     * overlapping the requested range are fetched, in a single indexed query.
+     *
+     * @param metadata The cached metadata of the video
+     * @param start    First byte offset (inclusive)
+     * @param end      Last byte offset (inclusive)
+     * @return The requested bytes
+     */
+    public byte[] readRange(VideoMetadata metadata, long start, long end) {
+        if (start < 0 || end < start || end >= metadata.getLength()) {
+            throw new IllegalArgumentException("Invalid byte range " + start + "-" + end
+                    + " for video of length " + metadata.getLength());
+        }
 
-        log.info("🎬 Video fetched: '{}' (ID: {})", title, id);
-        return new VideoResponse(id, title, url);
+        int chunkSize = metadata.getChunkSize();
+        int firstChunk = (int) (start / chunkSize);
+        int lastChunk = (int) (end / chunkSize);
+
+        Query query = new Query(Criteria.where("files_id").is(new ObjectId(metadata.getId()))
+                .and("n").gte(firstChunk).lte(lastChunk))
+                .with(Sort.by(Sort.Direction.ASC, "n"));
+        query.fields().include("n").include("data");
+
+        List<Document> chunks = mongoTemplate.find(query, Document.class, CHUNKS_COLLECTION);
+
+        byte[] out = new byte[(int) (end - start + 1)];
+        for (Document chunk : chunks) {
+            long chunkStart = (long) chunk.getInteger("n") * chunkSize;
+            byte[] data = chunk.get("data", Binary.class).getData();
+
+            // Copy the overlap between this chunk and the requested range
+            long from = Math.max(start, chunkStart);
+            long to = Math.min(end, chunkStart + data.length - 1);
+            if (from <= to) {
+                System.arraycopy(data, (int) (from - chunkStart), out, (int) (from - start), (int) (to - from + 1));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Checks whether a user uploaded the given video. Used by the delete endpoint's access check.
+     *
+     * @param id       The video file’s MongoDB ObjectId
+     * @param username The authenticated user's name
+     * @return true if the video exists and was uploaded by that user
+     */
+    public boolean isUploader(String id, String username) {
+        VideoMetadata metadata = getMetadata(id);
+        return metadata != null && username != null && username.equals(metadata.getUploadedBy());
+    }
+
+    /**
+     * Deletes a video from GridFS and evicts its cached metadata.
+     *
+     * @param id The video file’s MongoDB ObjectId
+     */
+    public void deleteVideo(String id) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Video ID cannot be null or empty.");
+        }
+
+        gridFsTemplate.delete(new Query(Criteria.where("_id").is(id)));
+        metadataCache.evict(id);
+        log.info("🗑️ Video deleted (ID: {})", id);
     }
 
     /**
@@ -119,4 +250,33 @@ public GridFsResource getResource(GridFSFile file) {
         }
         return gridFsOperations.getResource(file);
     }
+
+    /**
+     * Builds a {@link VideoMetadata} snapshot from a GridFS file entry.
+     */
+    private VideoMetadata toMetadata(String id, GridFSFile file) {
+        Document meta = file.getMetadata();
+
+        String title = meta != null && meta.get("title") != null
+                ? meta.get("title").toString()
+                : "Untitled";
+        String contentType = meta != null && meta.get("_contentType") != null
+                ? meta.get("_contentType").toString()
+                : "application/octet-stream";
+        String hash = meta != null ? meta.getString("sha256") : null;
+        String uploadedBy = meta != null ? meta.getString("uploadedBy") : null;
+
+        return new VideoMetadata(id, file.getLength(), contentType, title, file.getChunkSize(), hash, uploadedBy);
+    }
+
+    /**
+     * Creates a SHA-256 digest instance.
+     */
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -0,0 +1,269 @@
+package com.example.forest.service;
+
+import com.example.forest.dto.PostResponse;
+import com.example.forest.model.VoteType;
+import com.mongodb.DBRef;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * VoteStateService.java
+ *
+ * Fills in {@link PostResponse#isUpVote()} / {@link PostResponse#isDownVote()} for the
+ * authenticated user.
+ * <p>
+ * A listing costs at most one extra query: the user's votes on every post of the page,
+ * read with a single {@code {user, post: {$in: ...}}} query over the {@code user_post} index.
+ * Each node also keeps a bounded LRU of recently active users holding their user ID and the
+ * vote state already known per post (including "no vote"), so repeated listings often need no
+ * query at all. {@link MongoVoteService} records every vote it applies, keeping this node's
+ * entries coherent; entries expire after {@code votes.state-cache.ttl} so votes cast through
+ * other nodes are picked up.
+ */
+@Service
+@Slf4j
+public class VoteStateService {
+
+    private static final String VOTES_COLLECTION = "votes";
+    private static final String USERS_COLLECTION = "users";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean cacheVotes;
+    private final int maxPostsPerUser;
+    private final long ttlMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, UserVotes> users;
+
+    /**
+     * Cached state of one user: their ID and the known vote per post ID ({@code null} = no vote).
+     */
+    private static final class UserVotes {
+        final ObjectId userId;
+        final long expiresAt;
+        final LinkedHashMap<String, VoteType> known;
+        long version;
+
+        UserVotes(ObjectId userId, long expiresAt, int maxPosts) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+            this.known = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, VoteType> eldest) {
+                    return size() > maxPosts;
+                }
+            };
+        }
+    }
+
+    public VoteStateService(MongoTemplate mongoTemplate,
+                            @Value("${votes.state-cache.enabled:true}") boolean cacheVotes,
+                            @Value("${votes.state-cache.max-users:10000}") int maxUsers,
+                            @Value("${votes.state-cache.max-posts-per-user:1000}") int maxPostsPerUser,
+                            @Value("${votes.state-cache.ttl:PT5M}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheVotes = cacheVotes;
+        this.maxPostsPerUser = Math.max(1, maxPostsPerUser);
+        this.ttlMillis = ttl.toMillis();
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserVotes> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Sets the vote flags of a single post for the authenticated user.
+     *
+     * @param post The post response to complete.
+     * @return The same post response.
+     */
+    public PostResponse applyTo(PostResponse post) {
+        applyTo(List.of(post));
+        return post;
+    }
+
+    /**
+     * Sets the vote flags of a page of posts for the authenticated user.
+     * Anonymous requests leave both flags {@code false}.
+     *
+     * @param posts The post responses to complete.
+     * @return The same list.
+     */
+    public List<PostResponse> applyTo(List<PostResponse> posts) {
+        return applyTo(posts, currentUsername());
+    }
+
+    /**
+     * Sets the vote flags of a page of posts for the given user, for callers that run outside
+     * the request thread and captured the user beforehand.
+     *
+     * @param posts    The post responses to complete.
+     * @param username The user, or {@code null} for an anonymous request.
+     * @return The same list.
+     */
+    public List<PostResponse> applyTo(List<PostResponse> posts, String username) {
+        if (posts.isEmpty()) {
+            return posts;
+        }
+        UserVotes entry = username != null ? userVotes(username) : null;
+        if (entry == null) {
+            return posts;
+        }
+
+        Map<String, VoteType> states = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        long version;
+        lock.lock();
+        try {
+            version = entry.version;
+            for (PostResponse post : posts) {
+                if (cacheVotes && entry.known.containsKey(post.getId())) {
+                    states.put(post.getId(), entry.known.get(post.getId()));
+                } else {
+                    missing.add(post.getId());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, VoteType> loaded = loadVotes(entry.userId, missing);
+            states.putAll(loaded);
+            if (cacheVotes) {
+                lock.lock();
+                try {
+                    // Skip caching if a vote was recorded meanwhile; the loaded state may predate it
+                    if (entry.version == version) {
+                        missing.forEach(postId -> entry.known.put(postId, loaded.get(postId)));
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        for (PostResponse post : posts) {
+            VoteType vote = states.get(post.getId());
+            post.setUpVote(vote == VoteType.UPVOTE);
+            post.setDownVote(vote == VoteType.DOWNVOTE);
+        }
+        return posts;
+    }
+
+    /**
+     * Records the outcome of a vote so this node's cached state stays coherent.
+     *
+     * @param username The voter.
+     * @param postId   The post voted on.
+     * @param vote     The user's vote after the change, or {@code null} if it was withdrawn.
+     */
+    public void recordVote(String username, String postId, VoteType vote) {
+        lock.lock();
+        try {
+            UserVotes entry = users.get(username);
+            if (entry != null) {
+                entry.version++;
+                if (cacheVotes) {
+                    entry.known.put(postId, vote);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the cache entry for a user, resolving their ID once per TTL.
+     */
+    private UserVotes userVotes(String username) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            UserVotes entry = users.get(username);
+            if (entry != null && entry.expiresAt > now) {
+                return entry;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        Query query = new Query(Criteria.where("username").is(username));
+        query.fields().include("_id");
+        Document user = mongoTemplate.findOne(query, Document.class, USERS_COLLECTION);
+        if (user == null || user.getObjectId("_id") == null) {
+            return null;
+        }
+
+        UserVotes entry = new UserVotes(user.getObjectId("_id"), now + ttlMillis, maxPostsPerUser);
+        lock.lock();
+        try {
+            users.put(username, entry);
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    /**
+     * Reads the user's votes on the given posts in one query. If duplicate votes exist,
+     * the most recent one wins, matching {@link MongoVoteService}.
+     */
+    private Map<String, VoteType> loadVotes(ObjectId userId, List<String> postIds) {
+        List<DBRef> postRefs = new ArrayList<>(postIds.size());
+        for (String postId : postIds) {
+            if (ObjectId.isValid(postId)) {
+                postRefs.add(new DBRef("posts", new ObjectId(postId)));
+            }
+        }
+        if (postRefs.isEmpty()) {
+            return Map.of();
+        }
+
+        Query query = new Query(Criteria.where("user").is(new DBRef(USERS_COLLECTION, userId)).and("post").in(postRefs))
+                .with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.fields().include("post").include("voteType");
+
+        Map<String, VoteType> votes = new HashMap<>();
+        for (Document vote : mongoTemplate.find(query, Document.class, VOTES_COLLECTION)) {
+            DBRef post = vote.get("post", DBRef.class);
+            String type = vote.getString("voteType");
+            if (post != null && type != null) {
+                votes.put(post.getId().toString(), VoteType.valueOf(type));
+            }
+        }
+        return votes;
+    }
+
+    /**
+     * Returns the authenticated user of the current thread, or {@code null} if anonymous.
+     */
+    static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.forest.service;
+
+import com.mongodb.DBRef;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * VoteVelocityTracker.java
+ *
+ * In-memory, per-node record of how fast each post is collecting votes.
+ * <p>
+ * Each tracked post owns a ring of 60 one-minute buckets in an {@link AtomicLongArray}. A bucket
+ * packs the minute it belongs to (high 32 bits) with the net vote delta of that minute (low 32
+ * bits), so recording a vote is a single compare-and-set that also recycles a stale bucket, and
+ * reads simply ignore buckets from other minutes. No locks are taken on the vote path.
+ * <p>
+ * At most {@code trending.velocity.max-posts} posts are tracked. When the cap is reached, the
+ * least recently voted tenth is evicted by whichever thread wins a non-blocking
+ * {@link ReentrantLock#tryLock()}; other threads carry on, so the cap may be overshot briefly.
+ * Fed by {@link MongoVoteService}; at startup the last hour is seeded from vote IDs (ObjectIds
+ * embed their creation time), so rankings survive a restart.
+ * <p>
+ * The seed is an approximation: it sees only the votes that still exist, one per user and post.
+ * A vote switched in place (as batches do) keeps its {@code _id}, so it is counted at its original
+ * creation time with its current direction, as a single vote rather than the +2/-2 of the switch;
+ * undone votes are gone and count for nothing.
+ */
+@Component
+@Slf4j
+public class VoteVelocityTracker {
+
+    /** Length of the ring, i.e. the longest window that can be queried. */
+    public static final int WINDOW_MINUTES = 60;
+
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxPosts;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, Ring> rings = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * Minute buckets of one post.
+     */
+    private static final class Ring {
+        final AtomicLongArray buckets = new AtomicLongArray(WINDOW_MINUTES);
+        volatile long lastMinute;
+    }
+
+    @Autowired
+    public VoteVelocityTracker(MongoTemplate mongoTemplate,
+                               @Value("${trending.velocity.max-posts:50000}") int maxPosts) {
+        this(mongoTemplate, maxPosts, Clock.systemUTC());
+    }
+
+    VoteVelocityTracker(MongoTemplate mongoTemplate, int maxPosts, Clock clock) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxPosts = Math.max(1, maxPosts);
+        this.clock = clock;
+    }
+
+    /**
+     * Seeds the last hour from the {@code votes} collection, streaming only the post reference and
+     * vote type of each vote.
+     */
+    @PostConstruct
+    void seed() {
+        try {
+            ObjectId since = ObjectId.getSmallestWithDate(new Date(clock.millis() - WINDOW_MINUTES * MINUTE_MILLIS));
+            Query query = new Query(Criteria.where("_id").gte(since));
+            query.fields().include("post").include("voteType");
+            AtomicInteger seeded = new AtomicInteger();
+            try (Stream<Document> votes = mongoTemplate.stream(query, Document.class, "votes")) {
+                votes.forEach(vote -> {
+                    DBRef post = vote.get("post", DBRef.class);
+                    if (post != null) {
+                        int direction = "DOWNVOTE".equals(vote.getString("voteType")) ? -1 : 1;
+                        record(post.getId().toString(), direction, vote.getObjectId("_id").getDate().getTime());
+                        seeded.incrementAndGet();
+                    }
+                });
+            }
+            log.info("📈 Vote velocity seeded with {} recent votes", seeded.get());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Could not seed vote velocity: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Records a net vote change on a post, now.
+     *
+     * @param postId The post.
+     * @param delta  The change in vote count (e.g. +1, -1, +2 for a switch).
+     */
+    public void record(String postId, int delta) {
+        record(postId, delta, clock.millis());
+    }
+
+    /**
+     * Records a net vote change on a post at the given time.
+     *
+     * @param postId      The post.
+     * @param delta       The change in vote count.
+     * @param epochMillis When the change happened.
+     */
+    public void record(String postId, int delta, long epochMillis) {
+        if (delta == 0) {
+            return;
+        }
+        long minute = epochMillis / MINUTE_MILLIS;
+        long now = clock.millis() / MINUTE_MILLIS;
+        if (minute <= now - WINDOW_MINUTES || minute > now) {
+            return;
+        }
+
+        Ring ring = rings.get(postId);
+        if (ring == null) {
+            if (rings.size() >= maxPosts) {
+                evictLeastRecent();
+            }
+            ring = rings.computeIfAbsent(postId, id -> new Ring());
+        }
+
+        int slot = (int) (minute % WINDOW_MINUTES);
+        while (true) {
+            long current = ring.buckets.get(slot);
+            int count = bucketMinute(current) == minute ? (int) current + delta : delta;
+            if (ring.buckets.compareAndSet(slot, current, pack(minute, count))) {
+                break;
+            }
+        }
+        if (minute > ring.lastMinute) {
+            ring.lastMinute = minute;
+        }
+    }
+
+    /**
+     * Returns the net votes a post received in the last {@code minutes} minutes
+     * (including the current, partial minute).
+     *
+     * @param postId  The post.
+     * @param minutes Window length, from 1 to {@value #WINDOW_MINUTES}.
+     * @return The net vote delta over the window.
+     */
+    public int votesInLast(String postId, int minutes) {
+        Ring ring = rings.get(postId);
+        return ring == null ? 0 : sum(ring, clock.millis() / MINUTE_MILLIS, minutes);
+    }
+
+    /**
+     * Combines the 5, 15 and 60 minute windows into one momentum score. The windows overlap,
+     * so a vote counts more the more recent it is.
+     *
+     * @param postId The post.
+     * @return The momentum score (0 if the post has no recent votes).
+     */
+    public int momentum(String postId) {
+        Ring ring = rings.get(postId);
+        if (ring == null) {
+            return 0;
+        }
+        long now = clock.millis() / MINUTE_MILLIS;
+        return 4 * sum(ring, now, 5) + 2 * sum(ring, now, 15) + sum(ring, now, WINDOW_MINUTES);
+    }
+
+    /**
+     * Returns the posts with the highest positive momentum, best first.
+     *
+     * @param limit Maximum number of posts.
+     * @return Post IDs.
+     */
+    public List<String> topByMomentum(int limit) {
+        PriorityQueue<Map.Entry<String, Integer>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (String postId : rings.keySet()) {
+            int score = momentum(postId);
+            if (score <= 0) {
+                continue;
+            }
+            heap.add(Map.entry(postId, score));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<String> top = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            top.add(heap.poll().getKey());
+        }
+        Collections.reverse(top);
+        return top;
+    }
+
+    /**
+     * Forgets a post, e.g. after it is deleted.
+     *
+     * @param postId The post.
+     */
+    public void forget(String postId) {
+        rings.remove(postId);
+    }
+
+    /**
+     * Returns the number of posts currently tracked.
+     *
+     * @return The tracked post count.
+     */
+    public int size() {
+        return rings.size();
+    }
+
+    /**
+     * Evicts the least recently voted tenth of the tracked posts. Only one thread evicts at a time;
+     * the others skip eviction rather than wait.
+     */
+    private void evictLeastRecent() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int toEvict = Math.max(1, rings.size() - maxPosts + maxPosts / 10);
+            PriorityQueue<Map.Entry<String, Ring>> oldest = new PriorityQueue<>(
+                    Comparator.comparingLong((Map.Entry<String, Ring> entry) -> entry.getValue().lastMinute).reversed());
+            for (Map.Entry<String, Ring> entry : rings.entrySet()) {
+                oldest.add(entry);
+                if (oldest.size() > toEvict) {
+                    oldest.poll();
+                }
+            }
+            oldest.forEach(entry -> rings.remove(entry.getKey(), entry.getValue()));
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static int sum(Ring ring, long now, int minutes) {
+        int total = 0;
+        for (int i = 0; i < Math.min(minutes, WINDOW_MINUTES); i++) {
+            long minute = now - i;
+            long bucket = ring.buckets.get((int) (minute % WINDOW_MINUTES));
+            if (bucketMinute(bucket) == minute) {
+                total += (int) bucket;
+            }
+        }
+        return total;
+    }
+
+    private static long pack(long minute, int count) {
+        return (minute << 32) | (count & 0xFFFFFFFFL);
+    }
+
+    private static long bucketMinute(long bucket) {
+        return bucket >>> 32;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.forest.config;
+
+import com.example.forest.Exceptions.QueryBudgetExceededException;
+import com.example.forest.controller.MongoPostController;
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.dto.CursorPage;
+import com.example.forest.mapper.MongoPostMapper;
+import com.example.forest.mapper.MongoPostMapperImpl;
+import com.example.forest.repository.mongodb.MongoCommentRepository;
+import com.example.forest.service.MongoPostService;
+import com.example.forest.service.PostListingService;
+import com.example.forest.service.SubredditDirectory;
+import com.example.forest.service.UsernameLookup;
+import com.example.forest.service.VoteStateService;
+import com.mongodb.DBRef;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.DbRefProxyHandler;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.DbRefResolverCallback;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.ReferenceLookupDelegate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs a subreddit listing through {@link QueryBudgetFilter} and {@link QueryBudget} in
+ * {@code fail} mode, with the budgets of {@code application.yml}. Mongo is mocked; every mocked
+ * call reports one command to the {@link QueryCounter}, as the driver would. Reading
+ * {@link MongoPostDocument}s goes through a real converter whose DBRef resolver also reports one
+ * {@code find} per resolved reference, as eager {@code @DBRef} resolution does.
+ */
+class QueryBudgetListingTest {
+
+    private static final ObjectId SUBREDDIT_ID = new ObjectId();
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MongoCommentRepository commentRepository = mock(MongoCommentRepository.class);
+    private final MongoPostService postService = mock(MongoPostService.class);
+    private final QueryCounter queryCounter = new QueryCounter();
+    private final List<Document> posts = new ArrayList<>();
+    private final Map<DBRef, Document> referenced = new HashMap<>();
+
+    private MappingMongoConverter converter;
+    private MongoPostMapper postMapper;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        for (PropertySource<?> source : new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))) {
+            environment.getPropertySources().addLast(source);
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "mongo.query-budget.mode", "fail",
+                "mongo.query-budget.headers", "true")));
+        QueryBudget queryBudget = new QueryBudget(environment);
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(new CountingDbRefResolver(), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        Document subreddit = new Document("_id", SUBREDDIT_ID).append("name", "gardening");
+        DBRef subredditRef = new DBRef("subreddits", SUBREDDIT_ID);
+        referenced.put(subredditRef, subreddit);
+        for (int i = 0; i < 26; i++) {
+            ObjectId userId = new ObjectId();
+            DBRef userRef = new DBRef("users", userId);
+            referenced.put(userRef, new Document("_id", userId).append("username", "user" + i));
+            posts.add(new Document("_id", new ObjectId())
+                    .append("postName", "Post " + i)
+                    .append("voteCount", 0)
+                    .append("createdDate", new Date())
+                    .append("user", userRef)
+                    .append("subreddit", subredditRef));
+        }
+
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("subreddits")))
+                .thenReturn(List.of(subreddit));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("posts"))).thenAnswer(invocation -> {
+            command("find", "posts");
+            return new ArrayList<>(posts);
+        });
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("users"))).thenAnswer(invocation -> {
+            command("find", "users");
+            return referenced.entrySet().stream()
+                    .filter(entry -> entry.getKey().getCollectionName().equals("users"))
+                    .map(Map.Entry::getValue)
+                    .toList();
+        });
+        when(mongoTemplate.find(any(Query.class), eq(MongoPostDocument.class))).thenAnswer(invocation -> {
+            command("find", "posts");
+            return posts.stream().map(post -> converter.read(MongoPostDocument.class, post)).toList();
+        });
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("comments"), eq(Document.class))).thenAnswer(invocation -> {
+            command("aggregate", "comments");
+            List<Document> counts = posts.stream()
+                    .map(post -> new Document("_id", new DBRef("posts", post.getObjectId("_id"))).append("count", 2))
+                    .toList();
+            return new AggregationResults<>(counts, new Document());
+        });
+
+        SubredditDirectory subredditDirectory = new SubredditDirectory(mongoTemplate, false);
+        subredditDirectory.refresh();
+        postMapper = new MongoPostMapperImpl();
+        ReflectionTestUtils.setField(postMapper, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(postMapper, "commentRepository", commentRepository);
+        ReflectionTestUtils.setField(postMapper, "usernameLookup", new UsernameLookup(mongoTemplate));
+        ReflectionTestUtils.setField(postMapper, "subredditDirectory", subredditDirectory);
+        VoteStateService voteStateService = new VoteStateService(mongoTemplate, true, 100, 100, Duration.ofMinutes(5));
+        PostListingService listingService = new PostListingService(
+                mongoTemplate, subredditDirectory, postMapper, voteStateService, Duration.ofDays(7));
+
+        when(postService.getPostsBySubreddit(anyString(), anyString(), anyString(), any(), anyInt()))
+                .thenAnswer(invocation -> listingService.listSubreddit(invocation.getArgument(0), invocation.getArgument(1),
+                        invocation.getArgument(2), invocation.getArgument(3), invocation.getArgument(4)));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new MongoPostController(postService))
+                .setControllerAdvice(queryBudget)
+                .addFilters(new QueryBudgetFilter(queryBudget))
+                .build();
+    }
+
+    @Test
+    void fullPageStaysWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/mongo/posts/subreddit-id/{subredditId}", SUBREDDIT_ID.toHexString())
+                        .param("sort", "new")
+                        .param("limit", "25"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryBudget.COUNT_HEADER, "3"))
+                .andExpect(jsonPath("$.items.length()").value(25))
+                .andExpect(jsonPath("$.items[0].userName").value("user0"))
+                .andExpect(jsonPath("$.items[0].subredditName").value("gardening"))
+                .andExpect(jsonPath("$.items[0].commentCount").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void perRowLookupsFailTheRequest() {
+        // The N+1 shape the raw reads replaced: each post resolves its author and subreddit DBRefs
+        doAnswer(invocation -> new CursorPage<>(
+                postMapper.mapToDtos(mongoTemplate.find(new Query(), MongoPostDocument.class)), null, false))
+                .when(postService).getPostsBySubreddit(anyString(), anyString(), anyString(), any(), anyInt());
+
+        assertThatThrownBy(() -> mockMvc.perform(get("/api/v1/mongo/posts/subreddit-id/{subredditId}", SUBREDDIT_ID.toHexString())
+                        .param("sort", "new")))
+                .hasRootCauseInstanceOf(QueryBudgetExceededException.class)
+                .rootCause()
+                .hasMessageContaining("issued 54 Mongo commands (budget 8")
+                .hasMessageContaining("\" x 26");
+    }
+
+    /**
+     * Reports a command on the calling thread, like the driver's command listener.
+     */
+    private void command(String name, String collection) {
+        queryCounter.commandStarted(new CommandStartedEvent(null, 1, 1, CONNECTION, "forest", name,
+                new BsonDocument(name, new BsonString(collection))));
+    }
+
+    /**
+     * Resolves DBRefs eagerly from the test data, reporting one {@code find} per reference.
+     */
+    private final class CountingDbRefResolver implements DbRefResolver {
+
+        @Override
+        public Object resolveDbRef(MongoPersistentProperty property, DBRef dbref,
+                                   DbRefResolverCallback callback, DbRefProxyHandler proxyHandler) {
+            return callback.resolve(property);
+        }
+
+        @Override
+        public Document fetch(DBRef dbRef) {
+            command("find", dbRef.getCollectionName());
+            return referenced.get(dbRef);
+        }
+
+        @Override
+        public List<Document> bulkFetch(List<DBRef> dbRefs) {
+            return dbRefs.stream().map(this::fetch).toList();
+        }
+
+        @Override
+        public Object resolveReference(MongoPersistentProperty property, Object source,
+                                       ReferenceLookupDelegate referenceLookupDelegate, MongoEntityReader entityReader) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.forest.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    @Test
+    void allowsBurstThenWaitsOneInterval() {
+        TokenBuckets buckets = new TokenBuckets(3, 1, 100, 60 * SECOND, ticker);
+
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("a")).isZero();
+
+        assertThat(buckets.tryAcquire("a")).isEqualTo(SECOND);
+        ticker.advance(SECOND / 4);
+        assertThat(buckets.tryAcquire("a")).isEqualTo(3 * SECOND / 4);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBuckets buckets = new TokenBuckets(2, 2, 100, 60 * SECOND, ticker);
+        buckets.tryAcquire("a");
+        buckets.tryAcquire("a");
+
+        ticker.advance(SECOND / 2);
+
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        TokenBuckets buckets = new TokenBuckets(2, 1, 100, 60 * SECOND, ticker);
+        buckets.tryAcquire("a");
+
+        ticker.advance(3600 * SECOND);
+
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 100, 60 * SECOND, ticker);
+
+        assertThat(buckets.tryAcquire("a")).isZero();
+        assertThat(buckets.tryAcquire("a")).isPositive();
+        assertThat(buckets.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void evictIdleDropsOnlyBucketsFullForLongerThanTheTimeout() {
+        TokenBuckets buckets = new TokenBuckets(1, 1, 100, 10 * SECOND, ticker);
+        buckets.tryAcquire("old");
+        ticker.advance(5 * SECOND);
+        buckets.tryAcquire("recent");
+
+        ticker.advance(7 * SECOND);
+
+        assertThat(buckets.evictIdle()).isEqualTo(1);
+        assertThat(buckets.size()).isEqualTo(1);
+    }
+
+    @Test
+    void staysWithinMaxKeys() {
+        TokenBuckets buckets = new TokenBuckets(5, 1, 1_000, 60 * SECOND, ticker);
+
+        for (int i = 0; i < 20_000; i++) {
+            buckets.tryAcquire("client-" + i);
+        }
+
+        assertThat(buckets.size()).isLessThanOrEqualTo(1_024);
+    }
+
+    @Test
+    void fullStripeEvictsBucketsClosestToFullBeforeDrainedOnes() {
+        // 16 keys fit in a single stripe, which evicts two at a time
+        TokenBuckets buckets = new TokenBuckets(5, 1, 16, 60 * SECOND, ticker);
+        for (int i = 0; i < 5; i++) {
+            buckets.tryAcquire("drained");
+        }
+        for (int i = 0; i < 15; i++) {
+            buckets.tryAcquire("light-" + i);
+        }
+
+        buckets.tryAcquire("newcomer");
+
+        assertThat(buckets.size()).isEqualTo(15);
+        // Eviction must not hand a limited client a fresh bucket
+        assertThat(buckets.tryAcquire("drained")).isPositive();
+    }
+
+    @Test
+    void fullStripeEvictsIdleBucketsFirst() {
+        TokenBuckets buckets = new TokenBuckets(5, 1, 16, 10 * SECOND, ticker);
+        for (int i = 0; i < 4; i++) {
+            buckets.tryAcquire("idle-" + i);
+        }
+        ticker.advance(20 * SECOND);
+        for (int i = 0; i < 12; i++) {
+            buckets.tryAcquire("active-" + i);
+        }
+
+        buckets.tryAcquire("newcomer");
+
+        // All four idle buckets go in one scan, more than the batch of two
+        assertThat(buckets.size()).isEqualTo(13);
+    }
+
+    private static final class FakeTicker implements LongSupplier {
+        private long nanos = 1_000 * SECOND;
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+
+        @Override
+        public long getAsLong() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.forest.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private static final int TITLE_WEIGHT = 3;
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void ranksTitleMatchesAboveBodyMatches() {
+        add("body", "r1", 10, "Gardening notes", "Tomato seedlings need light");
+        add("title", "r1", 20, "Tomato seedlings", "Notes from this spring");
+
+        InvertedIndex.Result result = search("tomato");
+
+        assertThat(keys(result)).containsExactly("title", "body");
+        assertThat(result.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void filtersByGroupTimeAndExcludedGroups() {
+        add("a", "r1", 100, "Rust borrow checker", "");
+        add("b", "r2", 200, "Rust lifetimes", "");
+        add("c", "r3", 300, "Rust async", "");
+
+        assertThat(keys(index.search(terms("rust"), "r2", Long.MIN_VALUE, Long.MAX_VALUE, 0, 10)))
+                .containsExactly("b");
+        assertThat(keys(index.search(terms("rust"), null, 150, 300, 0, 10)))
+                .containsExactly("b");
+        assertThat(keys(index.search(terms("rust"), null, Set.of("r1", "r3"), Long.MIN_VALUE, Long.MAX_VALUE, 0, 10)))
+                .containsExactly("b");
+        assertThat(index.search(terms("rust"), "unknown", Long.MIN_VALUE, Long.MAX_VALUE, 0, 10).totalHits())
+                .isZero();
+    }
+
+    @Test
+    void pagesThroughRankedHits() {
+        for (int i = 0; i < 5; i++) {
+            add("p" + i, "r1", i, "kotlin " + "coroutines ".repeat(i), "");
+        }
+
+        List<String> query = terms("kotlin coroutines");
+        List<String> all = keys(index.search(query, null, Long.MIN_VALUE, Long.MAX_VALUE, 0, 5));
+        InvertedIndex.Result first = index.search(query, null, Long.MIN_VALUE, Long.MAX_VALUE, 0, 2);
+        InvertedIndex.Result second = index.search(query, null, Long.MIN_VALUE, Long.MAX_VALUE, 2, 2);
+
+        assertThat(all).hasSize(5).last().isEqualTo("p0");
+        assertThat(keys(first)).containsExactlyElementsOf(all.subList(0, 2));
+        assertThat(keys(second)).containsExactlyElementsOf(all.subList(2, 4));
+        assertThat(first.totalHits()).isEqualTo(5);
+    }
+
+    @Test
+    void upsertReplacesPreviousContent() {
+        add("post", "r1", 1, "Old title", "");
+        add("post", "r1", 1, "New heading", "");
+
+        assertThat(search("old").hits()).isEmpty();
+        assertThat(keys(search("heading"))).containsExactly("post");
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.tombstoneRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void identicalUpsertIsNoOp() {
+        add("post", "r1", 1, "Same title", "same body");
+        add("post", "r1", 1, "Same title", "same body");
+
+        assertThat(index.tombstoneRatio()).isZero();
+    }
+
+    @Test
+    void upsertReplacesContentWithCollidingHashCode() {
+        // "Aa" and "BB" share a String hash code, so both term maps hash alike
+        index.upsert("post", "r1", 1, Map.of("Aa", 1));
+        index.upsert("post", "r1", 1, Map.of("BB", 1));
+
+        assertThat(index.search(List.of("Aa"), null, Long.MIN_VALUE, Long.MAX_VALUE, 0, 10).hits()).isEmpty();
+        assertThat(keys(index.search(List.of("BB"), null, Long.MIN_VALUE, Long.MAX_VALUE, 0, 10))).containsExactly("post");
+    }
+
+    @Test
+    void upsertWithChangedGroupOrTimestampReplacesDocument() {
+        add("post", "r1", 1, "Same title", "");
+        add("post", "r2", 1, "Same title", "");
+        add("post", "r2", 2, "Same title", "");
+
+        assertThat(keys(index.search(terms("title"), "r2", 2, 3, 0, 10))).containsExactly("post");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeHidesDocument() {
+        add("keep", "r1", 1, "Jazz records", "");
+        add("drop", "r1", 2, "Jazz concerts", "");
+
+        index.remove("drop");
+        index.remove("missing");
+
+        assertThat(keys(search("jazz"))).containsExactly("keep");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void emptyQueryMatchesNothing() {
+        add("post", "r1", 1, "Anything", "");
+
+        assertThat(index.search(List.of(), null, Long.MIN_VALUE, Long.MAX_VALUE, 0, 10).hits()).isEmpty();
+    }
+
+    private void add(String key, String group, long timestamp, String title, String body) {
+        index.upsert(key, group, timestamp, TextAnalyzer.termFrequencies(title, body, TITLE_WEIGHT));
+    }
+
+    private InvertedIndex.Result search(String query) {
+        return index.search(terms(query), null, Long.MIN_VALUE, Long.MAX_VALUE, 0, 10);
+    }
+
+    private static List<String> terms(String query) {
+        return TextAnalyzer.tokenize(query);
+    }
+
+    private static List<String> keys(InvertedIndex.Result result) {
+        return result.hits().stream().map(InvertedIndex.Hit::key).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.forest.search;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchIndexMaintainerTest {
+
+    @Test
+    void rebuildIndexesCollectionAndBecomesReady() {
+        FakeMaintainer maintainer = new FakeMaintainer();
+        maintainer.store("a", "Pasta recipes");
+        maintainer.store("b", "Bread recipes");
+
+        assertThat(maintainer.isReady()).isFalse();
+        maintainer.rebuild();
+
+        assertThat(maintainer.isReady()).isTrue();
+        assertThat(maintainer.search("recipes")).containsExactlyInAnyOrder("a", "b");
+    }
+
+    @Test
+    void incrementalUpdatesApplyToLiveIndex() {
+        FakeMaintainer maintainer = new FakeMaintainer();
+        maintainer.store("a", "Pasta recipes");
+        maintainer.rebuild();
+
+        maintainer.upsert("b", "Soup recipes");
+        maintainer.remove("a");
+
+        assertThat(maintainer.search("recipes")).containsExactly("b");
+    }
+
+    @Test
+    void updatesDuringRebuildAreReplayedOntoFreshIndex() throws Exception {
+        FakeMaintainer maintainer = new FakeMaintainer();
+        maintainer.store("old", "Chess openings");
+        maintainer.store("gone", "Chess endgames");
+        maintainer.rebuild();
+
+        maintainer.blockNextBuild();
+        Thread rebuild = new Thread(maintainer::rebuild);
+        rebuild.start();
+        assertThat(maintainer.buildStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The build has already read "gone" and will never see "new"
+        maintainer.upsert("new", "Chess puzzles");
+        maintainer.remove("gone");
+        assertThat(maintainer.search("chess")).containsExactlyInAnyOrder("old", "new");
+
+        maintainer.releaseBuild.countDown();
+        rebuild.join(5_000);
+
+        assertThat(maintainer.search("chess")).containsExactlyInAnyOrder("old", "new");
+    }
+
+    @Test
+    void maintainRebuildsWithoutChangeStream() {
+        FakeMaintainer maintainer = new FakeMaintainer();
+        maintainer.store("a", "Cycling routes");
+
+        maintainer.maintain();
+        maintainer.maintain();
+
+        assertThat(maintainer.builds.get()).isEqualTo(2);
+        assertThat(maintainer.search("cycling")).containsExactly("a");
+    }
+
+    /**
+     * Indexes an in-memory "collection"; never touches MongoDB.
+     */
+    private static final class FakeMaintainer extends SearchIndexMaintainer {
+
+        private final Map<String, String> collection = new ConcurrentHashMap<>();
+        private final AtomicInteger builds = new AtomicInteger();
+        private volatile CountDownLatch buildStarted = new CountDownLatch(0);
+        private volatile CountDownLatch releaseBuild = new CountDownLatch(0);
+
+        FakeMaintainer() {
+            super(null, "test", "test", false, 0.3);
+        }
+
+        void store(String key, String text) {
+            collection.put(key, text);
+        }
+
+        void upsert(String key, String text) {
+            apply(target -> index(target, key, text));
+        }
+
+        void blockNextBuild() {
+            buildStarted = new CountDownLatch(1);
+            releaseBuild = new CountDownLatch(1);
+        }
+
+        List<String> search(String query) {
+            return rank(TextAnalyzer.tokenize(query), null, Set.of(), Long.MIN_VALUE, Long.MAX_VALUE, 0, 10)
+                    .hits().stream().map(InvertedIndex.Hit::key).toList();
+        }
+
+        @Override
+        protected void indexAll(InvertedIndex target) {
+            builds.incrementAndGet();
+            collection.forEach((key, text) -> index(target, key, text));
+            buildStarted.countDown();
+            try {
+                releaseBuild.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        protected List<Bson> changeStreamPipeline() {
+            return List.of();
+        }
+
+        @Override
+        protected void onChange(Document fullDocument) {
+        }
+
+        private static void index(InvertedIndex target, String key, String text) {
+            target.upsert(key, null, 0L, TextAnalyzer.termFrequencies(text, null, 1));
+        }
+    }
+}
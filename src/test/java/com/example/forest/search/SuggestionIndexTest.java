@@ -0,0 +1,86 @@
+package com.example.forest.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    @Test
+    void completesPrefixHeaviestFirst() {
+        SuggestionIndex index = new SuggestionIndex(12, 32);
+        index.add("a", "Learning Java", 5);
+        index.add("b", "Java streams explained", 50);
+        index.add("c", "Python tips", 100);
+
+        assertThat(keys(index.suggest("ja", List.of(), 10))).containsExactly("b", "a");
+        assertThat(keys(index.suggest("ja", List.of(), 1))).containsExactly("b");
+    }
+
+    @Test
+    void requiresEarlierWordsAsPrefixes() {
+        SuggestionIndex index = new SuggestionIndex(12, 32);
+        index.add("a", "Lord of the Rings", 10);
+        index.add("b", "Rings of Saturn", 20);
+
+        assertThat(keys(index.suggest("ri", List.of("lord"), 10))).containsExactly("a");
+        assertThat(keys(index.suggest("ri", List.of(), 10))).containsExactly("b", "a");
+    }
+
+    @Test
+    void checksWordsLongerThanIndexedPrefixes() {
+        SuggestionIndex index = new SuggestionIndex(4, 32);
+        index.add("a", "Concurrency", 1);
+        index.add("b", "Concert tickets", 2);
+
+        assertThat(keys(index.suggest("concur", List.of(), 10))).containsExactly("a");
+    }
+
+    @Test
+    void replacingAnEntryMovesItsPrefixes() {
+        SuggestionIndex index = new SuggestionIndex(12, 32);
+        index.add("a", "Old title", 1);
+        index.add("a", "New heading", 1);
+
+        assertThat(index.suggest("ol", List.of(), 10)).isEmpty();
+        assertThat(keys(index.suggest("he", List.of(), 10))).containsExactly("a");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeDropsEntry() {
+        SuggestionIndex index = new SuggestionIndex(12, 32);
+        index.add("a", "Gardening", 1);
+
+        index.remove("a");
+
+        assertThat(index.suggest("ga", List.of(), 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void forgetsEntriesPushedOutOfEveryPrefixList() {
+        SuggestionIndex index = new SuggestionIndex(12, 2);
+        index.add("light", "Zz", 1);
+        index.add("mid", "Zz", 2);
+        index.add("heavy", "Zz", 3);
+
+        assertThat(keys(index.suggest("z", List.of(), 10))).containsExactly("heavy", "mid");
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void stopWordsAreNotIndexed() {
+        SuggestionIndex index = new SuggestionIndex(12, 32);
+        index.add("a", "The Hobbit", 1);
+
+        assertThat(index.suggest("the", List.of(), 10)).isEmpty();
+        assertThat(keys(index.suggest("hob", List.of(), 10))).containsExactly("a");
+    }
+
+    private static List<String> keys(List<SuggestionIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionIndex.Suggestion::key).toList();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.forest.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextAnalyzerTest {
+
+    @Test
+    void tokenizeStripsMarkupFoldsAccentsAndDropsStopWords() {
+        assertThat(TextAnalyzer.tokenize("<p>The Café &amp; the <b>Crème Brûlée</b></p>"))
+                .containsExactly("cafe", "creme", "brulee");
+    }
+
+    @Test
+    void tokenizeDropsSingleCharactersAndOverlongTokens() {
+        assertThat(TextAnalyzer.tokenize("a b go " + "x".repeat(41)))
+                .containsExactly("go");
+    }
+
+    @Test
+    void wordsKeepsStopWordsAndSingleLetters() {
+        assertThat(TextAnalyzer.words("Lord of the R")).containsExactly("lord", "of", "the", "r");
+        assertThat(TextAnalyzer.words("   ")).isEmpty();
+        assertThat(TextAnalyzer.words(null)).isEmpty();
+    }
+
+    @Test
+    void termFrequenciesBoostTitle() {
+        assertThat(TextAnalyzer.termFrequencies("Spring Boot", "boot camp boot", 3))
+                .containsEntry("spring", 3)
+                .containsEntry("boot", 5)
+                .containsEntry("camp", 1);
+    }
+
+    @Test
+    void snippetCentresOnFirstHitAndMarksCuts() {
+        String text = "Lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor "
+                + "incididunt ut labore et dolore magna aliqua";
+
+        String snippet = TextAnalyzer.snippet(text, List.of("labore"), 30);
+
+        assertThat(snippet).contains("labore").startsWith("…").endsWith("…");
+        assertThat(snippet.replace("…", "")).hasSizeLessThanOrEqualTo(30);
+        assertThat(TextAnalyzer.snippet("<i>short</i>", List.of(), 30)).isEqualTo("short");
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.forest.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HotScoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+    @Test
+    void tenfoldVotesAreWorthTwelveAndAHalfHours() {
+        double tenVotes = HotScore.of(10, NOW);
+        double hundredVotes = HotScore.of(100, NOW);
+        double tenVotesLater = HotScore.of(10, NOW.plus(Duration.ofSeconds(45_000)));
+
+        assertThat(hundredVotes - tenVotes).isCloseTo(1.0, within(1e-9));
+        assertThat(tenVotesLater).isCloseTo(hundredVotes, within(1e-9));
+    }
+
+    @Test
+    void newerPostsWinAtEqualVotes() {
+        assertThat(HotScore.of(5, NOW.plusSeconds(1))).isGreaterThan(HotScore.of(5, NOW));
+    }
+
+    @Test
+    void downvotedPostsRankBelowUnvotedOnes() {
+        assertThat(HotScore.of(-10, NOW)).isLessThan(HotScore.of(0, NOW));
+        assertThat(HotScore.of(0, NOW)).isEqualTo(HotScore.of(1, NOW));
+    }
+
+    @Test
+    void missingValuesCountAsZero() {
+        assertThat(HotScore.of(null, NOW)).isEqualTo(HotScore.of(0, NOW));
+        assertThat(HotScore.of(3, null)).isFinite();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.forest.service;
+
+import com.example.forest.Exceptions.CustomException;
+import com.example.forest.document.MongoPostDocument;
+import com.example.forest.service.PostListingService.Cursor;
+import com.example.forest.service.PostListingService.SortMode;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PostListingCursorTest {
+
+    private static final String ID = "65f1c2a9e4b0a1b2c3d4e5f6";
+
+    @ParameterizedTest
+    @EnumSource(SortMode.class)
+    void cursorRoundTrips(SortMode mode) {
+        MongoPostDocument post = new MongoPostDocument();
+        post.setId(ID);
+        post.setHotScore(12345.678);
+        post.setCreatedDate(Instant.parse("2025-06-01T12:00:00.123Z"));
+        post.setVoteCount(-7);
+
+        Cursor cursor = Cursor.of(mode, post);
+        Cursor parsed = Cursor.parse(mode, cursor.toString());
+
+        assertThat(parsed).isEqualTo(cursor);
+        assertThat(parsed.id()).isEqualTo(new ObjectId(ID));
+    }
+
+    @Test
+    void cursorFormatIsKeyThenId() {
+        MongoPostDocument post = new MongoPostDocument();
+        post.setId(ID);
+        post.setCreatedDate(Instant.ofEpochMilli(1_700_000_000_000L));
+        post.setVoteCount(42);
+
+        assertThat(Cursor.of(SortMode.NEW, post).toString()).isEqualTo("1700000000000_" + ID);
+        assertThat(Cursor.of(SortMode.TOP, post).toString()).isEqualTo("42_" + ID);
+    }
+
+    @Test
+    void missingKeysDefaultToZero() {
+        MongoPostDocument post = new MongoPostDocument();
+        post.setId(ID);
+        post.setVoteCount(null);
+
+        assertThat(Cursor.of(SortMode.TOP, post).key()).isEqualTo(0);
+        assertThat(Cursor.of(SortMode.HOT, post).key()).isEqualTo(0d);
+        assertThat(Cursor.of(SortMode.NEW, post).key()).isEqualTo(Instant.EPOCH);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "42", "42_", "42_not-an-id", "abc_" + ID, "_" + ID})
+    void malformedCursorsAreRejected(String cursor) {
+        assertThatThrownBy(() -> Cursor.parse(SortMode.TOP, cursor)).isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    void isAfterFollowsDescendingVotesThenIds() {
+        Cursor last = new Cursor(10, new ObjectId("65f1c2a9e4b0a1b2c3d4e5f6"));
+
+        assertThat(new Cursor(9, new ObjectId("75f1c2a9e4b0a1b2c3d4e5f6")).isAfter(last)).isTrue();
+        assertThat(new Cursor(10, new ObjectId("55f1c2a9e4b0a1b2c3d4e5f6")).isAfter(last)).isTrue();
+        assertThat(new Cursor(10, new ObjectId("75f1c2a9e4b0a1b2c3d4e5f6")).isAfter(last)).isFalse();
+        assertThat(new Cursor(11, new ObjectId("55f1c2a9e4b0a1b2c3d4e5f6")).isAfter(last)).isFalse();
+        assertThat(last.isAfter(last)).isFalse();
+    }
+}
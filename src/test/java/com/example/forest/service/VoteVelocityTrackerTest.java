@@ -0,0 +1,123 @@
+package com.example.forest.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoteVelocityTrackerTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final MutableClock clock = new MutableClock(1_000_000 * MINUTE);
+    private final VoteVelocityTracker tracker = new VoteVelocityTracker(null, 100, clock);
+
+    @Test
+    void sumsVotesOverWindows() {
+        tracker.record("p", 1);
+        tracker.record("p", 1);
+        clock.advanceMinutes(10);
+        tracker.record("p", -1);
+
+        assertThat(tracker.votesInLast("p", 5)).isEqualTo(-1);
+        assertThat(tracker.votesInLast("p", 15)).isEqualTo(1);
+        assertThat(tracker.votesInLast("other", 60)).isZero();
+    }
+
+    @Test
+    void momentumWeighsRecentVotesMore() {
+        tracker.record("old", 3, clock.millis() - 30 * MINUTE);
+        tracker.record("new", 3);
+
+        assertThat(tracker.momentum("old")).isEqualTo(3);
+        assertThat(tracker.momentum("new")).isEqualTo(21);
+        assertThat(tracker.topByMomentum(10)).containsExactly("new", "old");
+        assertThat(tracker.topByMomentum(1)).containsExactly("new");
+    }
+
+    @Test
+    void ignoresVotesOutsideTheRing() {
+        tracker.record("p", 5, clock.millis() - 60 * MINUTE);
+        tracker.record("p", 5, clock.millis() + MINUTE);
+
+        assertThat(tracker.votesInLast("p", 60)).isZero();
+    }
+
+    @Test
+    void bucketRollsOverAfterAnHour() {
+        tracker.record("p", 4);
+        clock.advanceMinutes(60);
+
+        // Same slot, next hour: the stale count is neither read nor carried over
+        assertThat(tracker.votesInLast("p", 60)).isZero();
+        tracker.record("p", 1);
+        assertThat(tracker.votesInLast("p", 60)).isEqualTo(1);
+    }
+
+    @Test
+    void negativeMomentumIsNotTrending() {
+        tracker.record("p", -2);
+
+        assertThat(tracker.topByMomentum(10)).isEmpty();
+    }
+
+    @Test
+    void evictsLeastRecentlyVotedPostsAtCapacity() {
+        VoteVelocityTracker small = new VoteVelocityTracker(null, 10, clock);
+        small.record("stale", 1, clock.millis() - 30 * MINUTE);
+        for (int i = 0; i < 9; i++) {
+            small.record("p" + i, 1);
+        }
+
+        small.record("fresh", 1);
+
+        assertThat(small.size()).isLessThanOrEqualTo(10);
+        assertThat(small.votesInLast("stale", 60)).isZero();
+        assertThat(small.votesInLast("fresh", 60)).isEqualTo(1);
+    }
+
+    @Test
+    void forgetDropsPost() {
+        tracker.record("p", 1);
+
+        tracker.forget("p");
+
+        assertThat(tracker.size()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void advanceMinutes(int minutes) {
+            millis += minutes * MINUTE;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}